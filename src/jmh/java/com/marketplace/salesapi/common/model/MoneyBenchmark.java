@@ -0,0 +1,103 @@
+package com.marketplace.salesapi.common.model;
+
+import com.marketplace.salesapi.order.model.Order;
+import com.marketplace.salesapi.order.model.OrderItem;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Money against the BigDecimal arithmetic it replaced, on the checkout path (line
+ * subtotals and order totals) and on an analytics reduction (revenue and average order
+ * value over a day of orders). Run with the gc profiler to compare allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    private static final BigDecimal SHIPPING = new BigDecimal("15.00");
+
+    @Param({"5"})
+    private int itemsPerOrder;
+
+    @Param({"10000"})
+    private int ordersPerDay;
+
+    private BigDecimal[] unitPrices;
+    private int[] quantities;
+    private BigDecimal[] orderTotals;
+    private long[] orderTotalCents;
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+
+        unitPrices = new BigDecimal[itemsPerOrder];
+        quantities = new int[itemsPerOrder];
+        order = new Order();
+        order.setShippingCost(Money.of(SHIPPING));
+        for (int i = 0; i < itemsPerOrder; i++) {
+            unitPrices[i] = BigDecimal.valueOf(100 + random.nextInt(50_000), 2);
+            quantities[i] = 1 + random.nextInt(5);
+
+            OrderItem item = new OrderItem();
+            item.setUnitPrice(Money.of(unitPrices[i]));
+            item.setQuantity(quantities[i]);
+            order.getItems().add(item);
+        }
+
+        orderTotals = new BigDecimal[ordersPerDay];
+        orderTotalCents = new long[ordersPerDay];
+        for (int i = 0; i < ordersPerDay; i++) {
+            orderTotals[i] = BigDecimal.valueOf(1_500 + random.nextInt(200_000), 2);
+            orderTotalCents[i] = orderTotals[i].unscaledValue().longValue();
+        }
+    }
+
+    @Benchmark
+    public BigDecimal checkoutBigDecimal() {
+        List<BigDecimal> subtotals = new ArrayList<>(itemsPerOrder);
+        for (int i = 0; i < itemsPerOrder; i++) {
+            subtotals.add(unitPrices[i].multiply(BigDecimal.valueOf(quantities[i])).subtract(BigDecimal.ZERO));
+        }
+        BigDecimal subtotal = subtotals.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+        return subtotal.add(SHIPPING).add(BigDecimal.ZERO).subtract(BigDecimal.ZERO);
+    }
+
+    @Benchmark
+    public Money checkoutMoney() {
+        for (OrderItem item : order.getItems()) {
+            item.setSubtotal(item.getUnitPrice().times(item.getQuantity()).minus(item.getDiscount()));
+        }
+        order.recalculateOrderTotals();
+        return order.getTotal();
+    }
+
+    @Benchmark
+    public BigDecimal analyticsBigDecimal() {
+        BigDecimal revenue = BigDecimal.ZERO;
+        for (BigDecimal total : orderTotals) {
+            revenue = revenue.add(total);
+        }
+        return revenue.divide(BigDecimal.valueOf(orderTotals.length), 2, RoundingMode.HALF_UP);
+    }
+
+    @Benchmark
+    public Money analyticsMoney() {
+        Money revenue = Money.ZERO;
+        for (long cents : orderTotalCents) {
+            revenue = revenue.plus(Money.ofCents(cents));
+        }
+        return revenue.dividedBy(orderTotalCents.length);
+    }
+}
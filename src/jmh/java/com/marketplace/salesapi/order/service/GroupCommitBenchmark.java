@@ -0,0 +1,126 @@
+package com.marketplace.salesapi.order.service;
+
+import com.marketplace.salesapi.SalesApiApplication;
+import com.marketplace.salesapi.common.model.Money;
+import com.marketplace.salesapi.order.dto.CreateOrderItemRequest;
+import com.marketplace.salesapi.order.dto.CreateOrderRequest;
+import com.marketplace.salesapi.order.dto.OrderDto;
+import com.marketplace.salesapi.order.dto.ShippingInfoRequest;
+import com.marketplace.salesapi.order.model.PaymentMethod;
+import com.marketplace.salesapi.product.model.Product;
+import com.marketplace.salesapi.product.model.ProductStatus;
+import com.marketplace.salesapi.product.repository.ProductRepository;
+import com.marketplace.salesapi.store.model.Store;
+import com.marketplace.salesapi.store.model.StoreStatus;
+import com.marketplace.salesapi.store.repository.StoreRepository;
+import com.marketplace.salesapi.user.model.User;
+import com.marketplace.salesapi.user.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrent 3-line checkouts through GroupCommitCoordinator and the real OrderService
+ * (entities, stock reservation, rollup and sketch listeners, outbox, journal and order
+ * document), with group commit off (one transaction per order) and on, against the
+ * application booted on a file-backed H2. Sample time mode reports the p99 latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(32)
+@Fork(1)
+public class GroupCommitBenchmark {
+
+    private static final int LINES = 3;
+
+    @Param({"false", "true"})
+    private boolean groupCommit;
+
+    private ConfigurableApplicationContext context;
+    private GroupCommitCoordinator coordinator;
+    private CreateOrderRequest request;
+    private Long userId;
+
+    @Setup
+    public void setUp() throws Exception {
+        Path directory = Files.createTempDirectory("group-commit");
+        context = new SpringApplicationBuilder(SalesApiApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.main.allow-bean-definition-overriding=true",
+                        "spring.datasource.url=jdbc:h2:file:" + directory.resolve("orders"),
+                        "spring.datasource.hikari.maximum-pool-size=16",
+                        "spring.jpa.show-sql=false",
+                        "spring.devtools.restart.enabled=false",
+                        "logging.level.root=WARN",
+                        "app.order-group-commit.enabled=" + groupCommit)
+                .run();
+        coordinator = context.getBean(GroupCommitCoordinator.class);
+
+        User user = new User();
+        user.setName("Benchmark");
+        user.setEmail("benchmark@example.com");
+        user.setPassword("password");
+        user = context.getBean(UserRepository.class).save(user);
+        userId = user.getId();
+
+        Store store = new Store();
+        store.setName("Benchmark Store");
+        store.setStatus(StoreStatus.ACTIVE);
+        store.setOwner(user);
+        store = context.getBean(StoreRepository.class).save(store);
+
+        List<CreateOrderItemRequest> items = new ArrayList<>();
+        for (int line = 1; line <= LINES; line++) {
+            Product product = new Product();
+            product.setName("Product " + line);
+            product.setSku("BENCH-" + line);
+            product.setPrice(Money.of("19.90"));
+            // Never runs out, so every checkout succeeds
+            product.setStockQuantity(1_000_000_000);
+            product.setStatus(ProductStatus.ACTIVE);
+            product.setStore(store);
+            product = context.getBean(ProductRepository.class).save(product);
+
+            CreateOrderItemRequest item = new CreateOrderItemRequest();
+            item.setProductId(product.getId());
+            item.setQuantity(1);
+            items.add(item);
+        }
+
+        ShippingInfoRequest shippingInfo = new ShippingInfoRequest();
+        shippingInfo.setRecipientName("Benchmark");
+        shippingInfo.setStreet("Rua Augusta");
+        shippingInfo.setNumber("100");
+        shippingInfo.setNeighborhood("Consolação");
+        shippingInfo.setCity("São Paulo");
+        shippingInfo.setState("SP");
+        shippingInfo.setZipCode("01304-000");
+        shippingInfo.setCountry("Brasil");
+        shippingInfo.setPhoneNumber("11999999999");
+        shippingInfo.setShippingMethod("Entrega Padrão");
+        request = new CreateOrderRequest();
+        request.setItems(items);
+        request.setShippingInfo(shippingInfo);
+        request.setPaymentMethod(PaymentMethod.CREDIT_CARD);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public OrderDto checkout() {
+        return coordinator.createOrder(request, userId);
+    }
+}
@@ -0,0 +1,105 @@
+package com.marketplace.salesapi.product.inventory;
+
+import com.marketplace.salesapi.product.model.Product;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stock reservations from concurrent checkouts: InventoryLedger (CAS on an in-memory
+ * counter, written behind every 500 ms as the app does) against the row-lock baseline
+ * of one conditional UPDATE per line in its own transaction, on an in-memory H2.
+ * products=1 is a flash sale on a single SKU, products=64 spreads the same load.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class InventoryReservationBenchmark {
+
+    private static final int STOCK = 1_000_000_000;
+
+    @Param({"1", "64"})
+    private int products;
+
+    private HikariDataSource dataSource;
+    private InventoryLedger ledger;
+    private Map<Product, Integer>[] lines;
+    private ScheduledExecutorService writeBehind;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() throws SQLException {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:inventory;DB_CLOSE_DELAY=-1");
+        dataSource.setMaximumPoolSize(16);
+        try (Connection connection = dataSource.getConnection()) {
+            connection.createStatement().execute("DROP TABLE IF EXISTS products");
+            connection.createStatement().execute(
+                    "CREATE TABLE products (id BIGINT PRIMARY KEY, stock_quantity INTEGER NOT NULL)");
+            for (long id = 1; id <= products; id++) {
+                connection.createStatement().execute("INSERT INTO products VALUES (" + id + ", " + STOCK + ")");
+            }
+        }
+
+        ledger = new InventoryLedger();
+        ReflectionTestUtils.setField(ledger, "jdbcTemplate", new JdbcTemplate(dataSource));
+        ReflectionTestUtils.setField(ledger, "transactionManager", new DataSourceTransactionManager(dataSource));
+        lines = new Map[products];
+        for (int i = 0; i < products; i++) {
+            Product product = new Product();
+            product.setId(i + 1L);
+            product.setStockQuantity(STOCK);
+            Map<Product, Integer> line = new HashMap<>();
+            line.put(product, 1);
+            lines[i] = line;
+        }
+        writeBehind = Executors.newSingleThreadScheduledExecutor();
+        writeBehind.scheduleWithFixedDelay(ledger::flush, 500, 500, TimeUnit.MILLISECONDS);
+    }
+
+    @TearDown
+    public void tearDown() {
+        writeBehind.shutdownNow();
+        ledger.flush();
+        dataSource.close();
+    }
+
+    @Benchmark
+    public void ledger() {
+        ledger.reserve(lines[ThreadLocalRandom.current().nextInt(products)]);
+    }
+
+    @Benchmark
+    public int rowLock() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement update = connection.prepareStatement(
+                    "UPDATE products SET stock_quantity = stock_quantity - ? WHERE id = ? AND stock_quantity >= ?")) {
+                update.setInt(1, 1);
+                update.setLong(2, 1 + ThreadLocalRandom.current().nextInt(products));
+                update.setInt(3, 1);
+                int updated = update.executeUpdate();
+                connection.commit();
+                return updated;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.marketplace.salesapi.common.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded in-memory cache with W-TinyLFU eviction and expiry after write. New entries go
+ * into a small LRU window (1% of the capacity). The entry the window pushes out only
+ * enters the main LRU area if the frequency sketch says it was used more often than the
+ * main area's eviction candidate, so a burst of one-off keys cannot flush the popular ones.
+ * All operations take one lock, which a get needs anyway to update the access order.
+ *
+ * Loads race with invalidation: a value read before an invalidation must not be cached
+ * after it. Callers take a stamp() before loading and hand it to put(), which drops the
+ * value when the key was invalidated in between.
+ */
+public class WTinyLfuCache<K, V> {
+
+    private static final int STAMP_STRIPES = 1024;
+
+    private final int windowCapacity;
+    private final int mainCapacity;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final LinkedHashMap<K, Entry<V>> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, Entry<V>> main = new LinkedHashMap<>(16, 0.75f, true);
+    private final FrequencySketch sketch;
+    private final long[] stamps = new long[STAMP_STRIPES];
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public WTinyLfuCache(int capacity, Duration ttl) {
+        this(capacity, ttl, System::nanoTime);
+    }
+
+    WTinyLfuCache(int capacity, Duration ttl, LongSupplier clock) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("capacity must be at least 2");
+        }
+        this.windowCapacity = Math.max(1, capacity / 100);
+        this.mainCapacity = capacity - windowCapacity;
+        this.ttlNanos = ttl.toNanos();
+        this.clock = clock;
+        this.sketch = new FrequencySketch(capacity);
+    }
+
+    /**
+     * The cached value, or null when there is none or it expired.
+     */
+    public synchronized V get(K key) {
+        sketch.increment(key);
+        Entry<V> entry = window.get(key);
+        if (entry == null) {
+            entry = main.get(key);
+        }
+        if (entry != null && clock.getAsLong() - entry.writtenAt() >= ttlNanos) {
+            remove(key);
+            evictions++;
+            entry = null;
+        }
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value();
+    }
+
+    public synchronized long stamp(K key) {
+        return stamps[stripe(key)];
+    }
+
+    /**
+     * Caches value unless key was invalidated since stamp was taken.
+     */
+    public synchronized void put(K key, V value, long stamp) {
+        if (stamps[stripe(key)] != stamp) {
+            return;
+        }
+        Entry<V> entry = new Entry<>(value, clock.getAsLong());
+        if (main.containsKey(key)) {
+            main.put(key, entry);
+            return;
+        }
+        window.put(key, entry);
+        if (window.size() > windowCapacity) {
+            Iterator<Map.Entry<K, Entry<V>>> eldest = window.entrySet().iterator();
+            Map.Entry<K, Entry<V>> candidate = eldest.next();
+            eldest.remove();
+            admit(candidate.getKey(), candidate.getValue());
+        }
+    }
+
+    public synchronized void invalidate(K key) {
+        stamps[stripe(key)]++;
+        remove(key);
+    }
+
+    public synchronized void invalidateAll() {
+        for (int i = 0; i < stamps.length; i++) {
+            stamps[i]++;
+        }
+        window.clear();
+        main.clear();
+    }
+
+    public synchronized int size() {
+        return window.size() + main.size();
+    }
+
+    public synchronized long hitCount() {
+        return hits;
+    }
+
+    public synchronized long missCount() {
+        return misses;
+    }
+
+    /**
+     * Entries dropped for size or because they expired (invalidations not included).
+     */
+    public synchronized long evictionCount() {
+        return evictions;
+    }
+
+    private void admit(K key, Entry<V> entry) {
+        if (main.size() < mainCapacity) {
+            main.put(key, entry);
+            return;
+        }
+        evictions++;
+        Iterator<Map.Entry<K, Entry<V>>> eldest = main.entrySet().iterator();
+        Map.Entry<K, Entry<V>> victim = eldest.next();
+        if (sketch.frequency(key) > sketch.frequency(victim.getKey())) {
+            eldest.remove();
+            main.put(key, entry);
+        }
+    }
+
+    private void remove(K key) {
+        if (window.remove(key) == null) {
+            main.remove(key);
+        }
+    }
+
+    private static int stripe(Object key) {
+        return Math.floorMod(key.hashCode() * 0x9e3779b9, STAMP_STRIPES);
+    }
+
+    private record Entry<V>(V value, long writtenAt) {
+    }
+}
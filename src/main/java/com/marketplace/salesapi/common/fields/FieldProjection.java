@@ -0,0 +1,168 @@
+package com.marketplace.salesapi.common.fields;
+
+import com.marketplace.salesapi.exception.BadRequestException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Sparse fieldsets (?fields=name,price) of a listing of T. Each field a client can ask for
+ * is declared with the columns it is read from; find() selects the columns of the requested
+ * fields only, joining other tables only when a requested field needs them, and returns a
+ * map per row holding just those fields (and always the id).
+ *
+ * Collections cannot be selected alongside paged rows, so they are declared as related:
+ * find() leaves them null and the caller fills them in for the page's ids, one statement
+ * per requested relation.
+ */
+public final class FieldProjection<T> {
+
+    private static final String ID = "id";
+
+    private final Class<T> entity;
+    private final Map<String, Column<T>> columns = new LinkedHashMap<>();
+    private final Set<String> related = new LinkedHashSet<>();
+
+    private FieldProjection(Class<T> entity) {
+        this.entity = entity;
+    }
+
+    public static <T> FieldProjection<T> of(Class<T> entity) {
+        return new FieldProjection<>(entity).column(ID, root -> root.get(ID));
+    }
+
+    public FieldProjection<T> column(String field, Function<Root<T>, Expression<?>> path) {
+        return column(field, path, value -> value);
+    }
+
+    public FieldProjection<T> column(String field, Function<Root<T>, Expression<?>> path, Function<Object, ?> value) {
+        return columns(field, root -> List.of(path.apply(root)), values -> value.apply(values[0]));
+    }
+
+    /**
+     * A field built from several columns, such as a nested object.
+     */
+    public FieldProjection<T> columns(String field, Function<Root<T>, List<Expression<?>>> paths,
+                                      Function<Object[], ?> value) {
+        columns.put(field, new Column<>(paths, value));
+        return this;
+    }
+
+    public FieldProjection<T> related(String field) {
+        related.add(field);
+        return this;
+    }
+
+    /**
+     * The fields of a ?fields= value in the order given, or all of them if it is blank.
+     *
+     * @throws IllegalArgumentException for a field the listing does not have
+     */
+    public Set<String> parse(String fields) {
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add(ID);
+        if (fields == null || fields.isBlank()) {
+            selected.addAll(columns.keySet());
+            selected.addAll(related);
+            return selected;
+        }
+        for (String field : fields.split(",")) {
+            field = field.trim();
+            if (field.isEmpty()) {
+                continue;
+            }
+            if (!columns.containsKey(field) && !related.contains(field)) {
+                Set<String> known = new LinkedHashSet<>(columns.keySet());
+                known.addAll(related);
+                throw new BadRequestException("Campo desconhecido em fields: " + field
+                        + ". Use um de: " + String.join(", ", known));
+            }
+            selected.add(field);
+        }
+        return selected;
+    }
+
+    /**
+     * One page of the rows matching specification, with the requested fields only. The
+     * count query runs only when the page does not tell the total by itself.
+     */
+    public Page<Map<String, Object>> find(EntityManager entityManager, Specification<T> specification,
+                                          Set<String> fields, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<T> root = query.from(entity);
+
+        List<Selection<?>> selections = new ArrayList<>();
+        List<String> selectedFields = new ArrayList<>();
+        List<int[]> ranges = new ArrayList<>();
+        for (String field : fields) {
+            Column<T> column = columns.get(field);
+            if (column != null) {
+                List<Expression<?>> paths = column.paths().apply(root);
+                selectedFields.add(field);
+                ranges.add(new int[]{selections.size(), selections.size() + paths.size()});
+                selections.addAll(paths);
+            }
+        }
+        query.multiselect(selections);
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        TypedQuery<Object[]> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Object[] values : typedQuery.getResultList()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String field : fields) {
+                row.put(field, null);
+            }
+            for (int i = 0; i < selectedFields.size(); i++) {
+                int[] range = ranges.get(i);
+                Object[] columnValues = Arrays.copyOfRange(values, range[0], range[1]);
+                row.put(selectedFields.get(i), columns.get(selectedFields.get(i)).value().apply(columnValues));
+            }
+            rows.add(row);
+        }
+        return PageableExecutionUtils.getPage(rows, pageable, () -> count(entityManager, specification));
+    }
+
+    private long count(EntityManager entityManager, Specification<T> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<T> root = query.from(entity);
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(query.isDistinct() ? cb.countDistinct(root) : cb.count(root));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private record Column<T>(Function<Root<T>, List<Expression<?>>> paths, Function<Object[], ?> value) {
+    }
+}
@@ -0,0 +1,178 @@
+package com.marketplace.salesapi.common.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marketplace.salesapi.exception.BadRequestException;
+import com.marketplace.salesapi.exception.IdempotencyKeyInUseException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Results of the requests sent with an Idempotency-Key header, so a client retrying
+ * after a timeout gets the response of the first attempt instead of running it again.
+ *
+ * Keys are scoped by user and endpoint. The first request with a key runs the action;
+ * duplicates arriving while it runs wait for its outcome (up to app.idempotency.wait-timeout),
+ * and later ones replay the stored result without calling the action. A failed action is
+ * not stored, so the client can retry it with the same key. Reusing a key with a
+ * different body is rejected.
+ *
+ * Entries expire after app.idempotency.ttl and at most app.idempotency.max-entries are
+ * kept, the oldest being dropped first. The store lives in memory, per node.
+ */
+@Component
+public class IdempotencyStore {
+
+    public static final String KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    static final int MAX_KEY_LENGTH = 255;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final long waitTimeoutMillis;
+    private final LongSupplier clock;
+
+    // Insertion order is also expiry order, so expired entries are always at the head
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+    @Autowired
+    public IdempotencyStore(@Value("${app.idempotency.max-entries:10000}") int maxEntries,
+                            @Value("${app.idempotency.ttl:PT24H}") Duration ttl,
+                            @Value("${app.idempotency.wait-timeout:PT30S}") Duration waitTimeout) {
+        this(maxEntries, ttl, waitTimeout, System::currentTimeMillis);
+    }
+
+    IdempotencyStore(int maxEntries, Duration ttl, Duration waitTimeout, LongSupplier clock) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttl.toMillis();
+        this.waitTimeoutMillis = waitTimeout.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * Runs the action once per (user, scope, key); without a key it just runs it.
+     *
+     * @param scope   the endpoint, including its path variables
+     * @param request the request body, compared with the one the key was first used with
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Result<T> execute(String scope, Long userId, String key, Object request, Supplier<T> action) {
+        if (key == null) {
+            return new Result<>(action.get(), false);
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException(KEY_HEADER + " deve ter entre 1 e " + MAX_KEY_LENGTH + " caracteres");
+        }
+
+        String id = userId + " " + scope + " " + key;
+        String fingerprint = fingerprint(request);
+        Entry entry;
+        boolean first;
+        synchronized (entries) {
+            long now = clock.getAsLong();
+            evictExpired(now);
+            entry = entries.get(id);
+            first = entry == null;
+            if (first) {
+                entry = new Entry(fingerprint, now);
+                entries.put(id, entry);
+                evictOverflow();
+            }
+        }
+
+        if (!entry.fingerprint.equals(fingerprint)) {
+            throw new BadRequestException(KEY_HEADER + " já utilizada com outra requisição: " + key);
+        }
+        if (first) {
+            return new Result<>(run(id, entry, action), false);
+        }
+        return new Result<>((T) await(entry), true);
+    }
+
+    private <T> T run(String id, Entry entry, Supplier<T> action) {
+        try {
+            T value = action.get();
+            entry.result.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            synchronized (entries) {
+                entries.remove(id, entry);
+            }
+            entry.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Object await(Entry entry) {
+        try {
+            return entry.result.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            // The duplicate fails the same way as the request it waited for
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw (RuntimeException) e.getCause();
+        } catch (TimeoutException e) {
+            throw new IdempotencyKeyInUseException("Requisição com esta " + KEY_HEADER + " ainda em processamento");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyInUseException("Requisição com esta " + KEY_HEADER + " ainda em processamento");
+        }
+    }
+
+    private void evictExpired(long now) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext() && now - iterator.next().createdAt >= ttlMillis) {
+            iterator.remove();
+        }
+    }
+
+    private void evictOverflow() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(request);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not fingerprint the request", e);
+        }
+    }
+
+    public record Result<T>(T value, boolean replayed) {
+    }
+
+    private static class Entry {
+        private final String fingerprint;
+        private final long createdAt;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        private Entry(String fingerprint, long createdAt) {
+            this.fingerprint = fingerprint;
+            this.createdAt = createdAt;
+        }
+    }
+}
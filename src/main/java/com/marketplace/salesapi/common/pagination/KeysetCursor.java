@@ -0,0 +1,148 @@
+package com.marketplace.salesapi.common.pagination;
+
+import com.marketplace.salesapi.exception.BadRequestException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Position in a keyset listing: a whitelisted sort key plus the id as tie-breaker. The next
+ * page seeks past the last row's (key, id) instead of skipping an offset, so deep pages cost
+ * the same as the first one and no count query is needed.
+ *
+ * The token handed to clients is opaque (base64url of direction, key, id and key value) and
+ * carries its own sort, so sortBy and direction only matter for the first page.
+ */
+public final class KeysetCursor {
+
+    public static final int MAX_SIZE = 100;
+
+    private static final String ID = "id";
+    private static final String SEPARATOR = "|";
+
+    private final String sortKey;
+    private final Sort.Direction direction;
+    private final int size;
+    private final KeysetScrollPosition position;
+
+    private KeysetCursor(String sortKey, Sort.Direction direction, int size, KeysetScrollPosition position) {
+        this.sortKey = sortKey;
+        this.direction = direction;
+        this.size = size;
+        this.position = position;
+    }
+
+    /**
+     * Reads the cursor sent by a client; an empty cursor starts from the first page.
+     */
+    public static KeysetCursor of(String cursor, String sortBy, String direction, int size, SortKeys sortKeys) {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new BadRequestException("size deve estar entre 1 e " + MAX_SIZE);
+        }
+        if (cursor == null || cursor.isBlank()) {
+            sortKeys.parser(sortBy);
+            Sort.Direction sortDirection = direction.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+            return new KeysetCursor(sortBy, sortDirection, size, ScrollPosition.keyset());
+        }
+
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\" + SEPARATOR, 4);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Cursor inválido");
+        }
+        if (parts.length < 3) {
+            throw new BadRequestException("Cursor inválido");
+        }
+        try {
+            Sort.Direction sortDirection = Sort.Direction.valueOf(parts[0]);
+            String key = parts[1];
+            Map<String, Object> keys = new LinkedHashMap<>();
+            if (!ID.equals(key)) {
+                if (parts.length < 4) {
+                    throw new BadRequestException("Cursor inválido");
+                }
+                keys.put(key, sortKeys.parser(key).apply(parts[3]));
+            }
+            keys.put(ID, Long.valueOf(parts[2]));
+            return new KeysetCursor(key, sortDirection, size, ScrollPosition.forward(keys));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Cursor inválido");
+        }
+    }
+
+    public Sort getSort() {
+        Sort sort = Sort.by(direction, sortKey);
+        return ID.equals(sortKey) ? sort : sort.and(Sort.by(direction, ID));
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public KeysetScrollPosition getPosition() {
+        return position;
+    }
+
+    public <T, R> CursorPage<R> page(Window<T> window, Function<T, R> mapper) {
+        List<R> content = window.getContent().stream().map(mapper).toList();
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            Map<String, Object> keys = ((KeysetScrollPosition) window.positionAt(window.size() - 1)).getKeys();
+            nextCursor = encode(keys);
+        }
+        return new CursorPage<>(content, size, nextCursor);
+    }
+
+    private String encode(Map<String, Object> keys) {
+        StringBuilder token = new StringBuilder()
+                .append(direction.name()).append(SEPARATOR)
+                .append(sortKey).append(SEPARATOR)
+                .append(keys.get(ID));
+        if (!ID.equals(sortKey)) {
+            token.append(SEPARATOR).append(keys.get(sortKey));
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Sort keys a listing accepts in cursor mode, each with the parser for its values in
+     * the token. Every key must be non-null on every row.
+     */
+    public static final class SortKeys {
+
+        private final Map<String, Function<String, ?>> parsers = new LinkedHashMap<>();
+
+        private SortKeys() {
+        }
+
+        public static SortKeys of(String key, Function<String, ?> parser) {
+            return new SortKeys().and(key, parser);
+        }
+
+        public SortKeys and(String key, Function<String, ?> parser) {
+            parsers.put(key, parser);
+            return this;
+        }
+
+        Function<String, ?> parser(String key) {
+            if (ID.equals(key)) {
+                return Long::valueOf;
+            }
+            Function<String, ?> parser = parsers.get(key);
+            if (parser == null) {
+                throw new BadRequestException("Ordenação por cursor não suportada para: " + key
+                        + ". Use uma de: " + ID + ", " + String.join(", ", parsers.keySet()));
+            }
+            return parser;
+        }
+    }
+}
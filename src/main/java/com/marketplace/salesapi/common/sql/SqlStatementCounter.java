@@ -0,0 +1,66 @@
+package com.marketplace.salesapi.common.sql;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Counts the statements run by the current thread into every open scope. Scopes nest, so
+ * a test can open its own while the request filter has one open.
+ */
+public final class SqlStatementCounter {
+
+    private static final ThreadLocal<List<SqlStatementStats>> SCOPES = new ThreadLocal<>();
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\?(?:\\s*,\\s*\\?)+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private SqlStatementCounter() {
+    }
+
+    public static SqlStatementStats open() {
+        List<SqlStatementStats> scopes = SCOPES.get();
+        if (scopes == null) {
+            scopes = new ArrayList<>(2);
+            SCOPES.set(scopes);
+        }
+        SqlStatementStats stats = new SqlStatementStats();
+        scopes.add(stats);
+        return stats;
+    }
+
+    public static void close(SqlStatementStats stats) {
+        List<SqlStatementStats> scopes = SCOPES.get();
+        if (scopes == null) {
+            return;
+        }
+        scopes.remove(stats);
+        if (scopes.isEmpty()) {
+            SCOPES.remove();
+        }
+    }
+
+    static void record(String sql, long elapsedMillis) {
+        List<SqlStatementStats> scopes = SCOPES.get();
+        if (scopes == null) {
+            return;
+        }
+        String shape = shapeOf(sql);
+        for (SqlStatementStats stats : scopes) {
+            stats.record(shape, elapsedMillis);
+        }
+    }
+
+    /**
+     * Reduces a statement to its shape: literals and IN lists of any length become a single
+     * placeholder, so the same query with other values counts as a repeat.
+     */
+    static String shapeOf(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = PARAMETER_LIST.matcher(shape).replaceAll("?");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+}
@@ -0,0 +1,111 @@
+package com.marketplace.salesapi.common.sql;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Counts the SQL statements each request runs. Outside prod the numbers go back as response
+ * headers (the body is buffered so they can be set after the handler ran); in prod they are
+ * recorded as metrics tagged by method and URI pattern. Either way a warning is logged when
+ * one statement shape repeats more than the configured threshold, the usual sign of an N+1.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class SqlStatementFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS_HEADER = "X-SQL-Statements";
+    public static final String TIME_HEADER = "X-SQL-Time-Ms";
+    public static final String MAX_REPEATED_HEADER = "X-SQL-Max-Repeated";
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlStatementFilter.class);
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${app.sql.repeated-statement-threshold:10}")
+    private int repeatedStatementThreshold;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean production = environment.matchesProfiles("prod");
+        SqlStatementStats stats = SqlStatementCounter.open();
+        try {
+            if (production) {
+                filterChain.doFilter(request, response);
+            } else {
+                ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+                try {
+                    filterChain.doFilter(request, wrapper);
+                } finally {
+                    wrapper.setHeader(STATEMENTS_HEADER, String.valueOf(stats.getStatements()));
+                    wrapper.setHeader(TIME_HEADER, String.valueOf(stats.getElapsedMillis()));
+                    wrapper.setHeader(MAX_REPEATED_HEADER, String.valueOf(stats.getMaxRepeated()));
+                    wrapper.copyBodyToResponse();
+                }
+            }
+        } finally {
+            SqlStatementCounter.close(stats);
+            report(request, stats, production);
+        }
+    }
+
+    private void report(HttpServletRequest request, SqlStatementStats stats, boolean production) {
+        String method = request.getMethod();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        boolean repeated = stats.getMaxRepeated() > repeatedStatementThreshold;
+
+        if (repeated) {
+            logger.warn("Possible N+1 on {} {}: the same statement ran {} times ({} statements in total): {}",
+                    method, request.getRequestURI(), stats.getMaxRepeated(), stats.getStatements(),
+                    stats.getMostRepeatedShape());
+        }
+
+        MeterRegistry registry = production ? meterRegistry.getIfAvailable() : null;
+        if (registry == null) {
+            return;
+        }
+        DistributionSummary.builder("http.server.requests.sql.statements")
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(registry)
+                .record(stats.getStatements());
+        Timer.builder("http.server.requests.sql.time")
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(registry)
+                .record(Duration.ofMillis(stats.getElapsedMillis()));
+        if (repeated) {
+            Counter.builder("http.server.requests.sql.repeated")
+                    .tag("method", method)
+                    .tag("uri", uri)
+                    .register(registry)
+                    .increment();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.marketplace.salesapi.common.sql;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+public class SqlStatementListener implements QueryExecutionListener {
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        // A batch runs as one round trip, so its time is counted once
+        long elapsedMillis = execInfo.getElapsedTime();
+        for (QueryInfo queryInfo : queryInfoList) {
+            SqlStatementCounter.record(queryInfo.getQuery(), elapsedMillis);
+            elapsedMillis = 0;
+        }
+    }
+}
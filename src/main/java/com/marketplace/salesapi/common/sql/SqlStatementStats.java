@@ -0,0 +1,45 @@
+package com.marketplace.salesapi.common.sql;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Statements run inside one scope (usually one HTTP request): how many, how long they
+ * took and how many times each statement shape repeated.
+ */
+public class SqlStatementStats {
+
+    private int statements;
+    private long elapsedMillis;
+    private final Map<String, Integer> shapes = new HashMap<>();
+
+    void record(String shape, long elapsedMillis) {
+        statements++;
+        this.elapsedMillis += elapsedMillis;
+        shapes.merge(shape, 1, Integer::sum);
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public Map<String, Integer> getShapes() {
+        return Collections.unmodifiableMap(shapes);
+    }
+
+    public int getMaxRepeated() {
+        return shapes.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+    }
+
+    public String getMostRepeatedShape() {
+        return shapes.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .map(Map.Entry::getKey)
+                .orElse(null);
+    }
+}
@@ -0,0 +1,40 @@
+package com.marketplace.salesapi.common.transaction;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Work to run once the current transaction ends, by how it ended. Without a transaction
+ * the change is as good as committed, so onCommit runs right away.
+ */
+public final class TransactionCallbacks {
+
+    private TransactionCallbacks() {
+    }
+
+    public static void afterCompletion(Runnable onCommit, Runnable onRollback, Runnable onUnknown) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            onCommit.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    onCommit.run();
+                } else if (status == STATUS_ROLLED_BACK) {
+                    onRollback.run();
+                } else {
+                    onUnknown.run();
+                }
+            }
+        });
+    }
+
+    /**
+     * Runs the callback however the transaction ends.
+     */
+    public static void afterCompletion(Runnable callback) {
+        afterCompletion(callback, callback, callback);
+    }
+}
@@ -0,0 +1,18 @@
+package com.marketplace.salesapi.common.validation;
+
+import com.marketplace.salesapi.common.model.Money;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import jakarta.validation.constraints.Positive;
+
+/**
+ * Lets @Positive validate Money attributes. Registered through
+ * META-INF/services/jakarta.validation.ConstraintValidator.
+ */
+public class PositiveMoneyValidator implements ConstraintValidator<Positive, Money> {
+
+    @Override
+    public boolean isValid(Money value, ConstraintValidatorContext context) {
+        return value == null || value.getCents() > 0;
+    }
+}
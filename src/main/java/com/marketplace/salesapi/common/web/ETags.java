@@ -0,0 +1,37 @@
+package com.marketplace.salesapi.common.web;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.StringJoiner;
+
+/**
+ * Strong ETags made of what a representation is built from (id, update timestamps,
+ * versions), so a conditional GET can be answered by looking up those alone. Timestamps
+ * are cut to microseconds, the precision the database keeps.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String of(Object... parts) {
+        StringJoiner tag = new StringJoiner("-", "\"", "\"");
+        for (Object part : parts) {
+            tag.add(part instanceof LocalDateTime time
+                    ? Long.toString(time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000, 36)
+                    : String.valueOf(part));
+        }
+        return tag.toString();
+    }
+
+    /**
+     * Whether the request carries If-None-Match, the only case where looking up the ETag
+     * alone can save building the representation.
+     */
+    public static boolean isRevalidation(WebRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null;
+    }
+}
@@ -1,6 +1,5 @@
 package com.marketplace.salesapi.config;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
@@ -11,6 +10,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
+import com.marketplace.salesapi.common.model.Money;
 import com.marketplace.salesapi.order.model.Order;
 import com.marketplace.salesapi.order.model.OrderItem;
 import com.marketplace.salesapi.order.model.OrderPayment;
@@ -129,7 +129,7 @@ public class DataInitializer implements CommandLineRunner {
             Order order = new Order();
             order.setUser(user);
             order.setStatus(OrderStatus.values()[random.nextInt(OrderStatus.values().length)]);
-            order.setShippingCost(new BigDecimal("15.00"));
+            order.setShippingCost(Money.of("15.00"));
             order.setNotes("Pedido de teste #" + (i + 1));
             
             Order savedOrder = orderRepository.save(order);
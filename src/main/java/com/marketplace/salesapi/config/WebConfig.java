@@ -1,5 +1,7 @@
 package com.marketplace.salesapi.config;
 
+import com.marketplace.salesapi.common.idempotency.IdempotencyStore;
+import com.marketplace.salesapi.common.sql.SqlStatementFilter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -31,8 +33,11 @@ public class WebConfig implements WebMvcConfigurer {
         registry.addMapping("/**")
                 .allowedOriginPatterns(origins.toArray(new String[0]))
                 .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS")
-                .allowedHeaders("Origin", "Content-Type", "Accept", "Authorization", "X-Requested-With", "X-CSRF-TOKEN")
-                .exposedHeaders("Access-Control-Allow-Origin", "Access-Control-Allow-Credentials")
+                .allowedHeaders("Origin", "Content-Type", "Accept", "Authorization", "X-Requested-With", "X-CSRF-TOKEN",
+                        IdempotencyStore.KEY_HEADER)
+                .exposedHeaders("Access-Control-Allow-Origin", "Access-Control-Allow-Credentials",
+                        SqlStatementFilter.STATEMENTS_HEADER, SqlStatementFilter.TIME_HEADER, SqlStatementFilter.MAX_REPEATED_HEADER,
+                        IdempotencyStore.REPLAYED_HEADER)
                 .allowCredentials(true)
                 .maxAge(3600);
     }
@@ -44,8 +49,11 @@ public class WebConfig implements WebMvcConfigurer {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(origins);
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
-        configuration.setAllowedHeaders(Arrays.asList("Origin", "Content-Type", "Accept", "Authorization", "X-Requested-With", "X-CSRF-TOKEN"));
-        configuration.setExposedHeaders(Arrays.asList("Access-Control-Allow-Origin", "Access-Control-Allow-Credentials"));
+        configuration.setAllowedHeaders(Arrays.asList("Origin", "Content-Type", "Accept", "Authorization", "X-Requested-With", "X-CSRF-TOKEN",
+                        IdempotencyStore.KEY_HEADER));
+        configuration.setExposedHeaders(Arrays.asList("Access-Control-Allow-Origin", "Access-Control-Allow-Credentials",
+                SqlStatementFilter.STATEMENTS_HEADER, SqlStatementFilter.TIME_HEADER, SqlStatementFilter.MAX_REPEATED_HEADER,
+                IdempotencyStore.REPLAYED_HEADER));
         configuration.setAllowCredentials(true);
         
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
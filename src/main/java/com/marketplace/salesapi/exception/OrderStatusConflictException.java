@@ -0,0 +1,14 @@
+package com.marketplace.salesapi.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class OrderStatusConflictException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public OrderStatusConflictException(String message) {
+        super(message);
+    }
+}
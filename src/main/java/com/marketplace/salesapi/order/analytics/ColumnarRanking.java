@@ -0,0 +1,70 @@
+package com.marketplace.salesapi.order.analytics;
+
+/**
+ * Top entries of a SalesColumnStore ranking scan, best first, as parallel arrays
+ * of ids, counts and revenue in cents.
+ */
+public class ColumnarRanking {
+
+    private final int size;
+    private final int[] ids;
+    private final long[] counts;
+    private final long[] revenueCents;
+
+    private ColumnarRanking(int size, int[] ids, long[] counts, long[] revenueCents) {
+        this.size = size;
+        this.ids = ids;
+        this.counts = counts;
+        this.revenueCents = revenueCents;
+    }
+
+    /**
+     * Picks the ids with the highest rank value, ties broken by the lowest id. Arrays
+     * are indexed by id and ids that never appeared in the scan are skipped.
+     */
+    static ColumnarRanking top(long[] counts, long[] revenueCents, long[] rankBy, int limit) {
+        int capacity = Math.max(0, Math.min(limit, rankBy.length));
+        int[] top = new int[capacity];
+        int size = 0;
+
+        for (int id = 0; id < rankBy.length; id++) {
+            if (counts[id] == 0) {
+                continue;
+            }
+            // Ids are visited in ascending order, so an equal value never displaces an earlier id
+            if (size == capacity && (capacity == 0 || rankBy[id] <= rankBy[top[size - 1]])) {
+                continue;
+            }
+            int position = size == capacity ? size - 1 : size++;
+            while (position > 0 && rankBy[top[position - 1]] < rankBy[id]) {
+                top[position] = top[position - 1];
+                position--;
+            }
+            top[position] = id;
+        }
+
+        long[] topCounts = new long[size];
+        long[] topRevenue = new long[size];
+        for (int i = 0; i < size; i++) {
+            topCounts[i] = counts[top[i]];
+            topRevenue[i] = revenueCents[top[i]];
+        }
+        return new ColumnarRanking(size, top, topCounts, topRevenue);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getId(int position) {
+        return ids[position];
+    }
+
+    public long getCount(int position) {
+        return counts[position];
+    }
+
+    public long getRevenueCents(int position) {
+        return revenueCents[position];
+    }
+}
@@ -0,0 +1,71 @@
+package com.marketplace.salesapi.order.analytics;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Result of a SalesColumnStore summary scan. Orders per status are indexed by the
+ * OrderStatus ordinal and orders per month by the month offset from the first day.
+ */
+public class ColumnarSummary {
+
+    private final YearMonth firstMonth;
+    private final int[] monthSlots;
+    private final long[] ordersByStatus;
+    private final long[] ordersByMonth;
+    private long orderCount;
+    private long revenueCents;
+
+    ColumnarSummary(LocalDate fromDate, LocalDate toDate, int statusCount) {
+        this.firstMonth = YearMonth.from(fromDate);
+        int days = (int) ChronoUnit.DAYS.between(fromDate, toDate) + 1;
+        this.monthSlots = new int[Math.max(days, 0)];
+        for (int i = 0; i < monthSlots.length; i++) {
+            monthSlots[i] = (int) firstMonth.until(YearMonth.from(fromDate.plusDays(i)), ChronoUnit.MONTHS);
+        }
+        this.ordersByStatus = new long[statusCount];
+        this.ordersByMonth = new long[monthSlots.length == 0 ? 0 : monthSlots[monthSlots.length - 1] + 1];
+    }
+
+    int[] monthSlots() {
+        return monthSlots;
+    }
+
+    long[] ordersByStatus() {
+        return ordersByStatus;
+    }
+
+    long[] ordersByMonth() {
+        return ordersByMonth;
+    }
+
+    void setTotals(long orderCount, long revenueCents) {
+        this.orderCount = orderCount;
+        this.revenueCents = revenueCents;
+    }
+
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    public long getRevenueCents() {
+        return revenueCents;
+    }
+
+    public long getOrdersByStatus(int statusOrdinal) {
+        return ordersByStatus[statusOrdinal];
+    }
+
+    public int getMonthCount() {
+        return ordersByMonth.length;
+    }
+
+    public YearMonth getMonth(int slot) {
+        return firstMonth.plusMonths(slot);
+    }
+
+    public long getOrdersByMonth(int slot) {
+        return ordersByMonth[slot];
+    }
+}
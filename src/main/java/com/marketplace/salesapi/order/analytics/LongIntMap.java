@@ -0,0 +1,81 @@
+package com.marketplace.salesapi.order.analytics;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from long keys to non-negative ints, sized once for a maximum
+ * number of entries, so lookups do not box. Linear probing with backward-shift deletion.
+ * Not thread safe.
+ */
+final class LongIntMap {
+
+    static final int MISSING = -1;
+
+    private final long[] keys;
+    private final int[] values;
+    private final boolean[] used;
+    private final int mask;
+
+    LongIntMap(int maxEntries) {
+        // At most half full, so probes stay short
+        int tableSize = 2;
+        while (tableSize < maxEntries * 2) {
+            tableSize <<= 1;
+        }
+        this.keys = new long[tableSize];
+        this.values = new int[tableSize];
+        this.used = new boolean[tableSize];
+        this.mask = tableSize - 1;
+    }
+
+    int get(long key) {
+        for (int i = home(key); used[i]; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return values[i];
+            }
+        }
+        return MISSING;
+    }
+
+    void put(long key, int value) {
+        int i = home(key);
+        while (used[i] && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        used[i] = true;
+    }
+
+    void remove(long key) {
+        int i = home(key);
+        while (used[i] && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        if (!used[i]) {
+            return;
+        }
+        used[i] = false;
+        // Pulls back the entries that probed past the freed cell
+        for (int j = (i + 1) & mask; used[j]; j = (j + 1) & mask) {
+            int home = home(keys[j]);
+            boolean reachable = i <= j ? i < home && home <= j : i < home || home <= j;
+            if (!reachable) {
+                keys[i] = keys[j];
+                values[i] = values[j];
+                used[i] = true;
+                used[j] = false;
+                i = j;
+            }
+        }
+    }
+
+    void clear() {
+        Arrays.fill(used, false);
+    }
+
+    private int home(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,54 @@
+package com.marketplace.salesapi.order.analytics;
+
+/**
+ * Distinct customers and order-value distribution of a set of orders. Sketches of
+ * disjoint sets of orders merge into the sketch of their union.
+ */
+public class OrderSketch {
+
+    private final HyperLogLog customers;
+    private final TDigest orderValues;
+
+    public OrderSketch() {
+        this(new HyperLogLog(), new TDigest());
+    }
+
+    private OrderSketch(HyperLogLog customers, TDigest orderValues) {
+        this.customers = customers;
+        this.orderValues = orderValues;
+    }
+
+    public void add(long customerId, double orderValue) {
+        customers.offer(customerId);
+        orderValues.add(orderValue);
+    }
+
+    public void merge(OrderSketch other) {
+        customers.merge(other.customers);
+        orderValues.merge(other.orderValues);
+    }
+
+    public long getOrderCount() {
+        return orderValues.size();
+    }
+
+    public long getDistinctCustomers() {
+        return customers.cardinality();
+    }
+
+    public double getOrderValueQuantile(double q) {
+        return orderValues.quantile(q);
+    }
+
+    public byte[] customersToBytes() {
+        return customers.toBytes();
+    }
+
+    public byte[] orderValuesToBytes() {
+        return orderValues.toBytes();
+    }
+
+    public static OrderSketch fromBytes(byte[] customers, byte[] orderValues) {
+        return new OrderSketch(HyperLogLog.fromBytes(customers), TDigest.fromBytes(orderValues));
+    }
+}
@@ -0,0 +1,326 @@
+package com.marketplace.salesapi.order.analytics;
+
+import com.marketplace.salesapi.order.event.OrderCreatedEvent;
+import com.marketplace.salesapi.order.event.OrderStatusChangedEvent;
+import com.marketplace.salesapi.order.model.Order;
+import com.marketplace.salesapi.order.model.OrderItem;
+import com.marketplace.salesapi.order.model.OrderStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Append-only, in-process copy of the orders and their lines stored as primitive
+ * columns, so analytics scans run as tight loops without boxing, BigDecimal or entities.
+ * Loaded once at startup and kept current from the OrderService events after commit.
+ * Days are epoch days of the order creation date and amounts are in cents.
+ */
+@Component
+@ConditionalOnProperty(name = "app.analytics.columnar.enabled", havingValue = "true")
+public class SalesColumnStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesColumnStore.class);
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int STATUS_COUNT = OrderStatus.values().length;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Order columns
+    private int orderCount;
+    private long[] orderId = new long[INITIAL_CAPACITY];
+    private long[] orderDay = new long[INITIAL_CAPACITY];
+    private long[] orderTotalCents = new long[INITIAL_CAPACITY];
+    private byte[] orderStatus = new byte[INITIAL_CAPACITY];
+    private int[] orderFirstLine = new int[INITIAL_CAPACITY];
+    private int[] orderLineCount = new int[INITIAL_CAPACITY];
+    private final Map<Long, Integer> orderIndex = new HashMap<>();
+
+    // Line columns, the lines of an order are always contiguous
+    private int lineCount;
+    private long[] lineDay = new long[INITIAL_CAPACITY];
+    private int[] lineStoreId = new int[INITIAL_CAPACITY];
+    private int[] lineProductId = new int[INITIAL_CAPACITY];
+    private long[] lineAmountCents = new long[INITIAL_CAPACITY];
+    private int[] lineQuantity = new int[INITIAL_CAPACITY];
+    private byte[] lineStatus = new byte[INITIAL_CAPACITY];
+    private int[] lineOrder = new int[INITIAL_CAPACITY];
+    private int maxStoreId;
+    private int maxProductId;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long started = System.currentTimeMillis();
+        LoadCursor cursor = new LoadCursor();
+
+        lock.writeLock().lock();
+        try {
+            jdbcTemplate.query(
+                    "SELECT o.id, o.created_at, o.status, o.total, p.store_id, oi.product_id, oi.quantity, oi.subtotal " +
+                    "FROM orders o " +
+                    "LEFT JOIN order_items oi ON oi.order_id = o.id " +
+                    "LEFT JOIN products p ON p.id = oi.product_id " +
+                    "ORDER BY o.id",
+                    rs -> {
+                        long id = rs.getLong(1);
+                        if (id != cursor.orderId) {
+                            cursor.orderId = id;
+                            // Orders created while loading were already appended by the listener
+                            cursor.skip = orderIndex.containsKey(id);
+                            if (!cursor.skip) {
+                                cursor.day = rs.getTimestamp(2).toLocalDateTime().toLocalDate().toEpochDay();
+                                cursor.status = (byte) OrderStatus.valueOf(rs.getString(3)).ordinal();
+                                appendOrder(id, cursor.day, toCents(rs.getBigDecimal(4)), cursor.status);
+                            }
+                        }
+                        if (!cursor.skip && rs.getObject(6) != null) {
+                            appendLine(cursor.day, rs.getInt(5), rs.getInt(6), toCents(rs.getBigDecimal(8)),
+                                    rs.getInt(7), cursor.status);
+                        }
+                    });
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        logger.info("Sales columns loaded: {} orders, {} lines in {} ms",
+                orderCount, lineCount, System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener
+    public void onOrderCreated(OrderCreatedEvent event) {
+        Order order = event.getOrder();
+        long day = order.getCreatedAt().toLocalDate().toEpochDay();
+        byte status = (byte) order.getStatus().ordinal();
+
+        lock.writeLock().lock();
+        try {
+            if (orderIndex.containsKey(order.getId())) {
+                return;
+            }
+            appendOrder(order.getId(), day, order.getTotal().getCents(), status);
+            for (OrderItem item : order.getItems()) {
+                appendLine(day, Math.toIntExact(item.getProduct().getStore().getId()),
+                        Math.toIntExact(item.getProduct().getId()), item.getSubtotal().getCents(),
+                        item.getQuantity(), status);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        byte status = (byte) event.getNewStatus().ordinal();
+
+        lock.writeLock().lock();
+        try {
+            Integer index = orderIndex.get(event.getOrder().getId());
+            if (index == null) {
+                return;
+            }
+            orderStatus[index] = status;
+            int first = orderFirstLine[index];
+            Arrays.fill(lineStatus, first, first + orderLineCount[index], status);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public ColumnarSummary summarizeOrders(LocalDate fromDate, LocalDate toDate) {
+        long from = fromDate.toEpochDay();
+        long to = toDate.toEpochDay();
+        ColumnarSummary summary = new ColumnarSummary(fromDate, toDate, STATUS_COUNT);
+        int[] monthSlot = summary.monthSlots();
+        long[] byStatus = summary.ordersByStatus();
+        long[] byMonth = summary.ordersByMonth();
+        long orders = 0;
+        long revenue = 0;
+
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < orderCount; i++) {
+                long day = orderDay[i];
+                if (day < from || day > to) {
+                    continue;
+                }
+                orders++;
+                revenue += orderTotalCents[i];
+                byStatus[orderStatus[i]]++;
+                byMonth[monthSlot[(int) (day - from)]]++;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        summary.setTotals(orders, revenue);
+        return summary;
+    }
+
+    public ColumnarSummary summarizeStore(Long storeId, LocalDate fromDate, LocalDate toDate) {
+        long from = fromDate.toEpochDay();
+        long to = toDate.toEpochDay();
+        int store = Math.toIntExact(storeId);
+        ColumnarSummary summary = new ColumnarSummary(fromDate, toDate, STATUS_COUNT);
+        int[] monthSlot = summary.monthSlots();
+        long[] byStatus = summary.ordersByStatus();
+        long[] byMonth = summary.ordersByMonth();
+        long orders = 0;
+        long revenue = 0;
+        int lastOrder = -1;
+
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < lineCount; i++) {
+                long day = lineDay[i];
+                if (lineStoreId[i] != store || day < from || day > to) {
+                    continue;
+                }
+                revenue += lineAmountCents[i];
+                // Lines are contiguous per order, so a store's order is counted on its first line
+                if (lineOrder[i] != lastOrder) {
+                    lastOrder = lineOrder[i];
+                    orders++;
+                    byStatus[lineStatus[i]]++;
+                    byMonth[monthSlot[(int) (day - from)]]++;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        summary.setTotals(orders, revenue);
+        return summary;
+    }
+
+    /**
+     * Stores ranked by revenue, then by id. The counts are distinct orders.
+     */
+    public ColumnarRanking topStores(LocalDate fromDate, LocalDate toDate, int limit) {
+        long from = fromDate.toEpochDay();
+        long to = toDate.toEpochDay();
+
+        lock.readLock().lock();
+        try {
+            long[] orders = new long[maxStoreId + 1];
+            long[] revenue = new long[maxStoreId + 1];
+            int[] lastOrder = new int[maxStoreId + 1];
+            Arrays.fill(lastOrder, -1);
+
+            for (int i = 0; i < lineCount; i++) {
+                long day = lineDay[i];
+                if (day < from || day > to) {
+                    continue;
+                }
+                int store = lineStoreId[i];
+                revenue[store] += lineAmountCents[i];
+                if (lastOrder[store] != lineOrder[i]) {
+                    lastOrder[store] = lineOrder[i];
+                    orders[store]++;
+                }
+            }
+            return ColumnarRanking.top(orders, revenue, revenue, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Products ranked by quantity sold, then by id. The counts are units sold.
+     */
+    public ColumnarRanking topProducts(LocalDate fromDate, LocalDate toDate, int limit) {
+        long from = fromDate.toEpochDay();
+        long to = toDate.toEpochDay();
+
+        lock.readLock().lock();
+        try {
+            long[] quantity = new long[maxProductId + 1];
+            long[] revenue = new long[maxProductId + 1];
+
+            for (int i = 0; i < lineCount; i++) {
+                long day = lineDay[i];
+                if (day < from || day > to) {
+                    continue;
+                }
+                int product = lineProductId[i];
+                quantity[product] += lineQuantity[i];
+                revenue[product] += lineAmountCents[i];
+            }
+            return ColumnarRanking.top(quantity, revenue, quantity, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void appendOrder(long id, long day, long totalCents, byte status) {
+        if (orderCount == orderId.length) {
+            int capacity = orderCount * 2;
+            orderId = Arrays.copyOf(orderId, capacity);
+            orderDay = Arrays.copyOf(orderDay, capacity);
+            orderTotalCents = Arrays.copyOf(orderTotalCents, capacity);
+            orderStatus = Arrays.copyOf(orderStatus, capacity);
+            orderFirstLine = Arrays.copyOf(orderFirstLine, capacity);
+            orderLineCount = Arrays.copyOf(orderLineCount, capacity);
+        }
+        orderId[orderCount] = id;
+        orderDay[orderCount] = day;
+        orderTotalCents[orderCount] = totalCents;
+        orderStatus[orderCount] = status;
+        orderFirstLine[orderCount] = lineCount;
+        orderLineCount[orderCount] = 0;
+        orderIndex.put(id, orderCount);
+        orderCount++;
+    }
+
+    // Always belongs to the last appended order
+    private void appendLine(long day, int storeId, int productId, long amountCents, int quantity, byte status) {
+        if (lineCount == lineDay.length) {
+            int capacity = lineCount * 2;
+            lineDay = Arrays.copyOf(lineDay, capacity);
+            lineStoreId = Arrays.copyOf(lineStoreId, capacity);
+            lineProductId = Arrays.copyOf(lineProductId, capacity);
+            lineAmountCents = Arrays.copyOf(lineAmountCents, capacity);
+            lineQuantity = Arrays.copyOf(lineQuantity, capacity);
+            lineStatus = Arrays.copyOf(lineStatus, capacity);
+            lineOrder = Arrays.copyOf(lineOrder, capacity);
+        }
+        lineDay[lineCount] = day;
+        lineStoreId[lineCount] = storeId;
+        lineProductId[lineCount] = productId;
+        lineAmountCents[lineCount] = amountCents;
+        lineQuantity[lineCount] = quantity;
+        lineStatus[lineCount] = status;
+        lineOrder[lineCount] = orderCount - 1;
+        orderLineCount[orderCount - 1]++;
+        maxStoreId = Math.max(maxStoreId, storeId);
+        maxProductId = Math.max(maxProductId, productId);
+        lineCount++;
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount == null ? 0L : amount.movePointRight(2).longValue();
+    }
+
+    private static class LoadCursor {
+        private long orderId = -1;
+        private boolean skip;
+        private long day;
+        private byte status;
+    }
+}
@@ -0,0 +1,275 @@
+package com.marketplace.salesapi.order.analytics;
+
+/**
+ * Space-Saving heavy-hitter sketch over long keys with a fixed number of counters.
+ * A key that is not monitored takes over the smallest counter, so counts are
+ * overestimated by at most the error recorded for the counter. Each counter also
+ * carries an extra sum (revenue, orders...) that is reset when the counter is taken over.
+ *
+ * The counters are kept as a Stream-Summary: one list sorted by count, largest first,
+ * with the counters of equal count grouped. The smallest counter is the tail, a count
+ * change moves its counter past whole groups, and top(k) reads the first k counters.
+ * Counters of equal count are in no particular order. Not thread safe.
+ */
+public class SpaceSavingSketch {
+
+    private static final int NONE = -1;
+
+    private final int capacity;
+    private final long[] keys;
+    private final long[] counts;
+    private final long[] errors;
+    private final long[] extras;
+    private final LongIntMap index;
+    private int size;
+
+    // The list, by slot
+    private final int[] next;
+    private final int[] previous;
+    private final int[] groups;
+    private int head = NONE;
+    private int tail = NONE;
+
+    // First and last slot of each group of equal counts, and the unused group ids
+    private final int[] groupFirst;
+    private final int[] groupLast;
+    private final int[] freeGroups;
+    private int freeGroupCount;
+
+    public SpaceSavingSketch(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.keys = new long[capacity];
+        this.counts = new long[capacity];
+        this.errors = new long[capacity];
+        this.extras = new long[capacity];
+        this.index = new LongIntMap(capacity);
+        this.next = new int[capacity];
+        this.previous = new int[capacity];
+        this.groups = new int[capacity];
+        this.groupFirst = new int[capacity];
+        this.groupLast = new int[capacity];
+        this.freeGroups = new int[capacity];
+        clear();
+    }
+
+    public void add(long key, long weight, long extra) {
+        add(key, weight, 0, extra);
+    }
+
+    /**
+     * Adds every counter of another sketch, errors included.
+     */
+    public void merge(SpaceSavingSketch other) {
+        for (int slot = other.head; slot != NONE; slot = other.next[slot]) {
+            add(other.keys[slot], other.counts[slot], other.errors[slot], other.extras[slot]);
+        }
+    }
+
+    /**
+     * Takes back weight previously added for a key, e.g. for a cancelled order. Keys
+     * that are no longer monitored are ignored and counters never drop below zero.
+     */
+    public void subtract(long key, long weight, long extra) {
+        int slot = index.get(key);
+        if (slot == LongIntMap.MISSING) {
+            return;
+        }
+        extras[slot] = Math.max(0, extras[slot] - extra);
+        if (counts[slot] <= weight) {
+            removeSlot(slot);
+        } else if (weight > 0) {
+            unlinkTowardsTail(slot, counts[slot] - weight);
+        }
+    }
+
+    public void clear() {
+        index.clear();
+        size = 0;
+        head = NONE;
+        tail = NONE;
+        for (int group = 0; group < capacity; group++) {
+            freeGroups[group] = capacity - 1 - group;
+        }
+        freeGroupCount = capacity;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long keyAt(int slot) {
+        return keys[slot];
+    }
+
+    public long countAt(int slot) {
+        return counts[slot];
+    }
+
+    public long errorAt(int slot) {
+        return errors[slot];
+    }
+
+    public long extraAt(int slot) {
+        return extras[slot];
+    }
+
+    /**
+     * Slots of the k largest counters, largest first.
+     */
+    public int[] top(int k) {
+        int[] top = new int[Math.min(k, size)];
+        int slot = head;
+        for (int i = 0; i < top.length; i++) {
+            top[i] = slot;
+            slot = next[slot];
+        }
+        return top;
+    }
+
+    private void add(long key, long weight, long error, long extra) {
+        int slot = index.get(key);
+        if (slot != LongIntMap.MISSING) {
+            errors[slot] += error;
+            extras[slot] += extra;
+            if (weight > 0) {
+                unlinkTowardsHead(slot, counts[slot] + weight);
+            }
+            return;
+        }
+        if (size < capacity) {
+            slot = size++;
+            keys[slot] = key;
+            counts[slot] = 0;
+            errors[slot] = error;
+            extras[slot] = extra;
+            index.put(key, slot);
+            // Placed from past the tail, as if its count had been zero
+            linkAfterWalk(slot, weight, tail);
+            return;
+        }
+
+        slot = tail;
+        index.remove(keys[slot]);
+        keys[slot] = key;
+        errors[slot] = counts[slot] + error;
+        extras[slot] = extra;
+        index.put(key, slot);
+        if (weight > 0) {
+            unlinkTowardsHead(slot, counts[slot] + weight);
+        }
+    }
+
+    // Raises a linked counter, moving it before the groups now below it
+    private void unlinkTowardsHead(int slot, long count) {
+        int before = previous[groupFirst[groups[slot]]];
+        unlink(slot);
+        linkAfterWalk(slot, count, before);
+    }
+
+    // Lowers a linked counter, moving it after the groups now above it
+    private void unlinkTowardsTail(int slot, long count) {
+        int after = next[groupLast[groups[slot]]];
+        while (after != NONE && counts[after] > count) {
+            after = next[groupLast[groups[after]]];
+        }
+        unlink(slot);
+        counts[slot] = count;
+        if (after != NONE && counts[after] == count) {
+            // First of the group it joins
+            int group = groups[after];
+            insertBetween(slot, previous[after], after, group);
+            groupFirst[group] = slot;
+        } else {
+            insertBetween(slot, after != NONE ? previous[after] : tail, after, newGroup(slot));
+        }
+    }
+
+    // Links an unlinked counter with the given count after the first group, walking
+    // up from the last slot of a group (or NONE), whose count is at least that count
+    private void linkAfterWalk(int slot, long count, int from) {
+        int before = from;
+        while (before != NONE && counts[before] < count) {
+            before = previous[groupFirst[groups[before]]];
+        }
+        counts[slot] = count;
+        if (before != NONE && counts[before] == count) {
+            // Last of the group it joins
+            int group = groups[before];
+            int last = groupLast[group];
+            insertBetween(slot, last, next[last], group);
+            groupLast[group] = slot;
+        } else {
+            insertBetween(slot, before, before != NONE ? next[before] : head, newGroup(slot));
+        }
+    }
+
+    private void insertBetween(int slot, int before, int after, int group) {
+        previous[slot] = before;
+        next[slot] = after;
+        groups[slot] = group;
+        if (before != NONE) {
+            next[before] = slot;
+        } else {
+            head = slot;
+        }
+        if (after != NONE) {
+            previous[after] = slot;
+        } else {
+            tail = slot;
+        }
+    }
+
+    private int newGroup(int slot) {
+        int group = freeGroups[--freeGroupCount];
+        groupFirst[group] = slot;
+        groupLast[group] = slot;
+        return group;
+    }
+
+    private void unlink(int slot) {
+        int group = groups[slot];
+        if (groupFirst[group] == slot && groupLast[group] == slot) {
+            freeGroups[freeGroupCount++] = group;
+        } else if (groupFirst[group] == slot) {
+            groupFirst[group] = next[slot];
+        } else if (groupLast[group] == slot) {
+            groupLast[group] = previous[slot];
+        }
+        if (previous[slot] != NONE) {
+            next[previous[slot]] = next[slot];
+        } else {
+            head = next[slot];
+        }
+        if (next[slot] != NONE) {
+            previous[next[slot]] = previous[slot];
+        } else {
+            tail = previous[slot];
+        }
+    }
+
+    private void removeSlot(int slot) {
+        unlink(slot);
+        index.remove(keys[slot]);
+        int last = --size;
+        if (slot == last) {
+            return;
+        }
+        // The last slot moves into the freed one, so slots stay below size
+        keys[slot] = keys[last];
+        counts[slot] = counts[last];
+        errors[slot] = errors[last];
+        extras[slot] = extras[last];
+        index.put(keys[slot], slot);
+        int group = groups[last];
+        insertBetween(slot, previous[last], next[last], group);
+        if (groupFirst[group] == last) {
+            groupFirst[group] = slot;
+        }
+        if (groupLast[group] == last) {
+            groupLast[group] = slot;
+        }
+    }
+}
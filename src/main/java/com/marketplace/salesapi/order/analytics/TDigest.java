@@ -0,0 +1,170 @@
+package com.marketplace.salesapi.order.analytics;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Merging t-digest for quantiles of order values. Values are buffered and folded into
+ * at most a few hundred centroids, small ones at the tails, so p99 stays accurate.
+ * Digests merge by re-compressing the union of their centroids.
+ */
+public class TDigest {
+
+    private static final double COMPRESSION = 100;
+    private static final int BUFFER_SIZE = 500;
+
+    private double[] means = new double[0];
+    private long[] weights = new long[0];
+    private final double[] bufferMeans = new double[BUFFER_SIZE];
+    private final long[] bufferWeights = new long[BUFFER_SIZE];
+    private int buffered;
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public void add(double value) {
+        add(value, 1);
+    }
+
+    public void merge(TDigest other) {
+        other.compress();
+        for (int i = 0; i < other.means.length; i++) {
+            add(other.means[i], other.weights[i]);
+        }
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public long size() {
+        return count;
+    }
+
+    /**
+     * Value at quantile q (0 to 1), interpolated between centroid centres, or NaN
+     * when the digest is empty.
+     */
+    public double quantile(double q) {
+        compress();
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (means.length == 1) {
+            return means[0];
+        }
+
+        double index = q * count;
+        double cumulative = 0;
+        for (int i = 0; i < means.length; i++) {
+            double centre = cumulative + weights[i] / 2.0;
+            if (index < centre) {
+                if (i == 0) {
+                    return interpolate(index, 0, min, centre, means[0]);
+                }
+                double previousCentre = cumulative - weights[i - 1] / 2.0;
+                return interpolate(index, previousCentre, means[i - 1], centre, means[i]);
+            }
+            cumulative += weights[i];
+        }
+        double lastCentre = count - weights[means.length - 1] / 2.0;
+        return interpolate(index, lastCentre, means[means.length - 1], count, max);
+    }
+
+    public byte[] toBytes() {
+        compress();
+        ByteBuffer buffer = ByteBuffer.allocate(2 * Double.BYTES + Integer.BYTES + means.length * (Double.BYTES + Long.BYTES));
+        buffer.putDouble(min).putDouble(max).putInt(means.length);
+        for (int i = 0; i < means.length; i++) {
+            buffer.putDouble(means[i]).putLong(weights[i]);
+        }
+        return buffer.array();
+    }
+
+    public static TDigest fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        TDigest digest = new TDigest();
+        double min = buffer.getDouble();
+        double max = buffer.getDouble();
+        int centroids = buffer.getInt();
+        // Digests written before centroids were stored as double/long used float/int
+        boolean compact = buffer.remaining() == centroids * (Float.BYTES + Integer.BYTES);
+        for (int i = 0; i < centroids; i++) {
+            if (compact) {
+                digest.add(buffer.getFloat(), buffer.getInt());
+            } else {
+                digest.add(buffer.getDouble(), buffer.getLong());
+            }
+        }
+        digest.min = min;
+        digest.max = max;
+        return digest;
+    }
+
+    private void add(double mean, long weight) {
+        if (buffered == BUFFER_SIZE) {
+            compress();
+        }
+        bufferMeans[buffered] = mean;
+        bufferWeights[buffered] = weight;
+        buffered++;
+        count += weight;
+        min = Math.min(min, mean);
+        max = Math.max(max, mean);
+    }
+
+    private void compress() {
+        if (buffered == 0) {
+            return;
+        }
+
+        int total = means.length + buffered;
+        double[] allMeans = Arrays.copyOf(means, total);
+        long[] allWeights = Arrays.copyOf(weights, total);
+        System.arraycopy(bufferMeans, 0, allMeans, means.length, buffered);
+        System.arraycopy(bufferWeights, 0, allWeights, means.length, buffered);
+        buffered = 0;
+
+        Integer[] order = new Integer[total];
+        for (int i = 0; i < total; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(allMeans[a], allMeans[b]));
+
+        double[] mergedMeans = new double[total];
+        long[] mergedWeights = new long[total];
+        int merged = 0;
+        double seen = 0;
+        double kStart = scale(0);
+
+        for (int position = 0; position < total; position++) {
+            int i = order[position];
+            if (merged > 0) {
+                long proposed = mergedWeights[merged - 1] + allWeights[i];
+                // A centroid may only grow while it spans at most one unit of the scale function
+                if (scale((seen + proposed) / count) - kStart <= 1) {
+                    mergedMeans[merged - 1] += (allMeans[i] - mergedMeans[merged - 1]) * allWeights[i] / proposed;
+                    mergedWeights[merged - 1] = proposed;
+                    continue;
+                }
+                seen += mergedWeights[merged - 1];
+                kStart = scale(seen / count);
+            }
+            mergedMeans[merged] = allMeans[i];
+            mergedWeights[merged] = allWeights[i];
+            merged++;
+        }
+
+        means = Arrays.copyOf(mergedMeans, merged);
+        weights = Arrays.copyOf(mergedWeights, merged);
+    }
+
+    private static double scale(double q) {
+        return COMPRESSION / (2 * Math.PI) * Math.asin(2 * Math.min(1, Math.max(0, q)) - 1);
+    }
+
+    private static double interpolate(double x, double x0, double y0, double x1, double y1) {
+        if (x1 <= x0) {
+            return y1;
+        }
+        return y0 + (y1 - y0) * (x - x0) / (x1 - x0);
+    }
+}
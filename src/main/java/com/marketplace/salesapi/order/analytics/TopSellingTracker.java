@@ -0,0 +1,149 @@
+package com.marketplace.salesapi.order.analytics;
+
+import com.marketplace.salesapi.order.event.OrderCreatedEvent;
+import com.marketplace.salesapi.order.event.OrderStatusChangedEvent;
+import com.marketplace.salesapi.order.model.Order;
+import com.marketplace.salesapi.order.model.OrderItem;
+import com.marketplace.salesapi.order.model.OrderStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Real-time top-selling products (by units sold) and stores (by revenue) over the
+ * last hour, day and week. Fed after commit by order creation and cancellation, and
+ * warmed up from the last week of orders at startup.
+ */
+@Component
+public class TopSellingTracker {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Map<TopSellingWindow, WindowedTopK> products = new EnumMap<>(TopSellingWindow.class);
+    private final Map<TopSellingWindow, WindowedTopK> stores = new EnumMap<>(TopSellingWindow.class);
+    private final int capacity;
+
+    public TopSellingTracker(@Value("${app.analytics.top-selling.capacity:1000}") int capacity) {
+        this.capacity = capacity;
+        for (TopSellingWindow window : TopSellingWindow.values()) {
+            products.put(window, new WindowedTopK(window, capacity));
+            stores.put(window, new WindowedTopK(window, capacity));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void warmUp() {
+        long now = System.currentTimeMillis();
+        Timestamp since = Timestamp.valueOf(LocalDateTime.now().minus(TopSellingWindow.WEEK.getLength()));
+        String cancelled = OrderStatus.CANCELLED.name();
+
+        jdbcTemplate.query(
+                "SELECT o.created_at, oi.product_id, oi.quantity, oi.subtotal " +
+                "FROM order_items oi JOIN orders o ON o.id = oi.order_id " +
+                "WHERE o.created_at >= ? AND o.status <> ? AND oi.product_id IS NOT NULL",
+                rs -> {
+                    long createdAt = toMillis(rs.getTimestamp(1).toLocalDateTime());
+                    add(products, 1, rs.getLong(2), rs.getInt(3), toCents(rs.getBigDecimal(4)), createdAt, now);
+                },
+                since, cancelled);
+
+        jdbcTemplate.query(
+                "SELECT o.created_at, p.store_id, SUM(oi.subtotal) " +
+                "FROM order_items oi JOIN orders o ON o.id = oi.order_id JOIN products p ON p.id = oi.product_id " +
+                "WHERE o.created_at >= ? AND o.status <> ? " +
+                "GROUP BY o.id, o.created_at, p.store_id",
+                rs -> {
+                    long createdAt = toMillis(rs.getTimestamp(1).toLocalDateTime());
+                    add(stores, 1, rs.getLong(2), toCents(rs.getBigDecimal(3)), 1, createdAt, now);
+                },
+                since, cancelled);
+    }
+
+    @TransactionalEventListener
+    public synchronized void onOrderCreated(OrderCreatedEvent event) {
+        if (event.getOrder().getStatus() != OrderStatus.CANCELLED) {
+            record(event.getOrder(), 1);
+        }
+    }
+
+    @TransactionalEventListener
+    public synchronized void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        if (event.getNewStatus() == OrderStatus.CANCELLED) {
+            record(event.getOrder(), -1);
+        } else if (event.getPreviousStatus() == OrderStatus.CANCELLED) {
+            record(event.getOrder(), 1);
+        }
+    }
+
+    /**
+     * Product id to {units sold, revenue in cents}, best seller first.
+     */
+    public Map<Long, long[]> topProducts(TopSellingWindow window, int limit) {
+        return top(products.get(window), limit);
+    }
+
+    /**
+     * Store id to {revenue in cents, orders}, best seller first.
+     */
+    public Map<Long, long[]> topStores(TopSellingWindow window, int limit) {
+        return top(stores.get(window), limit);
+    }
+
+    private Map<Long, long[]> top(WindowedTopK sketch, int limit) {
+        Map<Long, long[]> top = new LinkedHashMap<>();
+        for (long[] row : sketch.top(Math.min(limit, capacity), System.currentTimeMillis())) {
+            top.put(row[0], new long[]{row[1], row[2]});
+        }
+        return top;
+    }
+
+    private void record(Order order, int sign) {
+        long now = System.currentTimeMillis();
+        long createdAt = toMillis(order.getCreatedAt());
+        Map<Long, Long> revenueByStore = new LinkedHashMap<>();
+
+        for (OrderItem item : order.getItems()) {
+            long cents = item.getSubtotal().getCents();
+            add(products, sign, item.getProduct().getId(), item.getQuantity(), cents, createdAt, now);
+            revenueByStore.merge(item.getProduct().getStore().getId(), cents, Long::sum);
+        }
+
+        // A store counts each order once, however many of its products were bought
+        for (Map.Entry<Long, Long> store : revenueByStore.entrySet()) {
+            add(stores, sign, store.getKey(), store.getValue(), 1, createdAt, now);
+        }
+    }
+
+    // A negative sign takes back what an earlier addition recorded
+    private static void add(Map<TopSellingWindow, WindowedTopK> sketches, int sign, long key, long weight, long extra,
+                            long createdAt, long now) {
+        for (WindowedTopK sketch : sketches.values()) {
+            if (sign < 0) {
+                sketch.subtract(key, weight, extra, createdAt, now);
+            } else {
+                sketch.add(key, weight, extra, createdAt, now);
+            }
+        }
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount == null ? 0L : amount.movePointRight(2).longValue();
+    }
+}
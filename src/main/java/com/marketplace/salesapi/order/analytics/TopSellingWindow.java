@@ -0,0 +1,34 @@
+package com.marketplace.salesapi.order.analytics;
+
+import java.time.Duration;
+
+/**
+ * Rolling windows of the real-time top-selling rankings. Each window is split into
+ * buckets and expires a whole bucket at a time, so it covers between
+ * {@code length - bucket} and {@code length} of history.
+ */
+public enum TopSellingWindow {
+    HOUR(Duration.ofHours(1), 12),
+    DAY(Duration.ofDays(1), 24),
+    WEEK(Duration.ofDays(7), 28);
+
+    private final Duration length;
+    private final int buckets;
+
+    TopSellingWindow(Duration length, int buckets) {
+        this.length = length;
+        this.buckets = buckets;
+    }
+
+    public Duration getLength() {
+        return length;
+    }
+
+    public int getBuckets() {
+        return buckets;
+    }
+
+    public long getBucketMillis() {
+        return length.toMillis() / buckets;
+    }
+}
@@ -0,0 +1,94 @@
+package com.marketplace.salesapi.order.analytics;
+
+/**
+ * Space-Saving sketch over a rolling time window. Additions go both to the bucket of
+ * their timestamp and to a running total for the whole window, so a query only reads
+ * the total. When a bucket expires the total is rebuilt by merging the live buckets:
+ * a key that took over a counter in the total inherited its count, and subtracting
+ * the expired bucket's counters would leave that inherited count behind for good.
+ * A cancellation of a key the total no longer monitors is likewise corrected at the
+ * next rebuild. Memory is bounded by {@code (buckets + 1) * capacity} counters.
+ */
+public class WindowedTopK {
+
+    private final TopSellingWindow window;
+    private final SpaceSavingSketch total;
+    private final SpaceSavingSketch[] buckets;
+    private final long[] bucketIds;
+    private long currentBucket = Long.MIN_VALUE;
+
+    public WindowedTopK(TopSellingWindow window, int capacity) {
+        this.window = window;
+        this.total = new SpaceSavingSketch(capacity);
+        this.buckets = new SpaceSavingSketch[window.getBuckets()];
+        this.bucketIds = new long[window.getBuckets()];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new SpaceSavingSketch(capacity);
+            bucketIds[i] = Long.MIN_VALUE;
+        }
+    }
+
+    public synchronized void add(long key, long weight, long extra, long timestampMillis, long nowMillis) {
+        SpaceSavingSketch bucket = liveBucket(timestampMillis, nowMillis);
+        if (bucket != null) {
+            bucket.add(key, weight, extra);
+            total.add(key, weight, extra);
+        }
+    }
+
+    public synchronized void subtract(long key, long weight, long extra, long timestampMillis, long nowMillis) {
+        SpaceSavingSketch bucket = liveBucket(timestampMillis, nowMillis);
+        if (bucket != null) {
+            bucket.subtract(key, weight, extra);
+            total.subtract(key, weight, extra);
+        }
+    }
+
+    /**
+     * Top k keys of the window as {key, count, extra} rows, largest count first.
+     */
+    public synchronized long[][] top(int k, long nowMillis) {
+        advance(nowMillis / window.getBucketMillis());
+        int[] slots = total.top(k);
+        long[][] rows = new long[slots.length][];
+        for (int i = 0; i < slots.length; i++) {
+            rows[i] = new long[]{total.keyAt(slots[i]), total.countAt(slots[i]), total.extraAt(slots[i])};
+        }
+        return rows;
+    }
+
+    private SpaceSavingSketch liveBucket(long timestampMillis, long nowMillis) {
+        advance(nowMillis / window.getBucketMillis());
+        long bucketId = timestampMillis / window.getBucketMillis();
+        if (bucketId > currentBucket || bucketId <= currentBucket - buckets.length) {
+            return null;
+        }
+        int position = (int) Math.floorMod(bucketId, (long) buckets.length);
+        if (bucketIds[position] != bucketId) {
+            return null;
+        }
+        return buckets[position];
+    }
+
+    private void advance(long nowBucket) {
+        if (nowBucket <= currentBucket) {
+            return;
+        }
+        // Expire every bucket that falls out of the window, at most one full turn
+        boolean expired = false;
+        long first = Math.max(nowBucket - buckets.length + 1, currentBucket + 1);
+        for (long bucketId = first; bucketId <= nowBucket; bucketId++) {
+            int position = (int) Math.floorMod(bucketId, (long) buckets.length);
+            expired |= buckets[position].size() > 0;
+            buckets[position].clear();
+            bucketIds[position] = bucketId;
+        }
+        currentBucket = nowBucket;
+        if (expired) {
+            total.clear();
+            for (SpaceSavingSketch bucket : buckets) {
+                total.merge(bucket);
+            }
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.marketplace.salesapi.order.controller;
 
+import com.marketplace.salesapi.exception.BadRequestException;
+import com.marketplace.salesapi.order.analytics.TopSellingWindow;
 import com.marketplace.salesapi.order.dto.OrderSummaryDto;
 import com.marketplace.salesapi.order.dto.ProductSalesDto;
 import com.marketplace.salesapi.order.dto.StoreSalesDto;
 import com.marketplace.salesapi.order.service.OrderAnalyticsService;
+import com.marketplace.salesapi.order.service.SalesRollupService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,6 +15,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -23,6 +27,9 @@ public class OrderAnalyticsController {
     @Autowired
     private OrderAnalyticsService analyticsService;
 
+    @Autowired
+    private SalesRollupService salesRollupService;
+
     @GetMapping("/orders/summary")
     @Operation(summary = "Obter resumo de pedidos")
     @PreAuthorize("hasRole('ADMIN')")
@@ -47,26 +54,52 @@ public class OrderAnalyticsController {
     }
 
     @GetMapping("/stores/top-selling")
-    @Operation(summary = "Obter lojas com mais vendas")
+    @Operation(summary = "Obter lojas com mais vendas",
+            description = "Calcula o período exato entre startDate e endDate; com window usa o ranking aproximado da janela e ignora as datas")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<StoreSalesDto>> getTopSellingStores(
             @RequestParam(defaultValue = "10") int limit,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+            @RequestParam(required = false) TopSellingWindow window,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
         
-        List<StoreSalesDto> topStores = analyticsService.getTopSellingStores(limit, startDate, endDate);
+        List<StoreSalesDto> topStores = window != null
+                ? analyticsService.getRealtimeTopSellingStores(limit, window)
+                : analyticsService.getTopSellingStores(limit, required(startDate), required(endDate));
         return ResponseEntity.ok(topStores);
     }
 
     @GetMapping("/products/top-selling")
-    @Operation(summary = "Obter produtos mais vendidos")
+    @Operation(summary = "Obter produtos mais vendidos",
+            description = "Calcula o período exato entre startDate e endDate; com window usa o ranking aproximado da janela e ignora as datas")
     @PreAuthorize("hasRole('SELLER') or hasRole('ADMIN')")
     public ResponseEntity<List<ProductSalesDto>> getTopSellingProducts(
             @RequestParam(defaultValue = "10") int limit,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+            @RequestParam(required = false) TopSellingWindow window,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
         
-        List<ProductSalesDto> topProducts = analyticsService.getTopSellingProducts(limit, startDate, endDate);
+        List<ProductSalesDto> topProducts = window != null
+                ? analyticsService.getRealtimeTopSellingProducts(limit, window)
+                : analyticsService.getTopSellingProducts(limit, required(startDate), required(endDate));
         return ResponseEntity.ok(topProducts);
     }
-}
\ No newline at end of file
+
+    @PostMapping("/rollups/rebuild")
+    @Operation(summary = "Reconstruir os totais diários de vendas de um período")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> rebuildRollups(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        
+        salesRollupService.rebuild(from, to);
+        return ResponseEntity.noContent().build();
+    }
+
+    private static LocalDateTime required(LocalDateTime date) {
+        if (date == null) {
+            throw new BadRequestException("startDate e endDate são obrigatórios sem window");
+        }
+        return date;
+    }
+}
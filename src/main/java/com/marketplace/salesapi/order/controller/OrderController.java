@@ -1,7 +1,15 @@
 package com.marketplace.salesapi.order.controller;
 
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.marketplace.salesapi.common.idempotency.IdempotencyStore;
+import com.marketplace.salesapi.common.pagination.CursorPage;
+import com.marketplace.salesapi.common.pagination.KeysetCursor;
+import com.marketplace.salesapi.common.web.ETags;
 import com.marketplace.salesapi.order.dto.*;
+import com.marketplace.salesapi.order.intake.OrderIntake;
 import com.marketplace.salesapi.order.model.OrderStatus;
+import com.marketplace.salesapi.order.service.GroupCommitCoordinator;
+import com.marketplace.salesapi.order.service.OrderDocumentStore;
 import com.marketplace.salesapi.order.service.OrderService;
 import com.marketplace.salesapi.security.UserDetailsImpl;
 import io.swagger.v3.oas.annotations.Operation;
@@ -13,11 +21,18 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -27,6 +42,15 @@ public class OrderController {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private OrderIntake orderIntake;
+
+    @Autowired
+    private GroupCommitCoordinator groupCommitCoordinator;
+
     @GetMapping
     @Operation(summary = "Listar todos os pedidos")
     @PreAuthorize("hasRole('ADMIN')")
@@ -45,10 +69,44 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
 
+    @GetMapping(params = "cursor")
+    @Operation(summary = "Listar todos os pedidos (paginação por cursor, sem contagem total)")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CursorPage<OrderDto>> scrollAllOrders(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String direction) {
+        
+        KeysetCursor keysetCursor = KeysetCursor.of(cursor, sortBy, direction, size, OrderService.CURSOR_SORT_KEYS);
+        CursorPage<OrderDto> orders = orderService.scrollAllOrders(keysetCursor);
+        
+        return ResponseEntity.ok(orders);
+    }
+
+    @GetMapping(params = {"fields", "!cursor"})
+    @Operation(summary = "Listar todos os pedidos, apenas com os campos informados em fields (separados por vírgula)")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Page<Map<String, Object>>> getAllOrderFields(
+            @RequestParam String fields,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String direction) {
+        
+        Sort.Direction sortDirection = direction.equalsIgnoreCase("desc") ? 
+                Sort.Direction.DESC : Sort.Direction.ASC;
+        
+        Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sortBy));
+        Page<Map<String, Object>> orders = orderService.getAllOrders(fields, pageable);
+        
+        return ResponseEntity.ok(orders);
+    }
+
     @GetMapping("/my-orders")
     @Operation(summary = "Listar pedidos do usuário logado")
     @PreAuthorize("hasRole('USER') or hasRole('SELLER') or hasRole('ADMIN')")
-    public ResponseEntity<Page<OrderDto>> getMyOrders(
+    public ResponseEntity<Page<RawValue>> getMyOrders(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
@@ -60,7 +118,45 @@ public class OrderController {
                 Sort.Direction.DESC : Sort.Direction.ASC;
         
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sortBy));
-        Page<OrderDto> orders = orderService.getOrdersByUser(userId, pageable);
+        Page<RawValue> orders = orderService.getOrderDocumentsByUser(userId, pageable);
+        
+        return ResponseEntity.ok(orders);
+    }
+
+    @GetMapping(value = "/my-orders", params = "cursor")
+    @Operation(summary = "Listar pedidos do usuário logado (paginação por cursor, sem contagem total)")
+    @PreAuthorize("hasRole('USER') or hasRole('SELLER') or hasRole('ADMIN')")
+    public ResponseEntity<CursorPage<OrderDto>> scrollMyOrders(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String direction) {
+        
+        Long userId = getCurrentUserId();
+        
+        KeysetCursor keysetCursor = KeysetCursor.of(cursor, sortBy, direction, size, OrderService.CURSOR_SORT_KEYS);
+        CursorPage<OrderDto> orders = orderService.scrollOrdersByUser(userId, keysetCursor);
+        
+        return ResponseEntity.ok(orders);
+    }
+
+    @GetMapping(value = "/my-orders", params = {"fields", "!cursor"})
+    @Operation(summary = "Listar pedidos do usuário logado, apenas com os campos informados em fields")
+    @PreAuthorize("hasRole('USER') or hasRole('SELLER') or hasRole('ADMIN')")
+    public ResponseEntity<Page<Map<String, Object>>> getMyOrderFields(
+            @RequestParam String fields,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String direction) {
+        
+        Long userId = getCurrentUserId();
+        
+        Sort.Direction sortDirection = direction.equalsIgnoreCase("desc") ? 
+                Sort.Direction.DESC : Sort.Direction.ASC;
+        
+        Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sortBy));
+        Page<Map<String, Object>> orders = orderService.getOrdersByUser(userId, fields, pageable);
         
         return ResponseEntity.ok(orders);
     }
@@ -84,6 +180,22 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
 
+    @GetMapping(value = "/store/{storeId}", params = "cursor")
+    @Operation(summary = "Listar pedidos de uma loja (paginação por cursor, sem contagem total)")
+    @PreAuthorize("hasRole('SELLER') or hasRole('ADMIN')")
+    public ResponseEntity<CursorPage<OrderDto>> scrollStoreOrders(
+            @PathVariable Long storeId,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String direction) {
+        
+        KeysetCursor keysetCursor = KeysetCursor.of(cursor, sortBy, direction, size, OrderService.STORE_CURSOR_SORT_KEYS);
+        CursorPage<OrderDto> orders = orderService.scrollOrdersByStore(storeId, keysetCursor);
+        
+        return ResponseEntity.ok(orders);
+    }
+
     @GetMapping("/store/{storeId}/status/{status}")
     @Operation(summary = "Listar pedidos de uma loja por status")
     @PreAuthorize("hasRole('SELLER') or hasRole('ADMIN')")
@@ -104,6 +216,23 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
 
+    @GetMapping(value = "/store/{storeId}/status/{status}", params = "cursor")
+    @Operation(summary = "Listar pedidos de uma loja por status (paginação por cursor, sem contagem total)")
+    @PreAuthorize("hasRole('SELLER') or hasRole('ADMIN')")
+    public ResponseEntity<CursorPage<OrderDto>> scrollStoreOrdersByStatus(
+            @PathVariable Long storeId,
+            @PathVariable OrderStatus status,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String direction) {
+        
+        KeysetCursor keysetCursor = KeysetCursor.of(cursor, sortBy, direction, size, OrderService.STORE_CURSOR_SORT_KEYS);
+        CursorPage<OrderDto> orders = orderService.scrollOrdersByStoreAndStatus(storeId, status, keysetCursor);
+        
+        return ResponseEntity.ok(orders);
+    }
+
     @GetMapping("/status/{status}")
     @Operation(summary = "Listar pedidos por status")
     @PreAuthorize("hasRole('ADMIN')")
@@ -123,29 +252,112 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
 
+    @GetMapping(value = "/status/{status}", params = "cursor")
+    @Operation(summary = "Listar pedidos por status (paginação por cursor, sem contagem total)")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CursorPage<OrderDto>> scrollOrdersByStatus(
+            @PathVariable OrderStatus status,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String direction) {
+        
+        KeysetCursor keysetCursor = KeysetCursor.of(cursor, sortBy, direction, size, OrderService.CURSOR_SORT_KEYS);
+        CursorPage<OrderDto> orders = orderService.scrollOrdersByStatus(status, keysetCursor);
+        
+        return ResponseEntity.ok(orders);
+    }
+
+    @GetMapping(value = "/status/{status}", params = {"fields", "!cursor"})
+    @Operation(summary = "Listar pedidos por status, apenas com os campos informados em fields")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Page<Map<String, Object>>> getOrderFieldsByStatus(
+            @PathVariable OrderStatus status,
+            @RequestParam String fields,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String direction) {
+        
+        Sort.Direction sortDirection = direction.equalsIgnoreCase("desc") ? 
+                Sort.Direction.DESC : Sort.Direction.ASC;
+        
+        Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sortBy));
+        Page<Map<String, Object>> orders = orderService.getOrdersByStatus(status, fields, pageable);
+        
+        return ResponseEntity.ok(orders);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Obter pedido por ID")
     @PreAuthorize("hasRole('USER') or hasRole('SELLER') or hasRole('ADMIN')")
-    public ResponseEntity<OrderDto> getOrderById(@PathVariable Long id) {
-        OrderDto order = orderService.getOrderById(id);
-        return ResponseEntity.ok(order);
+    public ResponseEntity<?> getOrderById(@PathVariable Long id, WebRequest webRequest) {
+        // A revalidation is answered from the document's ETag, before reading the document
+        if (ETags.isRevalidation(webRequest)
+                && orderService.findOrderDocumentETag(id).map(webRequest::checkNotModified).orElse(false)) {
+            return null;
+        }
+        // The stored document is sent as is; orders without one yet are converted as before
+        Optional<OrderDocumentStore.Document> document = orderService.findOrderDocument(id);
+        if (document.isEmpty()) {
+            return ResponseEntity.ok(orderService.getOrderById(id));
+        }
+        return document(document.get(), webRequest);
+    }
+
+    @GetMapping("/{id}/timeline")
+    @Operation(summary = "Obter o histórico de alterações de um pedido")
+    @PreAuthorize("hasRole('USER') or hasRole('SELLER') or hasRole('ADMIN')")
+    public ResponseEntity<List<OrderTimelineEntryDto>> getOrderTimeline(@PathVariable Long id) {
+        return ResponseEntity.ok(orderService.getOrderTimeline(id));
     }
 
     @GetMapping("/number/{orderNumber}")
     @Operation(summary = "Obter pedido por número")
     @PreAuthorize("hasRole('USER') or hasRole('SELLER') or hasRole('ADMIN')")
-    public ResponseEntity<OrderDto> getOrderByNumber(@PathVariable String orderNumber) {
-        OrderDto order = orderService.getOrderByNumber(orderNumber);
-        return ResponseEntity.ok(order);
+    public ResponseEntity<?> getOrderByNumber(@PathVariable String orderNumber, WebRequest webRequest) {
+        if (ETags.isRevalidation(webRequest)
+                && orderService.findOrderDocumentETagByNumber(orderNumber).map(webRequest::checkNotModified).orElse(false)) {
+            return null;
+        }
+        Optional<OrderDocumentStore.Document> document = orderService.findOrderDocumentByNumber(orderNumber);
+        if (document.isEmpty()) {
+            return ResponseEntity.ok(orderService.getOrderByNumber(orderNumber));
+        }
+        return document(document.get(), webRequest);
     }
 
     @PostMapping
     @Operation(summary = "Criar um novo pedido")
     @PreAuthorize("hasRole('USER') or hasRole('SELLER') or hasRole('ADMIN')")
-    public ResponseEntity<OrderDto> createOrder(@Valid @RequestBody CreateOrderRequest request) {
+    public ResponseEntity<?> createOrder(
+            @Valid @RequestBody CreateOrderRequest request,
+            @RequestHeader(value = IdempotencyStore.KEY_HEADER, required = false) String idempotencyKey) {
+        Long userId = getCurrentUserId();
+        if (orderIntake.isEnabled()) {
+            // Peak mode: 202 with a token to poll, the order is created by the intake workers
+            IdempotencyStore.Result<OrderIntake.Ticket> accepted = idempotencyStore.execute("POST /api/orders (intake)",
+                    userId, idempotencyKey, request, () -> orderIntake.submit(request, userId));
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .location(URI.create("/api/orders/intake/" + accepted.value().getToken()))
+                    .headers(headers -> {
+                        if (accepted.replayed()) {
+                            headers.set(IdempotencyStore.REPLAYED_HEADER, "true");
+                        }
+                    })
+                    .body(accepted.value().toDto());
+        }
+        IdempotencyStore.Result<OrderDto> createdOrder = idempotencyStore.execute("POST /api/orders", userId,
+                idempotencyKey, request, () -> groupCommitCoordinator.createOrder(request, userId));
+        return respond(HttpStatus.CREATED, createdOrder);
+    }
+
+    @GetMapping("/intake/{token}")
+    @Operation(summary = "Consultar o processamento de um pedido aceito (modo assíncrono)")
+    @PreAuthorize("hasRole('USER') or hasRole('SELLER') or hasRole('ADMIN')")
+    public ResponseEntity<OrderIntakeDto> getIntakeStatus(@PathVariable String token) {
         Long userId = getCurrentUserId();
-        OrderDto createdOrder = orderService.createOrder(request, userId);
-        return new ResponseEntity<>(createdOrder, HttpStatus.CREATED);
+        return ResponseEntity.ok(orderIntake.getStatus(token, userId));
     }
 
     @PatchMapping("/{id}/status")
@@ -166,12 +378,14 @@ public class OrderController {
     @PreAuthorize("hasRole('SELLER') or hasRole('ADMIN')")
     public ResponseEntity<OrderDto> updatePaymentStatus(
             @PathVariable Long id,
-            @Valid @RequestBody UpdatePaymentStatusRequest request) {
+            @Valid @RequestBody UpdatePaymentStatusRequest request,
+            @RequestHeader(value = IdempotencyStore.KEY_HEADER, required = false) String idempotencyKey) {
         
         Long userId = getCurrentUserId();
-        OrderDto updatedOrder = orderService.updatePaymentStatus(id, request, userId);
+        IdempotencyStore.Result<OrderDto> updatedOrder = idempotencyStore.execute("PATCH /api/orders/" + id + "/payment",
+                userId, idempotencyKey, request, () -> orderService.updatePaymentStatus(id, request, userId));
         
-        return ResponseEntity.ok(updatedOrder);
+        return respond(HttpStatus.OK, updatedOrder);
     }
 
     @PatchMapping("/{id}/shipping")
@@ -196,6 +410,22 @@ public class OrderController {
         return ResponseEntity.noContent().build();
     }
 
+    private static <T> ResponseEntity<T> respond(HttpStatus status, IdempotencyStore.Result<T> result) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(status);
+        if (result.replayed()) {
+            response.header(IdempotencyStore.REPLAYED_HEADER, "true");
+        }
+        return response.body(result.value());
+    }
+
+    // Sets the document's ETag, and answers 304 if it matches after all
+    private static ResponseEntity<byte[]> document(OrderDocumentStore.Document document, WebRequest webRequest) {
+        if (webRequest.checkNotModified(document.eTag())) {
+            return null;
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(document.body());
+    }
+
     private Long getCurrentUserId() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null || authentication.getPrincipal() == null || 
@@ -0,0 +1,16 @@
+package com.marketplace.salesapi.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOrderUpdateDto {
+    private int updated;
+    private int failed;
+    private List<BulkOrderUpdateResultDto> results;
+}
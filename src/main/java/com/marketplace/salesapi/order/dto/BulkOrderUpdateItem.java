@@ -0,0 +1,23 @@
+package com.marketplace.salesapi.order.dto;
+
+import com.marketplace.salesapi.order.model.OrderStatus;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * One order of a bulk update. Every field but orderId is optional; a shippedDate without
+ * a status moves an order in PROCESSING to SHIPPED, as the single order endpoint does.
+ */
+@Data
+public class BulkOrderUpdateItem {
+    @NotNull(message = "ID do pedido é obrigatório")
+    private Long orderId;
+
+    private OrderStatus status;
+
+    private String trackingNumber;
+
+    private LocalDateTime shippedDate;
+}
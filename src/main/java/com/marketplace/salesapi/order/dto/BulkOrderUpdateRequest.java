@@ -0,0 +1,18 @@
+package com.marketplace.salesapi.order.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkOrderUpdateRequest {
+
+    public static final int MAX_ORDERS = 5000;
+
+    @NotEmpty(message = "Pedidos são obrigatórios")
+    @Size(max = MAX_ORDERS, message = "No máximo " + MAX_ORDERS + " pedidos por requisição")
+    private List<@Valid BulkOrderUpdateItem> orders;
+}
@@ -0,0 +1,17 @@
+package com.marketplace.salesapi.order.dto;
+
+import com.marketplace.salesapi.order.model.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Outcome of one order of a bulk update: its status afterwards, or why it was left unchanged
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOrderUpdateResultDto {
+    private Long orderId;
+    private boolean updated;
+    private OrderStatus status;
+    private String error;
+}
@@ -21,6 +21,8 @@ public class OrderDto {
     private BigDecimal discount;
     private BigDecimal tax;
     private BigDecimal total;
+    // The listing store's part of the order; only set by the store order listings
+    private StoreOrderDto storeOrder;
     private String notes;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
@@ -132,6 +134,14 @@ public class OrderDto {
         this.total = total;
     }
     
+    public StoreOrderDto getStoreOrder() {
+        return storeOrder;
+    }
+    
+    public void setStoreOrder(StoreOrderDto storeOrder) {
+        this.storeOrder = storeOrder;
+    }
+    
     public String getNotes() {
         return notes;
     }
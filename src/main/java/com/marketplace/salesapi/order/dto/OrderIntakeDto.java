@@ -0,0 +1,74 @@
+package com.marketplace.salesapi.order.dto;
+
+import com.marketplace.salesapi.order.intake.OrderIntakeStatus;
+
+import java.time.LocalDateTime;
+
+public class OrderIntakeDto {
+    private String token;
+    private OrderIntakeStatus status;
+    private Long orderId;
+    private String orderNumber;
+    private String error;
+    private LocalDateTime acceptedAt;
+    private LocalDateTime completedAt;
+
+    public OrderIntakeDto() {
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public OrderIntakeStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(OrderIntakeStatus status) {
+        this.status = status;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public String getOrderNumber() {
+        return orderNumber;
+    }
+
+    public void setOrderNumber(String orderNumber) {
+        this.orderNumber = orderNumber;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public LocalDateTime getAcceptedAt() {
+        return acceptedAt;
+    }
+
+    public void setAcceptedAt(LocalDateTime acceptedAt) {
+        this.acceptedAt = acceptedAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+}
@@ -15,6 +15,10 @@ public class OrderSummaryDto {
     private Map<OrderStatus, Long> ordersByStatus;
     private Map<String, Long> ordersByMonth;
     private BigDecimal averageOrderValue;
+    private Long distinctCustomers;
+    private BigDecimal orderValueP50;
+    private BigDecimal orderValueP90;
+    private BigDecimal orderValueP99;
     
     public Long getTotalOrders() {
         return totalOrders;
@@ -55,4 +59,36 @@ public class OrderSummaryDto {
     public void setAverageOrderValue(BigDecimal averageOrderValue) {
         this.averageOrderValue = averageOrderValue;
     }
+    
+    public Long getDistinctCustomers() {
+        return distinctCustomers;
+    }
+    
+    public void setDistinctCustomers(Long distinctCustomers) {
+        this.distinctCustomers = distinctCustomers;
+    }
+    
+    public BigDecimal getOrderValueP50() {
+        return orderValueP50;
+    }
+    
+    public void setOrderValueP50(BigDecimal orderValueP50) {
+        this.orderValueP50 = orderValueP50;
+    }
+    
+    public BigDecimal getOrderValueP90() {
+        return orderValueP90;
+    }
+    
+    public void setOrderValueP90(BigDecimal orderValueP90) {
+        this.orderValueP90 = orderValueP90;
+    }
+    
+    public BigDecimal getOrderValueP99() {
+        return orderValueP99;
+    }
+    
+    public void setOrderValueP99(BigDecimal orderValueP99) {
+        this.orderValueP99 = orderValueP99;
+    }
 }
\ No newline at end of file
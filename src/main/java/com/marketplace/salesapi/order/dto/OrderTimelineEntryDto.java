@@ -0,0 +1,24 @@
+package com.marketplace.salesapi.order.dto;
+
+import com.marketplace.salesapi.order.journal.OrderEventType;
+import com.marketplace.salesapi.order.model.OrderStatus;
+import com.marketplace.salesapi.order.model.PaymentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// One change in the history of an order, with the state the order was left in
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderTimelineEntryDto {
+    private LocalDateTime occurredAt;
+    private OrderEventType type;
+    private OrderStatus previousStatus;
+    private OrderStatus status;
+    private PaymentStatus paymentStatus;
+    private String trackingNumber;
+    private long version;
+}
@@ -0,0 +1,25 @@
+package com.marketplace.salesapi.order.dto;
+
+import com.marketplace.salesapi.order.model.OrderStatus;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// One store's part of an order
+@Data
+@NoArgsConstructor
+public class StoreOrderDto {
+    private Long orderId;
+    private Long storeId;
+    private OrderStatus status;
+    private Integer itemCount;
+    private BigDecimal subtotal;
+    private String trackingNumber;
+    private LocalDateTime shippedDate;
+    private LocalDateTime deliveredDate;
+    private Long version;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
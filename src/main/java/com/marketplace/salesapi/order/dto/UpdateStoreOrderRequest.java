@@ -0,0 +1,23 @@
+package com.marketplace.salesapi.order.dto;
+
+import com.marketplace.salesapi.order.model.OrderStatus;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fulfillment of one store's part of an order: SHIPPED or DELIVERED. Dates left out
+ * default to now when the sub-order reaches that status.
+ */
+@Data
+public class UpdateStoreOrderRequest {
+    @NotNull(message = "Status é obrigatório")
+    private OrderStatus status;
+
+    private String trackingNumber;
+
+    private LocalDateTime shippedDate;
+
+    private LocalDateTime deliveredDate;
+}
@@ -0,0 +1,20 @@
+package com.marketplace.salesapi.order.event;
+
+import com.marketplace.salesapi.order.model.Order;
+
+/**
+ * Published by OrderService once a new order, its items, payment and shipping
+ * info have been persisted. Synchronous listeners run inside the checkout transaction.
+ */
+public class OrderCreatedEvent {
+
+    private final Order order;
+
+    public OrderCreatedEvent(Order order) {
+        this.order = order;
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+}
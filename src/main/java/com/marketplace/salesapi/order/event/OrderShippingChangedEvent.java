@@ -0,0 +1,20 @@
+package com.marketplace.salesapi.order.event;
+
+import com.marketplace.salesapi.order.model.Order;
+
+/**
+ * Published by OrderService after the shipping info of an order is updated. Synchronous
+ * listeners run inside the transaction that changed it.
+ */
+public class OrderShippingChangedEvent {
+
+    private final Order order;
+
+    public OrderShippingChangedEvent(Order order) {
+        this.order = order;
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+}
@@ -0,0 +1,31 @@
+package com.marketplace.salesapi.order.event;
+
+import com.marketplace.salesapi.order.model.Order;
+import com.marketplace.salesapi.order.model.OrderStatus;
+
+/**
+ * Published by OrderService whenever an order moves to a different status.
+ * Synchronous listeners run inside the transaction that changed the status.
+ */
+public class OrderStatusChangedEvent {
+
+    private final Order order;
+    private final OrderStatus previousStatus;
+
+    public OrderStatusChangedEvent(Order order, OrderStatus previousStatus) {
+        this.order = order;
+        this.previousStatus = previousStatus;
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+
+    public OrderStatus getPreviousStatus() {
+        return previousStatus;
+    }
+
+    public OrderStatus getNewStatus() {
+        return order.getStatus();
+    }
+}
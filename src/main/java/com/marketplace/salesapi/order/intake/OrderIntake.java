@@ -0,0 +1,261 @@
+package com.marketplace.salesapi.order.intake;
+
+import com.marketplace.salesapi.exception.OrderIntakeFullException;
+import com.marketplace.salesapi.exception.ResourceNotFoundException;
+import com.marketplace.salesapi.order.dto.CreateOrderRequest;
+import com.marketplace.salesapi.order.dto.OrderDto;
+import com.marketplace.salesapi.order.dto.OrderIntakeDto;
+import com.marketplace.salesapi.order.service.GroupCommitCoordinator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accept-then-process mode of order creation, for peak events (app.order-intake.enabled).
+ *
+ * Accepted requests wait in a bounded queue and get a token to poll. A dispatcher hands
+ * them to virtual threads that run createOrder (through the group commit, when enabled),
+ * at most app.order-intake.concurrency at a time; each order frees its slot as soon as it
+ * finishes. Request latency no longer waits for the database commit, and a full queue
+ * rejects new requests instead of growing.
+ *
+ * Tickets live in memory on the node that accepted them, for app.order-intake.result-ttl
+ * after they finish, and are evicted on a timer in the order they finished; a shutdown
+ * stops accepting and works off what is already queued.
+ */
+@Component
+public class OrderIntake {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderIntake.class);
+
+    @Autowired
+    private GroupCommitCoordinator groupCommitCoordinator;
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${app.order-intake.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.order-intake.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${app.order-intake.concurrency:20}")
+    private int concurrency;
+
+    @Value("${app.order-intake.result-ttl:PT1H}")
+    private Duration resultTtl;
+
+    private BlockingQueue<Ticket> queue;
+    private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+    // Finished tickets, oldest first
+    private final Queue<Ticket> finished = new ConcurrentLinkedQueue<>();
+    private ExecutorService workers;
+    private Semaphore slots;
+    private Thread dispatcher;
+    private volatile boolean running;
+
+    private Timer lag;
+    private Counter rejected;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        workers = Executors.newVirtualThreadPerTaskExecutor();
+        slots = new Semaphore(concurrency);
+        running = true;
+        dispatcher = Thread.ofPlatform().name("order-intake").daemon().start(this::dispatch);
+
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            Gauge.builder("orders.intake.queue.depth", queue, BlockingQueue::size).register(registry);
+            lag = Timer.builder("orders.intake.lag")
+                    .description("Time accepted orders wait in the queue before processing starts")
+                    .register(registry);
+            rejected = Counter.builder("orders.intake.rejected").register(registry);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        running = false;
+        dispatcher.join(TimeUnit.SECONDS.toMillis(30));
+        workers.shutdown();
+        workers.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues the order for creation and returns its ticket, which follows the order
+     * through processing.
+     *
+     * @throws OrderIntakeFullException if the queue is full
+     */
+    public Ticket submit(CreateOrderRequest request, Long userId) {
+        Ticket ticket = new Ticket(UUID.randomUUID().toString(), userId, request);
+        tickets.put(ticket.token, ticket);
+        if (!running || !queue.offer(ticket)) {
+            tickets.remove(ticket.token);
+            if (rejected != null) {
+                rejected.increment();
+            }
+            throw new OrderIntakeFullException("Muitos pedidos em processamento, tente novamente em instantes", 1);
+        }
+        return ticket;
+    }
+
+    public OrderIntakeDto getStatus(String token, Long userId) {
+        Ticket ticket = tickets.get(token);
+        if (ticket == null || !ticket.userId.equals(userId)) {
+            throw new ResourceNotFoundException("Pedido em processamento não encontrado com o token: " + token);
+        }
+        return ticket.toDto();
+    }
+
+    private void dispatch() {
+        while (running || !queue.isEmpty()) {
+            try {
+                // A slot first, so orders wait in the queue (and push back) while all are busy
+                if (!slots.tryAcquire(1, TimeUnit.SECONDS)) {
+                    continue;
+                }
+                Ticket ticket = queue.poll(1, TimeUnit.SECONDS);
+                if (ticket == null) {
+                    slots.release();
+                } else {
+                    start(ticket);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Order intake dispatcher failed, continuing", e);
+            }
+        }
+    }
+
+    // Each order commits in its own transaction and frees its slot when it finishes
+    private void start(Ticket ticket) {
+        ticket.status = OrderIntakeStatus.PROCESSING;
+        if (lag != null) {
+            lag.record(System.nanoTime() - ticket.acceptedNanos, TimeUnit.NANOSECONDS);
+        }
+        try {
+            workers.submit(() -> {
+                try {
+                    create(ticket);
+                } finally {
+                    slots.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            slots.release();
+            throw e;
+        }
+    }
+
+    private void create(Ticket ticket) {
+        OrderIntakeStatus outcome = OrderIntakeStatus.FAILED;
+        try {
+            OrderDto order = groupCommitCoordinator.createOrder(ticket.request, ticket.userId);
+            ticket.orderId = order.getId();
+            ticket.orderNumber = order.getOrderNumber();
+            outcome = OrderIntakeStatus.COMPLETED;
+        } catch (RuntimeException e) {
+            logger.warn("Queued order {} failed: {}", ticket.token, e.getMessage());
+            ticket.error = e.getMessage();
+        } finally {
+            // Also on an Error, so the ticket never stays in PROCESSING
+            if (outcome == OrderIntakeStatus.FAILED && ticket.error == null) {
+                ticket.error = "Erro inesperado ao criar o pedido";
+            }
+            ticket.request = null;
+            ticket.completedAt = LocalDateTime.now();
+            // Written last, so a poll that sees the outcome also sees its fields
+            ticket.status = outcome;
+            finished.offer(ticket);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.order-intake.eviction-interval-ms:60000}")
+    public void evictFinished() {
+        LocalDateTime expired = LocalDateTime.now().minus(resultTtl);
+        Ticket oldest;
+        while ((oldest = finished.peek()) != null && oldest.completedAt.isBefore(expired)) {
+            finished.poll();
+            tickets.remove(oldest.token);
+        }
+    }
+
+    /**
+     * An accepted order. Replays of the request (Idempotency-Key) keep the ticket, so they
+     * report where the order is now rather than where it was when first accepted.
+     */
+    public static class Ticket {
+        private final String token;
+        private final Long userId;
+        private final LocalDateTime acceptedAt = LocalDateTime.now();
+        private final long acceptedNanos = System.nanoTime();
+        private volatile CreateOrderRequest request;
+        private volatile OrderIntakeStatus status = OrderIntakeStatus.QUEUED;
+        private volatile Long orderId;
+        private volatile String orderNumber;
+        private volatile String error;
+        private volatile LocalDateTime completedAt;
+
+        private Ticket(String token, Long userId, CreateOrderRequest request) {
+            this.token = token;
+            this.userId = userId;
+            this.request = request;
+        }
+
+        public String getToken() {
+            return token;
+        }
+
+        public OrderIntakeDto toDto() {
+            OrderIntakeDto dto = new OrderIntakeDto();
+            dto.setToken(token);
+            dto.setStatus(status);
+            dto.setOrderId(orderId);
+            dto.setOrderNumber(orderNumber);
+            dto.setError(error);
+            dto.setAcceptedAt(acceptedAt);
+            dto.setCompletedAt(completedAt);
+            return dto;
+        }
+    }
+}
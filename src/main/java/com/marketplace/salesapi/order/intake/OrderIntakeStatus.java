@@ -0,0 +1,8 @@
+package com.marketplace.salesapi.order.intake;
+
+public enum OrderIntakeStatus {
+    QUEUED,
+    PROCESSING,
+    COMPLETED,
+    FAILED
+}
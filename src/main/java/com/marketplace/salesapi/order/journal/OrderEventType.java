@@ -0,0 +1,33 @@
+package com.marketplace.salesapi.order.journal;
+
+/**
+ * Kinds of entries in the order journal, stored by code. Codes are part of the stored
+ * data: add new kinds with new codes, never renumber.
+ */
+public enum OrderEventType {
+    IMPORTED(0),         // State of an order placed before the journal existed
+    CREATED(1),
+    STATUS_CHANGED(2),
+    CANCELLED(3),
+    PAYMENT_CHANGED(4),
+    SHIPPING_CHANGED(5);
+
+    private final short code;
+
+    OrderEventType(int code) {
+        this.code = (short) code;
+    }
+
+    public short getCode() {
+        return code;
+    }
+
+    public static OrderEventType ofCode(short code) {
+        for (OrderEventType type : values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown order event type code: " + code);
+    }
+}
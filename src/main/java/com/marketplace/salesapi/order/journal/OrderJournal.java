@@ -0,0 +1,109 @@
+package com.marketplace.salesapi.order.journal;
+
+import com.marketplace.salesapi.order.event.OrderCreatedEvent;
+import com.marketplace.salesapi.order.event.OrderPaymentChangedEvent;
+import com.marketplace.salesapi.order.event.OrderShippingChangedEvent;
+import com.marketplace.salesapi.order.event.OrderStatusChangedEvent;
+import com.marketplace.salesapi.order.model.Order;
+import com.marketplace.salesapi.order.model.OrderStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Append-only history of every order: creation, status (including cancellation), payment
+ * and shipping changes. Entries are appended by synchronous listeners, inside the
+ * transaction that changed the order, and never updated. Besides the per-order timeline,
+ * the journal can be replayed in time order to rebuild projections derived from orders.
+ */
+@Component
+public class OrderJournal {
+
+    private static final int REPLAY_FETCH_SIZE = 1000;
+
+    private static final String COLUMNS = "id, order_id, occurred_at, order_version, event_type, status, payment_status, detail";
+
+    private static final RowMapper<OrderJournalEntry> ENTRY_MAPPER = (rs, rowNum) -> new OrderJournalEntry(
+            rs.getLong("id"),
+            rs.getLong("order_id"),
+            rs.getTimestamp("occurred_at").toLocalDateTime(),
+            rs.getLong("order_version"),
+            OrderEventType.ofCode(rs.getShort("event_type")),
+            OrderJournalCodes.orderStatus(rs.getShort("status")),
+            OrderJournalCodes.paymentStatus(rs.getObject("payment_status") != null ? rs.getShort("payment_status") : null),
+            rs.getString("detail"));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @EventListener
+    public void onOrderCreated(OrderCreatedEvent event) {
+        append(event.getOrder(), OrderEventType.CREATED, null);
+    }
+
+    @EventListener
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        OrderEventType type = event.getNewStatus() == OrderStatus.CANCELLED
+                ? OrderEventType.CANCELLED : OrderEventType.STATUS_CHANGED;
+        append(event.getOrder(), type, null);
+    }
+
+    @EventListener
+    public void onOrderPaymentChanged(OrderPaymentChangedEvent event) {
+        append(event.getOrder(), OrderEventType.PAYMENT_CHANGED, null);
+    }
+
+    @EventListener
+    public void onOrderShippingChanged(OrderShippingChangedEvent event) {
+        Order order = event.getOrder();
+        String trackingNumber = order.getShippingInfo() != null ? order.getShippingInfo().getTrackingNumber() : null;
+        append(order, OrderEventType.SHIPPING_CHANGED, trackingNumber);
+    }
+
+    /**
+     * Entries of one order, oldest first. Reads only columns of the timeline index.
+     */
+    @Transactional(readOnly = true)
+    public List<OrderJournalEntry> timeline(Long orderId) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM order_events WHERE order_id = ? ORDER BY occurred_at, id",
+                ENTRY_MAPPER, orderId);
+    }
+
+    /**
+     * Streams the entries that occurred in [from, to) in time order, all orders mixed, to
+     * rebuild a projection. Rows are fetched in chunks, so the range may be large.
+     */
+    @Transactional(readOnly = true)
+    public void replay(LocalDateTime from, LocalDateTime to, Consumer<OrderJournalEntry> consumer) {
+        int[] rowNum = {0};
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("SELECT " + COLUMNS + " FROM order_events " +
+                    "WHERE occurred_at >= ? AND occurred_at < ? ORDER BY occurred_at, id");
+            statement.setFetchSize(REPLAY_FETCH_SIZE);
+            statement.setTimestamp(1, Timestamp.valueOf(from));
+            statement.setTimestamp(2, Timestamp.valueOf(to));
+            return statement;
+        }, rs -> {
+            consumer.accept(ENTRY_MAPPER.mapRow(rs, rowNum[0]++));
+        });
+    }
+
+    private void append(Order order, OrderEventType type, String detail) {
+        jdbcTemplate.update(
+                "INSERT INTO order_events (order_id, occurred_at, order_version, event_type, status, payment_status, detail) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)",
+                order.getId(), LocalDateTime.now(), order.getVersion() != null ? order.getVersion() : 0L,
+                type.getCode(), OrderJournalCodes.code(order.getStatus()),
+                OrderJournalCodes.code(order.getPayment() != null ? order.getPayment().getPaymentStatus() : null),
+                detail);
+    }
+}
@@ -0,0 +1,50 @@
+package com.marketplace.salesapi.order.journal;
+
+import com.marketplace.salesapi.order.model.OrderStatus;
+import com.marketplace.salesapi.order.model.PaymentStatus;
+
+/**
+ * SMALLINT codes of the statuses stored in order_events. The tables below fix the codes
+ * independently of the enum declaration order (the V7 backfill uses the same ones):
+ * append new statuses at the end.
+ */
+final class OrderJournalCodes {
+
+    private static final OrderStatus[] ORDER_STATUSES = {
+            OrderStatus.PENDING, OrderStatus.PROCESSING, OrderStatus.SHIPPED, OrderStatus.DELIVERED,
+            OrderStatus.COMPLETED, OrderStatus.CANCELLED, OrderStatus.REFUNDED
+    };
+
+    private static final PaymentStatus[] PAYMENT_STATUSES = {
+            PaymentStatus.PENDING, PaymentStatus.PROCESSING, PaymentStatus.COMPLETED,
+            PaymentStatus.FAILED, PaymentStatus.REFUNDED
+    };
+
+    private OrderJournalCodes() {
+    }
+
+    static short code(OrderStatus status) {
+        return indexOf(ORDER_STATUSES, status);
+    }
+
+    static Short code(PaymentStatus status) {
+        return status != null ? indexOf(PAYMENT_STATUSES, status) : null;
+    }
+
+    static OrderStatus orderStatus(short code) {
+        return ORDER_STATUSES[code - 1];
+    }
+
+    static PaymentStatus paymentStatus(Short code) {
+        return code != null ? PAYMENT_STATUSES[code - 1] : null;
+    }
+
+    private static <E> short indexOf(E[] values, E value) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == value) {
+                return (short) (i + 1);
+            }
+        }
+        throw new IllegalArgumentException("No journal code for " + value);
+    }
+}
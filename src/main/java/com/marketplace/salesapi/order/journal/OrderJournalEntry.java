@@ -0,0 +1,15 @@
+package com.marketplace.salesapi.order.journal;
+
+import com.marketplace.salesapi.order.model.OrderStatus;
+import com.marketplace.salesapi.order.model.PaymentStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * One decoded row of order_events: the state of the order right after the change. The
+ * status before a change is the one of the previous entry of the same order.
+ */
+public record OrderJournalEntry(Long id, Long orderId, LocalDateTime occurredAt, long orderVersion,
+                                OrderEventType type, OrderStatus status, PaymentStatus paymentStatus,
+                                String trackingNumber) {
+}
@@ -0,0 +1,55 @@
+package com.marketplace.salesapi.order.journal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the monthly partitions of order_events created ahead of time on PostgreSQL, so
+ * appends never land in the default partition. Other databases keep the journal in a
+ * single table and are left alone.
+ */
+@Component
+public class OrderJournalPartitions {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderJournalPartitions.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.journal.partitions-ahead:2}")
+    private int monthsAhead;
+
+    private volatile Boolean partitioned;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.journal.partition-cron:0 0 3 * * *}")
+    public void ensurePartitions() {
+        if (!isPartitioned()) {
+            return;
+        }
+        try {
+            jdbcTemplate.execute("SELECT order_events_ensure_partitions(" + monthsAhead + ")");
+            logger.debug("Order journal partitions ensured {} months ahead", monthsAhead);
+        } catch (DataAccessException e) {
+            // Appends still land in the default partition meanwhile
+            logger.warn("Could not create the order journal partitions, retrying on the next run", e);
+        }
+    }
+
+    private boolean isPartitioned() {
+        if (partitioned == null) {
+            partitioned = "PostgreSQL".equals(jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName()));
+        }
+        return partitioned;
+    }
+}
@@ -0,0 +1,63 @@
+package com.marketplace.salesapi.order.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Per-product sales of orders created on a given day.
+ * Maintained incrementally by SalesRollupService.
+ */
+@Entity
+@Table(name = "daily_product_sales")
+@IdClass(DailyProductSales.Key.class)
+@NoArgsConstructor
+@Getter
+@Setter
+public class DailyProductSales {
+
+    @Id
+    @Column(name = "sales_date")
+    private LocalDate salesDate;
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "quantity_sold", nullable = false)
+    private Long quantitySold = 0L;
+
+    @Column(precision = 19, scale = 2, nullable = false)
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    public static class Key implements Serializable {
+        private LocalDate salesDate;
+        private Long productId;
+
+        public Key() {
+        }
+
+        public Key(LocalDate salesDate, Long productId) {
+            this.salesDate = salesDate;
+            this.productId = productId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(salesDate, key.salesDate) && Objects.equals(productId, key.productId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(salesDate, productId);
+        }
+    }
+}
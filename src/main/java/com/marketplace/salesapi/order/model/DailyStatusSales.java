@@ -0,0 +1,64 @@
+package com.marketplace.salesapi.order.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Orders created on a given day, grouped by their current status.
+ * Maintained incrementally by SalesRollupService.
+ */
+@Entity
+@Table(name = "daily_status_sales")
+@IdClass(DailyStatusSales.Key.class)
+@NoArgsConstructor
+@Getter
+@Setter
+public class DailyStatusSales {
+
+    @Id
+    @Column(name = "sales_date")
+    private LocalDate salesDate;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private OrderStatus status;
+
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount = 0L;
+
+    @Column(precision = 19, scale = 2, nullable = false)
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    public static class Key implements Serializable {
+        private LocalDate salesDate;
+        private OrderStatus status;
+
+        public Key() {
+        }
+
+        public Key(LocalDate salesDate, OrderStatus status) {
+            this.salesDate = salesDate;
+            this.status = status;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(salesDate, key.salesDate) && status == key.status;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(salesDate, status);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.marketplace.salesapi.order.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Per-store sales of orders created on a given day. The order status is part of
+ * the key so store summaries can still be broken down by status.
+ * Maintained incrementally by SalesRollupService.
+ */
+@Entity
+@Table(name = "daily_store_sales")
+@IdClass(DailyStoreSales.Key.class)
+@NoArgsConstructor
+@Getter
+@Setter
+public class DailyStoreSales {
+
+    @Id
+    @Column(name = "sales_date")
+    private LocalDate salesDate;
+
+    @Id
+    @Column(name = "store_id")
+    private Long storeId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private OrderStatus status;
+
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount = 0L;
+
+    @Column(name = "items_sold", nullable = false)
+    private Long itemsSold = 0L;
+
+    @Column(precision = 19, scale = 2, nullable = false)
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    public static class Key implements Serializable {
+        private LocalDate salesDate;
+        private Long storeId;
+        private OrderStatus status;
+
+        public Key() {
+        }
+
+        public Key(LocalDate salesDate, Long storeId, OrderStatus status) {
+            this.salesDate = salesDate;
+            this.storeId = storeId;
+            this.status = status;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(salesDate, key.salesDate)
+                    && Objects.equals(storeId, key.storeId)
+                    && status == key.status;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(salesDate, storeId, status);
+        }
+    }
+}
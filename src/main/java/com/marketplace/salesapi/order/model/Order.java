@@ -1,25 +1,51 @@
 package com.marketplace.salesapi.order.model;
 
+import com.marketplace.salesapi.common.model.Money;
+import com.marketplace.salesapi.common.model.MoneyConverter;
+import com.marketplace.salesapi.order.number.OrderNumberAssigner;
 import com.marketplace.salesapi.user.model.User;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Table(name = "orders")
+@EntityListeners(OrderNumberAssigner.class)
+@NamedEntityGraph(name = Order.GRAPH_SUMMARY, attributeNodes = {
+        @NamedAttributeNode("user"),
+        @NamedAttributeNode("payment"),
+        @NamedAttributeNode("shippingInfo")
+})
+@NamedEntityGraph(name = Order.GRAPH_DETAIL, attributeNodes = {
+        @NamedAttributeNode("user"),
+        @NamedAttributeNode("payment"),
+        @NamedAttributeNode("shippingInfo"),
+        @NamedAttributeNode(value = "items", subgraph = "items")
+}, subgraphs = {
+        @NamedSubgraph(name = "items", attributeNodes = @NamedAttributeNode(value = "product", subgraph = "product")),
+        @NamedSubgraph(name = "product", attributeNodes = @NamedAttributeNode("store"))
+})
 @NoArgsConstructor
 @Getter
 @Setter
 public class Order {
 
+    // Everything OrderDto needs except the items, safe to combine with paging
+    public static final String GRAPH_SUMMARY = "Order.summary";
+
+    // The whole OrderDto, items, products and stores included, for single orders
+    public static final String GRAPH_DETAIL = "Order.detail";
+
+    // Pooled sequence ids keep the checkout inserts batchable (IDENTITY forces one insert per row)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true)
@@ -32,7 +58,22 @@ public class Order {
     @Enumerated(EnumType.STRING)
     private OrderStatus status = OrderStatus.PENDING;
 
+    // Status before the last transition, set by OrderRepository.transitionStatus
+    @Enumerated(EnumType.STRING)
+    @Column(name = "previous_status")
+    private OrderStatus previousStatus;
+
+    // Whether creating the order took its units from InventoryLedger; orders placed
+    // before the ledger never did, so cancelling them must not return any
+    @Column(name = "stock_reserved", nullable = false, updatable = false)
+    private boolean stockReserved;
+
+    // Bumped by every change, entity saves and conditional updates alike
+    @Version
+    private Long version;
+
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 50)
     private List<OrderItem> items = new ArrayList<>();
 
     @OneToOne(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
@@ -41,15 +82,20 @@ public class Order {
     @OneToOne(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
     private ShippingInfo shippingInfo;
 
-    private BigDecimal subtotal = BigDecimal.ZERO;
+    @Convert(converter = MoneyConverter.class)
+    private Money subtotal = Money.ZERO;
     
-    private BigDecimal shippingCost = BigDecimal.ZERO;
+    @Convert(converter = MoneyConverter.class)
+    private Money shippingCost = Money.ZERO;
     
-    private BigDecimal discount = BigDecimal.ZERO;
+    @Convert(converter = MoneyConverter.class)
+    private Money discount = Money.ZERO;
     
-    private BigDecimal tax = BigDecimal.ZERO;
+    @Convert(converter = MoneyConverter.class)
+    private Money tax = Money.ZERO;
     
-    private BigDecimal total = BigDecimal.ZERO;
+    @Convert(converter = MoneyConverter.class)
+    private Money total = Money.ZERO;
 
     private String notes;
 
@@ -63,10 +109,6 @@ public class Order {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
-        
-        if (orderNumber == null) {
-            orderNumber = generateOrderNumber();
-        }
     }
 
     @PreUpdate
@@ -89,17 +131,12 @@ public class Order {
     public void recalculateOrderTotals() {
         this.subtotal = items.stream()
                 .map(OrderItem::getSubtotal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+                .reduce(Money.ZERO, Money::plus);
         
         this.total = this.subtotal
-                .add(this.shippingCost)
-                .add(this.tax)
-                .subtract(this.discount);
-    }
-    
-    private String generateOrderNumber() {
-        // Simple order number generation - prefix + timestamp
-        return "ORD-" + System.currentTimeMillis();
+                .plus(this.shippingCost)
+                .plus(this.tax)
+                .minus(this.discount);
     }
     
     public Long getId() {
@@ -118,19 +155,19 @@ public class Order {
         this.items = items;
     }
     
-    public BigDecimal getSubtotal() {
+    public Money getSubtotal() {
         return subtotal;
     }
     
-    public void setSubtotal(BigDecimal subtotal) {
+    public void setSubtotal(Money subtotal) {
         this.subtotal = subtotal;
     }
     
-    public BigDecimal getTotal() {
+    public Money getTotal() {
         return total;
     }
     
-    public void setTotal(BigDecimal total) {
+    public void setTotal(Money total) {
         this.total = total;
     }
     
@@ -150,14 +187,22 @@ public class Order {
         this.status = status;
     }
     
-    public BigDecimal getShippingCost() {
+    public Money getShippingCost() {
         return shippingCost;
     }
     
-    public void setShippingCost(BigDecimal shippingCost) {
+    public void setShippingCost(Money shippingCost) {
         this.shippingCost = shippingCost;
     }
     
+    public boolean isStockReserved() {
+        return stockReserved;
+    }
+    
+    public void setStockReserved(boolean stockReserved) {
+        this.stockReserved = stockReserved;
+    }
+    
     public String getNotes() {
         return notes;
     }
@@ -186,19 +231,19 @@ public class Order {
         this.updatedAt = updatedAt;
     }
     
-    public BigDecimal getDiscount() {
+    public Money getDiscount() {
         return discount;
     }
     
-    public void setDiscount(BigDecimal discount) {
+    public void setDiscount(Money discount) {
         this.discount = discount;
     }
     
-    public BigDecimal getTax() {
+    public Money getTax() {
         return tax;
     }
     
-    public void setTax(BigDecimal tax) {
+    public void setTax(Money tax) {
         this.tax = tax;
     }
     
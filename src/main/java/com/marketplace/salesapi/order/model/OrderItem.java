@@ -1,10 +1,11 @@
 package com.marketplace.salesapi.order.model;
 
+import com.marketplace.salesapi.common.model.Money;
+import com.marketplace.salesapi.common.model.MoneyConverter;
 import com.marketplace.salesapi.product.model.Product;
 import jakarta.persistence.*;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 
 @Entity
 @Table(name = "order_items")
@@ -12,7 +13,8 @@ import java.math.BigDecimal;
 public class OrderItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_seq")
+    @SequenceGenerator(name = "order_items_seq", sequenceName = "order_items_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -29,17 +31,20 @@ public class OrderItem {
     
     private Integer quantity;
     
-    private BigDecimal unitPrice;
+    @Convert(converter = MoneyConverter.class)
+    private Money unitPrice;
     
-    private BigDecimal discount = BigDecimal.ZERO;
+    @Convert(converter = MoneyConverter.class)
+    private Money discount = Money.ZERO;
     
-    private BigDecimal subtotal;
+    @Convert(converter = MoneyConverter.class)
+    private Money subtotal;
 
     @PrePersist
     @PreUpdate
-    protected void calculateSubtotal() {
+    public void calculateSubtotal() {
         if (quantity != null && unitPrice != null) {
-            subtotal = unitPrice.multiply(BigDecimal.valueOf(quantity)).subtract(discount);
+            subtotal = unitPrice.times(quantity).minus(discount);
         }
     }
     
@@ -92,27 +97,27 @@ public class OrderItem {
         this.quantity = quantity;
     }
     
-    public BigDecimal getUnitPrice() {
+    public Money getUnitPrice() {
         return unitPrice;
     }
     
-    public void setUnitPrice(BigDecimal unitPrice) {
+    public void setUnitPrice(Money unitPrice) {
         this.unitPrice = unitPrice;
     }
     
-    public BigDecimal getDiscount() {
+    public Money getDiscount() {
         return discount;
     }
     
-    public void setDiscount(BigDecimal discount) {
+    public void setDiscount(Money discount) {
         this.discount = discount;
     }
     
-    public BigDecimal getSubtotal() {
+    public Money getSubtotal() {
         return subtotal;
     }
     
-    public void setSubtotal(BigDecimal subtotal) {
+    public void setSubtotal(Money subtotal) {
         this.subtotal = subtotal;
     }
 }
\ No newline at end of file
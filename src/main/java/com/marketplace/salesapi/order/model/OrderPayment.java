@@ -1,11 +1,12 @@
 package com.marketplace.salesapi.order.model;
 
+import com.marketplace.salesapi.common.model.Money;
+import com.marketplace.salesapi.common.model.MoneyConverter;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
@@ -16,7 +17,8 @@ import java.time.LocalDateTime;
 public class OrderPayment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_payments_seq")
+    @SequenceGenerator(name = "order_payments_seq", sequenceName = "order_payments_seq", allocationSize = 50)
     private Long id;
 
     @OneToOne(fetch = FetchType.LAZY)
@@ -31,7 +33,8 @@ public class OrderPayment {
 
     private String transactionId;
     
-    private BigDecimal amount;
+    @Convert(converter = MoneyConverter.class)
+    private Money amount;
     
     private String paymentDetails;
     
@@ -101,11 +104,11 @@ public class OrderPayment {
         this.transactionId = transactionId;
     }
     
-    public BigDecimal getAmount() {
+    public Money getAmount() {
         return amount;
     }
     
-    public void setAmount(BigDecimal amount) {
+    public void setAmount(Money amount) {
         this.amount = amount;
     }
     
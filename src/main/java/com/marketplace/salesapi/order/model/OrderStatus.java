@@ -1,5 +1,10 @@
 package com.marketplace.salesapi.order.model;
 
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 public enum OrderStatus {
     PENDING,       // Order created but not yet processed
     PROCESSING,    // Order is being processed
@@ -7,5 +12,35 @@ public enum OrderStatus {
     DELIVERED,     // Order has been delivered
     COMPLETED,     // Order has been completed
     CANCELLED,     // Order has been cancelled
-    REFUNDED       // Order has been refunded
-}
\ No newline at end of file
+    REFUNDED;      // Order has been refunded
+
+    // Allowed moves; a cancelled order can be reopened, a refunded one is final
+    private static final Map<OrderStatus, Set<OrderStatus>> TRANSITIONS = new EnumMap<>(OrderStatus.class);
+    private static final Map<OrderStatus, Set<OrderStatus>> SOURCES = new EnumMap<>(OrderStatus.class);
+
+    static {
+        TRANSITIONS.put(PENDING, EnumSet.of(PROCESSING, CANCELLED));
+        TRANSITIONS.put(PROCESSING, EnumSet.of(SHIPPED, DELIVERED, CANCELLED));
+        TRANSITIONS.put(SHIPPED, EnumSet.of(DELIVERED));
+        TRANSITIONS.put(DELIVERED, EnumSet.of(COMPLETED, REFUNDED));
+        TRANSITIONS.put(COMPLETED, EnumSet.of(REFUNDED));
+        TRANSITIONS.put(CANCELLED, EnumSet.of(PENDING));
+        TRANSITIONS.put(REFUNDED, EnumSet.noneOf(OrderStatus.class));
+        for (OrderStatus status : values()) {
+            SOURCES.put(status, EnumSet.noneOf(OrderStatus.class));
+        }
+        TRANSITIONS.forEach((from, targets) -> targets.forEach(to -> SOURCES.get(to).add(from)));
+    }
+
+    public boolean canTransitionTo(OrderStatus target) {
+        return TRANSITIONS.get(this).contains(target);
+    }
+
+    /**
+     * Statuses an order may be in to move to this one, for the WHERE clause of the
+     * conditional status update.
+     */
+    public Set<OrderStatus> sources() {
+        return EnumSet.copyOf(SOURCES.get(this));
+    }
+}
@@ -15,7 +15,8 @@ import java.time.LocalDateTime;
 public class ShippingInfo {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "shipping_info_seq")
+    @SequenceGenerator(name = "shipping_info_seq", sequenceName = "shipping_info_seq", allocationSize = 50)
     private Long id;
 
     @OneToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,60 @@
+package com.marketplace.salesapi.order.model;
+
+import com.marketplace.salesapi.common.model.Money;
+import com.marketplace.salesapi.common.model.MoneyConverter;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * The part of an order one store fulfills: that store's items (count and subtotal), its
+ * own status and its own tracking. Created at checkout by StoreOrderSplitter; sellers move
+ * it with OrderService.updateStoreOrder, and parent-wide changes (payment, cancellation)
+ * are carried down to it.
+ */
+@Entity
+@Table(name = "store_orders")
+@NoArgsConstructor
+@Getter
+public class StoreOrder {
+
+    @Id
+    private Long id;
+
+    @Column(name = "store_id")
+    private Long storeId;
+
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private OrderStatus status;
+
+    @Column(name = "item_count")
+    private Integer itemCount;
+
+    @Convert(converter = MoneyConverter.class)
+    @Column(name = "store_subtotal")
+    private Money storeSubtotal;
+
+    @Column(name = "tracking_number")
+    private String trackingNumber;
+
+    @Column(name = "shipped_date")
+    private LocalDateTime shippedDate;
+
+    @Column(name = "delivered_date")
+    private LocalDateTime deliveredDate;
+
+    @Version
+    private Long version;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,28 @@
+package com.marketplace.salesapi.order.number;
+
+import com.marketplace.salesapi.order.model.Order;
+import jakarta.persistence.PrePersist;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Entity listener of Order (instantiated by Spring through Hibernate's bean container)
+ * that numbers every new order, whichever code path persists it.
+ */
+@Component
+public class OrderNumberAssigner {
+
+    // Used where no generator bean is defined, such as JPA test slices
+    private static final OrderNumberGenerator DEFAULT_GENERATOR = new SnowflakeOrderNumberGenerator(0);
+
+    @Autowired
+    private ObjectProvider<OrderNumberGenerator> orderNumberGenerator;
+
+    @PrePersist
+    public void assignOrderNumber(Order order) {
+        if (order.getOrderNumber() == null) {
+            order.setOrderNumber(orderNumberGenerator.getIfAvailable(() -> DEFAULT_GENERATOR).next());
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.marketplace.salesapi.order.number;
+
+/**
+ * Source of the order numbers assigned to new orders. Numbers must be unique across
+ * every node writing to the same database.
+ */
+public interface OrderNumberGenerator {
+
+    String next();
+}
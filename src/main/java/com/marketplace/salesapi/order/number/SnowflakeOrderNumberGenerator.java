@@ -0,0 +1,72 @@
+package com.marketplace.salesapi.order.number;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Snowflake-style order numbers: milliseconds since 2024-01-01 (41 bits), node id
+ * (10 bits) and a per-millisecond sequence (12 bits), written as fixed-width base 36,
+ * e.g. ORD-0001A2B3C4D5E. Numbers from one node sort in the order they were issued.
+ *
+ * Lock-free: the last (timestamp, sequence) pair is advanced with a CAS. When the
+ * 4096 numbers of a millisecond run out, or the clock moves backwards, the generator
+ * keeps counting from the last timestamp it issued instead of waiting for the clock.
+ */
+@Component
+public class SnowflakeOrderNumberGenerator implements OrderNumberGenerator {
+
+    public static final String PREFIX = "ORD-";
+
+    static final long EPOCH = 1704067200000L;
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int WIDTH = Long.toString(Long.MAX_VALUE, Character.MAX_RADIX).length();
+
+    private final long nodeId;
+    private final LongSupplier clock;
+    private final AtomicLong last = new AtomicLong();
+
+    @Autowired
+    public SnowflakeOrderNumberGenerator(@Value("${app.order-number.node-id:0}") int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    SnowflakeOrderNumberGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("app.order-number.node-id deve estar entre 0 e " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+    }
+
+    @Override
+    public String next() {
+        return format(nextId());
+    }
+
+    long nextId() {
+        long now = clock.getAsLong() - EPOCH;
+        long previous;
+        long current;
+        do {
+            previous = last.get();
+            // A full sequence carries into the timestamp bits, i.e. into the next millisecond
+            current = now > previous >>> SEQUENCE_BITS ? now << SEQUENCE_BITS : previous + 1;
+        } while (!last.compareAndSet(previous, current));
+
+        long timestamp = current >>> SEQUENCE_BITS;
+        return timestamp << (NODE_BITS + SEQUENCE_BITS) | nodeId << SEQUENCE_BITS | current & SEQUENCE_MASK;
+    }
+
+    static String format(long id) {
+        String digits = Long.toString(id, Character.MAX_RADIX).toUpperCase();
+        return PREFIX + "0".repeat(WIDTH - digits.length()) + digits;
+    }
+}
@@ -0,0 +1,52 @@
+package com.marketplace.salesapi.order.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends the relayed events to a local file (app.outbox.sinks.file.path), one JSON object
+ * per line, for tests and local debugging of downstream consumers.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.sinks.file.path")
+public class FileOutboxSink implements OutboxSink {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.outbox.sinks.file.path}")
+    private Path path;
+
+    @Override
+    public synchronized void deliver(List<OutboxMessage> messages) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (OutboxMessage message : messages) {
+                ObjectNode line = objectMapper.createObjectNode()
+                        .put("id", message.id())
+                        .put("orderId", message.orderId())
+                        .put("orderVersion", message.orderVersion())
+                        .put("type", message.type().name())
+                        .put("createdAt", message.createdAt().toString());
+                line.set("payload", objectMapper.readTree(message.payload()));
+                writer.write(objectMapper.writeValueAsString(line));
+                writer.write('\n');
+            }
+        }
+    }
+}
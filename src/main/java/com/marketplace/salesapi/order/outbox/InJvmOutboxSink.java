@@ -0,0 +1,26 @@
+package com.marketplace.salesapi.order.outbox;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Publishes the relayed events as OutboxMessage application events, for consumers in this
+ * JVM (@EventListener on OutboxMessage). They run on the relay thread, after the order's
+ * transaction has committed.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.sinks.in-jvm.enabled", havingValue = "true", matchIfMissing = true)
+public class InJvmOutboxSink implements OutboxSink {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public void deliver(List<OutboxMessage> messages) {
+        messages.forEach(eventPublisher::publishEvent);
+    }
+}
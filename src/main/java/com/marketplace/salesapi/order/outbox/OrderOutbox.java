@@ -0,0 +1,89 @@
+package com.marketplace.salesapi.order.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marketplace.salesapi.common.model.Money;
+import com.marketplace.salesapi.order.event.OrderCreatedEvent;
+import com.marketplace.salesapi.order.event.OrderPaymentChangedEvent;
+import com.marketplace.salesapi.order.event.OrderStatusChangedEvent;
+import com.marketplace.salesapi.order.model.Order;
+import com.marketplace.salesapi.order.model.OrderStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes the order events to order_outbox from inside the transaction that changed the
+ * order, so an event is stored if and only if its change commits. OutboxRelay delivers
+ * them to the sinks afterwards; the checkout path only pays for one insert per event.
+ */
+@Component
+public class OrderOutbox {
+
+    public static final int PARTITIONS = 16;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.outbox.enabled:true}")
+    private boolean enabled;
+
+    @EventListener
+    public void onOrderCreated(OrderCreatedEvent event) {
+        append(event.getOrder(), OutboxEventType.ORDER_CREATED, null);
+    }
+
+    @EventListener
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        append(event.getOrder(), OutboxEventType.ORDER_STATUS_CHANGED, event.getPreviousStatus());
+    }
+
+    @EventListener
+    public void onOrderPaymentChanged(OrderPaymentChangedEvent event) {
+        append(event.getOrder(), OutboxEventType.ORDER_PAYMENT_CHANGED, null);
+    }
+
+    public static int partitionOf(Long orderId) {
+        return (int) Math.floorMod(orderId, (long) PARTITIONS);
+    }
+
+    private void append(Order order, OutboxEventType type, OrderStatus previousStatus) {
+        if (!enabled) {
+            return;
+        }
+        jdbcTemplate.update(
+                "INSERT INTO order_outbox (partition_id, order_id, order_version, event_type, payload, created_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?)",
+                partitionOf(order.getId()), order.getId(), order.getVersion() != null ? order.getVersion() : 0L,
+                type.name(), payload(order, previousStatus), LocalDateTime.now());
+    }
+
+    private String payload(Order order, OrderStatus previousStatus) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("orderId", order.getId());
+        payload.put("orderNumber", order.getOrderNumber());
+        payload.put("userId", order.getUser().getId());
+        payload.put("status", order.getStatus());
+        if (previousStatus != null) {
+            payload.put("previousStatus", previousStatus);
+        }
+        if (order.getPayment() != null) {
+            payload.put("paymentStatus", order.getPayment().getPaymentStatus());
+        }
+        payload.put("total", Money.bigDecimalOf(order.getTotal()));
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize the event of order " + order.getId(), e);
+        }
+    }
+}
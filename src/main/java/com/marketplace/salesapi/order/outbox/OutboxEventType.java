@@ -0,0 +1,7 @@
+package com.marketplace.salesapi.order.outbox;
+
+public enum OutboxEventType {
+    ORDER_CREATED,
+    ORDER_STATUS_CHANGED,
+    ORDER_PAYMENT_CHANGED
+}
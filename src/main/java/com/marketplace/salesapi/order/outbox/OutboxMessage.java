@@ -0,0 +1,12 @@
+package com.marketplace.salesapi.order.outbox;
+
+import java.time.LocalDateTime;
+
+/**
+ * An order event as relayed from order_outbox. orderVersion is the version the order had
+ * right after the change, so a consumer can drop events older than what it has seen.
+ * payload is the event as JSON.
+ */
+public record OutboxMessage(Long id, Long orderId, Long orderVersion, OutboxEventType type, String payload,
+                            LocalDateTime createdAt) {
+}
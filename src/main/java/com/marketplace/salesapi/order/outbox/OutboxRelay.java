@@ -0,0 +1,145 @@
+package com.marketplace.salesapi.order.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Delivers the events in order_outbox to every OutboxSink, at least once and, per order,
+ * in the order they happened.
+ *
+ * Each partition is drained in its own transactions: the relay locks the partition's row
+ * with FOR UPDATE SKIP LOCKED (partitions held by a relay on another node are skipped),
+ * reads up to app.outbox.batch-size events ordered by order and order version, hands them
+ * to the sinks and deletes them. If a sink fails the transaction rolls back and the same
+ * batch is retried on the next run, so no later event of those orders overtakes it.
+ *
+ * Ordering by version is safe because an order's changes are serialized by its row lock:
+ * an event only becomes visible after the events of earlier versions have committed.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private static final RowMapper<OutboxMessage> MESSAGE = (rs, rowNum) -> new OutboxMessage(
+            rs.getLong("id"),
+            rs.getLong("order_id"),
+            rs.getLong("order_version"),
+            OutboxEventType.valueOf(rs.getString("event_type")),
+            rs.getString("payload"),
+            rs.getTimestamp("created_at").toLocalDateTime());
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired(required = false)
+    private List<OutboxSink> sinks = List.of();
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${app.outbox.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.outbox.batch-size:500}")
+    private int batchSize;
+
+    private Counter relayed;
+    private Counter failures;
+
+    @PostConstruct
+    public void init() {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            relayed = Counter.builder("orders.outbox.relayed").register(registry);
+            failures = Counter.builder("orders.outbox.failures")
+                    .description("Batches rolled back because a sink failed")
+                    .register(registry);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.relay-interval-ms:200}")
+    public void relay() {
+        if (!enabled || sinks.isEmpty()) {
+            return;
+        }
+        for (int partition = 0; partition < OrderOutbox.PARTITIONS; partition++) {
+            drain(partition);
+        }
+    }
+
+    /**
+     * Delivers the pending events of the partition, batch after batch, until it is empty,
+     * claimed by another relay or a sink fails. Returns the number of events delivered.
+     */
+    public int drain(int partition) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int delivered = 0;
+        while (true) {
+            Integer count;
+            try {
+                count = transactionTemplate.execute(status -> relayBatch(partition));
+            } catch (RuntimeException e) {
+                logger.warn("Outbox partition {} not delivered, retrying on the next run: {}", partition, e.getMessage());
+                if (failures != null) {
+                    failures.increment();
+                }
+                return delivered;
+            }
+            if (count == null) {
+                return delivered;
+            }
+            delivered += count;
+            if (count < batchSize) {
+                return delivered;
+            }
+        }
+    }
+
+    // Null when another relay holds the partition
+    private Integer relayBatch(int partition) {
+        List<Integer> claimed = jdbcTemplate.queryForList(
+                "SELECT partition_id FROM order_outbox_partitions WHERE partition_id = ? FOR UPDATE SKIP LOCKED",
+                Integer.class, partition);
+        if (claimed.isEmpty()) {
+            return null;
+        }
+        List<OutboxMessage> messages = jdbcTemplate.query(
+                "SELECT id, order_id, order_version, event_type, payload, created_at FROM order_outbox " +
+                "WHERE partition_id = ? ORDER BY order_id, order_version, id LIMIT ?",
+                MESSAGE, partition, batchSize);
+        if (messages.isEmpty()) {
+            return 0;
+        }
+        for (OutboxSink sink : sinks) {
+            try {
+                sink.deliver(messages);
+            } catch (Exception e) {
+                throw new IllegalStateException(sink.getClass().getSimpleName() + " failed: " + e.getMessage(), e);
+            }
+        }
+        jdbcTemplate.batchUpdate("DELETE FROM order_outbox WHERE id = ?",
+                messages.stream().map(message -> new Object[]{message.id()}).toList());
+        if (relayed != null) {
+            relayed.increment(messages.size());
+        }
+        return messages.size();
+    }
+}
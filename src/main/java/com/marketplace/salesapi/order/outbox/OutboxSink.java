@@ -0,0 +1,14 @@
+package com.marketplace.salesapi.order.outbox;
+
+import java.util.List;
+
+/**
+ * Destination of the relayed order events; every OutboxSink bean receives every batch.
+ * A batch holds the events of one outbox partition, those of each order in the order they
+ * happened. Throwing makes the relay deliver the same batch again later, to every sink, so
+ * sinks must tolerate duplicates.
+ */
+public interface OutboxSink {
+
+    void deliver(List<OutboxMessage> messages) throws Exception;
+}
@@ -0,0 +1,25 @@
+package com.marketplace.salesapi.order.repository;
+
+import com.marketplace.salesapi.order.dto.ProductSalesDto;
+import com.marketplace.salesapi.order.model.DailyProductSales;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyProductSalesRepository extends JpaRepository<DailyProductSales, DailyProductSales.Key> {
+    
+    @Query("SELECT new com.marketplace.salesapi.order.dto.ProductSalesDto(p.id, p.name, SUM(r.quantitySold), SUM(r.revenue)) " +
+           "FROM DailyProductSales r JOIN Product p ON p.id = r.productId " +
+           "WHERE r.salesDate BETWEEN :fromDate AND :toDate " +
+           "GROUP BY p.id, p.name " +
+           "ORDER BY SUM(r.quantitySold) DESC, p.id")
+    List<ProductSalesDto> findTopSellingProducts(@Param("fromDate") LocalDate fromDate,
+                                                 @Param("toDate") LocalDate toDate,
+                                                 Pageable pageable);
+}
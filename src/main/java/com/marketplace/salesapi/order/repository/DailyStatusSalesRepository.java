@@ -0,0 +1,30 @@
+package com.marketplace.salesapi.order.repository;
+
+import com.marketplace.salesapi.order.model.DailyStatusSales;
+import com.marketplace.salesapi.order.repository.projection.MonthCountView;
+import com.marketplace.salesapi.order.repository.projection.SalesTotalsView;
+import com.marketplace.salesapi.order.repository.projection.StatusCountView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyStatusSalesRepository extends JpaRepository<DailyStatusSales, DailyStatusSales.Key> {
+    
+    @Query("SELECT COALESCE(SUM(r.orderCount), 0) AS orderCount, COALESCE(SUM(r.revenue), 0) AS revenue " +
+           "FROM DailyStatusSales r WHERE r.salesDate BETWEEN :fromDate AND :toDate")
+    SalesTotalsView sumInDateRange(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+    
+    @Query("SELECT r.status AS status, SUM(r.orderCount) AS orderCount FROM DailyStatusSales r " +
+           "WHERE r.salesDate BETWEEN :fromDate AND :toDate GROUP BY r.status")
+    List<StatusCountView> countByStatusInDateRange(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+    
+    @Query("SELECT YEAR(r.salesDate) AS orderYear, MONTH(r.salesDate) AS orderMonth, SUM(r.orderCount) AS orderCount " +
+           "FROM DailyStatusSales r WHERE r.salesDate BETWEEN :fromDate AND :toDate " +
+           "GROUP BY YEAR(r.salesDate), MONTH(r.salesDate)")
+    List<MonthCountView> countByMonthInDateRange(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+}
@@ -0,0 +1,47 @@
+package com.marketplace.salesapi.order.repository;
+
+import com.marketplace.salesapi.order.dto.StoreSalesDto;
+import com.marketplace.salesapi.order.model.DailyStoreSales;
+import com.marketplace.salesapi.order.repository.projection.MonthCountView;
+import com.marketplace.salesapi.order.repository.projection.SalesTotalsView;
+import com.marketplace.salesapi.order.repository.projection.StatusCountView;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyStoreSalesRepository extends JpaRepository<DailyStoreSales, DailyStoreSales.Key> {
+    
+    @Query("SELECT COALESCE(SUM(r.orderCount), 0) AS orderCount, COALESCE(SUM(r.revenue), 0) AS revenue " +
+           "FROM DailyStoreSales r WHERE r.storeId = :storeId AND r.salesDate BETWEEN :fromDate AND :toDate")
+    SalesTotalsView sumForStoreInDateRange(@Param("storeId") Long storeId,
+                                           @Param("fromDate") LocalDate fromDate,
+                                           @Param("toDate") LocalDate toDate);
+    
+    @Query("SELECT r.status AS status, SUM(r.orderCount) AS orderCount FROM DailyStoreSales r " +
+           "WHERE r.storeId = :storeId AND r.salesDate BETWEEN :fromDate AND :toDate GROUP BY r.status")
+    List<StatusCountView> countForStoreByStatusInDateRange(@Param("storeId") Long storeId,
+                                                           @Param("fromDate") LocalDate fromDate,
+                                                           @Param("toDate") LocalDate toDate);
+    
+    @Query("SELECT YEAR(r.salesDate) AS orderYear, MONTH(r.salesDate) AS orderMonth, SUM(r.orderCount) AS orderCount " +
+           "FROM DailyStoreSales r WHERE r.storeId = :storeId AND r.salesDate BETWEEN :fromDate AND :toDate " +
+           "GROUP BY YEAR(r.salesDate), MONTH(r.salesDate)")
+    List<MonthCountView> countForStoreByMonthInDateRange(@Param("storeId") Long storeId,
+                                                         @Param("fromDate") LocalDate fromDate,
+                                                         @Param("toDate") LocalDate toDate);
+    
+    @Query("SELECT new com.marketplace.salesapi.order.dto.StoreSalesDto(s.id, s.name, SUM(r.orderCount), SUM(r.revenue)) " +
+           "FROM DailyStoreSales r JOIN Store s ON s.id = r.storeId " +
+           "WHERE r.salesDate BETWEEN :fromDate AND :toDate " +
+           "GROUP BY s.id, s.name " +
+           "ORDER BY SUM(r.revenue) DESC, s.id")
+    List<StoreSalesDto> findTopSellingStores(@Param("fromDate") LocalDate fromDate,
+                                             @Param("toDate") LocalDate toDate,
+                                             Pageable pageable);
+}
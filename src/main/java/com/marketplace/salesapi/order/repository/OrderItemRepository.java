@@ -1,20 +1,74 @@
 package com.marketplace.salesapi.order.repository;
 
+import com.marketplace.salesapi.order.dto.ProductSalesDto;
+import com.marketplace.salesapi.order.dto.StoreSalesDto;
 import com.marketplace.salesapi.order.model.OrderItem;
+import com.marketplace.salesapi.order.repository.projection.MonthCountView;
+import com.marketplace.salesapi.order.repository.projection.SalesTotalsView;
+import com.marketplace.salesapi.order.repository.projection.StatusCountView;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     List<OrderItem> findByOrderId(Long orderId);
     
+    // The items of a page of orders with their products and stores, as OrderItemDto shows them
+    @Query("SELECT oi FROM OrderItem oi JOIN FETCH oi.product p JOIN FETCH p.store " +
+           "WHERE oi.order.id IN :orderIds ORDER BY oi.id")
+    List<OrderItem> findWithProductsByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+    
     @Query("SELECT oi FROM OrderItem oi JOIN oi.product p WHERE p.id = :productId")
     List<OrderItem> findByProductId(@Param("productId") Long productId);
     
     @Query("SELECT oi FROM OrderItem oi JOIN oi.product p WHERE p.store.id = :storeId")
     List<OrderItem> findByStoreId(@Param("storeId") Long storeId);
+    
+    @Query("SELECT COUNT(DISTINCT o.id) AS orderCount, COALESCE(SUM(oi.subtotal), 0) AS revenue " +
+           "FROM OrderItem oi JOIN oi.order o JOIN oi.product p " +
+           "WHERE p.store.id = :storeId AND o.createdAt BETWEEN :startDate AND :endDate")
+    SalesTotalsView sumStoreSalesInDateRange(@Param("storeId") Long storeId,
+                                             @Param("startDate") LocalDateTime startDate,
+                                             @Param("endDate") LocalDateTime endDate);
+    
+    @Query("SELECT o.status AS status, COUNT(DISTINCT o.id) AS orderCount " +
+           "FROM OrderItem oi JOIN oi.order o JOIN oi.product p " +
+           "WHERE p.store.id = :storeId AND o.createdAt BETWEEN :startDate AND :endDate " +
+           "GROUP BY o.status")
+    List<StatusCountView> countStoreOrdersByStatusInDateRange(@Param("storeId") Long storeId,
+                                                              @Param("startDate") LocalDateTime startDate,
+                                                              @Param("endDate") LocalDateTime endDate);
+    
+    @Query("SELECT YEAR(o.createdAt) AS orderYear, MONTH(o.createdAt) AS orderMonth, COUNT(DISTINCT o.id) AS orderCount " +
+           "FROM OrderItem oi JOIN oi.order o JOIN oi.product p " +
+           "WHERE p.store.id = :storeId AND o.createdAt BETWEEN :startDate AND :endDate " +
+           "GROUP BY YEAR(o.createdAt), MONTH(o.createdAt)")
+    List<MonthCountView> countStoreOrdersByMonthInDateRange(@Param("storeId") Long storeId,
+                                                            @Param("startDate") LocalDateTime startDate,
+                                                            @Param("endDate") LocalDateTime endDate);
+    
+    @Query("SELECT new com.marketplace.salesapi.order.dto.StoreSalesDto(s.id, s.name, COUNT(DISTINCT o.id), SUM(oi.subtotal)) " +
+           "FROM OrderItem oi JOIN oi.order o JOIN oi.product p JOIN p.store s " +
+           "WHERE o.createdAt BETWEEN :startDate AND :endDate " +
+           "GROUP BY s.id, s.name " +
+           "ORDER BY SUM(oi.subtotal) DESC, s.id")
+    List<StoreSalesDto> findTopSellingStores(@Param("startDate") LocalDateTime startDate,
+                                             @Param("endDate") LocalDateTime endDate,
+                                             Pageable pageable);
+    
+    @Query("SELECT new com.marketplace.salesapi.order.dto.ProductSalesDto(p.id, p.name, SUM(oi.quantity), SUM(oi.subtotal)) " +
+           "FROM OrderItem oi JOIN oi.order o JOIN oi.product p " +
+           "WHERE o.createdAt BETWEEN :startDate AND :endDate " +
+           "GROUP BY p.id, p.name " +
+           "ORDER BY SUM(oi.quantity) DESC, p.id")
+    List<ProductSalesDto> findTopSellingProducts(@Param("startDate") LocalDateTime startDate,
+                                                 @Param("endDate") LocalDateTime endDate,
+                                                 Pageable pageable);
 }
\ No newline at end of file
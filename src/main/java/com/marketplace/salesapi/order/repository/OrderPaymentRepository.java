@@ -3,8 +3,13 @@ package com.marketplace.salesapi.order.repository;
 import com.marketplace.salesapi.order.model.OrderPayment;
 import com.marketplace.salesapi.order.model.PaymentStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,7 +17,20 @@ import java.util.Optional;
 public interface OrderPaymentRepository extends JpaRepository<OrderPayment, Long> {
     Optional<OrderPayment> findByOrderId(Long orderId);
     
+    List<OrderPayment> findByOrderIdIn(Collection<Long> orderIds);
+    
     List<OrderPayment> findByPaymentStatus(PaymentStatus status);
     
     Optional<OrderPayment> findByTransactionId(String transactionId);
+    
+    // Null arguments keep the current values; returns 0 if the order has no payment
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE OrderPayment p SET p.paymentStatus = :status, " +
+           "p.transactionId = COALESCE(:transactionId, p.transactionId), " +
+           "p.paymentDetails = COALESCE(:paymentDetails, p.paymentDetails), " +
+           "p.paymentDate = COALESCE(p.paymentDate, :paymentDate), p.updatedAt = :now " +
+           "WHERE p.order.id = :orderId")
+    int updateByOrderId(@Param("orderId") Long orderId, @Param("status") PaymentStatus status,
+                        @Param("transactionId") String transactionId, @Param("paymentDetails") String paymentDetails,
+                        @Param("paymentDate") LocalDateTime paymentDate, @Param("now") LocalDateTime now);
 }
\ No newline at end of file
@@ -2,31 +2,100 @@ package com.marketplace.salesapi.order.repository;
 
 import com.marketplace.salesapi.order.model.Order;
 import com.marketplace.salesapi.order.model.OrderStatus;
+import com.marketplace.salesapi.order.repository.projection.MonthCountView;
+import com.marketplace.salesapi.order.repository.projection.OrderStateView;
+import com.marketplace.salesapi.order.repository.projection.OrderStatusView;
+import com.marketplace.salesapi.order.repository.projection.SalesTotalsView;
+import com.marketplace.salesapi.order.repository.projection.StatusCountView;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecificationExecutor<Order> {
+    @EntityGraph(Order.GRAPH_DETAIL)
     Optional<Order> findByOrderNumber(String orderNumber);
     
+    @Override
+    @EntityGraph(Order.GRAPH_DETAIL)
+    Optional<Order> findById(Long id);
+    
+    @Override
+    @EntityGraph(Order.GRAPH_SUMMARY)
+    Page<Order> findAll(Pageable pageable);
+    
+    @EntityGraph(Order.GRAPH_SUMMARY)
     Page<Order> findByUserId(Long userId, Pageable pageable);
     
+    // Ids only, for pages served from order_documents
+    @Query(value = "SELECT o.id FROM Order o WHERE o.user.id = :userId",
+           countQuery = "SELECT COUNT(o) FROM Order o WHERE o.user.id = :userId")
+    Page<Long> findIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+    
+    @EntityGraph(Order.GRAPH_SUMMARY)
     Page<Order> findByStatus(OrderStatus status, Pageable pageable);
     
-    @Query("SELECT o FROM Order o JOIN o.items i JOIN i.product p WHERE p.store.id = :storeId")
-    Page<Order> findByStoreId(@Param("storeId") Long storeId, Pageable pageable);
+    /**
+     * Initializes the items of already loaded orders, with their products and stores,
+     * in one statement. Collections cannot be fetch-joined into a paged query without
+     * paging in memory, so pages load their orders first and their items with this.
+     */
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.items i LEFT JOIN FETCH i.product p " +
+           "LEFT JOIN FETCH p.store WHERE o IN :orders")
+    List<Order> fetchItems(@Param("orders") Collection<Order> orders);
+    
+    /**
+     * Moves the order to status in one statement if it is in one of sources and, unless
+     * ownerId is null, belongs to ownerId. Keeps the replaced status in previousStatus and
+     * bumps the version. Returns 0 when the order is missing, someone else's or in another
+     * status, e.g. because a concurrent request moved it first.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.previousStatus = o.status, o.status = :status, " +
+           "o.notes = COALESCE(:notes, o.notes), o.version = o.version + 1, o.updatedAt = :now " +
+           "WHERE o.id = :id AND o.status IN :sources AND (:ownerId IS NULL OR o.user.id = :ownerId)")
+    int transitionStatus(@Param("id") Long id, @Param("ownerId") Long ownerId,
+                         @Param("sources") Collection<OrderStatus> sources, @Param("status") OrderStatus status,
+                         @Param("notes") String notes, @Param("now") LocalDateTime now);
+    
+    // Versions a change made to the payment or shipping rows of the order; 0 if it does not exist
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.version = o.version + 1, o.updatedAt = :now WHERE o.id = :id")
+    int touch(@Param("id") Long id, @Param("now") LocalDateTime now);
     
-    @Query("SELECT o FROM Order o JOIN o.items i JOIN i.product p WHERE p.store.id = :storeId AND o.status = :status")
-    Page<Order> findByStoreIdAndStatus(@Param("storeId") Long storeId, @Param("status") OrderStatus status, Pageable pageable);
+    @Query("SELECT o.user.id AS userId, o.status AS status FROM Order o WHERE o.id = :id")
+    Optional<OrderStateView> findStateById(@Param("id") Long id);
+    
+    // Current status of those of the orders that have an item from the store
+    @Query("SELECT s.orderId AS id, s.status AS status FROM StoreOrder s WHERE s.storeId = :storeId AND s.orderId IN :ids")
+    List<OrderStatusView> findStatusesInStore(@Param("storeId") Long storeId, @Param("ids") Collection<Long> ids);
+    
+    @EntityGraph(Order.GRAPH_SUMMARY)
+    List<Order> findByIdIn(Collection<Long> ids);
     
     @Query("SELECT o FROM Order o WHERE o.createdAt BETWEEN :startDate AND :endDate")
     List<Order> findOrdersInDateRange(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    
+    @Query("SELECT COUNT(o) AS orderCount, COALESCE(SUM(o.total), 0) AS revenue FROM Order o " +
+           "WHERE o.createdAt BETWEEN :startDate AND :endDate")
+    SalesTotalsView sumOrdersInDateRange(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    
+    @Query("SELECT o.status AS status, COUNT(o) AS orderCount FROM Order o " +
+           "WHERE o.createdAt BETWEEN :startDate AND :endDate GROUP BY o.status")
+    List<StatusCountView> countOrdersByStatusInDateRange(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    
+    @Query("SELECT YEAR(o.createdAt) AS orderYear, MONTH(o.createdAt) AS orderMonth, COUNT(o) AS orderCount FROM Order o " +
+           "WHERE o.createdAt BETWEEN :startDate AND :endDate GROUP BY YEAR(o.createdAt), MONTH(o.createdAt)")
+    List<MonthCountView> countOrdersByMonthInDateRange(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
 }
\ No newline at end of file
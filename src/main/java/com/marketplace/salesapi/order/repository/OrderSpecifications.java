@@ -0,0 +1,42 @@
+package com.marketplace.salesapi.order.repository;
+
+import com.marketplace.salesapi.order.model.Order;
+import com.marketplace.salesapi.order.model.OrderStatus;
+import jakarta.persistence.criteria.JoinType;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Filters of the order listings, for the cursor (keyset) variants of the OrderRepository finders.
+ */
+public final class OrderSpecifications {
+
+    private OrderSpecifications() {
+    }
+
+    public static Specification<Order> any() {
+        return (root, query, cb) -> cb.conjunction();
+    }
+
+    public static Specification<Order> hasUser(Long userId) {
+        return (root, query, cb) -> cb.equal(root.get("user").get("id"), userId);
+    }
+
+    public static Specification<Order> hasStatus(OrderStatus status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    /**
+     * Fetches what the Order.summary graph does. Scrolled queries are built from criteria,
+     * where the named graph does not apply, so the joins are spelled out here.
+     */
+    public static Specification<Order> fetchSummary() {
+        return (root, query, cb) -> {
+            if (query.getResultType() != Long.class) {
+                root.fetch("user");
+                root.fetch("payment", JoinType.LEFT);
+                root.fetch("shippingInfo", JoinType.LEFT);
+            }
+            return cb.conjunction();
+        };
+    }
+}
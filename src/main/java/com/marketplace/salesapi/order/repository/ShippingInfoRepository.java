@@ -2,13 +2,33 @@ package com.marketplace.salesapi.order.repository;
 
 import com.marketplace.salesapi.order.model.ShippingInfo;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ShippingInfoRepository extends JpaRepository<ShippingInfo, Long> {
     Optional<ShippingInfo> findByOrderId(Long orderId);
     
+    List<ShippingInfo> findByOrderIdIn(Collection<Long> orderIds);
+    
     Optional<ShippingInfo> findByTrackingNumber(String trackingNumber);
+    
+    // Null arguments keep the current values; returns 0 if the order has no shipping info
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ShippingInfo s SET s.trackingNumber = COALESCE(:trackingNumber, s.trackingNumber), " +
+           "s.estimatedDeliveryDate = COALESCE(:estimatedDeliveryDate, s.estimatedDeliveryDate), " +
+           "s.shippedDate = COALESCE(:shippedDate, s.shippedDate), " +
+           "s.deliveredDate = COALESCE(:deliveredDate, s.deliveredDate), s.updatedAt = :now " +
+           "WHERE s.order.id = :orderId")
+    int updateByOrderId(@Param("orderId") Long orderId, @Param("trackingNumber") String trackingNumber,
+                        @Param("estimatedDeliveryDate") LocalDateTime estimatedDeliveryDate,
+                        @Param("shippedDate") LocalDateTime shippedDate, @Param("deliveredDate") LocalDateTime deliveredDate,
+                        @Param("now") LocalDateTime now);
 }
\ No newline at end of file
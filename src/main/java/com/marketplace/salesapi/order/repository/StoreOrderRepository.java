@@ -0,0 +1,60 @@
+package com.marketplace.salesapi.order.repository;
+
+import com.marketplace.salesapi.order.model.OrderStatus;
+import com.marketplace.salesapi.order.model.StoreOrder;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StoreOrderRepository extends JpaRepository<StoreOrder, Long> {
+
+    Page<StoreOrder> findByStoreId(Long storeId, Pageable pageable);
+
+    Page<StoreOrder> findByStoreIdAndStatus(Long storeId, OrderStatus status, Pageable pageable);
+
+    Window<StoreOrder> findByStoreId(Long storeId, ScrollPosition position, Sort sort, Limit limit);
+
+    Window<StoreOrder> findByStoreIdAndStatus(Long storeId, OrderStatus status, ScrollPosition position, Sort sort, Limit limit);
+
+    Optional<StoreOrder> findByStoreIdAndOrderId(Long storeId, Long orderId);
+
+    @Query("SELECT s.status FROM StoreOrder s WHERE s.orderId = :orderId")
+    List<OrderStatus> findStatusesByOrderId(@Param("orderId") Long orderId);
+
+    // Those of the orders that also have a sub-order from another store
+    @Query("SELECT DISTINCT s.orderId FROM StoreOrder s WHERE s.orderId IN :ids AND s.storeId <> :storeId")
+    List<Long> findOrderIdsSharedWithOtherStores(@Param("storeId") Long storeId, @Param("ids") Collection<Long> ids);
+
+    boolean existsByOrderIdAndStatusIn(Long orderId, Collection<OrderStatus> statuses);
+
+    /**
+     * Moves the store's part of the order to status if it is in one of sources, with the
+     * same conditional update as OrderRepository.transitionStatus. Tracking and dates left
+     * null keep their values. Returns 0 when the sub-order is missing or in another status.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE StoreOrder s SET s.status = :status, " +
+           "s.trackingNumber = COALESCE(:trackingNumber, s.trackingNumber), " +
+           "s.shippedDate = COALESCE(:shippedDate, s.shippedDate), " +
+           "s.deliveredDate = COALESCE(:deliveredDate, s.deliveredDate), " +
+           "s.version = s.version + 1, s.updatedAt = :now " +
+           "WHERE s.storeId = :storeId AND s.orderId = :orderId AND s.status IN :sources")
+    int transitionStatus(@Param("storeId") Long storeId, @Param("orderId") Long orderId,
+                         @Param("sources") Collection<OrderStatus> sources, @Param("status") OrderStatus status,
+                         @Param("trackingNumber") String trackingNumber, @Param("shippedDate") LocalDateTime shippedDate,
+                         @Param("deliveredDate") LocalDateTime deliveredDate, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,9 @@
+package com.marketplace.salesapi.order.repository.projection;
+
+public interface MonthCountView {
+    Integer getOrderYear();
+
+    Integer getOrderMonth();
+
+    Long getOrderCount();
+}
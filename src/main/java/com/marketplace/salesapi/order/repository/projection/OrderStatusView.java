@@ -0,0 +1,9 @@
+package com.marketplace.salesapi.order.repository.projection;
+
+import com.marketplace.salesapi.order.model.OrderStatus;
+
+public interface OrderStatusView {
+    Long getId();
+
+    OrderStatus getStatus();
+}
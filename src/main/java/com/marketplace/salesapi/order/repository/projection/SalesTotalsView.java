@@ -0,0 +1,9 @@
+package com.marketplace.salesapi.order.repository.projection;
+
+import java.math.BigDecimal;
+
+public interface SalesTotalsView {
+    Long getOrderCount();
+
+    BigDecimal getRevenue();
+}
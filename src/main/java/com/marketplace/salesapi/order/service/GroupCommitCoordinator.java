@@ -0,0 +1,179 @@
+package com.marketplace.salesapi.order.service;
+
+import com.marketplace.salesapi.order.dto.CreateOrderRequest;
+import com.marketplace.salesapi.order.dto.OrderDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit for checkouts (app.order-group-commit.enabled). Concurrent createOrder calls
+ * are collected for up to app.order-group-commit.window or app.order-group-commit.max-batch
+ * orders and created by OrderService.createOrders in one transaction, so they pay for one
+ * commit and their inserts go out in shared JDBC batches. Each caller blocks until its own
+ * order is committed.
+ *
+ * If the batch fails, its orders are created again one transaction each, so an order that
+ * cannot be placed (no stock, unknown product) only fails its own caller. At most
+ * app.order-group-commit.concurrency batches run at once. When disabled or stopped, calls
+ * go straight to OrderService.createOrder, as do checkouts that race with the shutdown.
+ */
+@Component
+public class GroupCommitCoordinator {
+
+    private static final Logger logger = LoggerFactory.getLogger(GroupCommitCoordinator.class);
+
+    @Autowired
+    private OrderService orderService;
+
+    @Value("${app.order-group-commit.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.order-group-commit.window:PT0.002S}")
+    private Duration window;
+
+    @Value("${app.order-group-commit.max-batch:32}")
+    private int maxBatch;
+
+    @Value("${app.order-group-commit.concurrency:4}")
+    private int concurrency;
+
+    private final BlockingQueue<Checkout> pending = new LinkedBlockingQueue<>();
+    private ExecutorService committers;
+    private Semaphore slots;
+    private Thread collector;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        committers = Executors.newFixedThreadPool(concurrency, Thread.ofPlatform().name("group-commit-", 0).factory());
+        slots = new Semaphore(concurrency);
+        running = true;
+        collector = Thread.ofPlatform().name("group-commit-collector").daemon().start(this::collect);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        running = false;
+        collector.join(TimeUnit.SECONDS.toMillis(30));
+        committers.shutdown();
+        committers.awaitTermination(30, TimeUnit.SECONDS);
+        // Queued after the collector's last look
+        List<Checkout> left = new ArrayList<>();
+        pending.drainTo(left);
+        createOneByOne(left);
+    }
+
+    public OrderDto createOrder(CreateOrderRequest request, Long userId) {
+        if (!enabled || !running) {
+            return orderService.createOrder(request, userId);
+        }
+        Checkout checkout = new Checkout(new OrderService.NewOrder(request, userId));
+        pending.add(checkout);
+        // Stopped meanwhile: whoever takes the checkout off the queue creates it
+        if (!running && pending.remove(checkout)) {
+            return orderService.createOrder(request, userId);
+        }
+        try {
+            return checkout.result.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw (RuntimeException) e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the order to commit", e);
+        }
+    }
+
+    private void collect() {
+        while (running || !pending.isEmpty()) {
+            try {
+                Checkout first = pending.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                List<Checkout> batch = new ArrayList<>(maxBatch);
+                batch.add(first);
+                long deadline = System.nanoTime() + window.toNanos();
+                while (batch.size() < maxBatch) {
+                    Checkout next = pending.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    pending.drainTo(batch, maxBatch - batch.size());
+                }
+                // Orders keep arriving while every committer is busy, making the next batch bigger
+                slots.acquire();
+                committers.execute(() -> {
+                    try {
+                        commit(batch);
+                    } finally {
+                        slots.release();
+                    }
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void commit(List<Checkout> batch) {
+        if (batch.size() > 1) {
+            try {
+                List<OrderDto> created = orderService.createOrders(batch.stream().map(checkout -> checkout.order).toList());
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).result.complete(created.get(i));
+                }
+                return;
+            } catch (RuntimeException | Error e) {
+                logger.debug("Group commit of {} orders failed ({}), creating them one by one", batch.size(), e.getMessage());
+            }
+        }
+        createOneByOne(batch);
+    }
+
+    private void createOneByOne(List<Checkout> batch) {
+        for (Checkout checkout : batch) {
+            try {
+                checkout.result.complete(orderService.createOrder(checkout.order.request(), checkout.order.userId()));
+            } catch (RuntimeException | Error e) {
+                checkout.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private static class Checkout {
+        private final OrderService.NewOrder order;
+        private final CompletableFuture<OrderDto> result = new CompletableFuture<>();
+
+        private Checkout(OrderService.NewOrder order) {
+            this.order = order;
+        }
+    }
+}
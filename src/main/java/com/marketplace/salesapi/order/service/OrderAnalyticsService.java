@@ -1,27 +1,52 @@
 package com.marketplace.salesapi.order.service;
 
+import com.marketplace.salesapi.common.model.Money;
+import com.marketplace.salesapi.order.analytics.ColumnarRanking;
+import com.marketplace.salesapi.order.analytics.ColumnarSummary;
+import com.marketplace.salesapi.order.analytics.OrderSketch;
+import com.marketplace.salesapi.order.analytics.SalesColumnStore;
+import com.marketplace.salesapi.order.analytics.TopSellingTracker;
+import com.marketplace.salesapi.order.analytics.TopSellingWindow;
 import com.marketplace.salesapi.order.dto.OrderSummaryDto;
 import com.marketplace.salesapi.order.dto.ProductSalesDto;
 import com.marketplace.salesapi.order.dto.StoreSalesDto;
-import com.marketplace.salesapi.order.model.Order;
-import com.marketplace.salesapi.order.model.OrderItem;
 import com.marketplace.salesapi.order.model.OrderStatus;
+import com.marketplace.salesapi.order.repository.DailyProductSalesRepository;
+import com.marketplace.salesapi.order.repository.DailyStatusSalesRepository;
+import com.marketplace.salesapi.order.repository.DailyStoreSalesRepository;
 import com.marketplace.salesapi.order.repository.OrderItemRepository;
 import com.marketplace.salesapi.order.repository.OrderRepository;
+import com.marketplace.salesapi.order.repository.projection.MonthCountView;
+import com.marketplace.salesapi.order.repository.projection.SalesTotalsView;
+import com.marketplace.salesapi.order.repository.projection.StatusCountView;
 import com.marketplace.salesapi.product.model.Product;
+import com.marketplace.salesapi.product.repository.ProductRepository;
 import com.marketplace.salesapi.store.model.Store;
 import com.marketplace.salesapi.store.repository.StoreRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
 
+/**
+ * Sales analytics over a date range, without hydrating Order/OrderItem entities.
+ * The whole days of a range are read from the daily rollup tables maintained by
+ * SalesRollupService, or from the SalesColumnStore when it is enabled; the partial
+ * days at its edges are aggregated from the orders tables with GROUP BY queries.
+ * Distinct customers and order-value percentiles merge the daily sketches kept by
+ * SalesSketchService, and the realtime rankings read the TopSellingTracker windows.
+ */
 @Service
 public class OrderAnalyticsService {
 
@@ -31,161 +56,356 @@ public class OrderAnalyticsService {
     @Autowired
     private OrderItemRepository orderItemRepository;
 
+    @Autowired
+    private DailyStatusSalesRepository dailyStatusSalesRepository;
+
+    @Autowired
+    private DailyStoreSalesRepository dailyStoreSalesRepository;
+
+    @Autowired
+    private DailyProductSalesRepository dailyProductSalesRepository;
+
     @Autowired
     private StoreRepository storeRepository;
 
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private SalesSketchService salesSketchService;
+
+    @Autowired
+    private TopSellingTracker topSellingTracker;
+
+    // Only present when app.analytics.columnar.enabled is set
+    @Autowired(required = false)
+    private SalesColumnStore columnStore;
+
     @Transactional(readOnly = true)
     public OrderSummaryDto getOrderSummary(LocalDateTime startDate, LocalDateTime endDate) {
-        List<Order> orders = orderRepository.findOrdersInDateRange(startDate, endDate);
-        
-        OrderSummaryDto summary = new OrderSummaryDto();
-        summary.setTotalOrders((long) orders.size());
-        
-        // Calculate total revenue
-        BigDecimal totalRevenue = orders.stream()
-                .map(Order::getTotal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        summary.setTotalRevenue(totalRevenue);
-        
-        // Calculate average order value
-        BigDecimal averageOrderValue = BigDecimal.ZERO;
-        if (!orders.isEmpty()) {
-            averageOrderValue = totalRevenue.divide(new BigDecimal(orders.size()), 2, RoundingMode.HALF_UP);
-        }
-        summary.setAverageOrderValue(averageOrderValue);
-        
-        // Group orders by status
-        Map<OrderStatus, Long> ordersByStatus = orders.stream()
-                .collect(Collectors.groupingBy(Order::getStatus, Collectors.counting()));
-        summary.setOrdersByStatus(ordersByStatus);
-        
-        // Group orders by month
-        Map<String, Long> ordersByMonth = orders.stream()
-                .collect(Collectors.groupingBy(
-                        order -> order.getCreatedAt().format(DateTimeFormatter.ofPattern("yyyy-MM")),
-                        Collectors.counting()));
-        summary.setOrdersByMonth(ordersByMonth);
-        
-        return summary;
+        SummaryBuilder summary = new SummaryBuilder();
+        DateRange days = DateRange.of(startDate, endDate);
+
+        if (days.hasFullDays() && columnStore != null) {
+            summary.add(columnStore.summarizeOrders(days.firstDay, days.lastDay));
+        } else if (days.hasFullDays()) {
+            summary.add(
+                    dailyStatusSalesRepository.sumInDateRange(days.firstDay, days.lastDay),
+                    dailyStatusSalesRepository.countByStatusInDateRange(days.firstDay, days.lastDay),
+                    dailyStatusSalesRepository.countByMonthInDateRange(days.firstDay, days.lastDay));
+        }
+        if (days.hasFullDays()) {
+            summary.add(salesSketchService.getSalesSketch(days.firstDay, days.lastDay));
+        }
+        for (LocalDateTime[] edge : days.edges()) {
+            summary.add(
+                    orderRepository.sumOrdersInDateRange(edge[0], edge[1]),
+                    orderRepository.countOrdersByStatusInDateRange(edge[0], edge[1]),
+                    orderRepository.countOrdersByMonthInDateRange(edge[0], edge[1]));
+            summary.add(salesSketchService.sketchOrders(edge[0], edge[1]));
+        }
+        return summary.build();
     }
 
     @Transactional(readOnly = true)
     public OrderSummaryDto getStoreSummary(Long storeId, LocalDateTime startDate, LocalDateTime endDate) {
-        List<Order> allOrders = orderRepository.findOrdersInDateRange(startDate, endDate);
-        
-        // Filter orders that contain products from the specified store
-        List<Order> storeOrders = allOrders.stream()
-                .filter(order -> order.getItems().stream()
-                        .anyMatch(item -> item.getProduct().getStore().getId().equals(storeId)))
-                .collect(Collectors.toList());
-        
-        OrderSummaryDto summary = new OrderSummaryDto();
-        summary.setTotalOrders((long) storeOrders.size());
-        
-        // Calculate total revenue for the store
-        BigDecimal totalRevenue = BigDecimal.ZERO;
-        for (Order order : storeOrders) {
-            for (OrderItem item : order.getItems()) {
-                if (item.getProduct().getStore().getId().equals(storeId)) {
-                    totalRevenue = totalRevenue.add(item.getSubtotal());
-                }
-            }
+        // Only the subtotals of items sold by the store count towards its revenue
+        SummaryBuilder summary = new SummaryBuilder();
+        DateRange days = DateRange.of(startDate, endDate);
+
+        if (days.hasFullDays() && columnStore != null) {
+            summary.add(columnStore.summarizeStore(storeId, days.firstDay, days.lastDay));
+        } else if (days.hasFullDays()) {
+            summary.add(
+                    dailyStoreSalesRepository.sumForStoreInDateRange(storeId, days.firstDay, days.lastDay),
+                    dailyStoreSalesRepository.countForStoreByStatusInDateRange(storeId, days.firstDay, days.lastDay),
+                    dailyStoreSalesRepository.countForStoreByMonthInDateRange(storeId, days.firstDay, days.lastDay));
         }
-        summary.setTotalRevenue(totalRevenue);
-        
-        // Calculate average order value
-        BigDecimal averageOrderValue = BigDecimal.ZERO;
-        if (!storeOrders.isEmpty()) {
-            averageOrderValue = totalRevenue.divide(new BigDecimal(storeOrders.size()), 2, RoundingMode.HALF_UP);
-        }
-        summary.setAverageOrderValue(averageOrderValue);
-        
-        // Group orders by status
-        Map<OrderStatus, Long> ordersByStatus = storeOrders.stream()
-                .collect(Collectors.groupingBy(Order::getStatus, Collectors.counting()));
-        summary.setOrdersByStatus(ordersByStatus);
-        
-        // Group orders by month
-        Map<String, Long> ordersByMonth = storeOrders.stream()
-                .collect(Collectors.groupingBy(
-                        order -> order.getCreatedAt().format(DateTimeFormatter.ofPattern("yyyy-MM")),
-                        Collectors.counting()));
-        summary.setOrdersByMonth(ordersByMonth);
-        
-        return summary;
+        if (days.hasFullDays()) {
+            summary.add(salesSketchService.getStoreSketch(storeId, days.firstDay, days.lastDay));
+        }
+        for (LocalDateTime[] edge : days.edges()) {
+            summary.add(
+                    orderItemRepository.sumStoreSalesInDateRange(storeId, edge[0], edge[1]),
+                    orderItemRepository.countStoreOrdersByStatusInDateRange(storeId, edge[0], edge[1]),
+                    orderItemRepository.countStoreOrdersByMonthInDateRange(storeId, edge[0], edge[1]));
+            summary.add(salesSketchService.sketchStoreOrders(storeId, edge[0], edge[1]));
+        }
+        return summary.build();
     }
 
     @Transactional(readOnly = true)
     public List<StoreSalesDto> getTopSellingStores(int limit, LocalDateTime startDate, LocalDateTime endDate) {
-        List<Order> orders = orderRepository.findOrdersInDateRange(startDate, endDate);
-        
-        // Group by store and calculate metrics
-        Map<Long, StoreSalesDto> storeStats = new HashMap<>();
-        
-        for (Order order : orders) {
-            for (OrderItem item : order.getItems()) {
-                Product product = item.getProduct();
-                Store store = product.getStore();
-                Long storeId = store.getId();
-                
-                StoreSalesDto storeSales = storeStats.getOrDefault(storeId, new StoreSalesDto());
-                storeSales.setStoreId(storeId);
-                storeSales.setStoreName(store.getName());
-                
-                // Update order count
-                Long totalOrders = storeSales.getTotalOrders() == null ? 1L : storeSales.getTotalOrders() + 1;
-                storeSales.setTotalOrders(totalOrders);
-                
-                // Update revenue
-                BigDecimal revenue = storeSales.getTotalRevenue() == null ? 
-                        item.getSubtotal() : storeSales.getTotalRevenue().add(item.getSubtotal());
-                storeSales.setTotalRevenue(revenue);
-                
-                storeStats.put(storeId, storeSales);
-            }
+        DateRange days = DateRange.of(startDate, endDate);
+        if (!days.hasFullDays()) {
+            return orderItemRepository.findTopSellingStores(startDate, endDate, PageRequest.of(0, limit));
+        }
+        if (days.edges().isEmpty()) {
+            // Sorted by revenue and limited by the database or the column store
+            return topStoresOfFullDays(days, limit);
+        }
+
+        // The edges can reorder the ranking, so every store is merged before limiting
+        Map<Long, StoreSalesDto> byStore = new HashMap<>();
+        List<StoreSalesDto> rows = new ArrayList<>(topStoresOfFullDays(days, Integer.MAX_VALUE));
+        for (LocalDateTime[] edge : days.edges()) {
+            rows.addAll(orderItemRepository.findTopSellingStores(edge[0], edge[1], Pageable.unpaged()));
         }
-        
-        // Sort by revenue and limit results
-        return storeStats.values().stream()
-                .sorted(Comparator.comparing(StoreSalesDto::getTotalRevenue).reversed())
+        for (StoreSalesDto row : rows) {
+            byStore.merge(row.getStoreId(), row, (a, b) -> new StoreSalesDto(a.getStoreId(), a.getStoreName(),
+                    a.getTotalOrders() + b.getTotalOrders(), a.getTotalRevenue().add(b.getTotalRevenue())));
+        }
+        return byStore.values().stream()
+                .sorted(Comparator.comparing(StoreSalesDto::getTotalRevenue).reversed()
+                        .thenComparing(StoreSalesDto::getStoreId))
                 .limit(limit)
                 .collect(Collectors.toList());
     }
 
     @Transactional(readOnly = true)
     public List<ProductSalesDto> getTopSellingProducts(int limit, LocalDateTime startDate, LocalDateTime endDate) {
-        List<Order> orders = orderRepository.findOrdersInDateRange(startDate, endDate);
-        
-        // Group by product and calculate metrics
-        Map<Long, ProductSalesDto> productStats = new HashMap<>();
-        
-        for (Order order : orders) {
-            for (OrderItem item : order.getItems()) {
-                Product product = item.getProduct();
-                Long productId = product.getId();
-                
-                ProductSalesDto productSales = productStats.getOrDefault(productId, new ProductSalesDto());
-                productSales.setProductId(productId);
-                productSales.setProductName(product.getName());
-                
-                // Update quantity
-                Long quantity = productSales.getQuantitySold() == null ? 
-                        item.getQuantity().longValue() : productSales.getQuantitySold() + item.getQuantity();
-                productSales.setQuantitySold(quantity);
-                
-                // Update revenue
-                BigDecimal revenue = productSales.getTotalRevenue() == null ? 
-                        item.getSubtotal() : productSales.getTotalRevenue().add(item.getSubtotal());
-                productSales.setTotalRevenue(revenue);
-                
-                productStats.put(productId, productSales);
-            }
+        DateRange days = DateRange.of(startDate, endDate);
+        if (!days.hasFullDays()) {
+            return orderItemRepository.findTopSellingProducts(startDate, endDate, PageRequest.of(0, limit));
         }
-        
-        // Sort by quantity sold and limit results
-        return productStats.values().stream()
-                .sorted(Comparator.comparing(ProductSalesDto::getQuantitySold).reversed())
+        if (days.edges().isEmpty()) {
+            // Sorted by quantity sold and limited by the database or the column store
+            return topProductsOfFullDays(days, limit);
+        }
+
+        Map<Long, ProductSalesDto> byProduct = new HashMap<>();
+        List<ProductSalesDto> rows = new ArrayList<>(topProductsOfFullDays(days, Integer.MAX_VALUE));
+        for (LocalDateTime[] edge : days.edges()) {
+            rows.addAll(orderItemRepository.findTopSellingProducts(edge[0], edge[1], Pageable.unpaged()));
+        }
+        for (ProductSalesDto row : rows) {
+            byProduct.merge(row.getProductId(), row, (a, b) -> new ProductSalesDto(a.getProductId(), a.getProductName(),
+                    a.getQuantitySold() + b.getQuantitySold(), a.getTotalRevenue().add(b.getTotalRevenue())));
+        }
+        return byProduct.values().stream()
+                .sorted(Comparator.comparing(ProductSalesDto::getQuantitySold).reversed()
+                        .thenComparing(ProductSalesDto::getProductId))
                 .limit(limit)
                 .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+
+    /**
+     * Approximate ranking over a rolling window, read from the TopSellingTracker sketches.
+     */
+    @Transactional(readOnly = true)
+    public List<StoreSalesDto> getRealtimeTopSellingStores(int limit, TopSellingWindow window) {
+        Map<Long, long[]> top = topSellingTracker.topStores(window, limit);
+        Map<Long, String> names = storeNames(top.keySet());
+
+        List<StoreSalesDto> stores = new ArrayList<>(top.size());
+        for (Map.Entry<Long, long[]> entry : top.entrySet()) {
+            long[] sales = entry.getValue();
+            stores.add(new StoreSalesDto(entry.getKey(), names.get(entry.getKey()), sales[1],
+                    BigDecimal.valueOf(sales[0], 2)));
+        }
+        return stores;
+    }
+
+    /**
+     * Approximate ranking over a rolling window, read from the TopSellingTracker sketches.
+     */
+    @Transactional(readOnly = true)
+    public List<ProductSalesDto> getRealtimeTopSellingProducts(int limit, TopSellingWindow window) {
+        Map<Long, long[]> top = topSellingTracker.topProducts(window, limit);
+        Map<Long, String> names = productNames(top.keySet());
+
+        List<ProductSalesDto> products = new ArrayList<>(top.size());
+        for (Map.Entry<Long, long[]> entry : top.entrySet()) {
+            long[] sales = entry.getValue();
+            products.add(new ProductSalesDto(entry.getKey(), names.get(entry.getKey()), sales[0],
+                    BigDecimal.valueOf(sales[1], 2)));
+        }
+        return products;
+    }
+
+    private List<StoreSalesDto> topStoresOfFullDays(DateRange days, int limit) {
+        if (columnStore == null) {
+            Pageable pageable = limit == Integer.MAX_VALUE ? Pageable.unpaged() : PageRequest.of(0, limit);
+            return dailyStoreSalesRepository.findTopSellingStores(days.firstDay, days.lastDay, pageable);
+        }
+
+        ColumnarRanking ranking = columnStore.topStores(days.firstDay, days.lastDay, limit);
+        Map<Long, String> names = storeNames(rankedIds(ranking));
+
+        List<StoreSalesDto> stores = new ArrayList<>(ranking.size());
+        for (int i = 0; i < ranking.size(); i++) {
+            long storeId = ranking.getId(i);
+            stores.add(new StoreSalesDto(storeId, names.get(storeId), ranking.getCount(i),
+                    BigDecimal.valueOf(ranking.getRevenueCents(i), 2)));
+        }
+        return stores;
+    }
+
+    private List<ProductSalesDto> topProductsOfFullDays(DateRange days, int limit) {
+        if (columnStore == null) {
+            Pageable pageable = limit == Integer.MAX_VALUE ? Pageable.unpaged() : PageRequest.of(0, limit);
+            return dailyProductSalesRepository.findTopSellingProducts(days.firstDay, days.lastDay, pageable);
+        }
+
+        ColumnarRanking ranking = columnStore.topProducts(days.firstDay, days.lastDay, limit);
+        Map<Long, String> names = productNames(rankedIds(ranking));
+
+        List<ProductSalesDto> products = new ArrayList<>(ranking.size());
+        for (int i = 0; i < ranking.size(); i++) {
+            long productId = ranking.getId(i);
+            products.add(new ProductSalesDto(productId, names.get(productId), ranking.getCount(i),
+                    BigDecimal.valueOf(ranking.getRevenueCents(i), 2)));
+        }
+        return products;
+    }
+
+    private Map<Long, String> storeNames(Collection<Long> storeIds) {
+        Map<Long, String> names = new HashMap<>();
+        for (Store store : storeRepository.findAllById(storeIds)) {
+            names.put(store.getId(), store.getName());
+        }
+        return names;
+    }
+
+    private Map<Long, String> productNames(Collection<Long> productIds) {
+        Map<Long, String> names = new HashMap<>();
+        for (Product product : productRepository.findAllById(productIds)) {
+            names.put(product.getId(), product.getName());
+        }
+        return names;
+    }
+
+    private static List<Long> rankedIds(ColumnarRanking ranking) {
+        List<Long> ids = new ArrayList<>(ranking.size());
+        for (int i = 0; i < ranking.size(); i++) {
+            ids.add((long) ranking.getId(i));
+        }
+        return ids;
+    }
+
+    // Same "yyyy-MM" key the summary has always exposed
+    private static String formatMonth(int year, int month) {
+        return String.format("%04d-%02d", year, month);
+    }
+
+    /**
+     * Splits a timestamp range into the whole days it covers, answered from the rollups,
+     * and the partial days before and after them, answered from the orders tables.
+     */
+    private static final class DateRange {
+        // Timestamps are stored with microsecond precision
+        private static final LocalTime END_OF_DAY = LocalTime.MAX.truncatedTo(ChronoUnit.MICROS);
+
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final LocalDate firstDay;
+        private final LocalDate lastDay;
+
+        private DateRange(LocalDateTime start, LocalDateTime end) {
+            this.start = start;
+            this.end = end;
+            this.firstDay = start.toLocalTime().equals(LocalTime.MIDNIGHT)
+                    ? start.toLocalDate() : start.toLocalDate().plusDays(1);
+            this.lastDay = end.toLocalTime().isBefore(END_OF_DAY)
+                    ? end.toLocalDate().minusDays(1) : end.toLocalDate();
+        }
+
+        static DateRange of(LocalDateTime start, LocalDateTime end) {
+            return new DateRange(start, end);
+        }
+
+        boolean hasFullDays() {
+            return !firstDay.isAfter(lastDay);
+        }
+
+        List<LocalDateTime[]> edges() {
+            List<LocalDateTime[]> edges = new ArrayList<>();
+            if (!hasFullDays()) {
+                edges.add(new LocalDateTime[]{start, end});
+                return edges;
+            }
+            if (start.isBefore(firstDay.atStartOfDay())) {
+                edges.add(new LocalDateTime[]{start, firstDay.minusDays(1).atTime(END_OF_DAY)});
+            }
+            LocalDateTime afterLastDay = lastDay.plusDays(1).atStartOfDay();
+            if (!end.isBefore(afterLastDay)) {
+                edges.add(new LocalDateTime[]{afterLastDay, end});
+            }
+            return edges;
+        }
+    }
+
+    private static final class SummaryBuilder {
+        private long totalOrders;
+        private Money totalRevenue = Money.ZERO;
+        private final Map<OrderStatus, Long> ordersByStatus = new HashMap<>();
+        private final Map<String, Long> ordersByMonth = new HashMap<>();
+        private final OrderSketch sketch = new OrderSketch();
+
+        void add(OrderSketch orders) {
+            sketch.merge(orders);
+        }
+
+        void add(ColumnarSummary scan) {
+            totalOrders += scan.getOrderCount();
+            totalRevenue = totalRevenue.plus(Money.ofCents(scan.getRevenueCents()));
+
+            for (OrderStatus status : OrderStatus.values()) {
+                long count = scan.getOrdersByStatus(status.ordinal());
+                if (count > 0) {
+                    ordersByStatus.merge(status, count, Long::sum);
+                }
+            }
+            for (int slot = 0; slot < scan.getMonthCount(); slot++) {
+                long count = scan.getOrdersByMonth(slot);
+                if (count > 0) {
+                    YearMonth month = scan.getMonth(slot);
+                    ordersByMonth.merge(formatMonth(month.getYear(), month.getMonthValue()), count, Long::sum);
+                }
+            }
+        }
+
+        void add(SalesTotalsView totals, List<StatusCountView> statusCounts, List<MonthCountView> monthCounts) {
+            totalOrders += totals.getOrderCount() == null ? 0L : totals.getOrderCount();
+            totalRevenue = totalRevenue.plus(totals.getRevenue() == null ? Money.ZERO : Money.of(totals.getRevenue()));
+
+            for (StatusCountView row : statusCounts) {
+                ordersByStatus.merge(row.getStatus(), row.getOrderCount(), Long::sum);
+            }
+            for (MonthCountView row : monthCounts) {
+                ordersByMonth.merge(formatMonth(row.getOrderYear(), row.getOrderMonth()), row.getOrderCount(), Long::sum);
+            }
+        }
+
+        OrderSummaryDto build() {
+            OrderSummaryDto summary = new OrderSummaryDto();
+            summary.setTotalOrders(totalOrders);
+            summary.setTotalRevenue(totalRevenue.toBigDecimal());
+
+            // Calculate average order value
+            Money averageOrderValue = Money.ZERO;
+            if (totalOrders > 0) {
+                averageOrderValue = totalRevenue.dividedBy(totalOrders);
+            }
+            summary.setAverageOrderValue(averageOrderValue.toBigDecimal());
+
+            // Cancelled orders leave zero-count rows behind in the rollups
+            ordersByStatus.values().removeIf(count -> count == 0);
+            summary.setOrdersByStatus(ordersByStatus);
+            summary.setOrdersByMonth(ordersByMonth);
+
+            summary.setDistinctCustomers(sketch.getDistinctCustomers());
+            summary.setOrderValueP50(percentile(0.50));
+            summary.setOrderValueP90(percentile(0.90));
+            summary.setOrderValueP99(percentile(0.99));
+            return summary;
+        }
+
+        private BigDecimal percentile(double q) {
+            if (sketch.getOrderCount() == 0) {
+                return BigDecimal.ZERO;
+            }
+            return BigDecimal.valueOf(sketch.getOrderValueQuantile(q)).setScale(2, RoundingMode.HALF_UP);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.marketplace.salesapi.order.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes the order documents that are missing, one transaction per batch: on startup for
+ * the orders that predate order_documents, then periodically for documents evicted after
+ * a store or customer was renamed. Until then those orders are read the old way.
+ */
+@Component
+public class OrderDocumentBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderDocumentBackfill.class);
+
+    @Autowired
+    private OrderService orderService;
+
+    @Value("${app.order-documents.backfill-batch-size:500}")
+    private int batchSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.order-documents.backfill-interval-ms:60000}",
+            initialDelayString = "${app.order-documents.backfill-interval-ms:60000}")
+    public void writeMissing() {
+        int written = 0;
+        int batch;
+        do {
+            batch = orderService.writeMissingOrderDocuments(batchSize);
+            written += batch;
+        } while (batch == batchSize);
+        if (written > 0) {
+            logger.info("Wrote {} missing order documents", written);
+        }
+    }
+}
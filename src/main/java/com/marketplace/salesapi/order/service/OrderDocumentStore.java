@@ -0,0 +1,287 @@
+package com.marketplace.salesapi.order.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marketplace.salesapi.common.cache.WTinyLfuCache;
+import com.marketplace.salesapi.common.transaction.TransactionCallbacks;
+import com.marketplace.salesapi.common.web.ETags;
+import com.marketplace.salesapi.order.dto.OrderDto;
+import com.marketplace.salesapi.order.model.Order;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * The order_documents read model: every order's OrderDto, serialized with the application's
+ * ObjectMapper, so reads can hand the stored bytes to the client as they are.
+ *
+ * OrderService stages the orders a transaction changes; their documents are written once,
+ * just before the transaction commits, after flushing the persistence context so the
+ * documents see the final state (versions, timestamps) and commit or roll back with it.
+ * A document is never replaced by one of an older order version.
+ *
+ * Reads by id or order number go through a bounded in-memory cache. Every transaction
+ * that stages or evicts documents invalidates the affected entries once it completes, so a
+ * cached document is never older than the last committed change to its order.
+ *
+ * A document's ETag is made of its order id, order version and updated_at, so a conditional
+ * read is answered from the cache or from those columns without reading the body.
+ */
+@Component
+public class OrderDocumentStore {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${app.order-documents.cache.maximum-size:10000}")
+    private int cacheSize;
+
+    @Value("${app.order-documents.cache.ttl:PT5M}")
+    private Duration cacheTtl;
+
+    // Keyed by order id (Long) and by order number (String)
+    private WTinyLfuCache<Object, Document> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = new WTinyLfuCache<>(cacheSize, cacheTtl);
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            FunctionCounter.builder("cache.gets", cache, WTinyLfuCache::hitCount)
+                    .tags("cache", "orderDocuments", "result", "hit").register(registry);
+            FunctionCounter.builder("cache.gets", cache, WTinyLfuCache::missCount)
+                    .tags("cache", "orderDocuments", "result", "miss").register(registry);
+            FunctionCounter.builder("cache.evictions", cache, WTinyLfuCache::evictionCount)
+                    .tags("cache", "orderDocuments").register(registry);
+            Gauge.builder("cache.size", cache, WTinyLfuCache::size)
+                    .tags("cache", "orderDocuments").register(registry);
+        }
+    }
+
+    /**
+     * Schedules the document of order to be written before the current transaction commits,
+     * built by document at that point. Staging an order again replaces the earlier entry.
+     */
+    public void stage(Order order, boolean created, Supplier<OrderDto> document) {
+        Map<Long, Staged> staged = staged();
+        Staged previous = staged.get(order.getId());
+        staged.put(order.getId(), new Staged(order, created || (previous != null && previous.created()), document));
+    }
+
+    public Optional<Document> findById(Long orderId) {
+        return Optional.ofNullable(cached(orderId, () -> jdbcTemplate.query(
+                "SELECT order_id, order_version, updated_at, body FROM order_documents WHERE order_id = ?",
+                OrderDocumentStore::document, orderId).stream().findFirst().orElse(null)));
+    }
+
+    public Optional<Document> findByOrderNumber(String orderNumber) {
+        return Optional.ofNullable(cached(orderNumber, () -> jdbcTemplate.query(
+                "SELECT order_id, order_version, updated_at, body FROM order_documents WHERE order_number = ?",
+                OrderDocumentStore::document, orderNumber).stream().findFirst().orElse(null)));
+    }
+
+    /**
+     * ETag of the order's document, from the cache or else from the columns it is made of.
+     */
+    public Optional<String> findETag(Long orderId) {
+        Document document = cache.get(orderId);
+        if (document != null) {
+            return Optional.of(document.eTag());
+        }
+        return jdbcTemplate.query("SELECT order_id, order_version, updated_at FROM order_documents WHERE order_id = ?",
+                OrderDocumentStore::eTag, orderId).stream().findFirst();
+    }
+
+    public Optional<String> findETagByOrderNumber(String orderNumber) {
+        Document document = cache.get(orderNumber);
+        if (document != null) {
+            return Optional.of(document.eTag());
+        }
+        return jdbcTemplate.query("SELECT order_id, order_version, updated_at FROM order_documents WHERE order_number = ?",
+                OrderDocumentStore::eTag, orderNumber).stream().findFirst();
+    }
+
+    /**
+     * The documents of orderIds that have one; those not cached are read in one statement.
+     */
+    public Map<Long, byte[]> findAllById(Collection<Long> orderIds) {
+        Map<Long, byte[]> documents = new HashMap<>();
+        Map<Long, Long> stamps = new HashMap<>();
+        for (Long orderId : orderIds) {
+            Document document = cache.get(orderId);
+            if (document != null) {
+                documents.put(orderId, document.body());
+            } else {
+                stamps.put(orderId, cache.stamp(orderId));
+            }
+        }
+        if (!stamps.isEmpty()) {
+            jdbcTemplate.query("SELECT order_id, order_version, updated_at, body FROM order_documents WHERE order_id IN (" +
+                            String.join(", ", Collections.nCopies(stamps.size(), "?")) + ")",
+                    rs -> {
+                        Long orderId = rs.getLong("order_id");
+                        Document document = document(rs, 0);
+                        documents.put(orderId, document.body());
+                        cache.put(orderId, document, stamps.get(orderId));
+                    },
+                    stamps.keySet().toArray());
+        }
+        return documents;
+    }
+
+    /**
+     * Ids of up to limit orders without a document, lowest first.
+     */
+    public List<Long> findMissing(int limit) {
+        return jdbcTemplate.queryForList(
+                "SELECT o.id FROM orders o LEFT JOIN order_documents d ON d.order_id = o.id " +
+                "WHERE d.order_id IS NULL ORDER BY o.id LIMIT ?", Long.class, limit);
+    }
+
+    /**
+     * Drops the documents showing a store's name, after it changed. They are rebuilt by
+     * OrderDocumentBackfill, and read from the orders until then.
+     */
+    public void evictStore(Long storeId) {
+        TransactionCallbacks.afterCompletion(cache::invalidateAll);
+        jdbcTemplate.update("DELETE FROM order_documents WHERE order_id IN " +
+                "(SELECT order_id FROM store_orders WHERE store_id = ?)", storeId);
+    }
+
+    /**
+     * Drops the documents showing a customer's name, after it changed.
+     */
+    public void evictUser(Long userId) {
+        TransactionCallbacks.afterCompletion(cache::invalidateAll);
+        jdbcTemplate.update("DELETE FROM order_documents WHERE order_id IN " +
+                "(SELECT id FROM orders WHERE user_id = ?)", userId);
+    }
+
+    public byte[] serialize(OrderDto document) {
+        try {
+            return objectMapper.writeValueAsBytes(document);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize order " + document.getId(), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, Staged> staged() {
+        Map<Long, Staged> staged = (Map<Long, Staged>) TransactionSynchronizationManager.getResource(this);
+        if (staged != null) {
+            return staged;
+        }
+        Map<Long, Staged> pending = new LinkedHashMap<>();
+        TransactionSynchronizationManager.bindResource(this, pending);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                write(pending.values());
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResource(OrderDocumentStore.this);
+                for (Staged entry : pending.values()) {
+                    cache.invalidate(entry.order().getId());
+                    cache.invalidate(entry.order().getOrderNumber());
+                }
+            }
+        });
+        return pending;
+    }
+
+    // A load that read a document before its invalidation either has its entry dropped by
+    // the invalidation or, putting afterwards, is turned away by the stamp taken before reading
+    private Document cached(Object key, Supplier<Document> loader) {
+        Document document = cache.get(key);
+        if (document == null) {
+            long stamp = cache.stamp(key);
+            document = loader.get();
+            if (document != null) {
+                cache.put(key, document, stamp);
+            }
+        }
+        return document;
+    }
+
+    private static Document document(ResultSet rs, int rowNum) throws SQLException {
+        return new Document(rs.getBytes("body"), eTag(rs, rowNum));
+    }
+
+    private static String eTag(ResultSet rs, int rowNum) throws SQLException {
+        return ETags.of(rs.getLong("order_id"), rs.getLong("order_version"),
+                rs.getTimestamp("updated_at").toLocalDateTime());
+    }
+
+    private void write(Collection<Staged> staged) {
+        entityManager.flush();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        // Orders created in this transaction cannot have a document yet, so they are batch-inserted
+        List<Object[]> inserts = new ArrayList<>();
+        for (Staged entry : staged) {
+            Order order = entry.order();
+            byte[] body = serialize(entry.document().get());
+            long version = order.getVersion() != null ? order.getVersion() : 0L;
+            if (entry.created()) {
+                inserts.add(new Object[]{order.getId(), order.getOrderNumber(), version, body, now});
+            } else {
+                RollupUpserts.upsert(jdbcTemplate,
+                        () -> jdbcTemplate.update(
+                                "UPDATE order_documents SET order_number = ?, order_version = ?, body = ?, updated_at = ? " +
+                                "WHERE order_id = ? AND order_version <= ?",
+                                order.getOrderNumber(), version, body, now, order.getId(), version),
+                        () -> jdbcTemplate.update(
+                                "INSERT INTO order_documents (order_id, order_number, order_version, body, updated_at) " +
+                                "VALUES (?, ?, ?, ?, ?)",
+                                order.getId(), order.getOrderNumber(), version, body, now));
+            }
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO order_documents (order_id, order_number, order_version, body, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?)", inserts);
+    }
+
+    private record Staged(Order order, boolean created, Supplier<OrderDto> document) {
+    }
+
+    /**
+     * A stored document as sent to clients, with its ETag.
+     */
+    public record Document(byte[] body, String eTag) {
+    }
+}
@@ -1,33 +1,115 @@
 package com.marketplace.salesapi.order.service;
 
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.marketplace.salesapi.common.fields.FieldProjection;
+import com.marketplace.salesapi.common.model.Money;
+import com.marketplace.salesapi.common.pagination.CursorPage;
+import com.marketplace.salesapi.common.pagination.KeysetCursor;
+import com.marketplace.salesapi.exception.BadRequestException;
+import com.marketplace.salesapi.exception.OrderStatusConflictException;
 import com.marketplace.salesapi.exception.ResourceNotFoundException;
 import com.marketplace.salesapi.exception.UnauthorizedException;
 import com.marketplace.salesapi.order.dto.*;
+import com.marketplace.salesapi.order.event.OrderCreatedEvent;
+import com.marketplace.salesapi.order.event.OrderPaymentChangedEvent;
+import com.marketplace.salesapi.order.event.OrderShippingChangedEvent;
+import com.marketplace.salesapi.order.event.OrderStatusChangedEvent;
+import com.marketplace.salesapi.order.journal.OrderJournal;
+import com.marketplace.salesapi.order.journal.OrderJournalEntry;
 import com.marketplace.salesapi.order.model.*;
 import com.marketplace.salesapi.order.repository.OrderItemRepository;
 import com.marketplace.salesapi.order.repository.OrderPaymentRepository;
 import com.marketplace.salesapi.order.repository.OrderRepository;
+import com.marketplace.salesapi.order.repository.OrderSpecifications;
 import com.marketplace.salesapi.order.repository.ShippingInfoRepository;
+import com.marketplace.salesapi.order.repository.StoreOrderRepository;
+import com.marketplace.salesapi.order.repository.projection.OrderStateView;
+import com.marketplace.salesapi.product.inventory.InventoryLedger;
 import com.marketplace.salesapi.product.model.Product;
 import com.marketplace.salesapi.product.repository.ProductRepository;
 import com.marketplace.salesapi.store.model.Store;
+import com.marketplace.salesapi.store.repository.StoreRepository;
 import com.marketplace.salesapi.user.model.User;
 import com.marketplace.salesapi.user.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Types;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class OrderService {
 
+    public static final KeysetCursor.SortKeys CURSOR_SORT_KEYS = KeysetCursor.SortKeys
+            .of("createdAt", LocalDateTime::parse)
+            .and("total", Money::of);
+
+    // Sort keys of the store listings in cursor mode; their rows come from store_orders
+    public static final KeysetCursor.SortKeys STORE_CURSOR_SORT_KEYS = KeysetCursor.SortKeys
+            .of("createdAt", LocalDateTime::parse)
+            .and("storeSubtotal", Money::of);
+
+    // Sort properties the paged store listings accept, mapped to StoreOrder's; the order
+    // total of the other listings becomes the store's subtotal
+    private static final Map<String, String> STORE_SORT_PROPERTIES = Map.of(
+            "createdAt", "createdAt",
+            "status", "status",
+            "storeSubtotal", "storeSubtotal",
+            "total", "storeSubtotal",
+            "id", "orderId");
+
+    private static final int BULK_CHUNK_SIZE = 1000;
+
+    // The OrderDto fields a listing can be narrowed to with ?fields=
+    private static final FieldProjection<Order> LISTING_FIELDS = FieldProjection.of(Order.class)
+            .column("orderNumber", root -> root.get("orderNumber"))
+            .column("userId", root -> root.get("user").get("id"))
+            .column("userName", root -> root.get("user").get("name"))
+            .column("status", root -> root.get("status"))
+            .related("items")
+            .related("payment")
+            .related("shippingInfo")
+            .column("subtotal", root -> root.get("subtotal"), amount -> Money.bigDecimalOf((Money) amount))
+            .column("shippingCost", root -> root.get("shippingCost"), amount -> Money.bigDecimalOf((Money) amount))
+            .column("discount", root -> root.get("discount"), amount -> Money.bigDecimalOf((Money) amount))
+            .column("tax", root -> root.get("tax"), amount -> Money.bigDecimalOf((Money) amount))
+            .column("total", root -> root.get("total"), amount -> Money.bigDecimalOf((Money) amount))
+            .column("notes", root -> root.get("notes"))
+            .column("createdAt", root -> root.get("createdAt"))
+            .column("updatedAt", root -> root.get("updatedAt"));
+
+    // One checkout of a createOrders batch
+    public record NewOrder(CreateOrderRequest request, Long userId) {
+    }
+
     @Autowired
     private OrderRepository orderRepository;
 
@@ -46,34 +128,99 @@ public class OrderService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private InventoryLedger inventoryLedger;
+
+    @Autowired
+    private StoreRepository storeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OrderJournal orderJournal;
+
+    @Autowired
+    private StoreOrderRepository storeOrderRepository;
+
+    @Autowired
+    private OrderDocumentStore orderDocumentStore;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Transactional(readOnly = true)
     public Page<OrderDto> getAllOrders(Pageable pageable) {
-        Page<Order> orders = orderRepository.findAll(pageable);
-        return orders.map(this::convertToDto);
+        return convertToDtoPage(orderRepository.findAll(pageable));
     }
 
     @Transactional(readOnly = true)
     public Page<OrderDto> getOrdersByUser(Long userId, Pageable pageable) {
-        Page<Order> orders = orderRepository.findByUserId(userId, pageable);
-        return orders.map(this::convertToDto);
+        return convertToDtoPage(orderRepository.findByUserId(userId, pageable));
+    }
+
+    /**
+     * A page of orders with only the fields listed in fields (comma separated, all if
+     * blank): only their columns are read, and items, payment and shipping only if asked for.
+     */
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> getAllOrders(String fields, Pageable pageable) {
+        return findFields(OrderSpecifications.any(), fields, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> getOrdersByUser(Long userId, String fields, Pageable pageable) {
+        return findFields(OrderSpecifications.hasUser(userId), fields, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> getOrdersByStatus(OrderStatus status, String fields, Pageable pageable) {
+        return findFields(OrderSpecifications.hasStatus(status), fields, pageable);
     }
 
     @Transactional(readOnly = true)
     public Page<OrderDto> getOrdersByStore(Long storeId, Pageable pageable) {
-        Page<Order> orders = orderRepository.findByStoreId(storeId, pageable);
-        return orders.map(this::convertToDto);
+        return convertToStoreDtoPage(storeOrderRepository.findByStoreId(storeId, storePageable(pageable)));
     }
 
     @Transactional(readOnly = true)
     public Page<OrderDto> getOrdersByStoreAndStatus(Long storeId, OrderStatus status, Pageable pageable) {
-        Page<Order> orders = orderRepository.findByStoreIdAndStatus(storeId, status, pageable);
-        return orders.map(this::convertToDto);
+        return convertToStoreDtoPage(storeOrderRepository.findByStoreIdAndStatus(storeId, status, storePageable(pageable)));
     }
 
     @Transactional(readOnly = true)
     public Page<OrderDto> getOrdersByStatus(OrderStatus status, Pageable pageable) {
-        Page<Order> orders = orderRepository.findByStatus(status, pageable);
-        return orders.map(this::convertToDto);
+        return convertToDtoPage(orderRepository.findByStatus(status, pageable));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<OrderDto> scrollAllOrders(KeysetCursor cursor) {
+        return scroll(OrderSpecifications.any(), cursor);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<OrderDto> scrollOrdersByUser(Long userId, KeysetCursor cursor) {
+        return scroll(OrderSpecifications.hasUser(userId), cursor);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<OrderDto> scrollOrdersByStore(Long storeId, KeysetCursor cursor) {
+        return scrollStore(storeOrderRepository.findByStoreId(storeId,
+                cursor.getPosition(), cursor.getSort(), Limit.of(cursor.getSize())), cursor);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<OrderDto> scrollOrdersByStoreAndStatus(Long storeId, OrderStatus status, KeysetCursor cursor) {
+        return scrollStore(storeOrderRepository.findByStoreIdAndStatus(storeId, status,
+                cursor.getPosition(), cursor.getSort(), Limit.of(cursor.getSize())), cursor);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<OrderDto> scrollOrdersByStatus(OrderStatus status, KeysetCursor cursor) {
+        return scroll(OrderSpecifications.hasStatus(status), cursor);
     }
 
     @Transactional(readOnly = true)
@@ -89,45 +236,120 @@ public class OrderService {
         return convertToDto(order);
     }
 
+    /**
+     * The stored document of an order and its ETag, ready to be sent as is. Empty when the order has no
+     * document yet (OrderDocumentBackfill has not reached it), in which case callers fall
+     * back to getOrderById.
+     */
+    @Transactional(readOnly = true)
+    public Optional<OrderDocumentStore.Document> findOrderDocument(Long id) {
+        return orderDocumentStore.findById(id);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<OrderDocumentStore.Document> findOrderDocumentByNumber(String orderNumber) {
+        return orderDocumentStore.findByOrderNumber(orderNumber);
+    }
+
+    /**
+     * ETag of the order's stored document, read without its body; empty while it has none.
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> findOrderDocumentETag(Long id) {
+        return orderDocumentStore.findETag(id);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<String> findOrderDocumentETagByNumber(String orderNumber) {
+        return orderDocumentStore.findETagByOrderNumber(orderNumber);
+    }
+
+    /**
+     * A user's orders as their stored documents: one statement for the page of ids (and one
+     * for the count), one for the documents. Orders without a document are converted as in
+     * getOrdersByUser.
+     */
+    @Transactional(readOnly = true)
+    public Page<RawValue> getOrderDocumentsByUser(Long userId, Pageable pageable) {
+        Page<Long> ids = orderRepository.findIdsByUserId(userId, pageable);
+        Map<Long, byte[]> documents = orderDocumentStore.findAllById(ids.getContent());
+        List<Long> missing = ids.stream().filter(id -> !documents.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            List<Order> orders = orderRepository.findByIdIn(missing);
+            orderRepository.fetchItems(orders);
+            for (Order order : orders) {
+                documents.put(order.getId(), orderDocumentStore.serialize(convertToDto(order)));
+            }
+        }
+        return ids.map(id -> new RawValue(new String(documents.get(id), StandardCharsets.UTF_8)));
+    }
+
+    @Transactional(readOnly = true)
+    public List<OrderTimelineEntryDto> getOrderTimeline(Long id) {
+        List<OrderJournalEntry> entries = orderJournal.timeline(id);
+        if (entries.isEmpty()) {
+            findOrderStateById(id);
+        }
+        List<OrderTimelineEntryDto> timeline = new ArrayList<>(entries.size());
+        OrderStatus previousStatus = null;
+        for (OrderJournalEntry entry : entries) {
+            timeline.add(new OrderTimelineEntryDto(entry.occurredAt(), entry.type(),
+                    entry.status() != previousStatus ? previousStatus : null, entry.status(),
+                    entry.paymentStatus(), entry.trackingNumber(), entry.orderVersion()));
+            previousStatus = entry.status();
+        }
+        return timeline;
+    }
+
     @Transactional
     public OrderDto createOrder(CreateOrderRequest request, Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado com o ID: " + userId));
 
+        // Load every product of the order in one query
+        Set<Long> productIds = request.getItems().stream()
+                .map(CreateOrderItemRequest::getProductId)
+                .collect(Collectors.toSet());
+        Map<Long, Product> products = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
         // Create new order
         Order order = new Order();
         order.setUser(user);
         order.setNotes(request.getNotes());
         
         // Calculate shipping cost (simplified for now)
-        order.setShippingCost(new BigDecimal("15.00"));
-        
-        // Save order to get ID
-        Order savedOrder = orderRepository.save(order);
+        order.setShippingCost(Money.of("15.00"));
         
         // Process order items
-        List<OrderItem> orderItems = new ArrayList<>();
         for (CreateOrderItemRequest itemRequest : request.getItems()) {
-            Product product = productRepository.findById(itemRequest.getProductId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Produto não encontrado com o ID: " + itemRequest.getProductId()));
+            Product product = products.get(itemRequest.getProductId());
+            if (product == null) {
+                throw new ResourceNotFoundException("Produto não encontrado com o ID: " + itemRequest.getProductId());
+            }
             
             OrderItem orderItem = new OrderItem();
-            orderItem.setOrder(savedOrder);
+            orderItem.setOrder(order);
             orderItem.setProduct(product);
             orderItem.setProductName(product.getName());
             orderItem.setProductSku(product.getSku());
             orderItem.setQuantity(itemRequest.getQuantity());
             orderItem.setUnitPrice(product.getPrice());
+            orderItem.calculateSubtotal();
             
-            orderItems.add(orderItem);
+            order.getItems().add(orderItem);
         }
         
-        // Save order items
-        orderItemRepository.saveAll(orderItems);
+        // Totals are final before anything is written, so the order is inserted once
+        order.recalculateOrderTotals();
+        
+        // Hold the stock; released again if the order is not committed
+        inventoryLedger.reserve(quantitiesOf(order));
+        order.setStockReserved(true);
         
         // Create shipping info
         ShippingInfo shippingInfo = new ShippingInfo();
-        shippingInfo.setOrder(savedOrder);
+        shippingInfo.setOrder(order);
         shippingInfo.setRecipientName(request.getShippingInfo().getRecipientName());
         shippingInfo.setStreet(request.getShippingInfo().getStreet());
         shippingInfo.setNumber(request.getShippingInfo().getNumber());
@@ -140,140 +362,506 @@ public class OrderService {
         shippingInfo.setPhoneNumber(request.getShippingInfo().getPhoneNumber());
         shippingInfo.setShippingMethod(request.getShippingInfo().getShippingMethod());
         shippingInfo.setEstimatedDeliveryDate(LocalDateTime.now().plusDays(7)); // Simplified
-        
-        shippingInfoRepository.save(shippingInfo);
+        order.setShippingInfo(shippingInfo);
         
         // Create payment
         OrderPayment payment = new OrderPayment();
-        payment.setOrder(savedOrder);
+        payment.setOrder(order);
         payment.setPaymentMethod(request.getPaymentMethod());
         payment.setPaymentStatus(PaymentStatus.PENDING);
         payment.setPaymentDetails(request.getPaymentDetails());
-        payment.setAmount(savedOrder.getTotal());
+        payment.setAmount(order.getTotal());
+        order.setPayment(payment);
         
-        orderPaymentRepository.save(payment);
+        // Items, shipping info and payment cascade from the order and are batch-inserted on flush
+        Order savedOrder = orderRepository.save(order);
         
-        // Recalculate order totals
-        savedOrder.recalculateOrderTotals();
-        orderRepository.save(savedOrder);
+        eventPublisher.publishEvent(new OrderCreatedEvent(savedOrder));
+        orderDocumentStore.stage(savedOrder, true, () -> convertToDto(savedOrder));
         
         return convertToDto(savedOrder);
     }
 
+    /**
+     * Creates several orders in one transaction, so they share a single commit and their
+     * inserts are batched together. Any failure rolls back all of them.
+     */
     @Transactional
-    public OrderDto updateOrderStatus(Long id, UpdateOrderStatusRequest request, Long userId) {
-        Order order = findOrderById(id);
-        
-        // Check if user is authorized (admin or the order owner)
-        if (!order.getUser().getId().equals(userId) && !isUserAdmin(userId)) {
-            throw new UnauthorizedException("Você não tem permissão para atualizar este pedido");
+    public List<OrderDto> createOrders(List<NewOrder> orders) {
+        List<OrderDto> created = new ArrayList<>(orders.size());
+        for (NewOrder order : orders) {
+            created.add(createOrder(order.request(), order.userId()));
         }
+        return created;
+    }
+
+    @Transactional
+    public OrderDto updateOrderStatus(Long id, UpdateOrderStatusRequest request, Long userId) {
+        // Admins may update any order, everyone else only their own
+        Long ownerId = isUserAdmin(userId) ? null : userId;
         
-        order.setStatus(request.getStatus());
-        if (request.getNotes() != null) {
-            order.setNotes(request.getNotes());
-        }
+        // The current status is accepted too, so repeating a request only updates the notes
+        Set<OrderStatus> sources = request.getStatus().sources();
+        sources.add(request.getStatus());
         
-        Order updatedOrder = orderRepository.save(order);
-        return convertToDto(updatedOrder);
+        Order order = transition(id, ownerId, sources, request.getStatus(), request.getNotes(),
+                "Você não tem permissão para atualizar este pedido");
+        return convertToDto(order);
     }
 
     @Transactional
     public OrderDto updatePaymentStatus(Long orderId, UpdatePaymentStatusRequest request, Long userId) {
-        Order order = findOrderById(orderId);
-        
         // Check if user is authorized (admin or seller)
         if (!isUserAdmin(userId) && !isUserSeller(userId)) {
             throw new UnauthorizedException("Você não tem permissão para atualizar o status de pagamento");
         }
         
-        OrderPayment payment = orderPaymentRepository.findByOrderId(orderId)
-                .orElseThrow(() -> new ResourceNotFoundException("Pagamento não encontrado para o pedido com ID: " + orderId));
-        
-        payment.setPaymentStatus(request.getPaymentStatus());
-        
-        if (request.getTransactionId() != null) {
-            payment.setTransactionId(request.getTransactionId());
+        LocalDateTime now = LocalDateTime.now();
+        boolean completed = request.getPaymentStatus() == PaymentStatus.COMPLETED;
+        int updated = orderPaymentRepository.updateByOrderId(orderId, request.getPaymentStatus(),
+                request.getTransactionId(), request.getPaymentDetails(), completed ? now : null, now);
+        if (updated == 0) {
+            findOrderStateById(orderId);
+            throw new ResourceNotFoundException("Pagamento não encontrado para o pedido com ID: " + orderId);
         }
         
-        if (request.getPaymentDetails() != null) {
-            payment.setPaymentDetails(request.getPaymentDetails());
+        // If payment is completed, a pending order moves to processing
+        boolean processing = completed && orderRepository.transitionStatus(orderId, null,
+                EnumSet.of(OrderStatus.PENDING), OrderStatus.PROCESSING, null, now) == 1;
+        if (!processing) {
+            orderRepository.touch(orderId, now);
         }
         
-        // If payment is completed, update order status
-        if (request.getPaymentStatus() == PaymentStatus.COMPLETED && order.getStatus() == OrderStatus.PENDING) {
-            order.setStatus(OrderStatus.PROCESSING);
-            orderRepository.save(order);
+        Order order = findOrderById(orderId);
+        if (processing) {
+            publishStatusChange(order, order.getPreviousStatus());
         }
-        
-        orderPaymentRepository.save(payment);
+        eventPublisher.publishEvent(new OrderPaymentChangedEvent(order));
+        stageDocument(order);
         return convertToDto(order);
     }
 
     @Transactional
     public OrderDto updateShippingInfo(Long orderId, UpdateShippingInfoRequest request, Long userId) {
-        Order order = findOrderById(orderId);
-        
         // Check if user is authorized (admin or seller)
         if (!isUserAdmin(userId) && !isUserSeller(userId)) {
             throw new UnauthorizedException("Você não tem permissão para atualizar informações de envio");
         }
         
-        ShippingInfo shippingInfo = shippingInfoRepository.findByOrderId(orderId)
-                .orElseThrow(() -> new ResourceNotFoundException("Informações de envio não encontradas para o pedido com ID: " + orderId));
-        
-        if (request.getTrackingNumber() != null) {
-            shippingInfo.setTrackingNumber(request.getTrackingNumber());
+        LocalDateTime now = LocalDateTime.now();
+        int updated = shippingInfoRepository.updateByOrderId(orderId, request.getTrackingNumber(),
+                request.getEstimatedDeliveryDate(), request.getShippedDate(), request.getDeliveredDate(), now);
+        if (updated == 0) {
+            findOrderStateById(orderId);
+            throw new ResourceNotFoundException("Informações de envio não encontradas para o pedido com ID: " + orderId);
         }
         
-        if (request.getEstimatedDeliveryDate() != null) {
-            shippingInfo.setEstimatedDeliveryDate(request.getEstimatedDeliveryDate());
+        Order order;
+        if (request.getDeliveredDate() != null) {
+            // A delivery date must be able to move the order to DELIVERED (or find it there already)
+            Set<OrderStatus> sources = OrderStatus.DELIVERED.sources();
+            sources.add(OrderStatus.DELIVERED);
+            order = transition(orderId, null, sources, OrderStatus.DELIVERED, null, null);
+        } else if (request.getShippedDate() != null && orderRepository.transitionStatus(orderId, null,
+                EnumSet.of(OrderStatus.PROCESSING), OrderStatus.SHIPPED, null, now) == 1) {
+            // A shipping date moves an order in PROCESSING to SHIPPED
+            order = findOrderById(orderId);
+            publishStatusChange(order, order.getPreviousStatus());
+        } else {
+            orderRepository.touch(orderId, now);
+            order = findOrderById(orderId);
+        }
+        eventPublisher.publishEvent(new OrderShippingChangedEvent(order));
+        stageDocument(order);
+        return convertToDto(order);
+    }
+
+    @Transactional
+    public void cancelOrder(Long id, Long userId) {
+        if (storeOrderRepository.existsByOrderIdAndStatusIn(id, EnumSet.of(OrderStatus.SHIPPED, OrderStatus.DELIVERED))) {
+            throw new OrderStatusConflictException("Não é possível cancelar um pedido com itens já enviados");
+        }
+        // Admins may cancel any order, everyone else only their own, while PENDING or PROCESSING
+        Long ownerId = isUserAdmin(userId) ? null : userId;
+        transition(id, ownerId, OrderStatus.CANCELLED.sources(), OrderStatus.CANCELLED, null,
+                "Você não tem permissão para cancelar este pedido");
+    }
+
+    /**
+     * Ships or delivers one store's part of an order, touching only its store_orders row.
+     * Once every store has shipped (or delivered) its part, the parent order follows.
+     */
+    @Transactional
+    public StoreOrderDto updateStoreOrder(Long storeId, Long orderId, UpdateStoreOrderRequest request, Long userId) {
+        findOwnedStore(storeId, userId);
+        OrderStatus status = request.getStatus();
+        if (status != OrderStatus.SHIPPED && status != OrderStatus.DELIVERED) {
+            throw new BadRequestException("Status de envio inválido: " + status + ". Use SHIPPED ou DELIVERED");
         }
         
-        if (request.getShippedDate() != null) {
-            shippingInfo.setShippedDate(request.getShippedDate());
-            // Update order status to SHIPPED if it's in PROCESSING
-            if (order.getStatus() == OrderStatus.PROCESSING) {
-                order.setStatus(OrderStatus.SHIPPED);
-                orderRepository.save(order);
-            }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime shippedDate = request.getShippedDate() != null || status != OrderStatus.SHIPPED
+                ? request.getShippedDate() : now;
+        LocalDateTime deliveredDate = request.getDeliveredDate() != null || status != OrderStatus.DELIVERED
+                ? request.getDeliveredDate() : now;
+        Set<OrderStatus> sources = status.sources();
+        sources.add(status);
+        if (storeOrderRepository.transitionStatus(storeId, orderId, sources, status, request.getTrackingNumber(),
+                shippedDate, deliveredDate, now) == 0) {
+            StoreOrder current = storeOrderRepository.findByStoreIdAndOrderId(storeId, orderId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Pedido não encontrado na loja"));
+            throw new OrderStatusConflictException("Não é possível alterar o status do pedido de "
+                    + current.getStatus() + " para " + status);
         }
         
-        if (request.getDeliveredDate() != null) {
-            shippingInfo.setDeliveredDate(request.getDeliveredDate());
-            // Update order status to DELIVERED
-            order.setStatus(OrderStatus.DELIVERED);
-            orderRepository.save(order);
+        // The parent moves with the least advanced of its sub-orders
+        List<OrderStatus> statuses = storeOrderRepository.findStatusesByOrderId(orderId);
+        OrderStatus parentStatus = null;
+        if (statuses.stream().allMatch(OrderStatus.DELIVERED::equals)) {
+            parentStatus = OrderStatus.DELIVERED;
+        } else if (statuses.stream().allMatch(current -> current == OrderStatus.SHIPPED || current == OrderStatus.DELIVERED)) {
+            parentStatus = OrderStatus.SHIPPED;
+        }
+        if (parentStatus != null && orderRepository.transitionStatus(orderId, null, parentStatus.sources(),
+                parentStatus, null, now) == 1) {
+            Order order = findOrderById(orderId);
+            publishStatusChange(order, order.getPreviousStatus());
+            stageDocument(order);
         }
         
-        shippingInfoRepository.save(shippingInfo);
-        return convertToDto(order);
+        return convertToDto(storeOrderRepository.findByStoreIdAndOrderId(storeId, orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Pedido não encontrado na loja")));
     }
 
+    /**
+     * Applies a seller's status and shipping changes to many orders of a store at once. The
+     * store's ownership is checked once and the current statuses read in one query per
+     * thousand orders; the changes then go out as JDBC batches of conditional updates, whose
+     * row counts tell which orders lost a race. Only orders made of the store's items alone
+     * are taken, since their status is the store's sub-order status; an order shared with
+     * other stores goes through updateStoreOrder, which moves just the store's part. Orders
+     * that cannot be updated (not from the store, shared, transition not allowed, changed
+     * concurrently) are reported without failing the others.
+     */
     @Transactional
-    public void cancelOrder(Long id, Long userId) {
-        Order order = findOrderById(id);
+    public BulkOrderUpdateDto bulkUpdateStoreOrders(Long storeId, BulkOrderUpdateRequest request, Long userId) {
+        findOwnedStore(storeId, userId);
         
-        // Check if user is authorized (admin or the order owner)
-        if (!order.getUser().getId().equals(userId) && !isUserAdmin(userId)) {
-            throw new UnauthorizedException("Você não tem permissão para cancelar este pedido");
+        Map<Long, BulkOrderUpdateItem> items = new LinkedHashMap<>();
+        for (BulkOrderUpdateItem item : request.getOrders()) {
+            if (items.put(item.getOrderId(), item) != null) {
+                throw new BadRequestException("Pedido repetido na requisição: " + item.getOrderId());
+            }
+        }
+        Map<Long, OrderStatus> current = new HashMap<>();
+        Set<Long> shared = new HashSet<>();
+        for (List<Long> ids : chunks(new ArrayList<>(items.keySet()))) {
+            orderRepository.findStatusesInStore(storeId, ids).forEach(view -> current.put(view.getId(), view.getStatus()));
+            shared.addAll(storeOrderRepository.findOrderIdsSharedWithOtherStores(storeId, ids));
         }
         
-        // Only allow cancellation if order is in PENDING or PROCESSING status
-        if (order.getStatus() != OrderStatus.PENDING && order.getStatus() != OrderStatus.PROCESSING) {
-            throw new IllegalStateException("Não é possível cancelar um pedido que já foi enviado ou entregue");
+        // Plan: status transitions, and orders whose status stays but whose shipping changes
+        Map<Long, BulkOrderUpdateResultDto> results = new LinkedHashMap<>();
+        List<BulkOrderUpdateItem> transitions = new ArrayList<>();
+        List<BulkOrderUpdateItem> shippingOnly = new ArrayList<>();
+        for (BulkOrderUpdateItem item : items.values()) {
+            OrderStatus status = current.get(item.getOrderId());
+            BulkOrderUpdateResultDto result = new BulkOrderUpdateResultDto(item.getOrderId(), false, status, null);
+            results.put(item.getOrderId(), result);
+            if (status == null) {
+                result.setError("Pedido não encontrado na loja");
+                continue;
+            }
+            if (shared.contains(item.getOrderId())) {
+                result.setError("Pedido com itens de outras lojas: atualize a parte da loja individualmente");
+                continue;
+            }
+            OrderStatus target = item.getStatus();
+            if (target == null && item.getShippedDate() != null && status == OrderStatus.PROCESSING) {
+                target = OrderStatus.SHIPPED;
+            }
+            boolean changesShipping = item.getTrackingNumber() != null || item.getShippedDate() != null;
+            if (target == null || target == status) {
+                if (changesShipping) {
+                    shippingOnly.add(item);
+                } else {
+                    result.setError("Nada a atualizar");
+                }
+            } else if (!status.canTransitionTo(target)) {
+                result.setError("Não é possível alterar o status do pedido de " + status + " para " + target);
+            } else if (target == OrderStatus.PENDING) {
+                // Reopening reserves stock again, which may fail; that is left to single updates
+                result.setError("Pedidos cancelados não podem ser reabertos em lote");
+            } else {
+                item.setStatus(target);
+                transitions.add(item);
+            }
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> statusArgs = new ArrayList<>(transitions.size());
+        for (BulkOrderUpdateItem item : transitions) {
+            statusArgs.add(new Object[]{item.getStatus().name(), now, item.getOrderId(), current.get(item.getOrderId()).name()});
+        }
+        int[] moved = jdbcTemplate.batchUpdate(
+                "UPDATE orders SET previous_status = status, status = ?, version = version + 1, updated_at = ? " +
+                "WHERE id = ? AND status = ?",
+                statusArgs, new int[]{Types.VARCHAR, Types.TIMESTAMP, Types.BIGINT, Types.VARCHAR});
+        
+        List<Long> changed = new ArrayList<>();
+        List<BulkOrderUpdateItem> updated = new ArrayList<>();
+        for (int i = 0; i < transitions.size(); i++) {
+            BulkOrderUpdateItem item = transitions.get(i);
+            BulkOrderUpdateResultDto result = results.get(item.getOrderId());
+            if (moved[i] == 0) {
+                result.setError("O pedido foi alterado por outra requisição");
+            } else {
+                result.setUpdated(true);
+                result.setStatus(item.getStatus());
+                changed.add(item.getOrderId());
+                updated.add(item);
+            }
+        }
+        
+        List<Object[]> versionArgs = new ArrayList<>(shippingOnly.size());
+        for (BulkOrderUpdateItem item : shippingOnly) {
+            versionArgs.add(new Object[]{now, item.getOrderId()});
+            results.get(item.getOrderId()).setUpdated(true);
+            updated.add(item);
+        }
+        jdbcTemplate.batchUpdate("UPDATE orders SET version = version + 1, updated_at = ? WHERE id = ?",
+                versionArgs, new int[]{Types.TIMESTAMP, Types.BIGINT});
+        
+        List<Object[]> shippingArgs = new ArrayList<>();
+        Set<Long> shippingChanged = new HashSet<>();
+        for (BulkOrderUpdateItem item : updated) {
+            if (item.getTrackingNumber() != null || item.getShippedDate() != null) {
+                shippingArgs.add(new Object[]{item.getTrackingNumber(), item.getShippedDate(), now, item.getOrderId()});
+                shippingChanged.add(item.getOrderId());
+            }
+        }
+        jdbcTemplate.batchUpdate(
+                "UPDATE shipping_info SET tracking_number = COALESCE(?, tracking_number), " +
+                "shipped_date = COALESCE(?, shipped_date), updated_at = ? WHERE order_id = ?",
+                shippingArgs, new int[]{Types.VARCHAR, Types.TIMESTAMP, Types.TIMESTAMP, Types.BIGINT});
+        
+        // Listeners and the inventory ledger see every change, as with single updates
+        Set<Long> published = new LinkedHashSet<>(changed);
+        published.addAll(shippingChanged);
+        Set<Long> transitioned = new HashSet<>(changed);
+        for (List<Long> ids : chunks(new ArrayList<>(published))) {
+            List<Order> orders = orderRepository.findByIdIn(ids);
+            orderRepository.fetchItems(orders);
+            for (Order order : orders) {
+                if (transitioned.contains(order.getId())) {
+                    publishStatusChange(order, order.getPreviousStatus());
+                }
+                if (shippingChanged.contains(order.getId())) {
+                    eventPublisher.publishEvent(new OrderShippingChangedEvent(order));
+                }
+                stageDocument(order);
+            }
         }
         
-        order.setStatus(OrderStatus.CANCELLED);
-        orderRepository.save(order);
+        int succeeded = (int) results.values().stream().filter(BulkOrderUpdateResultDto::isUpdated).count();
+        return new BulkOrderUpdateDto(succeeded, results.size() - succeeded, new ArrayList<>(results.values()));
+    }
+
+    /**
+     * Writes the documents of up to limit orders that have none: orders from before the
+     * read model, orders written outside this service, and those whose document was evicted.
+     * Returns how many orders it found.
+     */
+    @Transactional
+    public int writeMissingOrderDocuments(int limit) {
+        List<Long> ids = orderDocumentStore.findMissing(limit);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<Order> orders = orderRepository.findByIdIn(ids);
+        orderRepository.fetchItems(orders);
+        orders.forEach(this::stageDocument);
+        return ids.size();
     }
 
     // Helper methods
+    private Store findOwnedStore(Long storeId, Long userId) {
+        Store store = storeRepository.findById(storeId)
+                .orElseThrow(() -> new ResourceNotFoundException("Loja não encontrada com o ID: " + storeId));
+        if (!store.getOwner().getId().equals(userId) && !isUserAdmin(userId)) {
+            throw new UnauthorizedException("Você não tem permissão para atualizar pedidos desta loja");
+        }
+        return store;
+    }
+
     private Order findOrderById(Long id) {
         return orderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Pedido não encontrado com o ID: " + id));
     }
 
+    private OrderStateView findOrderStateById(Long id) {
+        return orderRepository.findStateById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Pedido não encontrado com o ID: " + id));
+    }
+
+    /**
+     * Moves the order to status with one conditional UPDATE, then loads it and publishes the
+     * change. When no row is updated, tells why: the order does not exist (404), is not
+     * ownerId's (403), or its status does not allow the move (409), which includes losing
+     * the race against a concurrent transition.
+     */
+    private Order transition(Long id, Long ownerId, Set<OrderStatus> sources, OrderStatus status,
+                             String notes, String unauthorizedMessage) {
+        if (orderRepository.transitionStatus(id, ownerId, sources, status, notes, LocalDateTime.now()) == 0) {
+            OrderStateView state = findOrderStateById(id);
+            if (ownerId != null && !ownerId.equals(state.getUserId())) {
+                throw new UnauthorizedException(unauthorizedMessage);
+            }
+            throw new OrderStatusConflictException("Não é possível alterar o status do pedido de "
+                    + state.getStatus() + " para " + status);
+        }
+        Order order = findOrderById(id);
+        publishStatusChange(order, order.getPreviousStatus());
+        stageDocument(order);
+        return order;
+    }
+
+    private void stageDocument(Order order) {
+        orderDocumentStore.stage(order, false, () -> convertToDto(order));
+    }
+
+    private void publishStatusChange(Order order, OrderStatus previousStatus) {
+        if (order.getStatus() != previousStatus) {
+            // Orders placed before the ledger never took stock, so they give none back either
+            if (order.isStockReserved() && order.getStatus() == OrderStatus.CANCELLED) {
+                inventoryLedger.restock(quantitiesOf(order));
+            } else if (order.isStockReserved() && previousStatus == OrderStatus.CANCELLED) {
+                inventoryLedger.reserve(quantitiesOf(order));
+            }
+            eventPublisher.publishEvent(new OrderStatusChangedEvent(order, previousStatus));
+        }
+    }
+
+    private Map<Product, Integer> quantitiesOf(Order order) {
+        Map<Product, Integer> quantities = new LinkedHashMap<>();
+        for (OrderItem item : order.getItems()) {
+            if (item.getProduct() != null) {
+                quantities.merge(item.getProduct(), item.getQuantity(), Integer::sum);
+            }
+        }
+        return quantities;
+    }
+
+    private static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += BULK_CHUNK_SIZE) {
+            chunks.add(ids.subList(from, Math.min(from + BULK_CHUNK_SIZE, ids.size())));
+        }
+        return chunks;
+    }
+
+    private Page<Map<String, Object>> findFields(Specification<Order> specification, String fields, Pageable pageable) {
+        Set<String> selected = LISTING_FIELDS.parse(fields);
+        Page<Map<String, Object>> orders = LISTING_FIELDS.find(entityManager, specification, selected, pageable);
+        List<Long> ids = orders.stream().map(order -> (Long) order.get("id")).toList();
+        if (ids.isEmpty()) {
+            return orders;
+        }
+        if (selected.contains("items")) {
+            Map<Long, List<OrderItemDto>> items = orderItemRepository.findWithProductsByOrderIdIn(ids).stream()
+                    .collect(Collectors.groupingBy(item -> item.getOrder().getId(),
+                            Collectors.mapping(this::convertToDto, Collectors.toList())));
+            orders.forEach(order -> order.put("items", items.getOrDefault(order.get("id"), new ArrayList<>())));
+        }
+        if (selected.contains("payment")) {
+            Map<Long, OrderPaymentDto> payments = orderPaymentRepository.findByOrderIdIn(ids).stream()
+                    .collect(Collectors.toMap(payment -> payment.getOrder().getId(), this::convertToDto));
+            orders.forEach(order -> order.put("payment", payments.get(order.get("id"))));
+        }
+        if (selected.contains("shippingInfo")) {
+            Map<Long, ShippingInfoDto> shippingInfos = shippingInfoRepository.findByOrderIdIn(ids).stream()
+                    .collect(Collectors.toMap(shippingInfo -> shippingInfo.getOrder().getId(), this::convertToDto));
+            orders.forEach(order -> order.put("shippingInfo", shippingInfos.get(order.get("id"))));
+        }
+        return orders;
+    }
+
+    private Page<OrderDto> convertToDtoPage(Page<Order> orders) {
+        if (orders.hasContent()) {
+            orderRepository.fetchItems(orders.getContent());
+        }
+        return orders.map(this::convertToDto);
+    }
+
+    /**
+     * Loads the orders of a page of store_orders rows, in two statements, and converts them
+     * with the store's part only (its sub-order and items), keyed by order id in the rows' order. Rows whose order is
+     * gone (deleting a user deletes their orders in the database) are left out.
+     */
+    private Map<Long, OrderDto> convertToStoreDtos(List<StoreOrder> rows) {
+        Map<Long, OrderDto> dtos = new LinkedHashMap<>();
+        if (rows.isEmpty()) {
+            return dtos;
+        }
+        List<Order> orders = orderRepository.findByIdIn(rows.stream().map(StoreOrder::getOrderId).toList());
+        orderRepository.fetchItems(orders);
+        Map<Long, Order> byId = orders.stream().collect(Collectors.toMap(Order::getId, Function.identity()));
+        for (StoreOrder row : rows) {
+            Order order = byId.get(row.getOrderId());
+            if (order != null) {
+                OrderDto dto = convertToDto(order);
+                dto.setItems(dto.getItems().stream()
+                        .filter(item -> row.getStoreId().equals(item.getStoreId()))
+                        .collect(Collectors.toList()));
+                dto.setStoreOrder(convertToDto(row));
+                dtos.put(row.getOrderId(), dto);
+            }
+        }
+        return dtos;
+    }
+
+    private Page<OrderDto> convertToStoreDtoPage(Page<StoreOrder> rows) {
+        return new PageImpl<>(new ArrayList<>(convertToStoreDtos(rows.getContent()).values()),
+                rows.getPageable(), rows.getTotalElements());
+    }
+
+    private CursorPage<OrderDto> scrollStore(Window<StoreOrder> rows, KeysetCursor cursor) {
+        Map<Long, OrderDto> dtos = convertToStoreDtos(rows.getContent());
+        CursorPage<OrderDto> page = cursor.page(rows, row -> dtos.get(row.getOrderId()));
+        if (dtos.size() == rows.size()) {
+            return page;
+        }
+        return new CursorPage<>(page.getContent().stream().filter(Objects::nonNull).toList(),
+                page.getSize(), page.getNextCursor());
+    }
+
+    private static Pageable storePageable(Pageable pageable) {
+        List<Sort.Order> orders = new ArrayList<>();
+        for (Sort.Order order : pageable.getSort()) {
+            String property = STORE_SORT_PROPERTIES.get(order.getProperty());
+            if (property == null) {
+                throw new BadRequestException("Ordenação não suportada para pedidos da loja: " + order.getProperty()
+                        + ". Use uma de: " + String.join(", ", new TreeSet<>(STORE_SORT_PROPERTIES.keySet())));
+            }
+            orders.add(order.withProperty(property));
+        }
+        // The id breaks ties, as in the store_orders indexes
+        orders.add(Sort.Order.by("id").with(orders.isEmpty() ? Sort.Direction.ASC : orders.get(0).getDirection()));
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by(orders));
+    }
+
+    private CursorPage<OrderDto> scroll(Specification<Order> specification, KeysetCursor cursor) {
+        // Same fetch plan as the paged finders: summary joins, then the items in one statement
+        Window<Order> orders = orderRepository.findBy(specification.and(OrderSpecifications.fetchSummary()), query -> query
+                .sortBy(cursor.getSort())
+                .limit(cursor.getSize())
+                .scroll(cursor.getPosition()));
+        if (!orders.isEmpty()) {
+            orderRepository.fetchItems(orders.getContent());
+        }
+        return cursor.page(orders, this::convertToDto);
+    }
+
     private OrderDto convertToDto(Order order) {
         OrderDto dto = new OrderDto();
         dto.setId(order.getId());
@@ -281,11 +869,11 @@ public class OrderService {
         dto.setUserId(order.getUser().getId());
         dto.setUserName(order.getUser().getName());
         dto.setStatus(order.getStatus());
-        dto.setSubtotal(order.getSubtotal());
-        dto.setShippingCost(order.getShippingCost());
-        dto.setDiscount(order.getDiscount());
-        dto.setTax(order.getTax());
-        dto.setTotal(order.getTotal());
+        dto.setSubtotal(Money.bigDecimalOf(order.getSubtotal()));
+        dto.setShippingCost(Money.bigDecimalOf(order.getShippingCost()));
+        dto.setDiscount(Money.bigDecimalOf(order.getDiscount()));
+        dto.setTax(Money.bigDecimalOf(order.getTax()));
+        dto.setTotal(Money.bigDecimalOf(order.getTotal()));
         dto.setNotes(order.getNotes());
         dto.setCreatedAt(order.getCreatedAt());
         dto.setUpdatedAt(order.getUpdatedAt());
@@ -309,6 +897,22 @@ public class OrderService {
         return dto;
     }
 
+    private StoreOrderDto convertToDto(StoreOrder storeOrder) {
+        StoreOrderDto dto = new StoreOrderDto();
+        dto.setOrderId(storeOrder.getOrderId());
+        dto.setStoreId(storeOrder.getStoreId());
+        dto.setStatus(storeOrder.getStatus());
+        dto.setItemCount(storeOrder.getItemCount());
+        dto.setSubtotal(Money.bigDecimalOf(storeOrder.getStoreSubtotal()));
+        dto.setTrackingNumber(storeOrder.getTrackingNumber());
+        dto.setShippedDate(storeOrder.getShippedDate());
+        dto.setDeliveredDate(storeOrder.getDeliveredDate());
+        dto.setVersion(storeOrder.getVersion());
+        dto.setCreatedAt(storeOrder.getCreatedAt());
+        dto.setUpdatedAt(storeOrder.getUpdatedAt());
+        return dto;
+    }
+
     private OrderItemDto convertToDto(OrderItem item) {
         OrderItemDto dto = new OrderItemDto();
         dto.setId(item.getId());
@@ -316,9 +920,9 @@ public class OrderService {
         dto.setProductName(item.getProductName());
         dto.setProductSku(item.getProductSku());
         dto.setQuantity(item.getQuantity());
-        dto.setUnitPrice(item.getUnitPrice());
-        dto.setDiscount(item.getDiscount());
-        dto.setSubtotal(item.getSubtotal());
+        dto.setUnitPrice(Money.bigDecimalOf(item.getUnitPrice()));
+        dto.setDiscount(Money.bigDecimalOf(item.getDiscount()));
+        dto.setSubtotal(Money.bigDecimalOf(item.getSubtotal()));
         
         // Get store info
         Store store = item.getProduct().getStore();
@@ -336,7 +940,7 @@ public class OrderService {
         dto.setPaymentMethod(payment.getPaymentMethod());
         dto.setPaymentStatus(payment.getPaymentStatus());
         dto.setTransactionId(payment.getTransactionId());
-        dto.setAmount(payment.getAmount());
+        dto.setAmount(Money.bigDecimalOf(payment.getAmount()));
         dto.setPaymentDetails(payment.getPaymentDetails());
         dto.setPaymentDate(payment.getPaymentDate());
         dto.setCreatedAt(payment.getCreatedAt());
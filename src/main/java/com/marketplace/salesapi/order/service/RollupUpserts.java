@@ -0,0 +1,40 @@
+package com.marketplace.salesapi.order.service;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Savepoint;
+import java.util.function.IntSupplier;
+
+/**
+ * Update-or-insert for the rollup tables and the order documents, shared by the services
+ * that maintain them.
+ */
+final class RollupUpserts {
+
+    private RollupUpserts() {
+    }
+
+    // The insert runs under a savepoint so losing the race for a new row only
+    // rolls back the insert, after which the row is updated like any other
+    static void upsert(JdbcTemplate jdbcTemplate, IntSupplier update, IntSupplier insert) {
+        if (update.getAsInt() > 0) {
+            return;
+        }
+        boolean inserted = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            Savepoint savepoint = connection.setSavepoint();
+            try {
+                insert.getAsInt();
+                connection.releaseSavepoint(savepoint);
+                return true;
+            } catch (DuplicateKeyException e) {
+                connection.rollback(savepoint);
+                return false;
+            }
+        });
+        if (!inserted) {
+            update.getAsInt();
+        }
+    }
+}
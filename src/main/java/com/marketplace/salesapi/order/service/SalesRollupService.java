@@ -0,0 +1,228 @@
+package com.marketplace.salesapi.order.service;
+
+import com.marketplace.salesapi.common.model.Money;
+import com.marketplace.salesapi.order.event.OrderCreatedEvent;
+import com.marketplace.salesapi.order.event.OrderStatusChangedEvent;
+import com.marketplace.salesapi.order.model.Order;
+import com.marketplace.salesapi.order.model.OrderItem;
+import com.marketplace.salesapi.order.model.OrderStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the daily_*_sales rollup tables in step with the orders. The listeners are
+ * synchronous, so every change is applied in the same transaction as the order itself:
+ * an order's additions are merged per row and written with one batched UPDATE per table,
+ * inserting only the rows the day does not have yet.
+ */
+@Service
+public class SalesRollupService {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SalesSketchService salesSketchService;
+
+    @EventListener
+    public void onOrderCreated(OrderCreatedEvent event) {
+        Order order = event.getOrder();
+        LocalDate day = order.getCreatedAt().toLocalDate();
+        Map<RollupKey, Delta> deltas = new LinkedHashMap<>();
+
+        deltas.merge(new StatusKey(day, order.getStatus()), new Delta(1, 0, order.getTotal().getCents()), Delta::plus);
+
+        for (StoreSales sales : salesByStore(order).values()) {
+            deltas.merge(new StoreKey(day, sales.storeId, order.getStatus()),
+                    new Delta(1, sales.itemsSold, sales.revenue.getCents()), Delta::plus);
+        }
+
+        for (OrderItem item : order.getItems()) {
+            deltas.merge(new ProductKey(day, item.getProduct().getId()),
+                    new Delta(0, item.getQuantity(), item.getSubtotal().getCents()), Delta::plus);
+        }
+        write(deltas);
+    }
+
+    @EventListener
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        Order order = event.getOrder();
+        LocalDate day = order.getCreatedAt().toLocalDate();
+        Map<RollupKey, Delta> deltas = new LinkedHashMap<>();
+
+        // Product rollups are not keyed by status, only the status and store rows move
+        long total = order.getTotal().getCents();
+        deltas.merge(new StatusKey(day, event.getPreviousStatus()), new Delta(-1, 0, -total), Delta::plus);
+        deltas.merge(new StatusKey(day, event.getNewStatus()), new Delta(1, 0, total), Delta::plus);
+
+        for (StoreSales sales : salesByStore(order).values()) {
+            long revenue = sales.revenue.getCents();
+            deltas.merge(new StoreKey(day, sales.storeId, event.getPreviousStatus()),
+                    new Delta(-1, -sales.itemsSold, -revenue), Delta::plus);
+            deltas.merge(new StoreKey(day, sales.storeId, event.getNewStatus()),
+                    new Delta(1, sales.itemsSold, revenue), Delta::plus);
+        }
+        write(deltas);
+    }
+
+    /**
+     * Recomputes the rollup rows of each day in the range from the orders tables,
+     * discarding whatever the incremental updates left there.
+     */
+    @Transactional
+    public void rebuild(LocalDate fromDate, LocalDate toDate) {
+        for (LocalDate day = fromDate; !day.isAfter(toDate); day = day.plusDays(1)) {
+            rebuildDay(day);
+        }
+    }
+
+    @Transactional
+    public void rebuildDay(LocalDate day) {
+        Date date = Date.valueOf(day);
+        Object[] range = {date, Date.valueOf(day.plusDays(1))};
+
+        jdbcTemplate.update("DELETE FROM daily_status_sales WHERE sales_date = ?", date);
+        jdbcTemplate.update("DELETE FROM daily_store_sales WHERE sales_date = ?", date);
+        jdbcTemplate.update("DELETE FROM daily_product_sales WHERE sales_date = ?", date);
+
+        jdbcTemplate.update(
+                "INSERT INTO daily_status_sales (sales_date, status, order_count, revenue) " +
+                "SELECT CAST(o.created_at AS DATE), o.status, COUNT(*), SUM(o.total) " +
+                "FROM orders o WHERE o.created_at >= ? AND o.created_at < ? " +
+                "GROUP BY CAST(o.created_at AS DATE), o.status", range);
+
+        jdbcTemplate.update(
+                "INSERT INTO daily_store_sales (sales_date, store_id, status, order_count, items_sold, revenue) " +
+                "SELECT CAST(o.created_at AS DATE), p.store_id, o.status, COUNT(DISTINCT o.id), SUM(oi.quantity), SUM(oi.subtotal) " +
+                "FROM order_items oi JOIN orders o ON o.id = oi.order_id JOIN products p ON p.id = oi.product_id " +
+                "WHERE o.created_at >= ? AND o.created_at < ? " +
+                "GROUP BY CAST(o.created_at AS DATE), p.store_id, o.status", range);
+
+        jdbcTemplate.update(
+                "INSERT INTO daily_product_sales (sales_date, product_id, quantity_sold, revenue) " +
+                "SELECT CAST(o.created_at AS DATE), oi.product_id, SUM(oi.quantity), SUM(oi.subtotal) " +
+                "FROM order_items oi JOIN orders o ON o.id = oi.order_id " +
+                "WHERE oi.product_id IS NOT NULL AND o.created_at >= ? AND o.created_at < ? " +
+                "GROUP BY CAST(o.created_at AS DATE), oi.product_id", range);
+
+        salesSketchService.rebuildDay(day);
+    }
+
+    private void write(Map<RollupKey, Delta> deltas) {
+        List<Object[]> statusUpdates = new ArrayList<>();
+        List<Object[]> statusInserts = new ArrayList<>();
+        List<Object[]> storeUpdates = new ArrayList<>();
+        List<Object[]> storeInserts = new ArrayList<>();
+        List<Object[]> productUpdates = new ArrayList<>();
+        List<Object[]> productInserts = new ArrayList<>();
+        for (Map.Entry<RollupKey, Delta> entry : deltas.entrySet()) {
+            Delta delta = entry.getValue();
+            if (delta.isZero()) {
+                continue;
+            }
+            BigDecimal revenue = Money.ofCents(delta.revenue).toBigDecimal();
+            Date date = Date.valueOf(entry.getKey().day());
+            switch (entry.getKey()) {
+                case StatusKey key -> {
+                    statusUpdates.add(new Object[]{delta.orders, revenue, date, key.status().name()});
+                    statusInserts.add(new Object[]{date, key.status().name(), delta.orders, revenue});
+                }
+                case StoreKey key -> {
+                    storeUpdates.add(new Object[]{delta.orders, delta.items, revenue, date, key.storeId(), key.status().name()});
+                    storeInserts.add(new Object[]{date, key.storeId(), key.status().name(), delta.orders, delta.items, revenue});
+                }
+                case ProductKey key -> {
+                    productUpdates.add(new Object[]{delta.items, revenue, date, key.productId()});
+                    productInserts.add(new Object[]{date, key.productId(), delta.items, revenue});
+                }
+            }
+        }
+
+        upsertAll("UPDATE daily_status_sales SET order_count = order_count + ?, revenue = revenue + ? " +
+                        "WHERE sales_date = ? AND status = ?", statusUpdates,
+                "INSERT INTO daily_status_sales (sales_date, status, order_count, revenue) VALUES (?, ?, ?, ?)",
+                statusInserts);
+        upsertAll("UPDATE daily_store_sales SET order_count = order_count + ?, items_sold = items_sold + ?, " +
+                        "revenue = revenue + ? WHERE sales_date = ? AND store_id = ? AND status = ?", storeUpdates,
+                "INSERT INTO daily_store_sales (sales_date, store_id, status, order_count, items_sold, revenue) " +
+                        "VALUES (?, ?, ?, ?, ?, ?)", storeInserts);
+        upsertAll("UPDATE daily_product_sales SET quantity_sold = quantity_sold + ?, revenue = revenue + ? " +
+                        "WHERE sales_date = ? AND product_id = ?", productUpdates,
+                "INSERT INTO daily_product_sales (sales_date, product_id, quantity_sold, revenue) VALUES (?, ?, ?, ?)",
+                productInserts);
+    }
+
+    // One batched UPDATE for all the rows; only those not there yet fall back to the single-row upsert
+    private void upsertAll(String update, List<Object[]> updates, String insert, List<Object[]> inserts) {
+        if (updates.isEmpty()) {
+            return;
+        }
+        int[] counts = jdbcTemplate.batchUpdate(update, updates);
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                Object[] updateArgs = updates.get(i);
+                Object[] insertArgs = inserts.get(i);
+                RollupUpserts.upsert(jdbcTemplate,
+                        () -> jdbcTemplate.update(update, updateArgs),
+                        () -> jdbcTemplate.update(insert, insertArgs));
+            }
+        }
+    }
+
+    private Map<Long, StoreSales> salesByStore(Order order) {
+        Map<Long, StoreSales> byStore = new LinkedHashMap<>();
+        for (OrderItem item : order.getItems()) {
+            Long storeId = item.getProduct().getStore().getId();
+            StoreSales sales = byStore.computeIfAbsent(storeId, StoreSales::new);
+            sales.itemsSold += item.getQuantity();
+            sales.revenue = sales.revenue.plus(item.getSubtotal());
+        }
+        return byStore;
+    }
+
+    private static class StoreSales {
+        private final Long storeId;
+        private long itemsSold;
+        private Money revenue = Money.ZERO;
+
+        private StoreSales(Long storeId) {
+            this.storeId = storeId;
+        }
+    }
+
+    private sealed interface RollupKey permits StatusKey, StoreKey, ProductKey {
+        LocalDate day();
+    }
+
+    private record StatusKey(LocalDate day, OrderStatus status) implements RollupKey {
+    }
+
+    private record StoreKey(LocalDate day, Long storeId, OrderStatus status) implements RollupKey {
+    }
+
+    private record ProductKey(LocalDate day, Long productId) implements RollupKey {
+    }
+
+    // Orders, items (or quantity sold) and revenue in cents added to a row
+    private record Delta(long orders, long items, long revenue) {
+
+        Delta plus(Delta other) {
+            return new Delta(orders + other.orders, items + other.items, revenue + other.revenue);
+        }
+
+        boolean isZero() {
+            return orders == 0 && items == 0 && revenue == 0;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.marketplace.salesapi.order.service;
+
+import com.marketplace.salesapi.common.model.Money;
+import com.marketplace.salesapi.order.analytics.OrderSketch;
+import com.marketplace.salesapi.order.event.OrderCreatedEvent;
+import com.marketplace.salesapi.order.model.Order;
+import com.marketplace.salesapi.order.model.OrderItem;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps the daily_*_sketches tables, which hold the distinct customers and order-value
+ * percentiles of each day as mergeable sketches. A sketch cannot forget an order, so
+ * cancelled orders stay in them, as they do in the order totals.
+ *
+ * Like the rollups, each new order is merged into the rows of its day in the order's own
+ * transaction: the row is locked, decoded, merged and written back.
+ */
+@Service
+public class SalesSketchService {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @EventListener
+    public void onOrderCreated(OrderCreatedEvent event) {
+        Order order = event.getOrder();
+        LocalDate day = order.getCreatedAt().toLocalDate();
+        long customerId = order.getUser().getId();
+
+        addSalesSketch(day, sketchOf(customerId, order.getTotal()));
+
+        // Store rows are locked in id order, so two checkouts cannot wait on each other
+        Map<Long, Money> revenueByStore = new TreeMap<>();
+        for (OrderItem item : order.getItems()) {
+            revenueByStore.merge(item.getProduct().getStore().getId(), item.getSubtotal(), Money::plus);
+        }
+        for (Map.Entry<Long, Money> store : revenueByStore.entrySet()) {
+            addStoreSketch(day, store.getKey(), sketchOf(customerId, store.getValue()));
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public OrderSketch getSalesSketch(LocalDate fromDate, LocalDate toDate) {
+        return mergeRows(jdbcTemplate.query(
+                "SELECT customers, order_values FROM daily_sales_sketches WHERE sales_date BETWEEN ? AND ?",
+                (rs, rowNum) -> OrderSketch.fromBytes(rs.getBytes(1), rs.getBytes(2)),
+                Date.valueOf(fromDate), Date.valueOf(toDate)));
+    }
+
+    @Transactional(readOnly = true)
+    public OrderSketch getStoreSketch(Long storeId, LocalDate fromDate, LocalDate toDate) {
+        return mergeRows(jdbcTemplate.query(
+                "SELECT customers, order_values FROM daily_store_sketches " +
+                "WHERE store_id = ? AND sales_date BETWEEN ? AND ?",
+                (rs, rowNum) -> OrderSketch.fromBytes(rs.getBytes(1), rs.getBytes(2)),
+                storeId, Date.valueOf(fromDate), Date.valueOf(toDate)));
+    }
+
+    /**
+     * Sketches the orders placed between two timestamps straight from the orders table,
+     * for the partial days that the daily sketches do not cover.
+     */
+    @Transactional(readOnly = true)
+    public OrderSketch sketchOrders(LocalDateTime startDate, LocalDateTime endDate) {
+        OrderSketch sketch = new OrderSketch();
+        jdbcTemplate.query(
+                "SELECT o.user_id, o.total FROM orders o WHERE o.created_at BETWEEN ? AND ?",
+                rs -> {
+                    sketch.add(rs.getLong(1), rs.getBigDecimal(2).doubleValue());
+                },
+                Timestamp.valueOf(startDate), Timestamp.valueOf(endDate));
+        return sketch;
+    }
+
+    @Transactional(readOnly = true)
+    public OrderSketch sketchStoreOrders(Long storeId, LocalDateTime startDate, LocalDateTime endDate) {
+        OrderSketch sketch = new OrderSketch();
+        jdbcTemplate.query(
+                "SELECT o.user_id, SUM(oi.subtotal) " +
+                "FROM order_items oi JOIN orders o ON o.id = oi.order_id JOIN products p ON p.id = oi.product_id " +
+                "WHERE p.store_id = ? AND o.created_at BETWEEN ? AND ? " +
+                "GROUP BY o.id, o.user_id",
+                rs -> {
+                    sketch.add(rs.getLong(1), rs.getBigDecimal(2).doubleValue());
+                },
+                storeId, Timestamp.valueOf(startDate), Timestamp.valueOf(endDate));
+        return sketch;
+    }
+
+    /**
+     * Recomputes the sketches of a day from the orders tables.
+     */
+    @Transactional
+    public void rebuildDay(LocalDate day) {
+        Date date = Date.valueOf(day);
+        Timestamp from = Timestamp.valueOf(day.atStartOfDay());
+        Timestamp to = Timestamp.valueOf(day.plusDays(1).atStartOfDay());
+
+        jdbcTemplate.update("DELETE FROM daily_sales_sketches WHERE sales_date = ?", date);
+        jdbcTemplate.update("DELETE FROM daily_store_sketches WHERE sales_date = ?", date);
+
+        OrderSketch sketch = new OrderSketch();
+        jdbcTemplate.query(
+                "SELECT o.user_id, o.total FROM orders o WHERE o.created_at >= ? AND o.created_at < ?",
+                rs -> {
+                    sketch.add(rs.getLong(1), rs.getBigDecimal(2).doubleValue());
+                },
+                from, to);
+        if (sketch.getOrderCount() > 0) {
+            jdbcTemplate.update("INSERT INTO daily_sales_sketches (sales_date, customers, order_values) VALUES (?, ?, ?)",
+                    date, sketch.customersToBytes(), sketch.orderValuesToBytes());
+        }
+
+        Map<Long, OrderSketch> byStore = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT p.store_id, o.user_id, SUM(oi.subtotal) " +
+                "FROM order_items oi JOIN orders o ON o.id = oi.order_id JOIN products p ON p.id = oi.product_id " +
+                "WHERE o.created_at >= ? AND o.created_at < ? " +
+                "GROUP BY o.id, o.user_id, p.store_id",
+                rs -> {
+                    byStore.computeIfAbsent(rs.getLong(1), storeId -> new OrderSketch())
+                            .add(rs.getLong(2), rs.getBigDecimal(3).doubleValue());
+                },
+                from, to);
+        for (Map.Entry<Long, OrderSketch> store : byStore.entrySet()) {
+            jdbcTemplate.update(
+                    "INSERT INTO daily_store_sketches (sales_date, store_id, customers, order_values) VALUES (?, ?, ?, ?)",
+                    date, store.getKey(), store.getValue().customersToBytes(), store.getValue().orderValuesToBytes());
+        }
+    }
+
+    private void addSalesSketch(LocalDate day, OrderSketch sketch) {
+        Date date = Date.valueOf(day);
+        RollupUpserts.upsert(jdbcTemplate,
+                () -> mergeInto(sketch,
+                        "SELECT customers, order_values FROM daily_sales_sketches WHERE sales_date = ? FOR UPDATE",
+                        "UPDATE daily_sales_sketches SET customers = ?, order_values = ? WHERE sales_date = ?",
+                        date),
+                () -> jdbcTemplate.update(
+                        "INSERT INTO daily_sales_sketches (sales_date, customers, order_values) VALUES (?, ?, ?)",
+                        date, sketch.customersToBytes(), sketch.orderValuesToBytes()));
+    }
+
+    private void addStoreSketch(LocalDate day, Long storeId, OrderSketch sketch) {
+        Date date = Date.valueOf(day);
+        RollupUpserts.upsert(jdbcTemplate,
+                () -> mergeInto(sketch,
+                        "SELECT customers, order_values FROM daily_store_sketches " +
+                        "WHERE sales_date = ? AND store_id = ? FOR UPDATE",
+                        "UPDATE daily_store_sketches SET customers = ?, order_values = ? " +
+                        "WHERE sales_date = ? AND store_id = ?",
+                        date, storeId),
+                () -> jdbcTemplate.update(
+                        "INSERT INTO daily_store_sketches (sales_date, store_id, customers, order_values) VALUES (?, ?, ?, ?)",
+                        date, storeId, sketch.customersToBytes(), sketch.orderValuesToBytes()));
+    }
+
+    // Sketches cannot be added to in SQL, so the row is locked, merged here and written back
+    private int mergeInto(OrderSketch sketch, String select, String update, Object... key) {
+        List<OrderSketch> rows = jdbcTemplate.query(select,
+                (rs, rowNum) -> OrderSketch.fromBytes(rs.getBytes(1), rs.getBytes(2)), key);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        OrderSketch merged = rows.get(0);
+        merged.merge(sketch);
+        Object[] args = new Object[key.length + 2];
+        args[0] = merged.customersToBytes();
+        args[1] = merged.orderValuesToBytes();
+        System.arraycopy(key, 0, args, 2, key.length);
+        return jdbcTemplate.update(update, args);
+    }
+
+    private static OrderSketch sketchOf(long customerId, Money value) {
+        OrderSketch sketch = new OrderSketch();
+        sketch.add(customerId, value.getCents() / 100.0);
+        return sketch;
+    }
+
+    private static OrderSketch mergeRows(List<OrderSketch> rows) {
+        OrderSketch merged = new OrderSketch();
+        for (OrderSketch row : rows) {
+            merged.merge(row);
+        }
+        return merged;
+    }
+}
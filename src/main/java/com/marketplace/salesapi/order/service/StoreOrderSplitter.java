@@ -0,0 +1,69 @@
+package com.marketplace.salesapi.order.service;
+
+import com.marketplace.salesapi.common.model.Money;
+import com.marketplace.salesapi.order.event.OrderCreatedEvent;
+import com.marketplace.salesapi.order.event.OrderStatusChangedEvent;
+import com.marketplace.salesapi.order.model.Order;
+import com.marketplace.salesapi.order.model.OrderItem;
+import com.marketplace.salesapi.order.model.OrderStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Splits every new order into one store_orders sub-order per store it has items from, and
+ * carries the parent's status changes down to the sub-orders that can follow them: paying
+ * moves them all to PROCESSING, but a parent moving to SHIPPED leaves a sub-order that is
+ * already DELIVERED alone. Like SalesRollupService, the listeners are synchronous, so the
+ * sub-orders change in the same transaction as the order.
+ */
+@Service
+public class StoreOrderSplitter {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @EventListener
+    public void onOrderCreated(OrderCreatedEvent event) {
+        Order order = event.getOrder();
+        Map<Long, Money> subtotals = new LinkedHashMap<>();
+        Map<Long, Integer> itemCounts = new LinkedHashMap<>();
+        for (OrderItem item : order.getItems()) {
+            Long storeId = item.getProduct().getStore().getId();
+            subtotals.merge(storeId, item.getSubtotal(), Money::plus);
+            itemCounts.merge(storeId, item.getQuantity(), Integer::sum);
+        }
+        Timestamp createdAt = Timestamp.valueOf(order.getCreatedAt());
+        List<Object[]> args = subtotals.entrySet().stream()
+                .map(entry -> new Object[]{entry.getKey(), order.getId(), order.getStatus().name(),
+                        itemCounts.get(entry.getKey()), entry.getValue().toBigDecimal(), createdAt, createdAt})
+                .toList();
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO store_orders (store_id, order_id, status, item_count, store_subtotal, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)",
+                args);
+    }
+
+    @EventListener
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        Set<OrderStatus> sources = event.getNewStatus().sources();
+        List<Object> args = new ArrayList<>();
+        args.add(event.getNewStatus().name());
+        args.add(Timestamp.valueOf(LocalDateTime.now()));
+        args.add(event.getOrder().getId());
+        sources.forEach(status -> args.add(status.name()));
+        jdbcTemplate.update("UPDATE store_orders SET status = ?, version = version + 1, updated_at = ? " +
+                "WHERE order_id = ? AND status IN (" + String.join(", ", Collections.nCopies(sources.size(), "?")) + ")",
+                args.toArray());
+    }
+}
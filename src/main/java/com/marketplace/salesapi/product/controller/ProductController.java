@@ -1,5 +1,8 @@
 package com.marketplace.salesapi.product.controller;
 
+import com.marketplace.salesapi.common.pagination.CursorPage;
+import com.marketplace.salesapi.common.pagination.KeysetCursor;
+import com.marketplace.salesapi.common.web.ETags;
 import com.marketplace.salesapi.product.dto.CreateProductRequest;
 import com.marketplace.salesapi.product.dto.ProductDto;
 import com.marketplace.salesapi.product.model.ProductStatus;
@@ -19,6 +22,9 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/products")
@@ -45,10 +51,49 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
+    @GetMapping(params = "cursor")
+    @Operation(summary = "Listar todos os produtos (paginação por cursor, sem contagem total)")
+    public ResponseEntity<CursorPage<ProductDto>> scrollAllProducts(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String direction) {
+        
+        KeysetCursor keysetCursor = KeysetCursor.of(cursor, sortBy, direction, size, ProductService.CURSOR_SORT_KEYS);
+        CursorPage<ProductDto> products = productService.scrollAllProducts(keysetCursor);
+        
+        return ResponseEntity.ok(products);
+    }
+
+    @GetMapping(params = {"fields", "!cursor"})
+    @Operation(summary = "Listar todos os produtos, apenas com os campos informados em fields (separados por vírgula)")
+    public ResponseEntity<Page<Map<String, Object>>> getAllProductFields(
+            @RequestParam String fields,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String direction) {
+        
+        Sort.Direction sortDirection = direction.equalsIgnoreCase("desc") ? 
+                Sort.Direction.DESC : Sort.Direction.ASC;
+        
+        Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sortBy));
+        Page<Map<String, Object>> products = productService.getAllProducts(fields, pageable);
+        
+        return ResponseEntity.ok(products);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Obter produto por ID")
-    public ResponseEntity<ProductDto> getProductById(@PathVariable Long id) {
+    public ResponseEntity<ProductDto> getProductById(@PathVariable Long id, WebRequest webRequest) {
+        if (ETags.isRevalidation(webRequest)
+                && productService.getProductETag(id).map(webRequest::checkNotModified).orElse(false)) {
+            return null;
+        }
         ProductDto product = productService.getProductById(id);
+        if (product.getETag() != null && webRequest.checkNotModified(product.getETag())) {
+            return null;
+        }
         return ResponseEntity.ok(product);
     }
 
@@ -65,6 +110,33 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
+    @GetMapping(value = "/search", params = "cursor")
+    @Operation(summary = "Pesquisar produtos por palavra-chave (paginação por cursor, sem contagem total)")
+    public ResponseEntity<CursorPage<ProductDto>> scrollSearchProducts(
+            @RequestParam String keyword,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        
+        KeysetCursor keysetCursor = KeysetCursor.of(cursor, "id", "asc", size, ProductService.CURSOR_SORT_KEYS);
+        CursorPage<ProductDto> products = productService.scrollSearchProducts(keyword, keysetCursor);
+        
+        return ResponseEntity.ok(products);
+    }
+
+    @GetMapping(value = "/search", params = {"fields", "!cursor"})
+    @Operation(summary = "Pesquisar produtos por palavra-chave, apenas com os campos informados em fields")
+    public ResponseEntity<Page<Map<String, Object>>> searchProductFields(
+            @RequestParam String keyword,
+            @RequestParam String fields,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        
+        Pageable pageable = PageRequest.of(page, size);
+        Page<Map<String, Object>> products = productService.searchProducts(keyword, fields, pageable);
+        
+        return ResponseEntity.ok(products);
+    }
+
     @GetMapping("/category/{categoryId}")
     @Operation(summary = "Listar produtos por categoria")
     public ResponseEntity<Page<ProductDto>> getProductsByCategory(
@@ -78,6 +150,33 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
+    @GetMapping(value = "/category/{categoryId}", params = "cursor")
+    @Operation(summary = "Listar produtos por categoria (paginação por cursor, sem contagem total)")
+    public ResponseEntity<CursorPage<ProductDto>> scrollProductsByCategory(
+            @PathVariable Long categoryId,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        
+        KeysetCursor keysetCursor = KeysetCursor.of(cursor, "id", "asc", size, ProductService.CURSOR_SORT_KEYS);
+        CursorPage<ProductDto> products = productService.scrollProductsByCategory(categoryId, keysetCursor);
+        
+        return ResponseEntity.ok(products);
+    }
+
+    @GetMapping(value = "/category/{categoryId}", params = {"fields", "!cursor"})
+    @Operation(summary = "Listar produtos por categoria, apenas com os campos informados em fields")
+    public ResponseEntity<Page<Map<String, Object>>> getProductFieldsByCategory(
+            @PathVariable Long categoryId,
+            @RequestParam String fields,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        
+        Pageable pageable = PageRequest.of(page, size);
+        Page<Map<String, Object>> products = productService.getProductsByCategory(categoryId, fields, pageable);
+        
+        return ResponseEntity.ok(products);
+    }
+
     @GetMapping("/tag/{tagName}")
     @Operation(summary = "Listar produtos por tag")
     public ResponseEntity<Page<ProductDto>> getProductsByTag(
@@ -91,6 +190,33 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
+    @GetMapping(value = "/tag/{tagName}", params = "cursor")
+    @Operation(summary = "Listar produtos por tag (paginação por cursor, sem contagem total)")
+    public ResponseEntity<CursorPage<ProductDto>> scrollProductsByTag(
+            @PathVariable String tagName,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        
+        KeysetCursor keysetCursor = KeysetCursor.of(cursor, "id", "asc", size, ProductService.CURSOR_SORT_KEYS);
+        CursorPage<ProductDto> products = productService.scrollProductsByTag(tagName, keysetCursor);
+        
+        return ResponseEntity.ok(products);
+    }
+
+    @GetMapping(value = "/tag/{tagName}", params = {"fields", "!cursor"})
+    @Operation(summary = "Listar produtos por tag, apenas com os campos informados em fields")
+    public ResponseEntity<Page<Map<String, Object>>> getProductFieldsByTag(
+            @PathVariable String tagName,
+            @RequestParam String fields,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        
+        Pageable pageable = PageRequest.of(page, size);
+        Page<Map<String, Object>> products = productService.getProductsByTag(tagName, fields, pageable);
+        
+        return ResponseEntity.ok(products);
+    }
+
     @PostMapping("/store/{storeId}")
     @Operation(summary = "Criar um novo produto")
     @PreAuthorize("hasRole('SELLER') or hasRole('ADMIN')")
@@ -1,5 +1,6 @@
 package com.marketplace.salesapi.product.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.marketplace.salesapi.product.model.ProductStatus;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
@@ -28,6 +29,9 @@ public class ProductDto {
     private String primaryImageUrl;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    // Set by getProductById and sent as the ETag header, not in the body
+    @JsonIgnore
+    private String eTag;
     
     public Long getId() {
         return id;
@@ -156,4 +160,12 @@ public class ProductDto {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+    
+    public String getETag() {
+        return eTag;
+    }
+    
+    public void setETag(String eTag) {
+        this.eTag = eTag;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,197 @@
+package com.marketplace.salesapi.product.inventory;
+
+import com.marketplace.salesapi.common.transaction.TransactionCallbacks;
+import com.marketplace.salesapi.exception.InsufficientStockException;
+import com.marketplace.salesapi.product.model.Product;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory stock of the products being sold, so checkouts reserve units with a CAS on
+ * a per-product counter instead of locking the products row.
+ *
+ * A reservation takes units from the available count and is tied to the current
+ * transaction: on commit it becomes a pending decrement, on rollback the units are
+ * released. Pending deltas are written behind to products.stock_quantity in one JDBC
+ * batch every app.inventory.flush-interval-ms, and on shutdown.
+ *
+ * A product is tracked from its first reservation or stock edit, starting from the stock
+ * of the entity loaded by the caller. The ledger owns the stock of the database it writes
+ * to, so it expects a single node selling from it, and Product.stockQuantity is left out of
+ * Hibernate's updates: every later change to it goes through here.
+ *
+ * When a transaction ends in an unknown state the ledger cannot tell whether its units
+ * were sold, so they stay held (nothing is written) until the node restarts.
+ */
+@Component
+public class InventoryLedger {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryLedger.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final Map<Long, Stock> stocks = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Reserves the quantities of all the products or none of them.
+     *
+     * @throws InsufficientStockException if a product does not have the units available
+     */
+    public void reserve(Map<Product, Integer> quantities) {
+        List<Runnable> releases = new ArrayList<>();
+        for (Map.Entry<Product, Integer> entry : quantities.entrySet()) {
+            Product product = entry.getKey();
+            int quantity = entry.getValue();
+            Stock stock = stockOf(product);
+            if (!stock.take(quantity)) {
+                releases.forEach(Runnable::run);
+                throw new InsufficientStockException("Estoque insuficiente para o produto: " + product.getName()
+                        + " (disponível: " + Math.max(stock.available.get(), 0) + ", solicitado: " + quantity + ")");
+            }
+            releases.add(() -> stock.available.addAndGet(quantity));
+        }
+
+        TransactionCallbacks.afterCompletion(
+                () -> quantities.forEach((product, quantity) -> addPending(product.getId(), -quantity)),
+                () -> releases.forEach(Runnable::run),
+                () -> logger.warn("Transaction of a reservation ended in an unknown state, keeping its units held: {}",
+                        idsOf(quantities)));
+    }
+
+    /**
+     * Returns the quantities to stock once the current transaction commits, e.g. for a
+     * cancelled order.
+     */
+    public void restock(Map<Product, Integer> quantities) {
+        // Resolved now, while the products can still be loaded
+        Map<Long, Stock> restocked = new LinkedHashMap<>();
+        quantities.keySet().forEach(product -> restocked.put(product.getId(), stockOf(product)));
+
+        TransactionCallbacks.afterCompletion(() -> quantities.forEach((product, quantity) -> {
+            restocked.get(product.getId()).available.addAndGet(quantity);
+            addPending(product.getId(), quantity);
+        }), () -> {
+        }, () -> logger.warn("Transaction of a restock ended in an unknown state, not returning its units: {}",
+                idsOf(quantities)));
+    }
+
+    /**
+     * Changes the stock of a product by delta units, such as a seller editing it. The
+     * available count moves at once (back again on rollback) and the products row is
+     * written with the next flush.
+     */
+    public void adjust(Product product, int delta) {
+        Stock stock = stockOf(product);
+        stock.available.addAndGet(delta);
+        TransactionCallbacks.afterCompletion(() -> addPending(product.getId(), delta),
+                () -> stock.available.addAndGet(-delta),
+                () -> logger.warn("Transaction of a stock edit ended in an unknown state, product {} may be off by {}",
+                        product.getId(), delta));
+    }
+
+    /**
+     * Units that can still be reserved: the tracked count, or the stock of the entity if
+     * the product has not been sold yet.
+     */
+    public int available(Product product) {
+        return available(product.getId(), product.getStockQuantity());
+    }
+
+    public int available(Long productId, Integer stockQuantity) {
+        Stock stock = stocks.get(productId);
+        if (stock == null) {
+            return stockQuantity != null ? stockQuantity : 0;
+        }
+        return Math.max(stock.available.get(), 0);
+    }
+
+    @Scheduled(fixedDelayString = "${app.inventory.flush-interval-ms:500}")
+    public void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<Object[]> deltas = new ArrayList<>();
+        for (Long productId : dirty) {
+            // Removed before the delta is taken, so a concurrent commit marks it dirty again
+            dirty.remove(productId);
+            int delta = stocks.get(productId).pending.getAndSet(0);
+            if (delta != 0) {
+                deltas.add(new Object[]{delta, productId});
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                    "UPDATE products SET stock_quantity = stock_quantity + ? WHERE id = ?", deltas));
+        } catch (RuntimeException e) {
+            logger.warn("Stock write-behind failed for {} products, retrying on the next flush", deltas.size(), e);
+            for (Object[] delta : deltas) {
+                addPending((Long) delta[1], (Integer) delta[0]);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private Stock stockOf(Product product) {
+        return stocks.computeIfAbsent(product.getId(),
+                id -> new Stock(product.getStockQuantity() != null ? product.getStockQuantity() : 0));
+    }
+
+    private void addPending(Long productId, int delta) {
+        stocks.get(productId).pending.addAndGet(delta);
+        dirty.add(productId);
+    }
+
+    private static List<Long> idsOf(Map<Product, Integer> quantities) {
+        return quantities.keySet().stream().map(Product::getId).toList();
+    }
+
+    private static class Stock {
+        // Units not yet reserved; only goes below zero when a seller cuts stock under the holds
+        private final AtomicInteger available;
+        // Committed change not yet written to products.stock_quantity
+        private final AtomicInteger pending = new AtomicInteger();
+
+        private Stock(int available) {
+            this.available = new AtomicInteger(available);
+        }
+
+        private boolean take(int quantity) {
+            int current;
+            do {
+                current = available.get();
+                if (current < quantity) {
+                    return false;
+                }
+            } while (!available.compareAndSet(current, current - quantity));
+            return true;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.marketplace.salesapi.product.model;
 
+import com.marketplace.salesapi.common.model.Money;
+import com.marketplace.salesapi.common.model.MoneyConverter;
 import com.marketplace.salesapi.store.model.Store;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
@@ -8,8 +10,8 @@ import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
@@ -18,6 +20,7 @@ import java.util.Set;
 @AllArgsConstructor
 @Entity
 @Table(name = "products")
+@BatchSize(size = 50)
 public class Product {
 
     @Id
@@ -35,13 +38,16 @@ public class Product {
     @NotNull
     @Positive
     @Column(name = "price", precision = 10, scale = 2)
-    private BigDecimal price;
+    @Convert(converter = MoneyConverter.class)
+    private Money price;
 
     @Column(name = "discount_price", precision = 10, scale = 2)
-    private BigDecimal discountPrice;
+    @Convert(converter = MoneyConverter.class)
+    private Money discountPrice;
 
+    // Written on insert only; later changes go through InventoryLedger as deltas
     @NotNull
-    @Column(name = "stock_quantity")
+    @Column(name = "stock_quantity", updatable = false)
     private Integer stockQuantity;
 
     @Column(name = "sku", unique = true)
@@ -110,19 +116,19 @@ public class Product {
         this.description = description;
     }
 
-    public BigDecimal getPrice() {
+    public Money getPrice() {
         return price;
     }
 
-    public void setPrice(BigDecimal price) {
+    public void setPrice(Money price) {
         this.price = price;
     }
 
-    public BigDecimal getDiscountPrice() {
+    public Money getDiscountPrice() {
         return discountPrice;
     }
 
-    public void setDiscountPrice(BigDecimal discountPrice) {
+    public void setDiscountPrice(Money discountPrice) {
         this.discountPrice = discountPrice;
     }
 
@@ -4,11 +4,13 @@ import com.marketplace.salesapi.product.model.ProductImage;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ProductImageRepository extends JpaRepository<ProductImage, Long> {
     List<ProductImage> findByProductId(Long productId);
+    List<ProductImage> findByProductIdIn(Collection<Long> productIds);
     Optional<ProductImage> findByProductIdAndIsPrimaryTrue(Long productId);
 }
\ No newline at end of file
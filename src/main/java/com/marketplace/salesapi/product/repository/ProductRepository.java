@@ -2,18 +2,24 @@ package com.marketplace.salesapi.product.repository;
 
 import com.marketplace.salesapi.product.model.Product;
 import com.marketplace.salesapi.product.model.ProductStatus;
+import com.marketplace.salesapi.product.repository.projection.ProductTagView;
+import com.marketplace.salesapi.product.repository.projection.ProductVersionView;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
     List<Product> findByStoreId(Long storeId);
     
     Page<Product> findByStoreId(Long storeId, Pageable pageable);
@@ -31,4 +37,24 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     
     @Query("SELECT p FROM Product p JOIN p.tags t WHERE t.name = :tagName")
     Page<Product> findByTagName(@Param("tagName") String tagName, Pageable pageable);
+    
+    @Query("SELECT p.id AS productId, t.name AS name FROM Product p JOIN p.tags t WHERE p.id IN :productIds")
+    List<ProductTagView> findTagNamesByProductIdIn(@Param("productIds") Collection<Long> productIds);
+    
+    @Query("SELECT p.updatedAt AS updatedAt, s.updatedAt AS storeUpdatedAt, p.stockQuantity AS stockQuantity " +
+           "FROM Product p JOIN p.store s WHERE p.id = :id")
+    Optional<ProductVersionView> findVersionById(@Param("id") Long id);
+    
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Product p SET p.updatedAt = :now WHERE p.category.id IN " +
+           "(SELECT c.id FROM Category c WHERE c.id = :categoryId OR c.parent.id = :categoryId)")
+    int touchByCategory(@Param("categoryId") Long categoryId, @Param("now") LocalDateTime now);
+    
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Product p SET p.updatedAt = :now WHERE p.id IN (SELECT pt.id FROM Product pt JOIN pt.tags t WHERE t.id = :tagId)")
+    int touchByTag(@Param("tagId") Long tagId, @Param("now") LocalDateTime now);
+    
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM product_tags WHERE tag_id = :tagId", nativeQuery = true)
+    int removeTag(@Param("tagId") Long tagId);
 }
\ No newline at end of file
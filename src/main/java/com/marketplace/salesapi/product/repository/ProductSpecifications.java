@@ -0,0 +1,39 @@
+package com.marketplace.salesapi.product.repository;
+
+import com.marketplace.salesapi.product.model.Product;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Filters of the product listings, for the cursor (keyset) variants of the ProductRepository finders.
+ */
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    public static Specification<Product> any() {
+        return (root, query, cb) -> cb.conjunction();
+    }
+
+    public static Specification<Product> inStore(Long storeId) {
+        return (root, query, cb) -> cb.equal(root.get("store").get("id"), storeId);
+    }
+
+    public static Specification<Product> inCategory(Long categoryId) {
+        return (root, query, cb) -> cb.equal(root.get("category").get("id"), categoryId);
+    }
+
+    public static Specification<Product> hasTag(String tagName) {
+        return (root, query, cb) -> cb.equal(root.join("tags").get("name"), tagName);
+    }
+
+    // Same match as ProductRepository.searchProducts
+    public static Specification<Product> matches(String keyword) {
+        return (root, query, cb) -> {
+            String pattern = "%" + keyword.toLowerCase() + "%";
+            return cb.or(
+                    cb.like(cb.lower(root.get("name")), pattern),
+                    cb.like(cb.lower(root.get("description")), pattern));
+        };
+    }
+}
@@ -0,0 +1,7 @@
+package com.marketplace.salesapi.product.repository.projection;
+
+public interface ProductTagView {
+    Long getProductId();
+
+    String getName();
+}
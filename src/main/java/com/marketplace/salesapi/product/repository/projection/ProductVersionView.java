@@ -0,0 +1,11 @@
+package com.marketplace.salesapi.product.repository.projection;
+
+import java.time.LocalDateTime;
+
+public interface ProductVersionView {
+    LocalDateTime getUpdatedAt();
+
+    LocalDateTime getStoreUpdatedAt();
+
+    Integer getStockQuantity();
+}
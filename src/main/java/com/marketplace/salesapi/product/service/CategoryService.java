@@ -3,11 +3,13 @@ package com.marketplace.salesapi.product.service;
 import com.marketplace.salesapi.product.dto.CategoryDto;
 import com.marketplace.salesapi.product.model.Category;
 import com.marketplace.salesapi.product.repository.CategoryRepository;
+import com.marketplace.salesapi.product.repository.ProductRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -18,6 +20,9 @@ public class CategoryService {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private ProductRepository productRepository;
+
     @Transactional
     public CategoryDto createCategory(CategoryDto categoryDto) {
         Category category = new Category();
@@ -84,6 +89,8 @@ public class CategoryService {
         }
         
         Category updatedCategory = categoryRepository.save(category);
+        // Products show their category and its parent; touching them changes their ETags
+        productRepository.touchByCategory(id, LocalDateTime.now());
         return convertToDto(updatedCategory);
     }
 
@@ -92,6 +99,8 @@ public class CategoryService {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Categoria não encontrada com id: " + id));
         
+        productRepository.touchByCategory(id, LocalDateTime.now());
+        
         // Move subcategories to parent category or make them root categories
         if (!category.getSubcategories().isEmpty()) {
             Category parent = category.getParent();
@@ -14,6 +14,7 @@ import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -63,6 +64,7 @@ public class ProductImageService {
         }
         
         ProductImage savedImage = productImageRepository.save(productImage);
+        product.setUpdatedAt(LocalDateTime.now());
         
         return convertToDto(savedImage);
     }
@@ -104,6 +106,7 @@ public class ProductImageService {
         }
         
         productImageRepository.delete(image);
+        image.getProduct().setUpdatedAt(LocalDateTime.now());
     }
 
     @Transactional
@@ -135,6 +138,7 @@ public class ProductImageService {
         // Definir esta imagem como primária
         image.setIsPrimary(true);
         ProductImage updatedImage = productImageRepository.save(image);
+        image.getProduct().setUpdatedAt(LocalDateTime.now());
         
         return convertToDto(updatedImage);
     }
@@ -0,0 +1,64 @@
+package com.marketplace.salesapi.product.service;
+
+import com.marketplace.salesapi.common.fields.FieldProjection;
+import com.marketplace.salesapi.common.model.Money;
+import com.marketplace.salesapi.product.dto.CategoryDto;
+import com.marketplace.salesapi.product.model.Category;
+import com.marketplace.salesapi.product.model.Product;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * The ProductDto fields a product listing can be narrowed to with ?fields=. Tags and
+ * images are related fields the caller loads for the page's ids.
+ */
+final class ProductListingFields {
+
+    private ProductListingFields() {
+    }
+
+    /**
+     * @param available units available of a product, from its id and stock_quantity
+     */
+    static FieldProjection<Product> of(BiFunction<Long, Integer, Integer> available) {
+        return FieldProjection.of(Product.class)
+                .column("name", root -> root.get("name"))
+                .column("description", root -> root.get("description"))
+                .column("price", root -> root.get("price"), price -> Money.bigDecimalOf((Money) price))
+                .column("discountPrice", root -> root.get("discountPrice"), price -> Money.bigDecimalOf((Money) price))
+                .columns("stockQuantity", root -> List.of(root.get("id"), root.get("stockQuantity")),
+                        values -> available.apply((Long) values[0], (Integer) values[1]))
+                .column("sku", root -> root.get("sku"))
+                .column("status", root -> root.get("status"))
+                .column("storeId", root -> root.get("store").get("id"))
+                .column("storeName", root -> root.get("store").get("name"))
+                .columns("category", root -> {
+                    Join<Product, Category> category = root.join("category", JoinType.LEFT);
+                    Join<Category, Category> parent = category.join("parent", JoinType.LEFT);
+                    return List.of(category.get("id"), category.get("name"), category.get("description"),
+                            category.get("imageUrl"), parent.get("id"), parent.get("name"));
+                }, ProductListingFields::convertToCategoryDto)
+                .related("tags")
+                .related("images")
+                .related("primaryImageUrl")
+                .column("createdAt", root -> root.get("createdAt"))
+                .column("updatedAt", root -> root.get("updatedAt"));
+    }
+
+    private static CategoryDto convertToCategoryDto(Object[] columns) {
+        if (columns[0] == null) {
+            return null;
+        }
+        CategoryDto categoryDto = new CategoryDto();
+        categoryDto.setId((Long) columns[0]);
+        categoryDto.setName((String) columns[1]);
+        categoryDto.setDescription((String) columns[2]);
+        categoryDto.setImageUrl((String) columns[3]);
+        categoryDto.setParentId((Long) columns[4]);
+        categoryDto.setParentName((String) columns[5]);
+        return categoryDto;
+    }
+}
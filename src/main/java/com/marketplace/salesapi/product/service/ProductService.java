@@ -1,32 +1,50 @@
 package com.marketplace.salesapi.product.service;
 
+import com.marketplace.salesapi.common.fields.FieldProjection;
+import com.marketplace.salesapi.common.model.Money;
+import com.marketplace.salesapi.common.pagination.CursorPage;
+import com.marketplace.salesapi.common.pagination.KeysetCursor;
+import com.marketplace.salesapi.common.web.ETags;
 import com.marketplace.salesapi.product.dto.CategoryDto;
 import com.marketplace.salesapi.product.dto.CreateProductRequest;
 import com.marketplace.salesapi.product.dto.ProductDto;
 import com.marketplace.salesapi.product.dto.ProductImageDto;
+import com.marketplace.salesapi.product.inventory.InventoryLedger;
 import com.marketplace.salesapi.product.model.*;
 import com.marketplace.salesapi.product.repository.CategoryRepository;
 import com.marketplace.salesapi.product.repository.ProductImageRepository;
 import com.marketplace.salesapi.product.repository.ProductRepository;
+import com.marketplace.salesapi.product.repository.ProductSpecifications;
+import com.marketplace.salesapi.product.repository.projection.ProductTagView;
 import com.marketplace.salesapi.store.model.Store;
 import com.marketplace.salesapi.store.repository.StoreRepository;
 import com.marketplace.salesapi.user.model.ERole;
 import com.marketplace.salesapi.user.model.User;
 import com.marketplace.salesapi.user.repository.UserRepository;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
 public class ProductService {
 
+    public static final KeysetCursor.SortKeys CURSOR_SORT_KEYS = KeysetCursor.SortKeys
+            .of("createdAt", LocalDateTime::parse)
+            .and("price", Money::of)
+            .and("name", name -> name);
+
     @Autowired
     private ProductRepository productRepository;
 
@@ -45,6 +63,16 @@ public class ProductService {
     @Autowired
     private ProductImageRepository productImageRepository;
 
+    @Autowired
+    private InventoryLedger inventoryLedger;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // The ProductDto fields a listing can be narrowed to with ?fields=
+    private final FieldProjection<Product> listingFields =
+            ProductListingFields.of((id, stockQuantity) -> inventoryLedger.available(id, stockQuantity));
+
     @Transactional
     public ProductDto createProduct(CreateProductRequest request, Long storeId, Long userId) {
         // Verificar se a loja existe
@@ -66,8 +94,8 @@ public class ProductService {
         Product product = new Product();
         product.setName(request.getName());
         product.setDescription(request.getDescription());
-        product.setPrice(request.getPrice());
-        product.setDiscountPrice(request.getDiscountPrice());
+        product.setPrice(Money.ofNullable(request.getPrice()));
+        product.setDiscountPrice(Money.ofNullable(request.getDiscountPrice()));
         product.setStockQuantity(request.getStockQuantity());
         product.setSku(request.getSku());
         product.setStore(store);
@@ -90,10 +118,25 @@ public class ProductService {
         return convertToDto(savedProduct);
     }
 
+    /**
+     * The product with its ETag, the same getProductETag computes, taken from the loaded product.
+     */
     public ProductDto getProductById(Long id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Produto não encontrado com id: " + id));
-        return convertToDto(product);
+        ProductDto dto = convertToDto(product);
+        dto.setETag(ETags.of(id, product.getUpdatedAt(), product.getStore().getUpdatedAt(), dto.getStockQuantity()));
+        return dto;
+    }
+
+    /**
+     * ETag of the product as getProductById returns it, without building it: the update
+     * timestamps of the product and its store and the units available. Changes to images,
+     * tags and categories touch the product's updatedAt. Empty if there is no such product.
+     */
+    public Optional<String> getProductETag(Long id) {
+        return productRepository.findVersionById(id).map(version -> ETags.of(id, version.getUpdatedAt(),
+                version.getStoreUpdatedAt(), inventoryLedger.available(id, version.getStockQuantity())));
     }
 
     public Page<ProductDto> getAllProducts(Pageable pageable) {
@@ -121,6 +164,60 @@ public class ProductService {
                 .map(this::convertToDto);
     }
 
+    /**
+     * A page of products with only the fields listed in fields (comma separated, all if
+     * blank): only their columns are read, and tags and images only if asked for.
+     */
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> getAllProducts(String fields, Pageable pageable) {
+        return findFields(ProductSpecifications.any(), fields, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> getProductsByStore(Long storeId, String fields, Pageable pageable) {
+        return findFields(ProductSpecifications.inStore(storeId), fields, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> getProductsByCategory(Long categoryId, String fields, Pageable pageable) {
+        return findFields(ProductSpecifications.inCategory(categoryId), fields, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> searchProducts(String keyword, String fields, Pageable pageable) {
+        return findFields(ProductSpecifications.matches(keyword), fields, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> getProductsByTag(String tagName, String fields, Pageable pageable) {
+        return findFields(ProductSpecifications.hasTag(tagName), fields, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<ProductDto> scrollAllProducts(KeysetCursor cursor) {
+        return scroll(ProductSpecifications.any(), cursor);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<ProductDto> scrollProductsByStore(Long storeId, KeysetCursor cursor) {
+        return scroll(ProductSpecifications.inStore(storeId), cursor);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<ProductDto> scrollProductsByCategory(Long categoryId, KeysetCursor cursor) {
+        return scroll(ProductSpecifications.inCategory(categoryId), cursor);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<ProductDto> scrollSearchProducts(String keyword, KeysetCursor cursor) {
+        return scroll(ProductSpecifications.matches(keyword), cursor);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<ProductDto> scrollProductsByTag(String tagName, KeysetCursor cursor) {
+        return scroll(ProductSpecifications.hasTag(tagName), cursor);
+    }
+
     @Transactional
     public ProductDto updateProduct(Long id, CreateProductRequest request, Long userId) {
         Product product = productRepository.findById(id)
@@ -140,10 +237,16 @@ public class ProductService {
         // Atualizar campos
         product.setName(request.getName());
         product.setDescription(request.getDescription());
-        product.setPrice(request.getPrice());
-        product.setDiscountPrice(request.getDiscountPrice());
-        product.setStockQuantity(request.getStockQuantity());
+        product.setPrice(Money.ofNullable(request.getPrice()));
+        product.setDiscountPrice(Money.ofNullable(request.getDiscountPrice()));
         product.setSku(request.getSku());
+        // The seller edits the units shown to them; the difference goes through the ledger
+        if (request.getStockQuantity() != null) {
+            int delta = request.getStockQuantity() - inventoryLedger.available(product);
+            if (delta != 0) {
+                inventoryLedger.adjust(product, delta);
+            }
+        }
         
         // Atualizar categoria se fornecida
         if (request.getCategoryId() != null) {
@@ -160,6 +263,8 @@ public class ProductService {
             product.setTags(tags);
         }
         
+        // A change to the tags alone does not make the product dirty
+        product.setUpdatedAt(LocalDateTime.now());
         Product updatedProduct = productRepository.save(product);
         return convertToDto(updatedProduct);
     }
@@ -203,14 +308,53 @@ public class ProductService {
         productRepository.save(product);
     }
 
+    private CursorPage<ProductDto> scroll(Specification<Product> specification, KeysetCursor cursor) {
+        Window<Product> products = productRepository.findBy(specification, query -> query
+                .sortBy(cursor.getSort())
+                .limit(cursor.getSize())
+                .scroll(cursor.getPosition()));
+        return cursor.page(products, this::convertToDto);
+    }
+
+    private Page<Map<String, Object>> findFields(Specification<Product> specification, String fields, Pageable pageable) {
+        Set<String> selected = listingFields.parse(fields);
+        Page<Map<String, Object>> products = listingFields.find(entityManager, specification, selected, pageable);
+        List<Long> ids = products.stream().map(product -> (Long) product.get("id")).toList();
+        if (ids.isEmpty()) {
+            return products;
+        }
+        if (selected.contains("tags")) {
+            Map<Long, Set<String>> tags = new HashMap<>();
+            for (ProductTagView tag : productRepository.findTagNamesByProductIdIn(ids)) {
+                tags.computeIfAbsent(tag.getProductId(), id -> new HashSet<>()).add(tag.getName());
+            }
+            products.forEach(product -> product.put("tags", tags.get(product.get("id"))));
+        }
+        if (selected.contains("images") || selected.contains("primaryImageUrl")) {
+            Map<Long, List<ProductImage>> images = productImageRepository.findByProductIdIn(ids).stream()
+                    .collect(Collectors.groupingBy(image -> image.getProduct().getId()));
+            for (Map<String, Object> product : products) {
+                List<ProductImage> productImages = images.getOrDefault(product.get("id"), List.of());
+                if (selected.contains("images")) {
+                    product.put("images", productImages.isEmpty() ? null : convertToImageDtos(productImages));
+                }
+                if (selected.contains("primaryImageUrl")) {
+                    product.put("primaryImageUrl", primaryImageUrl(productImages));
+                }
+            }
+        }
+        return products;
+    }
+
+
     private ProductDto convertToDto(Product product) {
         ProductDto dto = new ProductDto();
         dto.setId(product.getId());
         dto.setName(product.getName());
         dto.setDescription(product.getDescription());
-        dto.setPrice(product.getPrice());
-        dto.setDiscountPrice(product.getDiscountPrice());
-        dto.setStockQuantity(product.getStockQuantity());
+        dto.setPrice(Money.bigDecimalOf(product.getPrice()));
+        dto.setDiscountPrice(Money.bigDecimalOf(product.getDiscountPrice()));
+        dto.setStockQuantity(inventoryLedger.available(product));
         dto.setSku(product.getSku());
         dto.setStatus(product.getStatus());
         dto.setStoreId(product.getStore().getId());
@@ -245,25 +389,33 @@ public class ProductService {
         // Set images
         List<ProductImage> images = productImageRepository.findByProductId(product.getId());
         if (images != null && !images.isEmpty()) {
-            List<ProductImageDto> imageDtos = images.stream()
-                    .map(image -> {
-                        ProductImageDto imageDto = new ProductImageDto();
-                        imageDto.setId(image.getId());
-                        imageDto.setImageUrl(image.getImageUrl());
-                        imageDto.setIsPrimary(image.getIsPrimary());
-                        imageDto.setDisplayOrder(image.getDisplayOrder());
-                        return imageDto;
-                    })
-                    .collect(Collectors.toList());
-            dto.setImages(imageDtos);
+            dto.setImages(convertToImageDtos(images));
             
             // Set primary image URL
-            Optional<ProductImage> primaryImage = images.stream()
-                    .filter(ProductImage::getIsPrimary)
-                    .findFirst();
-            primaryImage.ifPresent(image -> dto.setPrimaryImageUrl(image.getImageUrl()));
+            dto.setPrimaryImageUrl(primaryImageUrl(images));
         }
         
         return dto;
     }
+
+    private static List<ProductImageDto> convertToImageDtos(List<ProductImage> images) {
+        return images.stream()
+                .map(image -> {
+                    ProductImageDto imageDto = new ProductImageDto();
+                    imageDto.setId(image.getId());
+                    imageDto.setImageUrl(image.getImageUrl());
+                    imageDto.setIsPrimary(image.getIsPrimary());
+                    imageDto.setDisplayOrder(image.getDisplayOrder());
+                    return imageDto;
+                })
+                .collect(Collectors.toList());
+    }
+
+    private static String primaryImageUrl(List<ProductImage> images) {
+        return images.stream()
+                .filter(ProductImage::getIsPrimary)
+                .findFirst()
+                .map(ProductImage::getImageUrl)
+                .orElse(null);
+    }
 }
\ No newline at end of file
@@ -1,12 +1,14 @@
 package com.marketplace.salesapi.product.service;
 
 import com.marketplace.salesapi.product.model.Tag;
+import com.marketplace.salesapi.product.repository.ProductRepository;
 import com.marketplace.salesapi.product.repository.TagRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -17,6 +19,9 @@ public class TagService {
     @Autowired
     private TagRepository tagRepository;
 
+    @Autowired
+    private ProductRepository productRepository;
+
     @Transactional
     public Tag createTag(String name) {
         Tag tag = new Tag();
@@ -53,6 +58,9 @@ public class TagService {
         if (!tagRepository.existsById(id)) {
             throw new EntityNotFoundException("Tag não encontrada com id: " + id);
         }
+        // Products show their tags; touching them changes their ETags
+        productRepository.touchByTag(id, LocalDateTime.now());
+        productRepository.removeTag(id);
         tagRepository.deleteById(id);
     }
 }
\ No newline at end of file
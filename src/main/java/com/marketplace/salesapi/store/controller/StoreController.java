@@ -1,5 +1,6 @@
 package com.marketplace.salesapi.store.controller;
 
+import com.marketplace.salesapi.common.web.ETags;
 import com.marketplace.salesapi.security.UserDetailsImpl;
 import com.marketplace.salesapi.store.dto.CreateStoreRequest;
 import com.marketplace.salesapi.store.dto.StoreDto;
@@ -16,6 +17,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -37,8 +39,15 @@ public class StoreController {
 
     @GetMapping("/{id}")
     @Operation(summary = "Obter loja por ID")
-    public ResponseEntity<StoreDto> getStoreById(@PathVariable Long id) {
+    public ResponseEntity<StoreDto> getStoreById(@PathVariable Long id, WebRequest webRequest) {
+        if (ETags.isRevalidation(webRequest)
+                && storeService.getStoreETag(id).map(webRequest::checkNotModified).orElse(false)) {
+            return null;
+        }
         StoreDto store = storeService.getStoreById(id);
+        if (store.getETag() != null && webRequest.checkNotModified(store.getETag())) {
+            return null;
+        }
         return ResponseEntity.ok(store);
     }
 
@@ -1,13 +1,20 @@
 package com.marketplace.salesapi.store.controller;
 
+import com.marketplace.salesapi.common.pagination.CursorPage;
+import com.marketplace.salesapi.common.pagination.KeysetCursor;
+import com.marketplace.salesapi.order.dto.BulkOrderUpdateDto;
+import com.marketplace.salesapi.order.dto.BulkOrderUpdateRequest;
 import com.marketplace.salesapi.order.dto.OrderDto;
+import com.marketplace.salesapi.order.dto.StoreOrderDto;
 import com.marketplace.salesapi.order.dto.UpdateOrderStatusRequest;
 import com.marketplace.salesapi.order.dto.UpdateShippingInfoRequest;
+import com.marketplace.salesapi.order.dto.UpdateStoreOrderRequest;
 import com.marketplace.salesapi.order.model.OrderStatus;
 import com.marketplace.salesapi.order.service.OrderService;
 import com.marketplace.salesapi.security.UserDetailsImpl;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -46,6 +53,22 @@ public class StoreOrdersController {
         return ResponseEntity.ok(orders);
     }
 
+    @GetMapping(params = "cursor")
+    @Operation(summary = "Listar pedidos de uma loja (paginação por cursor, sem contagem total)")
+    @PreAuthorize("hasRole('SELLER') or hasRole('ADMIN')")
+    public ResponseEntity<CursorPage<OrderDto>> scrollStoreOrders(
+            @PathVariable Long storeId,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String direction) {
+        
+        KeysetCursor keysetCursor = KeysetCursor.of(cursor, sortBy, direction, size, OrderService.STORE_CURSOR_SORT_KEYS);
+        CursorPage<OrderDto> orders = orderService.scrollOrdersByStore(storeId, keysetCursor);
+        
+        return ResponseEntity.ok(orders);
+    }
+
     @GetMapping("/status/{status}")
     @Operation(summary = "Listar pedidos de uma loja por status")
     @PreAuthorize("hasRole('SELLER') or hasRole('ADMIN')")
@@ -65,6 +88,23 @@ public class StoreOrdersController {
         
         return ResponseEntity.ok(orders);
     }
+
+    @GetMapping(value = "/status/{status}", params = "cursor")
+    @Operation(summary = "Listar pedidos de uma loja por status (paginação por cursor, sem contagem total)")
+    @PreAuthorize("hasRole('SELLER') or hasRole('ADMIN')")
+    public ResponseEntity<CursorPage<OrderDto>> scrollStoreOrdersByStatus(
+            @PathVariable Long storeId,
+            @PathVariable OrderStatus status,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String direction) {
+        
+        KeysetCursor keysetCursor = KeysetCursor.of(cursor, sortBy, direction, size, OrderService.STORE_CURSOR_SORT_KEYS);
+        CursorPage<OrderDto> orders = orderService.scrollOrdersByStoreAndStatus(storeId, status, keysetCursor);
+        
+        return ResponseEntity.ok(orders);
+    }
     
     @PutMapping("/{orderId}/status")
     @Operation(summary = "Atualizar status de um pedido da loja")
@@ -97,4 +137,35 @@ public class StoreOrdersController {
         OrderDto updatedOrder = orderService.updateShippingInfo(orderId, request, userId);
         return ResponseEntity.ok(updatedOrder);
     }
+    
+    @PatchMapping("/{orderId}/fulfillment")
+    @Operation(summary = "Enviar ou entregar a parte da loja em um pedido")
+    @PreAuthorize("hasRole('SELLER') or hasRole('ADMIN')")
+    public ResponseEntity<StoreOrderDto> updateFulfillment(
+            @PathVariable Long storeId,
+            @PathVariable Long orderId,
+            @Valid @RequestBody UpdateStoreOrderRequest request) {
+        
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        UserDetailsImpl userDetails = (UserDetailsImpl) auth.getPrincipal();
+        Long userId = userDetails.getId();
+        
+        StoreOrderDto storeOrder = orderService.updateStoreOrder(storeId, orderId, request, userId);
+        return ResponseEntity.ok(storeOrder);
+    }
+    
+    @PatchMapping("/bulk")
+    @Operation(summary = "Atualizar status e envio de vários pedidos da loja de uma vez (só pedidos com itens apenas da loja)")
+    @PreAuthorize("hasRole('SELLER') or hasRole('ADMIN')")
+    public ResponseEntity<BulkOrderUpdateDto> bulkUpdateOrders(
+            @PathVariable Long storeId,
+            @Valid @RequestBody BulkOrderUpdateRequest request) {
+        
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        UserDetailsImpl userDetails = (UserDetailsImpl) auth.getPrincipal();
+        Long userId = userDetails.getId();
+        
+        BulkOrderUpdateDto result = orderService.bulkUpdateStoreOrders(storeId, request, userId);
+        return ResponseEntity.ok(result);
+    }
 }
\ No newline at end of file
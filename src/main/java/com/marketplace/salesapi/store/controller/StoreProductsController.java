@@ -1,5 +1,7 @@
 package com.marketplace.salesapi.store.controller;
 
+import com.marketplace.salesapi.common.pagination.CursorPage;
+import com.marketplace.salesapi.common.pagination.KeysetCursor;
 import com.marketplace.salesapi.product.dto.ProductDto;
 import com.marketplace.salesapi.product.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -12,6 +14,8 @@ import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/stores/{storeId}/products")
 @Tag(name = "Produtos da Loja", description = "API para gerenciamento de produtos por loja")
@@ -37,4 +41,38 @@ public class StoreProductsController {
         
         return ResponseEntity.ok(products);
     }
+
+    @GetMapping(params = {"fields", "!cursor"})
+    @Operation(summary = "Listar produtos de uma loja, apenas com os campos informados em fields (separados por vírgula)")
+    public ResponseEntity<Page<Map<String, Object>>> getStoreProductFields(
+            @PathVariable Long storeId,
+            @RequestParam String fields,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String direction) {
+        
+        Sort.Direction sortDirection = direction.equalsIgnoreCase("desc") ? 
+                Sort.Direction.DESC : Sort.Direction.ASC;
+        
+        Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sortBy));
+        Page<Map<String, Object>> products = productService.getProductsByStore(storeId, fields, pageable);
+        
+        return ResponseEntity.ok(products);
+    }
+
+    @GetMapping(params = "cursor")
+    @Operation(summary = "Listar produtos de uma loja (paginação por cursor, sem contagem total)")
+    public ResponseEntity<CursorPage<ProductDto>> scrollStoreProducts(
+            @PathVariable Long storeId,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String direction) {
+        
+        KeysetCursor keysetCursor = KeysetCursor.of(cursor, sortBy, direction, size, ProductService.CURSOR_SORT_KEYS);
+        CursorPage<ProductDto> products = productService.scrollProductsByStore(storeId, keysetCursor);
+        
+        return ResponseEntity.ok(products);
+    }
 }
\ No newline at end of file
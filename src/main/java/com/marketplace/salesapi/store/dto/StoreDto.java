@@ -1,5 +1,6 @@
 package com.marketplace.salesapi.store.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.marketplace.salesapi.store.model.StoreStatus;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -21,4 +22,7 @@ public class StoreDto {
     private String ownerName;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    // Set by getStoreById and sent as the ETag header, not in the body
+    @JsonIgnore
+    private String eTag;
 }
\ No newline at end of file
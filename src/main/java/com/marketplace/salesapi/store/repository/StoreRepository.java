@@ -2,7 +2,10 @@ package com.marketplace.salesapi.store.repository;
 
 import com.marketplace.salesapi.store.model.Store;
 import com.marketplace.salesapi.store.model.StoreStatus;
+import com.marketplace.salesapi.store.repository.projection.StoreVersionView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,4 +17,7 @@ public interface StoreRepository extends JpaRepository<Store, Long> {
     Boolean existsByName(String name);
     List<Store> findByOwnerId(Long ownerId);
     List<Store> findByStatus(StoreStatus status);
+
+    @Query("SELECT s.updatedAt AS updatedAt, o.updatedAt AS ownerUpdatedAt FROM Store s JOIN s.owner o WHERE s.id = :id")
+    Optional<StoreVersionView> findVersionById(@Param("id") Long id);
 }
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.marketplace.salesapi.store.repository.projection;
+
+import java.time.LocalDateTime;
+
+public interface StoreVersionView {
+    LocalDateTime getUpdatedAt();
+
+    LocalDateTime getOwnerUpdatedAt();
+}
@@ -1,5 +1,7 @@
 package com.marketplace.salesapi.store.service;
 
+import com.marketplace.salesapi.common.web.ETags;
+import com.marketplace.salesapi.order.service.OrderDocumentStore;
 import com.marketplace.salesapi.store.dto.CreateStoreRequest;
 import com.marketplace.salesapi.store.dto.StoreDto;
 import com.marketplace.salesapi.store.dto.UpdateStoreRequest;
@@ -19,6 +21,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -34,6 +37,9 @@ public class StoreService {
     @Autowired
     private RoleRepository roleRepository;
 
+    @Autowired
+    private OrderDocumentStore orderDocumentStore;
+
     @Transactional
     public StoreDto createStore(CreateStoreRequest request, Long userId) {
         // Verificar se o nome da loja já existe
@@ -73,10 +79,24 @@ public class StoreService {
         return convertToDto(savedStore);
     }
 
+    /**
+     * The store with its ETag, the same getStoreETag computes, taken from the loaded store.
+     */
     public StoreDto getStoreById(Long id) {
         Store store = storeRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Loja não encontrada com id: " + id));
-        return convertToDto(store);
+        StoreDto dto = convertToDto(store);
+        dto.setETag(ETags.of(id, store.getUpdatedAt(), store.getOwner().getUpdatedAt()));
+        return dto;
+    }
+
+    /**
+     * ETag of the store as getStoreById returns it, from the update timestamps of the store
+     * and its owner, whose name it shows. Empty if there is no such store.
+     */
+    public Optional<String> getStoreETag(Long id) {
+        return storeRepository.findVersionById(id)
+                .map(version -> ETags.of(id, version.getUpdatedAt(), version.getOwnerUpdatedAt()));
     }
 
     public List<StoreDto> getAllStores() {
@@ -119,6 +139,10 @@ public class StoreService {
             if (!request.getName().equals(store.getName()) && storeRepository.existsByName(request.getName())) {
                 throw new RuntimeException("Nome de loja já está em uso!");
             }
+            if (!request.getName().equals(store.getName())) {
+                // Order documents show the store's name
+                orderDocumentStore.evictStore(store.getId());
+            }
             store.setName(request.getName());
         }
         
@@ -1,5 +1,8 @@
 package com.marketplace.salesapi.user.controller;
 
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.marketplace.salesapi.common.pagination.CursorPage;
+import com.marketplace.salesapi.common.pagination.KeysetCursor;
 import com.marketplace.salesapi.order.dto.OrderDto;
 import com.marketplace.salesapi.order.service.OrderService;
 import com.marketplace.salesapi.security.UserDetailsImpl;
@@ -27,7 +30,7 @@ public class UserOrdersController {
     @GetMapping
     @Operation(summary = "Listar pedidos do usuário logado")
     @PreAuthorize("hasRole('USER') or hasRole('SELLER') or hasRole('ADMIN')")
-    public ResponseEntity<Page<OrderDto>> getUserOrders(
+    public ResponseEntity<Page<RawValue>> getUserOrders(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
@@ -39,7 +42,24 @@ public class UserOrdersController {
                 Sort.Direction.DESC : Sort.Direction.ASC;
         
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sortBy));
-        Page<OrderDto> orders = orderService.getOrdersByUser(userId, pageable);
+        Page<RawValue> orders = orderService.getOrderDocumentsByUser(userId, pageable);
+        
+        return ResponseEntity.ok(orders);
+    }
+
+    @GetMapping(params = "cursor")
+    @Operation(summary = "Listar pedidos do usuário logado (paginação por cursor, sem contagem total)")
+    @PreAuthorize("hasRole('USER') or hasRole('SELLER') or hasRole('ADMIN')")
+    public ResponseEntity<CursorPage<OrderDto>> scrollUserOrders(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String direction) {
+        
+        Long userId = getCurrentUserId();
+        
+        KeysetCursor keysetCursor = KeysetCursor.of(cursor, sortBy, direction, size, OrderService.CURSOR_SORT_KEYS);
+        CursorPage<OrderDto> orders = orderService.scrollOrdersByUser(userId, keysetCursor);
         
         return ResponseEntity.ok(orders);
     }
@@ -1,5 +1,6 @@
 package com.marketplace.salesapi.user.service;
 
+import com.marketplace.salesapi.order.service.OrderDocumentStore;
 import com.marketplace.salesapi.user.dto.CreateUserRequest;
 import com.marketplace.salesapi.user.dto.UserDto;
 import com.marketplace.salesapi.user.model.ERole;
@@ -15,6 +16,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -30,6 +32,9 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private OrderDocumentStore orderDocumentStore;
+
     @Transactional
     public UserDto createUser(CreateUserRequest request) {
         // Verificar se o email já existe
@@ -96,6 +101,10 @@ public class UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Usuário não encontrado com id: " + id));
         
+        if (!Objects.equals(request.getName(), user.getName())) {
+            // Order documents show the customer's name
+            orderDocumentStore.evictUser(user.getId());
+        }
         user.setName(request.getName());
         user.setPhoneNumber(request.getPhoneNumber());
         
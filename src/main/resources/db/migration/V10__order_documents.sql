@@ -0,0 +1,13 @@
+-- Read model of the orders: each order's OrderDto as JSON, rewritten by OrderService just
+-- before every transaction that changes the order commits. Order reads are one lookup by
+-- primary key (or order number) here instead of hydrating orders and the four tables around it.
+-- Existing orders are filled in by the application (OrderDocumentBackfill), not by this script.
+CREATE TABLE order_documents (
+    order_id BIGINT PRIMARY KEY,
+    order_number VARCHAR(50) NOT NULL,
+    order_version BIGINT NOT NULL,
+    body BYTEA NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    CONSTRAINT uk_order_documents_order_number UNIQUE (order_number),
+    FOREIGN KEY (order_id) REFERENCES orders(id) ON DELETE CASCADE
+);
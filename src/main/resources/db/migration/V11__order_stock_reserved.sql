@@ -0,0 +1,3 @@
+-- Orders whose units were taken from the stock when they were created (InventoryLedger).
+-- Existing orders never were, so cancelling them does not return any stock.
+ALTER TABLE orders ADD COLUMN stock_reserved BOOLEAN NOT NULL DEFAULT FALSE;
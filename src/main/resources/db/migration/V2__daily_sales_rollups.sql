@@ -0,0 +1,52 @@
+-- Daily sales rollups, maintained by the application in the same transaction as the orders
+
+-- Orders per day and status
+CREATE TABLE IF NOT EXISTS daily_status_sales (
+    sales_date DATE NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    order_count BIGINT NOT NULL DEFAULT 0,
+    revenue DECIMAL(19, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (sales_date, status)
+);
+
+-- Store sales per day and order status
+CREATE TABLE IF NOT EXISTS daily_store_sales (
+    sales_date DATE NOT NULL,
+    store_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    order_count BIGINT NOT NULL DEFAULT 0,
+    items_sold BIGINT NOT NULL DEFAULT 0,
+    revenue DECIMAL(19, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (sales_date, store_id, status)
+);
+
+CREATE INDEX IF NOT EXISTS idx_daily_store_sales_store ON daily_store_sales (store_id, sales_date);
+
+-- Product sales per day
+CREATE TABLE IF NOT EXISTS daily_product_sales (
+    sales_date DATE NOT NULL,
+    product_id BIGINT NOT NULL,
+    quantity_sold BIGINT NOT NULL DEFAULT 0,
+    revenue DECIMAL(19, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (sales_date, product_id)
+);
+
+-- Backfill from existing orders
+INSERT INTO daily_status_sales (sales_date, status, order_count, revenue)
+SELECT CAST(o.created_at AS DATE), o.status, COUNT(*), SUM(o.total)
+FROM orders o
+GROUP BY CAST(o.created_at AS DATE), o.status;
+
+INSERT INTO daily_store_sales (sales_date, store_id, status, order_count, items_sold, revenue)
+SELECT CAST(o.created_at AS DATE), p.store_id, o.status, COUNT(DISTINCT o.id), SUM(oi.quantity), SUM(oi.subtotal)
+FROM order_items oi
+JOIN orders o ON o.id = oi.order_id
+JOIN products p ON p.id = oi.product_id
+GROUP BY CAST(o.created_at AS DATE), p.store_id, o.status;
+
+INSERT INTO daily_product_sales (sales_date, product_id, quantity_sold, revenue)
+SELECT CAST(o.created_at AS DATE), oi.product_id, SUM(oi.quantity), SUM(oi.subtotal)
+FROM order_items oi
+JOIN orders o ON o.id = oi.order_id
+WHERE oi.product_id IS NOT NULL
+GROUP BY CAST(o.created_at AS DATE), oi.product_id;
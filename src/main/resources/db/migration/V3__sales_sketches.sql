@@ -0,0 +1,21 @@
+-- Daily sketches of distinct customers (HyperLogLog) and order values (t-digest),
+-- merged across any range of days by the application
+
+-- All orders per day
+CREATE TABLE IF NOT EXISTS daily_sales_sketches (
+    sales_date DATE NOT NULL,
+    customers BYTEA NOT NULL,
+    order_values BYTEA NOT NULL,
+    PRIMARY KEY (sales_date)
+);
+
+-- Orders per day and store, valued by the items the store sold
+CREATE TABLE IF NOT EXISTS daily_store_sketches (
+    sales_date DATE NOT NULL,
+    store_id BIGINT NOT NULL,
+    customers BYTEA NOT NULL,
+    order_values BYTEA NOT NULL,
+    PRIMARY KEY (sales_date, store_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_daily_store_sketches_store ON daily_store_sketches (store_id, sales_date);
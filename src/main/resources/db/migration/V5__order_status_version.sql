@@ -0,0 +1,3 @@
+-- Optimistic locking and the status before the last transition, for conditional status updates
+ALTER TABLE orders ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE orders ADD COLUMN previous_status VARCHAR(20);
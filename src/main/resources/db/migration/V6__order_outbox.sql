@@ -0,0 +1,22 @@
+-- Order events for downstream consumers, written in the transaction that changed the order
+-- and removed by the outbox relay once delivered
+CREATE TABLE IF NOT EXISTS order_outbox (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    partition_id INTEGER NOT NULL,
+    order_id BIGINT NOT NULL,
+    order_version BIGINT NOT NULL,
+    event_type VARCHAR(40) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_order_outbox_partition ON order_outbox (partition_id, order_id, order_version, id);
+
+-- One row per partition (order_id mod 16); a relay locks a row with FOR UPDATE SKIP LOCKED
+-- while it drains the partition, so each order is delivered by one relay at a time
+CREATE TABLE IF NOT EXISTS order_outbox_partitions (
+    partition_id INTEGER PRIMARY KEY
+);
+
+INSERT INTO order_outbox_partitions (partition_id)
+VALUES (0), (1), (2), (3), (4), (5), (6), (7), (8), (9), (10), (11), (12), (13), (14), (15);
@@ -0,0 +1,24 @@
+-- One row per (order, store) with the store's share of the order, so the store order
+-- listings are range scans on store_id instead of EXISTS over order_items and products.
+-- Maintained by StoreOrderSplitter in the transaction that changes the order; like the
+-- daily rollups it has no foreign keys, as its rows are written before the order is flushed.
+CREATE TABLE IF NOT EXISTS store_orders (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    store_id BIGINT NOT NULL,
+    order_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    store_subtotal DECIMAL(10, 2) NOT NULL,
+    CONSTRAINT uk_store_orders_order_store UNIQUE (order_id, store_id)
+);
+
+-- The id is the tie-breaker of the listings' sort, so (key, id) pages need no sort step
+CREATE INDEX IF NOT EXISTS idx_store_orders_created ON store_orders (store_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_store_orders_status_created ON store_orders (store_id, status, created_at, id);
+
+INSERT INTO store_orders (store_id, order_id, status, created_at, store_subtotal)
+SELECT p.store_id, o.id, o.status, o.created_at, SUM(oi.subtotal)
+FROM order_items oi
+JOIN orders o ON o.id = oi.order_id
+JOIN products p ON p.id = oi.product_id
+GROUP BY p.store_id, o.id, o.status, o.created_at;
@@ -0,0 +1,17 @@
+-- store_orders rows become the per-store sub-orders of an order: each store fulfills its
+-- part with its own status, item count and tracking, without touching the parent order
+ALTER TABLE store_orders ADD COLUMN item_count INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE store_orders ADD COLUMN tracking_number VARCHAR(100);
+ALTER TABLE store_orders ADD COLUMN shipped_date TIMESTAMP;
+ALTER TABLE store_orders ADD COLUMN delivered_date TIMESTAMP;
+ALTER TABLE store_orders ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE store_orders ADD COLUMN updated_at TIMESTAMP;
+
+-- Existing sub-orders start from the parent's shipping record
+UPDATE store_orders SET
+    item_count = (SELECT COALESCE(SUM(oi.quantity), 0) FROM order_items oi JOIN products p ON p.id = oi.product_id
+                  WHERE oi.order_id = store_orders.order_id AND p.store_id = store_orders.store_id),
+    tracking_number = (SELECT s.tracking_number FROM shipping_info s WHERE s.order_id = store_orders.order_id),
+    shipped_date = (SELECT s.shipped_date FROM shipping_info s WHERE s.order_id = store_orders.order_id),
+    delivered_date = (SELECT s.delivered_date FROM shipping_info s WHERE s.order_id = store_orders.order_id),
+    updated_at = created_at;
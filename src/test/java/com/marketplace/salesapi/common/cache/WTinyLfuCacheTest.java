@@ -0,0 +1,80 @@
+package com.marketplace.salesapi.common.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WTinyLfuCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    @DisplayName("Should keep keys read now and then through a scan of one-off keys that would flush an LRU")
+    void put_ShouldKeepPopularKeys_WhenScanned() {
+        // Arrange
+        WTinyLfuCache<Integer, String> cache = new WTinyLfuCache<>(100, Duration.ofMinutes(5), now::get);
+        for (int key = 0; key < 50; key++) {
+            cache.put(key, "v" + key, cache.stamp(key));
+        }
+        for (int round = 0; round < 3; round++) {
+            for (int key = 0; key < 50; key++) {
+                cache.get(key);
+            }
+        }
+
+        // Act: each popular key is read once every 500 scanned keys
+        for (int key = 1000; key < 2000; key++) {
+            cache.get(key);
+            cache.put(key, "scan", cache.stamp(key));
+            if (key % 10 == 0) {
+                cache.get(key / 10 % 50);
+            }
+        }
+
+        // Assert
+        for (int key = 0; key < 50; key++) {
+            assertEquals("v" + key, cache.get(key));
+        }
+        assertTrue(cache.size() <= 100);
+        assertTrue(cache.evictionCount() >= 950);
+    }
+
+    @Test
+    @DisplayName("Should expire entries after the time to live and count hits and misses")
+    void get_ShouldExpireEntries() {
+        // Arrange
+        WTinyLfuCache<String, String> cache = new WTinyLfuCache<>(10, Duration.ofSeconds(30), now::get);
+        cache.put("a", "1", cache.stamp("a"));
+
+        // Act
+        String fresh = cache.get("a");
+        now.addAndGet(Duration.ofSeconds(30).toNanos());
+        String expired = cache.get("a");
+
+        // Assert
+        assertEquals("1", fresh);
+        assertNull(expired);
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+        assertEquals(1, cache.evictionCount());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("Should not cache a value loaded before the key was invalidated")
+    void put_ShouldDropValue_WhenInvalidatedDuringLoad() {
+        WTinyLfuCache<Long, String> cache = new WTinyLfuCache<>(10, Duration.ofMinutes(5), now::get);
+        long stamp = cache.stamp(1L);
+
+        cache.invalidate(1L);
+        cache.put(1L, "stale", stamp);
+
+        assertNull(cache.get(1L));
+        cache.put(1L, "fresh", cache.stamp(1L));
+        assertEquals("fresh", cache.get(1L));
+    }
+}
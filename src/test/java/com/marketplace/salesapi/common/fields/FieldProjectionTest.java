@@ -0,0 +1,38 @@
+package com.marketplace.salesapi.common.fields;
+
+import com.marketplace.salesapi.product.model.Product;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FieldProjectionTest {
+
+    private static final FieldProjection<Product> FIELDS = FieldProjection.of(Product.class)
+            .column("name", root -> root.get("name"))
+            .column("price", root -> root.get("price"))
+            .related("tags");
+
+    @Test
+    @DisplayName("Should keep the requested fields in order and always include the id")
+    void parse_ShouldAddId_WhenNotRequested() {
+        assertEquals(List.of("id", "price", "tags"), List.copyOf(FIELDS.parse(" price , tags,price")));
+    }
+
+    @Test
+    @DisplayName("Should select every field when none is requested")
+    void parse_ShouldSelectAllFields_WhenBlank() {
+        assertEquals(List.of("id", "name", "price", "tags"), List.copyOf(FIELDS.parse("")));
+    }
+
+    @Test
+    @DisplayName("Should reject a field the listing does not have")
+    void parse_ShouldThrow_WhenFieldIsUnknown() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> FIELDS.parse("name,password"));
+
+        assertTrue(exception.getMessage().contains("password"));
+    }
+}
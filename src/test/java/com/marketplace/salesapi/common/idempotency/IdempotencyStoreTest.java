@@ -0,0 +1,167 @@
+package com.marketplace.salesapi.common.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marketplace.salesapi.exception.IdempotencyKeyInUseException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyStoreTest {
+
+    private static final Map<String, Object> REQUEST = Map.of("productId", 1, "quantity", 2);
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+    private final AtomicInteger calls = new AtomicInteger();
+    private IdempotencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new IdempotencyStore(3, Duration.ofMinutes(10), Duration.ofSeconds(5), clock::get);
+        ReflectionTestUtils.setField(store, "objectMapper", new ObjectMapper());
+    }
+
+    @Test
+    @DisplayName("Should replay the first result for the same user, endpoint and key")
+    void execute_ShouldReplayCompletedResult() {
+        // Act
+        IdempotencyStore.Result<String> first = store.execute("POST /api/orders", 1L, "k1", REQUEST, this::createOrder);
+        IdempotencyStore.Result<String> retry = store.execute("POST /api/orders", 1L, "k1", REQUEST, this::createOrder);
+        IdempotencyStore.Result<String> otherUser = store.execute("POST /api/orders", 2L, "k1", REQUEST, this::createOrder);
+        IdempotencyStore.Result<String> noKey = store.execute("POST /api/orders", 1L, null, REQUEST, this::createOrder);
+
+        // Assert
+        assertEquals("order-1", first.value());
+        assertFalse(first.replayed());
+        assertEquals("order-1", retry.value());
+        assertTrue(retry.replayed());
+        assertEquals("order-2", otherUser.value());
+        assertEquals("order-3", noKey.value());
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    @DisplayName("Should make concurrent duplicates wait for the first execution")
+    void execute_ShouldRunOnce_WhenDuplicatesArriveWhileInFlight() throws Exception {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            // Act
+            Future<IdempotencyStore.Result<String>> original = executor.submit(() ->
+                    store.execute("POST /api/orders", 1L, "k1", REQUEST, () -> {
+                        started.countDown();
+                        await(release);
+                        return createOrder();
+                    }));
+            started.await();
+            Future<IdempotencyStore.Result<String>> duplicate1 = executor.submit(() ->
+                    store.execute("POST /api/orders", 1L, "k1", REQUEST, this::createOrder));
+            Future<IdempotencyStore.Result<String>> duplicate2 = executor.submit(() ->
+                    store.execute("POST /api/orders", 1L, "k1", REQUEST, this::createOrder));
+            release.countDown();
+
+            // Assert
+            assertEquals("order-1", original.get().value());
+            assertEquals("order-1", duplicate1.get().value());
+            assertTrue(duplicate1.get().replayed());
+            assertEquals("order-1", duplicate2.get().value());
+            assertEquals(1, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should run the action again when the first attempt failed")
+    void execute_ShouldNotStoreFailures() {
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> store.execute("POST /api/orders", 1L, "k1", REQUEST, () -> {
+            throw new IllegalStateException("timeout");
+        }));
+        assertEquals("order-1", store.execute("POST /api/orders", 1L, "k1", REQUEST, this::createOrder).value());
+    }
+
+    @Test
+    @DisplayName("Should reject a key reused with a different request")
+    void execute_ShouldRejectDifferentRequest() {
+        // Arrange
+        store.execute("POST /api/orders", 1L, "k1", REQUEST, this::createOrder);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> store.execute("POST /api/orders", 1L, "k1", Map.of("productId", 1, "quantity", 3), this::createOrder));
+        assertThrows(IllegalArgumentException.class,
+                () -> store.execute("POST /api/orders", 1L, "x".repeat(IdempotencyStore.MAX_KEY_LENGTH + 1), REQUEST, this::createOrder));
+    }
+
+    @Test
+    @DisplayName("Should forget results after the TTL and beyond the size bound")
+    void execute_ShouldEvictExpiredAndOldestEntries() {
+        // Arrange
+        store.execute("POST /api/orders", 1L, "k1", REQUEST, this::createOrder);
+
+        // Act & Assert: expired after the TTL
+        clock.addAndGet(Duration.ofMinutes(10).toMillis());
+        assertEquals("order-2", store.execute("POST /api/orders", 1L, "k1", REQUEST, this::createOrder).value());
+
+        // Act & Assert: k1 is the oldest of four entries in a store of three
+        store.execute("POST /api/orders", 1L, "k2", REQUEST, this::createOrder);
+        store.execute("POST /api/orders", 1L, "k3", REQUEST, this::createOrder);
+        store.execute("POST /api/orders", 1L, "k4", REQUEST, this::createOrder);
+        assertTrue(store.execute("POST /api/orders", 1L, "k4", REQUEST, this::createOrder).replayed());
+        assertFalse(store.execute("POST /api/orders", 1L, "k1", REQUEST, this::createOrder).replayed());
+    }
+
+    @Test
+    @DisplayName("Should give up waiting on a duplicate that is still in flight")
+    void execute_ShouldTimeOut_WhenOriginalTakesTooLong() throws Exception {
+        // Arrange
+        store = new IdempotencyStore(3, Duration.ofMinutes(10), Duration.ofMillis(50), clock::get);
+        ReflectionTestUtils.setField(store, "objectMapper", new ObjectMapper());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            executor.submit(() -> store.execute("POST /api/orders", 1L, "k1", REQUEST, () -> {
+                started.countDown();
+                await(release);
+                return createOrder();
+            }));
+            started.await();
+
+            // Act & Assert
+            assertThrows(IdempotencyKeyInUseException.class,
+                    () -> store.execute("POST /api/orders", 1L, "k1", REQUEST, this::createOrder));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private String createOrder() {
+        return "order-" + calls.incrementAndGet();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.marketplace.salesapi.common.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    @DisplayName("Should keep amounts in cents and render them with two decimals")
+    void of_ShouldConvertToCents() {
+        // Arrange
+        Money price = Money.of("25.5");
+
+        // Act
+        BigDecimal rendered = price.toBigDecimal();
+
+        // Assert
+        assertEquals(2550, price.getCents());
+        assertEquals(new BigDecimal("25.50"), rendered);
+        assertEquals(Money.ofCents(2550), Money.of(new BigDecimal("25.50")));
+    }
+
+    @Test
+    @DisplayName("Should round amounts with more than two decimals half up")
+    void of_ShouldRoundHalfUp() {
+        assertEquals(1001, Money.of("10.005").getCents());
+        assertEquals(1000, Money.of("10.0049").getCents());
+        assertEquals(-1001, Money.of("-10.005").getCents());
+    }
+
+    @Test
+    @DisplayName("Should add, subtract and multiply exactly")
+    void arithmetic_ShouldBeExact() {
+        // Arrange
+        Money unitPrice = Money.of("3.33");
+
+        // Act
+        Money subtotal = unitPrice.times(3).minus(Money.of("0.99")).plus(Money.of("15.00"));
+
+        // Assert
+        assertEquals(Money.of("24.00"), subtotal);
+        assertThrows(ArithmeticException.class, () -> Money.ofCents(Long.MAX_VALUE).plus(Money.ofCents(1)));
+    }
+
+    @Test
+    @DisplayName("Should divide rounding half away from zero")
+    void dividedBy_ShouldRoundHalfUp() {
+        assertEquals(Money.of("64.55"), Money.of("193.65").dividedBy(3));
+        assertEquals(Money.ofCents(2), Money.ofCents(5).dividedBy(3));
+        assertEquals(Money.ofCents(3), Money.ofCents(5).dividedBy(2));
+        assertEquals(Money.ofCents(-3), Money.ofCents(-5).dividedBy(2));
+        assertEquals(Money.ofCents(1), Money.ofCents(4).dividedBy(3));
+    }
+
+    @Test
+    @DisplayName("Should map null amounts to null at the edges")
+    void nullable_ShouldPassNullThrough() {
+        MoneyConverter converter = new MoneyConverter();
+
+        assertNull(Money.ofNullable(null));
+        assertNull(Money.bigDecimalOf(null));
+        assertNull(converter.convertToDatabaseColumn(null));
+        assertEquals(Money.of("99.99"), converter.convertToEntityAttribute(new BigDecimal("99.99")));
+    }
+}
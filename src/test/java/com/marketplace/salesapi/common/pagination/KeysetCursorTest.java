@@ -0,0 +1,74 @@
+package com.marketplace.salesapi.common.pagination;
+
+import com.marketplace.salesapi.common.model.Money;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetCursorTest {
+
+    private static final KeysetCursor.SortKeys SORT_KEYS = KeysetCursor.SortKeys
+            .of("createdAt", LocalDateTime::parse)
+            .and("total", Money::of);
+
+    @Test
+    @DisplayName("Should start from the first page sorted by the key and the id")
+    void of_ShouldStartFromFirstPage_WhenCursorIsEmpty() {
+        // Act
+        KeysetCursor cursor = KeysetCursor.of("", "createdAt", "desc", 20, SORT_KEYS);
+
+        // Assert
+        assertTrue(cursor.getPosition().isInitial());
+        assertEquals(Sort.by(Sort.Direction.DESC, "createdAt", "id"), cursor.getSort());
+        assertEquals(20, cursor.getSize());
+    }
+
+    @Test
+    @DisplayName("Should resume after the last row of the previous page")
+    void page_ShouldRoundTripNextCursor() {
+        // Arrange
+        KeysetCursor first = KeysetCursor.of("", "total", "asc", 2, SORT_KEYS);
+        Map<String, Object> lastRow = Map.of("total", Money.of("31.66"), "id", 16L);
+        Window<String> window = Window.from(List.of("a", "b"), index -> ScrollPosition.forward(lastRow), true);
+
+        // Act
+        CursorPage<String> page = first.page(window, String::toUpperCase);
+        KeysetCursor next = KeysetCursor.of(page.getNextCursor(), "createdAt", "desc", 2, SORT_KEYS);
+
+        // Assert
+        assertEquals(List.of("A", "B"), page.getContent());
+        assertTrue(page.isHasNext());
+        assertEquals(lastRow, next.getPosition().getKeys());
+        assertEquals(Sort.by(Sort.Direction.ASC, "total", "id"), next.getSort());
+    }
+
+    @Test
+    @DisplayName("Should end the listing when the window has no next page")
+    void page_ShouldHaveNoCursor_WhenLastPage() {
+        KeysetCursor cursor = KeysetCursor.of("", "id", "asc", 2, SORT_KEYS);
+        Window<String> window = Window.from(List.of("a"), index -> ScrollPosition.forward(Map.of("id", 1L)), false);
+
+        CursorPage<String> page = cursor.page(window, value -> value);
+
+        assertNull(page.getNextCursor());
+        assertFalse(page.isHasNext());
+        assertEquals(Sort.by(Sort.Direction.ASC, "id"), cursor.getSort());
+    }
+
+    @Test
+    @DisplayName("Should reject unknown sort keys, tampered cursors and oversized pages")
+    void of_ShouldRejectInvalidInput() {
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.of("", "stockQuantity", "asc", 10, SORT_KEYS));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.of("not-a-cursor!", "id", "asc", 10, SORT_KEYS));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.of("QVNDfHRvdGFsfDE2fGFiYw", "id", "asc", 10, SORT_KEYS));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.of("", "id", "asc", KeysetCursor.MAX_SIZE + 1, SORT_KEYS));
+    }
+}
@@ -0,0 +1,44 @@
+package com.marketplace.salesapi.common.sql;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlStatementCounterTest {
+
+    @Test
+    @DisplayName("Should reduce statements with other values to the same shape")
+    void shapeOf_ShouldIgnoreValues() {
+        assertEquals(
+                SqlStatementCounter.shapeOf("select p1_0.id from products p1_0 where p1_0.id in (?,?,?)"),
+                SqlStatementCounter.shapeOf("select p1_0.id\n  from products p1_0\n  where p1_0.id in (?, ?)"));
+        assertEquals("select * from orders where order_number = ? and id = ?",
+                SqlStatementCounter.shapeOf("select * from orders where order_number = 'ORD-1''2' and id = 42"));
+    }
+
+    @Test
+    @DisplayName("Should count repeated statements into every open scope")
+    void record_ShouldCountIntoNestedScopes() {
+        // Arrange
+        SqlStatementStats request = SqlStatementCounter.open();
+        SqlStatementStats test = SqlStatementCounter.open();
+
+        // Act
+        for (long id = 1; id <= 3; id++) {
+            SqlStatementCounter.record("select * from order_items where order_id = " + id, 2);
+        }
+        SqlStatementCounter.close(test);
+        SqlStatementCounter.record("select count(*) from orders", 1);
+        SqlStatementCounter.close(request);
+        SqlStatementCounter.record("select 1", 1);
+
+        // Assert
+        assertEquals(3, test.getStatements());
+        assertEquals(6, test.getElapsedMillis());
+        assertEquals(3, test.getMaxRepeated());
+        assertEquals("select * from order_items where order_id = ?", test.getMostRepeatedShape());
+        assertEquals(4, request.getStatements());
+        assertEquals(2, request.getShapes().size());
+    }
+}
@@ -2,8 +2,9 @@ package com.marketplace.salesapi.integration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.marketplace.salesapi.BaseIntegrationTest;
+import com.marketplace.salesapi.common.model.Money;
+import com.marketplace.salesapi.order.dto.CreateOrderItemRequest;
 import com.marketplace.salesapi.order.dto.CreateOrderRequest;
-import com.marketplace.salesapi.order.dto.OrderItemRequest;
 import com.marketplace.salesapi.order.dto.TestOrderDto;
 import com.marketplace.salesapi.order.dto.TestUpdateOrderStatusRequest;
 import com.marketplace.salesapi.order.model.OrderStatus;
@@ -33,7 +34,6 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -118,7 +118,7 @@ class OrderFlowIntegrationTest extends BaseIntegrationTest {
         product.setName("Produto Teste");
         product.setDescription("Produto para testes de integração");
         product.setSku("TEST-SKU-001");
-        product.setPrice(new BigDecimal("99.99"));
+        product.setPrice(Money.of("99.99"));
         product.setStockQuantity(10);
         product.setStatus(ProductStatus.ACTIVE);
         // product.setStore(store); // Na vida real, precisaríamos de um objeto Store real
@@ -132,7 +132,7 @@ class OrderFlowIntegrationTest extends BaseIntegrationTest {
     void orderFlow_ShouldCompleteSuccessfully_FromCreationToDelivery() throws Exception {
         // Passo 1: Criar pedido como cliente
         CreateOrderRequest createOrderRequest = new CreateOrderRequest();
-        OrderItemRequest itemRequest = new OrderItemRequest();
+        CreateOrderItemRequest itemRequest = new CreateOrderItemRequest();
         itemRequest.setProductId(product.getId());
         itemRequest.setQuantity(2);
         createOrderRequest.setItems(List.of(itemRequest));
@@ -1,6 +1,7 @@
 package com.marketplace.salesapi.integration;
 
 import com.marketplace.salesapi.BaseIntegrationTest;
+import com.marketplace.salesapi.common.model.Money;
 import com.marketplace.salesapi.product.dto.ProductDto;
 import com.marketplace.salesapi.product.model.Category;
 import com.marketplace.salesapi.product.model.Product;
@@ -26,7 +27,6 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -113,7 +113,7 @@ class ProductIntegrationTest extends BaseIntegrationTest {
         product1.setName("Integration Test Product 1");
         product1.setDescription("First test product");
         product1.setSku("INT-TEST-001");
-        product1.setPrice(new BigDecimal("149.99"));
+        product1.setPrice(Money.of("149.99"));
         product1.setStockQuantity(100);
         product1.setStatus(ProductStatus.ACTIVE);
         product1.setStore(store);
@@ -123,7 +123,7 @@ class ProductIntegrationTest extends BaseIntegrationTest {
         product2.setName("Integration Test Product 2");
         product2.setDescription("Second test product");
         product2.setSku("INT-TEST-002");
-        product2.setPrice(new BigDecimal("249.99"));
+        product2.setPrice(Money.of("249.99"));
         product2.setStockQuantity(50);
         product2.setStatus(ProductStatus.ACTIVE);
         product2.setStore(store);
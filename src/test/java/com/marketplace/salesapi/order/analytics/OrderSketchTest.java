@@ -0,0 +1,142 @@
+package com.marketplace.salesapi.order.analytics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderSketchTest {
+
+    @Test
+    @DisplayName("Should estimate distinct values within a few percent")
+    void hyperLogLog_ShouldEstimateCardinality() {
+        // Arrange
+        HyperLogLog sketch = new HyperLogLog();
+
+        // Act
+        for (int round = 0; round < 3; round++) {
+            for (long id = 1; id <= 50_000; id++) {
+                sketch.offer(id);
+            }
+        }
+
+        // Assert
+        assertEquals(50_000, sketch.cardinality(), 50_000 * 0.05);
+    }
+
+    @Test
+    @DisplayName("Should count shared values once when merging and survive serialization")
+    void hyperLogLog_ShouldMergeAndRoundTrip() {
+        // Arrange
+        HyperLogLog monday = new HyperLogLog();
+        HyperLogLog tuesday = new HyperLogLog();
+        for (long id = 1; id <= 30; id++) {
+            monday.offer(id);
+        }
+        for (long id = 21; id <= 40; id++) {
+            tuesday.offer(id);
+        }
+
+        // Act
+        HyperLogLog restored = HyperLogLog.fromBytes(monday.toBytes());
+        restored.merge(HyperLogLog.fromBytes(tuesday.toBytes()));
+
+        // Assert
+        assertTrue(monday.toBytes().length < 100);
+        assertEquals(40, restored.cardinality());
+    }
+
+    @Test
+    @DisplayName("Should approximate percentiles of order values")
+    void tDigest_ShouldApproximateQuantiles() {
+        // Arrange
+        TDigest digest = new TDigest();
+        Random random = new Random(42);
+
+        // Act
+        for (int i = 0; i < 100_000; i++) {
+            digest.add(random.nextDouble() * 1000);
+        }
+
+        // Assert
+        assertEquals(500, digest.quantile(0.50), 10);
+        assertEquals(900, digest.quantile(0.90), 5);
+        assertEquals(990, digest.quantile(0.99), 2);
+    }
+
+    @Test
+    @DisplayName("Should merge serialized digests into the digest of all values")
+    void tDigest_ShouldMergeAndRoundTrip() {
+        // Arrange
+        TDigest low = new TDigest();
+        TDigest high = new TDigest();
+        for (int value = 1; value <= 5_000; value++) {
+            low.add(value);
+            high.add(5_000 + value);
+        }
+
+        // Act
+        TDigest merged = TDigest.fromBytes(low.toBytes());
+        merged.merge(TDigest.fromBytes(high.toBytes()));
+
+        // Assert
+        assertEquals(10_000, merged.size());
+        assertEquals(5_000, merged.quantile(0.50), 100);
+        assertEquals(9_900, merged.quantile(0.99), 20);
+        assertEquals(10_000, merged.quantile(1.0), 0.001);
+    }
+
+    @Test
+    @DisplayName("Should keep centroid means and weights exact through serialization")
+    void tDigest_ShouldRoundTripWithoutLosingPrecision() {
+        // Arrange
+        TDigest digest = new TDigest();
+        for (int i = 0; i < 3; i++) {
+            digest.add(123_456.78);
+        }
+
+        // Act
+        TDigest restored = TDigest.fromBytes(digest.toBytes());
+
+        // Assert
+        assertEquals(3, restored.size());
+        assertEquals(123_456.78, restored.quantile(0.5), 0.0);
+    }
+
+    @Test
+    @DisplayName("Should still read digests stored with float means and int weights")
+    void tDigest_ShouldReadCompactFormat() {
+        // Arrange
+        ByteBuffer buffer = ByteBuffer.allocate(2 * Double.BYTES + Integer.BYTES + 2 * (Float.BYTES + Integer.BYTES));
+        buffer.putDouble(10).putDouble(30).putInt(2);
+        buffer.putFloat(10).putInt(3).putFloat(30).putInt(1);
+
+        // Act
+        TDigest restored = TDigest.fromBytes(buffer.array());
+
+        // Assert
+        assertEquals(4, restored.size());
+        assertEquals(30, restored.quantile(1.0), 0.001);
+    }
+
+    @Test
+    @DisplayName("Should sketch customers and order values together")
+    void orderSketch_ShouldCombineCustomersAndValues() {
+        // Arrange
+        OrderSketch sketch = new OrderSketch();
+        sketch.add(1, 100);
+        sketch.add(1, 200);
+        sketch.add(2, 300);
+
+        // Act
+        OrderSketch restored = OrderSketch.fromBytes(sketch.customersToBytes(), sketch.orderValuesToBytes());
+
+        // Assert
+        assertEquals(3, restored.getOrderCount());
+        assertEquals(2, restored.getDistinctCustomers());
+        assertEquals(200, restored.getOrderValueQuantile(0.5), 0.001);
+    }
+}
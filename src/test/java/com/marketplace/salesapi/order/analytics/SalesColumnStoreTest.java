@@ -0,0 +1,148 @@
+package com.marketplace.salesapi.order.analytics;
+
+import com.marketplace.salesapi.common.model.Money;
+import com.marketplace.salesapi.order.event.OrderCreatedEvent;
+import com.marketplace.salesapi.order.event.OrderStatusChangedEvent;
+import com.marketplace.salesapi.order.model.Order;
+import com.marketplace.salesapi.order.model.OrderItem;
+import com.marketplace.salesapi.order.model.OrderStatus;
+import com.marketplace.salesapi.product.model.Product;
+import com.marketplace.salesapi.store.model.Store;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SalesColumnStoreTest {
+
+    private static final LocalDate JAN_31 = LocalDate.of(2024, 1, 31);
+    private static final LocalDate FEB_01 = LocalDate.of(2024, 2, 1);
+
+    private SalesColumnStore columnStore;
+    private Product productA;
+    private Product productB;
+    private Product productC;
+
+    @BeforeEach
+    void setUp() {
+        columnStore = new SalesColumnStore();
+        productA = product(1L, 10L);
+        productB = product(2L, 10L);
+        productC = product(3L, 20L);
+    }
+
+    @Test
+    @DisplayName("Should summarize orders per status and month within the day range")
+    void summarizeOrders_ShouldAggregateOrdersInRange() {
+        // Arrange
+        columnStore.onOrderCreated(new OrderCreatedEvent(order(1L, JAN_31, "25.00", line(productA, 2, "10.00"))));
+        columnStore.onOrderCreated(new OrderCreatedEvent(order(2L, FEB_01, "40.00", line(productC, 1, "25.00"))));
+        columnStore.onOrderCreated(new OrderCreatedEvent(order(3L, FEB_01.plusDays(1), "99.00", line(productB, 1, "84.00"))));
+
+        // Act
+        ColumnarSummary summary = columnStore.summarizeOrders(JAN_31, FEB_01);
+
+        // Assert
+        assertEquals(2, summary.getOrderCount());
+        assertEquals(6500, summary.getRevenueCents());
+        assertEquals(2, summary.getOrdersByStatus(OrderStatus.PENDING.ordinal()));
+        assertEquals(2, summary.getMonthCount());
+        assertEquals(YearMonth.of(2024, 1), summary.getMonth(0));
+        assertEquals(1, summary.getOrdersByMonth(0));
+        assertEquals(1, summary.getOrdersByMonth(1));
+    }
+
+    @Test
+    @DisplayName("Should count each order once per store and move it when its status changes")
+    void summarizeStore_ShouldCountDistinctOrders() {
+        // Arrange
+        Order order = order(1L, JAN_31, "65.00",
+                line(productA, 2, "20.00"), line(productC, 1, "15.00"), line(productB, 1, "15.00"));
+        columnStore.onOrderCreated(new OrderCreatedEvent(order));
+        order.setStatus(OrderStatus.CANCELLED);
+        columnStore.onOrderStatusChanged(new OrderStatusChangedEvent(order, OrderStatus.PENDING));
+
+        // Act
+        ColumnarSummary summary = columnStore.summarizeStore(10L, JAN_31, JAN_31);
+
+        // Assert
+        assertEquals(1, summary.getOrderCount());
+        assertEquals(3500, summary.getRevenueCents());
+        assertEquals(0, summary.getOrdersByStatus(OrderStatus.PENDING.ordinal()));
+        assertEquals(1, summary.getOrdersByStatus(OrderStatus.CANCELLED.ordinal()));
+    }
+
+    @Test
+    @DisplayName("Should rank products by quantity sold and stores by revenue")
+    void topProductsAndStores_ShouldRankAndLimit() {
+        // Arrange
+        columnStore.onOrderCreated(new OrderCreatedEvent(order(1L, JAN_31, "0",
+                line(productA, 1, "10.00"), line(productC, 5, "50.00"))));
+        columnStore.onOrderCreated(new OrderCreatedEvent(order(2L, JAN_31, "0",
+                line(productB, 5, "5.00"), line(productA, 2, "20.00"))));
+
+        // Act
+        ColumnarRanking products = columnStore.topProducts(JAN_31, JAN_31, 2);
+        ColumnarRanking stores = columnStore.topStores(JAN_31, JAN_31, 10);
+
+        // Assert
+        assertEquals(2, products.size());
+        assertEquals(2, products.getId(0));
+        assertEquals(3, products.getId(1));
+        assertEquals(5, products.getCount(1));
+
+        assertEquals(2, stores.size());
+        assertEquals(20, stores.getId(0));
+        assertEquals(5000, stores.getRevenueCents(0));
+        assertEquals(10, stores.getId(1));
+        assertEquals(2, stores.getCount(1));
+        assertEquals(3500, stores.getRevenueCents(1));
+    }
+
+    @Test
+    @DisplayName("Should ignore an order that was already appended")
+    void onOrderCreated_ShouldIgnoreDuplicates() {
+        // Arrange
+        Order order = order(1L, JAN_31, "25.00", line(productA, 1, "10.00"));
+
+        // Act
+        columnStore.onOrderCreated(new OrderCreatedEvent(order));
+        columnStore.onOrderCreated(new OrderCreatedEvent(order));
+
+        // Assert
+        assertEquals(1, columnStore.summarizeOrders(JAN_31, JAN_31).getOrderCount());
+    }
+
+    private static Product product(Long id, Long storeId) {
+        Store store = new Store();
+        store.setId(storeId);
+        Product product = new Product();
+        product.setId(id);
+        product.setStore(store);
+        return product;
+    }
+
+    private static OrderItem line(Product product, int quantity, String subtotal) {
+        OrderItem item = new OrderItem();
+        item.setProduct(product);
+        item.setQuantity(quantity);
+        item.setSubtotal(Money.of(subtotal));
+        return item;
+    }
+
+    private static Order order(Long id, LocalDate day, String total, OrderItem... items) {
+        Order order = new Order();
+        order.setId(id);
+        order.setStatus(OrderStatus.PENDING);
+        order.setCreatedAt(day.atTime(10, 0));
+        order.setTotal(Money.of(total));
+        for (OrderItem item : items) {
+            order.getItems().add(item);
+        }
+        return order;
+    }
+}
@@ -0,0 +1,179 @@
+package com.marketplace.salesapi.order.analytics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WindowedTopKTest {
+
+    private static final long HOUR_BUCKET = TopSellingWindow.HOUR.getBucketMillis();
+    private static final long NOW = 1_000 * HOUR_BUCKET;
+
+    @Test
+    @DisplayName("Should keep the heavy hitters when there are more keys than counters")
+    void spaceSaving_ShouldKeepHeavyHitters() {
+        // Arrange
+        SpaceSavingSketch sketch = new SpaceSavingSketch(3);
+
+        // Act
+        for (int round = 0; round < 50; round++) {
+            sketch.add(1, 5, 0);
+            sketch.add(2, 3, 0);
+            sketch.add(100 + round, 1, 0);
+        }
+
+        // Assert
+        int[] top = sketch.top(2);
+        assertEquals(2, top.length);
+        assertEquals(1, sketch.keyAt(top[0]));
+        assertEquals(250, sketch.countAt(top[0]));
+        assertEquals(2, sketch.keyAt(top[1]));
+        assertEquals(150, sketch.countAt(top[1]));
+    }
+
+    @Test
+    @DisplayName("Should drop a key once everything added for it is subtracted")
+    void spaceSaving_ShouldRemoveKeyWhenSubtractedToZero() {
+        // Arrange
+        SpaceSavingSketch sketch = new SpaceSavingSketch(10);
+        sketch.add(7, 2, 300);
+        sketch.add(8, 1, 100);
+
+        // Act
+        sketch.subtract(7, 2, 300);
+
+        // Assert
+        assertEquals(1, sketch.size());
+        assertEquals(8, sketch.keyAt(sketch.top(1)[0]));
+    }
+
+    @Test
+    @DisplayName("Should keep the counters sorted by count through additions and subtractions")
+    void spaceSaving_ShouldKeepCountersSorted() {
+        // Arrange
+        SpaceSavingSketch sketch = new SpaceSavingSketch(64);
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        // Act
+        for (int i = 0; i < 5_000; i++) {
+            long key = random.nextInt(64);
+            long weight = random.nextInt(4);
+            if (random.nextInt(3) == 0) {
+                sketch.subtract(key, weight, 0);
+                expected.computeIfPresent(key, (k, count) -> count > weight ? count - weight : null);
+            } else {
+                sketch.add(key, weight, 0);
+                expected.merge(key, weight, Long::sum);
+            }
+        }
+
+        // Assert
+        int[] top = sketch.top(64);
+        assertEquals(expected.size(), top.length);
+        for (int i = 0; i < top.length; i++) {
+            assertEquals(expected.get(sketch.keyAt(top[i])), sketch.countAt(top[i]));
+            if (i > 0) {
+                assertTrue(sketch.countAt(top[i - 1]) >= sketch.countAt(top[i]));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should carry counts and errors over when merging another sketch")
+    void spaceSaving_ShouldMergeCountsAndErrors() {
+        // Arrange
+        SpaceSavingSketch first = new SpaceSavingSketch(2);
+        first.add(1, 5, 50);
+        first.add(2, 1, 10);
+        first.add(3, 2, 20);
+        SpaceSavingSketch second = new SpaceSavingSketch(2);
+        second.add(1, 4, 40);
+
+        // Act
+        second.merge(first);
+
+        // Assert
+        int[] top = second.top(2);
+        assertEquals(1, second.keyAt(top[0]));
+        assertEquals(9, second.countAt(top[0]));
+        assertEquals(90, second.extraAt(top[0]));
+        assertEquals(3, second.keyAt(top[1]));
+        assertEquals(3, second.countAt(top[1]));
+        assertEquals(1, second.errorAt(top[1]));
+    }
+
+    @Test
+    @DisplayName("Should rank by count with the extra sums and take back cancellations")
+    void windowedTopK_ShouldRankWithinWindow() {
+        // Arrange
+        WindowedTopK topK = new WindowedTopK(TopSellingWindow.HOUR, 100);
+        topK.add(1, 3, 3000, NOW, NOW);
+        topK.add(2, 5, 1000, NOW - HOUR_BUCKET, NOW);
+        topK.add(3, 4, 2000, NOW, NOW);
+
+        // Act
+        topK.subtract(2, 5, 1000, NOW - HOUR_BUCKET, NOW);
+        long[][] top = topK.top(2, NOW);
+
+        // Assert
+        assertEquals(2, top.length);
+        assertArrayEquals(new long[]{3, 4, 2000}, top[0]);
+        assertArrayEquals(new long[]{1, 3, 3000}, top[1]);
+    }
+
+    @Test
+    @DisplayName("Should expire sales once their bucket leaves the window")
+    void windowedTopK_ShouldExpireOldBuckets() {
+        // Arrange
+        WindowedTopK topK = new WindowedTopK(TopSellingWindow.HOUR, 100);
+        topK.add(1, 10, 0, NOW, NOW);
+        topK.add(2, 1, 0, NOW + 6 * HOUR_BUCKET, NOW + 6 * HOUR_BUCKET);
+
+        // Act
+        long[][] stillInWindow = topK.top(10, NOW + 11 * HOUR_BUCKET);
+        long[][] afterExpiry = topK.top(10, NOW + 12 * HOUR_BUCKET);
+
+        // Assert
+        assertEquals(2, stillInWindow.length);
+        assertEquals(1, stillInWindow[0][0]);
+        assertEquals(1, afterExpiry.length);
+        assertEquals(2, afterExpiry[0][0]);
+    }
+
+    @Test
+    @DisplayName("Should not keep a count inherited from a key whose bucket expired")
+    void windowedTopK_ShouldDropInheritedCountOnExpiry() {
+        // Arrange
+        WindowedTopK topK = new WindowedTopK(TopSellingWindow.HOUR, 1);
+        topK.add(1, 10, 0, NOW, NOW);
+        // Takes over key 1's counter in the window total
+        topK.add(2, 1, 500, NOW + 6 * HOUR_BUCKET, NOW + 6 * HOUR_BUCKET);
+
+        // Act
+        long[][] beforeExpiry = topK.top(1, NOW + 11 * HOUR_BUCKET);
+        long[][] afterExpiry = topK.top(1, NOW + 12 * HOUR_BUCKET);
+
+        // Assert
+        assertArrayEquals(new long[]{2, 11, 500}, beforeExpiry[0]);
+        assertArrayEquals(new long[]{2, 1, 500}, afterExpiry[0]);
+    }
+
+    @Test
+    @DisplayName("Should ignore sales older than the window")
+    void windowedTopK_ShouldIgnoreSalesOutsideWindow() {
+        // Arrange
+        WindowedTopK topK = new WindowedTopK(TopSellingWindow.HOUR, 100);
+
+        // Act
+        topK.add(1, 10, 0, NOW - 12 * HOUR_BUCKET, NOW);
+
+        // Assert
+        assertEquals(0, topK.top(10, NOW).length);
+    }
+}
@@ -1,9 +1,13 @@
 package com.marketplace.salesapi.order.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marketplace.salesapi.common.idempotency.IdempotencyStore;
 import com.marketplace.salesapi.order.dto.OrderDto;
 import com.marketplace.salesapi.order.dto.UpdateOrderStatusRequest;
+import com.marketplace.salesapi.order.intake.OrderIntake;
 import com.marketplace.salesapi.order.model.OrderStatus;
+import com.marketplace.salesapi.order.service.GroupCommitCoordinator;
+import com.marketplace.salesapi.order.service.OrderDocumentStore;
 import com.marketplace.salesapi.order.service.OrderService;
 import com.marketplace.salesapi.config.TestSecurityConfig;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,6 +20,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -30,6 +35,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
@@ -41,7 +47,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 @WebMvcTest(controllers = OrderController.class, 
             properties = {"spring.main.allow-bean-definition-overriding=true"})
-@Import(TestSecurityConfig.class)
+@Import({TestSecurityConfig.class, IdempotencyStore.class, OrderIntake.class,
+        GroupCommitCoordinator.class})
 class OrderControllerTest {
 
     @Autowired
@@ -198,6 +205,41 @@ class OrderControllerTest {
         verify(orderService).getOrderById(1L);
     }
 
+    @Test
+    @DisplayName("GET /api/orders/{id} should answer 304 from the document's ETag without reading the order")
+    @WithMockUser(roles = "ADMIN")
+    void getOrderById_ShouldReturnNotModified_WhenETagMatches() throws Exception {
+        // Arrange
+        when(orderService.findOrderDocumentETag(1L)).thenReturn(Optional.of("\"1-3-abc\""));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/orders/1")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"1-3-abc\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-3-abc\""));
+
+        verify(orderService, never()).findOrderDocument(anyLong());
+        verify(orderService, never()).getOrderById(anyLong());
+    }
+
+    @Test
+    @DisplayName("GET /api/orders/{id} should send the document with its ETag from a single load")
+    @WithMockUser(roles = "ADMIN")
+    void getOrderById_ShouldSendDocumentETag_WhenNotRevalidating() throws Exception {
+        // Arrange
+        when(orderService.findOrderDocument(1L))
+                .thenReturn(Optional.of(new OrderDocumentStore.Document("{\"id\":1}".getBytes(), "\"1-3-abc\"")));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/orders/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-3-abc\""))
+                .andExpect(jsonPath("$.id", is(1)));
+
+        verify(orderService, never()).findOrderDocumentETag(anyLong());
+        verify(orderService, never()).getOrderById(anyLong());
+    }
+
     @Test
     @DisplayName("PUT /api/orders/{id}/status should update order status")
     void updateOrderStatus_ShouldUpdateStatus_WhenUserIsAuthorized() throws Exception {
@@ -23,6 +23,7 @@ public class OrderDto {
     private BigDecimal discount;
     private BigDecimal tax;
     private BigDecimal total;
+    private StoreOrderDto storeOrder;
     private String notes;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
@@ -1,20 +0,0 @@
-package com.marketplace.salesapi.order.dto;
-
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-
-import java.math.BigDecimal;
-
-@Data
-@NoArgsConstructor
-@AllArgsConstructor
-public class OrderItemDto {
-    private Long id;
-    private Long productId;
-    private String productName;
-    private String productSku;
-    private int quantity;
-    private BigDecimal unitPrice;
-    private BigDecimal subtotal;
-} 
\ No newline at end of file
@@ -1,25 +0,0 @@
-package com.marketplace.salesapi.order.dto;
-
-import lombok.Data;
-
-@Data
-public class OrderItemRequest {
-    private Long productId;
-    private Integer quantity;
-
-    public Long getProductId() {
-        return productId;
-    }
-
-    public void setProductId(Long productId) {
-        this.productId = productId;
-    }
-
-    public Integer getQuantity() {
-        return quantity;
-    }
-
-    public void setQuantity(Integer quantity) {
-        this.quantity = quantity;
-    }
-} 
\ No newline at end of file
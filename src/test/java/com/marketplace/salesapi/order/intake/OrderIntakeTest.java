@@ -0,0 +1,215 @@
+package com.marketplace.salesapi.order.intake;
+
+import com.marketplace.salesapi.exception.InsufficientStockException;
+import com.marketplace.salesapi.exception.OrderIntakeFullException;
+import com.marketplace.salesapi.exception.ResourceNotFoundException;
+import com.marketplace.salesapi.order.dto.CreateOrderRequest;
+import com.marketplace.salesapi.order.dto.OrderDto;
+import com.marketplace.salesapi.order.dto.OrderIntakeDto;
+import com.marketplace.salesapi.order.service.GroupCommitCoordinator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderIntakeTest {
+
+    @Mock
+    private GroupCommitCoordinator groupCommitCoordinator;
+
+    @Mock
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @InjectMocks
+    private OrderIntake orderIntake;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        orderIntake.stop();
+    }
+
+    @Test
+    @DisplayName("Should accept the order at once and create it in the background")
+    void submit_ShouldCompleteInBackground() throws Exception {
+        // Arrange
+        start(10);
+        OrderDto order = new OrderDto();
+        order.setId(42L);
+        order.setOrderNumber("ORD-0000000000042");
+        when(groupCommitCoordinator.createOrder(any(), eq(1L))).thenReturn(order);
+
+        // Act
+        OrderIntake.Ticket accepted = orderIntake.submit(new CreateOrderRequest(), 1L);
+        OrderIntakeDto done = awaitFinished(accepted.getToken(), 1L);
+
+        // Assert
+        assertNotNull(accepted.getToken());
+        assertEquals(OrderIntakeStatus.COMPLETED, done.getStatus());
+        assertEquals(42L, done.getOrderId());
+        assertEquals("ORD-0000000000042", done.getOrderNumber());
+        assertNotNull(done.getCompletedAt());
+    }
+
+    @Test
+    @DisplayName("Should report why a queued order could not be created")
+    void submit_ShouldReportFailure() throws Exception {
+        // Arrange
+        start(10);
+        when(groupCommitCoordinator.createOrder(any(), anyLong())).thenThrow(new InsufficientStockException("Estoque insuficiente"));
+
+        // Act
+        OrderIntakeDto done = awaitFinished(orderIntake.submit(new CreateOrderRequest(), 1L).getToken(), 1L);
+
+        // Assert
+        assertEquals(OrderIntakeStatus.FAILED, done.getStatus());
+        assertEquals("Estoque insuficiente", done.getError());
+    }
+
+    @Test
+    @DisplayName("Should fail the ticket instead of leaving it in processing when creation throws an error")
+    void submit_ShouldFinishTicket_WhenCreationThrowsError() throws Exception {
+        // Arrange
+        start(10);
+        when(groupCommitCoordinator.createOrder(any(), anyLong())).thenThrow(new StackOverflowError());
+
+        // Act
+        OrderIntakeDto done = awaitFinished(orderIntake.submit(new CreateOrderRequest(), 1L).getToken(), 1L);
+
+        // Assert
+        assertEquals(OrderIntakeStatus.FAILED, done.getStatus());
+        assertNotNull(done.getError());
+        assertNotNull(done.getCompletedAt());
+    }
+
+    @Test
+    @DisplayName("Should evict finished tickets once their result expires")
+    void evictFinished_ShouldRemoveExpiredTickets() throws Exception {
+        // Arrange
+        start(10);
+        when(groupCommitCoordinator.createOrder(any(), anyLong())).thenReturn(new OrderDto());
+        String token = orderIntake.submit(new CreateOrderRequest(), 1L).getToken();
+        awaitFinished(token, 1L);
+
+        // Act
+        orderIntake.evictFinished();
+        OrderIntakeDto kept = orderIntake.getStatus(token, 1L);
+        ReflectionTestUtils.setField(orderIntake, "resultTtl", Duration.ZERO);
+        Thread.sleep(5);
+        orderIntake.evictFinished();
+
+        // Assert
+        assertEquals(OrderIntakeStatus.COMPLETED, kept.getStatus());
+        assertThrows(ResourceNotFoundException.class, () -> orderIntake.getStatus(token, 1L));
+    }
+
+    @Test
+    @DisplayName("Should push back when the queue is full")
+    void submit_ShouldReject_WhenQueueIsFull() throws Exception {
+        // Arrange: the first order holds the only worker, the second fills the queue
+        start(1, 1);
+        CountDownLatch processing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(groupCommitCoordinator.createOrder(any(), anyLong())).thenAnswer(invocation -> {
+            processing.countDown();
+            release.await();
+            return new OrderDto();
+        });
+        orderIntake.submit(new CreateOrderRequest(), 1L);
+        processing.await();
+        orderIntake.submit(new CreateOrderRequest(), 1L);
+
+        // Act & Assert
+        assertThrows(OrderIntakeFullException.class, () -> orderIntake.submit(new CreateOrderRequest(), 1L));
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Should start the next order as soon as any running one finishes")
+    void submit_ShouldFreeCapacityPerOrder() throws Exception {
+        // Arrange: a slow order keeps one of the two workers busy throughout
+        start(10, 2);
+        CountDownLatch release = new CountDownLatch(1);
+        when(groupCommitCoordinator.createOrder(any(), anyLong())).thenAnswer(invocation -> {
+            if (invocation.getArgument(1, Long.class) == 2L) {
+                release.await();
+            }
+            return new OrderDto();
+        });
+        orderIntake.submit(new CreateOrderRequest(), 2L);
+
+        // Act
+        OrderIntakeDto first = awaitFinished(orderIntake.submit(new CreateOrderRequest(), 1L).getToken(), 1L);
+        OrderIntakeDto second = awaitFinished(orderIntake.submit(new CreateOrderRequest(), 1L).getToken(), 1L);
+
+        // Assert
+        assertEquals(OrderIntakeStatus.COMPLETED, first.getStatus());
+        assertEquals(OrderIntakeStatus.COMPLETED, second.getStatus());
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Should report the current status through the ticket returned on submit")
+    void submit_ShouldReturnLiveTicket() throws Exception {
+        // Arrange
+        start(10);
+        when(groupCommitCoordinator.createOrder(any(), eq(1L))).thenThrow(new InsufficientStockException("Estoque insuficiente"));
+
+        // Act
+        OrderIntake.Ticket ticket = orderIntake.submit(new CreateOrderRequest(), 1L);
+        awaitFinished(ticket.getToken(), 1L);
+
+        // Assert: what a replay of the request answers
+        assertEquals(OrderIntakeStatus.FAILED, ticket.toDto().getStatus());
+        assertEquals("Estoque insuficiente", ticket.toDto().getError());
+    }
+
+    @Test
+    @DisplayName("Should only show a ticket to the user who placed the order")
+    void getStatus_ShouldHideOtherUsersTickets() {
+        // Arrange
+        start(10);
+        lenient().when(groupCommitCoordinator.createOrder(any(), anyLong())).thenReturn(new OrderDto());
+        String token = orderIntake.submit(new CreateOrderRequest(), 1L).getToken();
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> orderIntake.getStatus(token, 2L));
+        assertThrows(ResourceNotFoundException.class, () -> orderIntake.getStatus("unknown", 1L));
+    }
+
+    private void start(int queueCapacity) {
+        start(queueCapacity, 20);
+    }
+
+    private void start(int queueCapacity, int concurrency) {
+        ReflectionTestUtils.setField(orderIntake, "enabled", true);
+        ReflectionTestUtils.setField(orderIntake, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(orderIntake, "concurrency", concurrency);
+        ReflectionTestUtils.setField(orderIntake, "resultTtl", Duration.ofHours(1));
+        orderIntake.start();
+    }
+
+    private OrderIntakeDto awaitFinished(String token, Long userId) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            OrderIntakeDto status = orderIntake.getStatus(token, userId);
+            if (status.getStatus() == OrderIntakeStatus.COMPLETED || status.getStatus() == OrderIntakeStatus.FAILED) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        return fail("order was not processed");
+    }
+}
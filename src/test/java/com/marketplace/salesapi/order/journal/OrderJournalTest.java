@@ -0,0 +1,130 @@
+package com.marketplace.salesapi.order.journal;
+
+import com.marketplace.salesapi.order.event.OrderCreatedEvent;
+import com.marketplace.salesapi.order.event.OrderPaymentChangedEvent;
+import com.marketplace.salesapi.order.event.OrderShippingChangedEvent;
+import com.marketplace.salesapi.order.event.OrderStatusChangedEvent;
+import com.marketplace.salesapi.order.model.Order;
+import com.marketplace.salesapi.order.model.OrderPayment;
+import com.marketplace.salesapi.order.model.OrderStatus;
+import com.marketplace.salesapi.order.model.PaymentStatus;
+import com.marketplace.salesapi.order.model.ShippingInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs the schema and the H2 journal migration on an in-memory H2
+class OrderJournalTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private OrderJournal journal;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:journal-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V1__initial_schema.sql"),
+                new ClassPathResource("db/migration/V5__order_status_version.sql")).execute(dataSource);
+        jdbcTemplate.update("INSERT INTO users (id, name, email, password) VALUES (1, 'Cliente', 'cliente@example.com', 'x')");
+        jdbcTemplate.update("INSERT INTO orders (id, order_number, user_id, status, version) VALUES (7, 'ORD-7', 1, 'SHIPPED', 3)");
+        jdbcTemplate.update("INSERT INTO order_payments (order_id, payment_method, payment_status, amount) VALUES (7, 'PIX', 'COMPLETED', 10)");
+        new ResourceDatabasePopulator(new ClassPathResource("db/vendor/h2/V7__order_events.sql")).execute(dataSource);
+
+        journal = new OrderJournal();
+        ReflectionTestUtils.setField(journal, "jdbcTemplate", jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    @Test
+    @DisplayName("Should import the current state of the orders placed before the journal")
+    void migration_ShouldImportExistingOrders() {
+        List<OrderJournalEntry> timeline = journal.timeline(7L);
+
+        assertEquals(1, timeline.size());
+        assertEquals(OrderEventType.IMPORTED, timeline.get(0).type());
+        assertEquals(OrderStatus.SHIPPED, timeline.get(0).status());
+        assertEquals(PaymentStatus.COMPLETED, timeline.get(0).paymentStatus());
+        assertEquals(3, timeline.get(0).orderVersion());
+    }
+
+    @Test
+    @DisplayName("Should record every change of an order and return them oldest first")
+    void timeline_ShouldReturnChangesInOrder() {
+        // Arrange
+        Order order = order(20L, OrderStatus.PENDING, PaymentStatus.PENDING, 0L);
+        journal.onOrderCreated(new OrderCreatedEvent(order));
+        order.getPayment().setPaymentStatus(PaymentStatus.COMPLETED);
+        order.setStatus(OrderStatus.PROCESSING);
+        order.setVersion(1L);
+        journal.onOrderStatusChanged(new OrderStatusChangedEvent(order, OrderStatus.PENDING));
+        journal.onOrderPaymentChanged(new OrderPaymentChangedEvent(order));
+        order.getShippingInfo().setTrackingNumber("BR123");
+        order.setVersion(2L);
+        journal.onOrderShippingChanged(new OrderShippingChangedEvent(order));
+        order.setStatus(OrderStatus.CANCELLED);
+        order.setVersion(3L);
+        journal.onOrderStatusChanged(new OrderStatusChangedEvent(order, OrderStatus.PROCESSING));
+
+        // Act
+        List<OrderJournalEntry> timeline = journal.timeline(20L);
+
+        // Assert
+        assertEquals(List.of(OrderEventType.CREATED, OrderEventType.STATUS_CHANGED, OrderEventType.PAYMENT_CHANGED,
+                OrderEventType.SHIPPING_CHANGED, OrderEventType.CANCELLED), timeline.stream().map(OrderJournalEntry::type).toList());
+        assertEquals(PaymentStatus.PENDING, timeline.get(0).paymentStatus());
+        assertEquals(OrderStatus.PROCESSING, timeline.get(2).status());
+        assertEquals("BR123", timeline.get(3).trackingNumber());
+        assertEquals(OrderStatus.CANCELLED, timeline.get(4).status());
+        assertEquals(3, timeline.get(4).orderVersion());
+        assertTrue(journal.timeline(21L).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should replay the entries of a time range across orders")
+    void replay_ShouldStreamRangeInTimeOrder() {
+        // Arrange
+        journal.onOrderCreated(new OrderCreatedEvent(order(30L, OrderStatus.PENDING, PaymentStatus.PENDING, 0L)));
+        journal.onOrderCreated(new OrderCreatedEvent(order(31L, OrderStatus.PENDING, null, 0L)));
+        LocalDateTime now = LocalDateTime.now();
+        List<OrderJournalEntry> replayed = new ArrayList<>();
+
+        // Act
+        journal.replay(now.minusMinutes(5), now.plusMinutes(5), replayed::add);
+
+        // Assert: the order imported by the migration comes first
+        assertEquals(List.of(7L, 30L, 31L), replayed.stream().map(OrderJournalEntry::orderId).toList());
+        assertEquals(OrderEventType.CREATED, replayed.get(1).type());
+        assertNull(replayed.get(2).paymentStatus());
+    }
+
+    private Order order(Long id, OrderStatus status, PaymentStatus paymentStatus, Long version) {
+        Order order = new Order();
+        order.setId(id);
+        order.setStatus(status);
+        order.setVersion(version);
+        if (paymentStatus != null) {
+            OrderPayment payment = new OrderPayment();
+            payment.setPaymentStatus(paymentStatus);
+            order.setPayment(payment);
+        }
+        order.setShippingInfo(new ShippingInfo());
+        return order;
+    }
+}
@@ -0,0 +1,119 @@
+package com.marketplace.salesapi.order.number;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnowflakeOrderNumberGeneratorTest {
+
+    private static final long NOW = SnowflakeOrderNumberGenerator.EPOCH + 86_400_000L;
+
+    @Test
+    @DisplayName("Should issue unique, increasing numbers from many threads at once")
+    void next_ShouldBeUniqueAndOrdered_UnderConcurrentBursts() throws Exception {
+        // Arrange
+        int threads = 16;
+        int perThread = 20_000;
+        SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(7, System::currentTimeMillis);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Callable<List<String>>> tasks = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            tasks.add(() -> {
+                start.await();
+                List<String> numbers = new ArrayList<>(perThread);
+                for (int i = 0; i < perThread; i++) {
+                    numbers.add(generator.next());
+                }
+                return numbers;
+            });
+        }
+
+        // Act
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<List<String>>> results = new ArrayList<>();
+        try {
+            for (Callable<List<String>> task : tasks) {
+                results.add(executor.submit(task));
+            }
+            start.countDown();
+
+            // Assert
+            Set<String> all = new HashSet<>();
+            for (Future<List<String>> result : results) {
+                List<String> numbers = result.get();
+                for (int i = 1; i < numbers.size(); i++) {
+                    assertTrue(numbers.get(i).compareTo(numbers.get(i - 1)) > 0, "numbers of a thread must increase");
+                }
+                all.addAll(numbers);
+            }
+            assertEquals(threads * perThread, all.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep counting when the clock stalls or moves backwards")
+    void next_ShouldStayUnique_WhenClockDoesNotAdvance() {
+        // Arrange
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(1, clock::get);
+        Set<String> numbers = new HashSet<>();
+        String previous = "";
+
+        // Act & Assert: 3 milliseconds worth of sequence on a frozen clock, then a step back
+        for (int i = 0; i < 3 * 4096; i++) {
+            if (i == 2 * 4096) {
+                clock.set(NOW - 1_000);
+            }
+            String number = generator.next();
+            assertTrue(number.compareTo(previous) > 0);
+            assertTrue(numbers.add(number));
+            previous = number;
+        }
+    }
+
+    @Test
+    @DisplayName("Should never collide across nodes in the same millisecond")
+    void next_ShouldDifferAcrossNodes() {
+        // Arrange
+        SnowflakeOrderNumberGenerator node1 = new SnowflakeOrderNumberGenerator(1, () -> NOW);
+        SnowflakeOrderNumberGenerator node2 = new SnowflakeOrderNumberGenerator(2, () -> NOW);
+        Set<String> numbers = new HashSet<>();
+
+        // Act
+        for (int i = 0; i < 1000; i++) {
+            numbers.add(node1.next());
+            numbers.add(node2.next());
+        }
+
+        // Assert
+        assertEquals(2000, numbers.size());
+    }
+
+    @Test
+    @DisplayName("Should format fixed-width numbers with the prefix and reject invalid node ids")
+    void next_ShouldFormatNumbers() {
+        SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(SnowflakeOrderNumberGenerator.MAX_NODE_ID, () -> NOW);
+
+        String number = generator.next();
+
+        assertTrue(number.matches("ORD-[0-9A-Z]{13}"), number);
+        assertEquals("ORD-000000000000Z", SnowflakeOrderNumberGenerator.format(35));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeOrderNumberGenerator(-1, () -> NOW));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SnowflakeOrderNumberGenerator(SnowflakeOrderNumberGenerator.MAX_NODE_ID + 1, () -> NOW));
+    }
+}
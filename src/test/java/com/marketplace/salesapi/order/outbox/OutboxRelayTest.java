@@ -0,0 +1,127 @@
+package com.marketplace.salesapi.order.outbox;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Connection;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs the outbox migration on an in-memory H2, which supports FOR UPDATE SKIP LOCKED
+class OutboxRelayTest {
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private OutboxRelay relay;
+    private final List<OutboxMessage> delivered = new ArrayList<>();
+    private boolean sinkFails;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:outbox-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=100");
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V6__order_outbox.sql")).execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        relay = new OutboxRelay();
+        ReflectionTestUtils.setField(relay, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(relay, "transactionManager", new DataSourceTransactionManager(dataSource));
+        ReflectionTestUtils.setField(relay, "sinks", List.<OutboxSink>of(messages -> {
+            if (sinkFails) {
+                throw new IllegalStateException("sink down");
+            }
+            delivered.addAll(messages);
+        }));
+        ReflectionTestUtils.setField(relay, "enabled", true);
+        ReflectionTestUtils.setField(relay, "batchSize", 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    @Test
+    @DisplayName("Should deliver each order's events in version order and remove them")
+    void drain_ShouldDeliverInOrderVersionOrder() {
+        // Arrange: order 16 and order 32 share partition 0, events inserted out of order
+        insert(32L, 1, OutboxEventType.ORDER_STATUS_CHANGED);
+        insert(16L, 2, OutboxEventType.ORDER_PAYMENT_CHANGED);
+        insert(16L, 0, OutboxEventType.ORDER_CREATED);
+        insert(32L, 0, OutboxEventType.ORDER_CREATED);
+        insert(16L, 1, OutboxEventType.ORDER_STATUS_CHANGED);
+
+        // Act
+        int count = relay.drain(0);
+
+        // Assert
+        assertEquals(5, count);
+        assertEquals(List.of("16:0", "16:1", "16:2", "32:0", "32:1"),
+                delivered.stream().map(message -> message.orderId() + ":" + message.orderVersion()).toList());
+        assertEquals(OutboxEventType.ORDER_CREATED, delivered.get(0).type());
+        assertEquals(0, pending());
+    }
+
+    @Test
+    @DisplayName("Should keep the events of a failed batch and deliver them on the next run")
+    void drain_ShouldRetryBatch_WhenSinkFails() {
+        // Arrange
+        insert(16L, 0, OutboxEventType.ORDER_CREATED);
+        insert(16L, 1, OutboxEventType.ORDER_STATUS_CHANGED);
+        sinkFails = true;
+
+        // Act
+        assertEquals(0, relay.drain(0));
+        sinkFails = false;
+        relay.relay();
+
+        // Assert
+        assertEquals(2, delivered.size());
+        assertEquals(0, delivered.get(0).orderVersion());
+        assertEquals(0, pending());
+    }
+
+    @Test
+    @DisplayName("Should skip a partition another relay is draining")
+    void drain_ShouldSkipPartition_WhenClaimedElsewhere() throws Exception {
+        // Arrange
+        insert(16L, 0, OutboxEventType.ORDER_CREATED);
+        insert(17L, 0, OutboxEventType.ORDER_CREATED);
+
+        try (Connection other = dataSource.getConnection()) {
+            other.setAutoCommit(false);
+            other.createStatement().executeQuery(
+                    "SELECT partition_id FROM order_outbox_partitions WHERE partition_id = 0 FOR UPDATE").close();
+
+            // Act
+            relay.relay();
+
+            // Assert: partition 1 (order 17) went out, partition 0 waits for the other relay
+            assertEquals(List.of(17L), delivered.stream().map(OutboxMessage::orderId).toList());
+            other.rollback();
+        }
+        assertEquals(1, relay.drain(0));
+        assertEquals(0, pending());
+    }
+
+    private void insert(Long orderId, long version, OutboxEventType type) {
+        jdbcTemplate.update("INSERT INTO order_outbox (partition_id, order_id, order_version, event_type, payload, created_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", OrderOutbox.partitionOf(orderId), orderId, version, type.name(),
+                "{\"orderId\":" + orderId + "}", LocalDateTime.now());
+    }
+
+    private int pending() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_outbox", Integer.class);
+    }
+}
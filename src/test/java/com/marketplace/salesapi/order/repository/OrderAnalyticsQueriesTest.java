@@ -0,0 +1,194 @@
+package com.marketplace.salesapi.order.repository;
+
+import com.marketplace.salesapi.common.model.Money;
+import com.marketplace.salesapi.config.TestRepositoryConfig;
+import com.marketplace.salesapi.order.dto.ProductSalesDto;
+import com.marketplace.salesapi.order.dto.StoreSalesDto;
+import com.marketplace.salesapi.order.model.Order;
+import com.marketplace.salesapi.order.model.OrderItem;
+import com.marketplace.salesapi.order.model.OrderStatus;
+import com.marketplace.salesapi.order.repository.projection.MonthCountView;
+import com.marketplace.salesapi.order.repository.projection.SalesTotalsView;
+import com.marketplace.salesapi.order.repository.projection.StatusCountView;
+import com.marketplace.salesapi.product.model.Product;
+import com.marketplace.salesapi.product.model.ProductStatus;
+import com.marketplace.salesapi.store.model.Store;
+import com.marketplace.salesapi.store.model.StoreStatus;
+import com.marketplace.salesapi.user.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(TestRepositoryConfig.class)
+class OrderAnalyticsQueriesTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2024, 2, 29, 23, 59, 59);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User customer;
+    private Store storeA;
+    private Store storeB;
+    private Product productA1;
+    private Product productA2;
+    private Product productB1;
+
+    @BeforeEach
+    void setUp() {
+        customer = new User();
+        customer.setName("Customer");
+        customer.setEmail("customer@example.com");
+        customer.setPassword("password");
+        entityManager.persist(customer);
+
+        storeA = store("Store A");
+        storeB = store("Store B");
+        productA1 = product("A1", "10.00", storeA);
+        productA2 = product("A2", "5.00", storeA);
+        productB1 = product("B1", "20.00", storeB);
+
+        order(LocalDateTime.of(2024, 1, 10, 9, 0), OrderStatus.PENDING, Map.of(productA1, 2, productB1, 1));
+        order(LocalDateTime.of(2024, 1, 20, 9, 0), OrderStatus.DELIVERED, Map.of(productA2, 3));
+        order(LocalDateTime.of(2024, 2, 5, 9, 0), OrderStatus.DELIVERED, Map.of(productA1, 1, productA2, 1));
+        // Outside the range
+        order(LocalDateTime.of(2023, 12, 31, 23, 0), OrderStatus.PENDING, Map.of(productB1, 5));
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Should count and sum the orders created in the range")
+    void orderAggregates_ShouldCoverOrdersInRange() {
+        // Act
+        SalesTotalsView totals = orderRepository.sumOrdersInDateRange(START, END);
+        Map<OrderStatus, Long> byStatus = orderRepository.countOrdersByStatusInDateRange(START, END).stream()
+                .collect(Collectors.toMap(StatusCountView::getStatus, StatusCountView::getOrderCount));
+        Map<String, Long> byMonth = byMonth(orderRepository.countOrdersByMonthInDateRange(START, END));
+
+        // Assert
+        assertEquals(3L, totals.getOrderCount());
+        assertAmount("70.00", totals.getRevenue());
+        assertEquals(Map.of(OrderStatus.PENDING, 1L, OrderStatus.DELIVERED, 2L), byStatus);
+        assertEquals(Map.of("2024-1", 2L, "2024-2", 1L), byMonth);
+    }
+
+    @Test
+    @DisplayName("Should count each order once per store and sum only the store's items")
+    void storeAggregates_ShouldCountDistinctOrders() {
+        // Act
+        SalesTotalsView storeATotals = orderItemRepository.sumStoreSalesInDateRange(storeA.getId(), START, END);
+        SalesTotalsView storeBTotals = orderItemRepository.sumStoreSalesInDateRange(storeB.getId(), START, END);
+        Map<OrderStatus, Long> byStatus = orderItemRepository
+                .countStoreOrdersByStatusInDateRange(storeA.getId(), START, END).stream()
+                .collect(Collectors.toMap(StatusCountView::getStatus, StatusCountView::getOrderCount));
+        Map<String, Long> byMonth = byMonth(orderItemRepository.countStoreOrdersByMonthInDateRange(storeA.getId(), START, END));
+
+        // Assert
+        assertEquals(3L, storeATotals.getOrderCount());
+        assertAmount("50.00", storeATotals.getRevenue());
+        assertEquals(1L, storeBTotals.getOrderCount());
+        assertAmount("20.00", storeBTotals.getRevenue());
+        assertEquals(Map.of(OrderStatus.PENDING, 1L, OrderStatus.DELIVERED, 2L), byStatus);
+        assertEquals(Map.of("2024-1", 2L, "2024-2", 1L), byMonth);
+    }
+
+    @Test
+    @DisplayName("Should rank stores by revenue and products by quantity sold")
+    void topSelling_ShouldRankGroupedRows() {
+        // Act
+        List<StoreSalesDto> stores = orderItemRepository.findTopSellingStores(START, END, PageRequest.of(0, 10));
+        List<ProductSalesDto> products = orderItemRepository.findTopSellingProducts(START, END, PageRequest.of(0, 2));
+
+        // Assert
+        assertEquals(List.of(storeA.getId(), storeB.getId()), stores.stream().map(StoreSalesDto::getStoreId).toList());
+        assertEquals("Store A", stores.get(0).getStoreName());
+        assertEquals(3L, stores.get(0).getTotalOrders());
+        assertAmount("50.00", stores.get(0).getTotalRevenue());
+        assertEquals(1L, stores.get(1).getTotalOrders());
+        assertAmount("20.00", stores.get(1).getTotalRevenue());
+
+        assertEquals(List.of(productA2.getId(), productA1.getId()),
+                products.stream().map(ProductSalesDto::getProductId).toList());
+        assertEquals(4L, products.get(0).getQuantitySold());
+        assertAmount("20.00", products.get(0).getTotalRevenue());
+        assertEquals(3L, products.get(1).getQuantitySold());
+        assertAmount("30.00", products.get(1).getTotalRevenue());
+    }
+
+    private static Map<String, Long> byMonth(List<MonthCountView> rows) {
+        return rows.stream().collect(Collectors.toMap(
+                row -> row.getOrderYear() + "-" + row.getOrderMonth(), MonthCountView::getOrderCount));
+    }
+
+    private static void assertAmount(String expected, BigDecimal actual) {
+        assertNotNull(actual);
+        assertEquals(0, new BigDecimal(expected).compareTo(actual), () -> "expected " + expected + " but was " + actual);
+    }
+
+    private Store store(String name) {
+        Store store = new Store();
+        store.setName(name);
+        store.setStatus(StoreStatus.ACTIVE);
+        store.setOwner(customer);
+        return entityManager.persist(store);
+    }
+
+    private Product product(String sku, String price, Store store) {
+        Product product = new Product();
+        product.setName("Product " + sku);
+        product.setSku(sku);
+        product.setPrice(Money.of(price));
+        product.setStockQuantity(100);
+        product.setStatus(ProductStatus.ACTIVE);
+        product.setStore(store);
+        return entityManager.persist(product);
+    }
+
+    private void order(LocalDateTime createdAt, OrderStatus status, Map<Product, Integer> quantities) {
+        Order order = new Order();
+        order.setUser(customer);
+        order.setStatus(status);
+        entityManager.persist(order);
+        quantities.forEach((product, quantity) -> {
+            OrderItem item = new OrderItem();
+            item.setProduct(product);
+            item.setProductName(product.getName());
+            item.setQuantity(quantity);
+            item.setUnitPrice(product.getPrice());
+            item.calculateSubtotal();
+            order.addItem(item);
+            entityManager.persist(item);
+        });
+        entityManager.flush();
+        // created_at is set on persist
+        jdbcTemplate.update("UPDATE orders SET created_at = ? WHERE id = ?", Timestamp.valueOf(createdAt), order.getId());
+    }
+}
@@ -0,0 +1,152 @@
+package com.marketplace.salesapi.order.service;
+
+import com.marketplace.salesapi.exception.InsufficientStockException;
+import com.marketplace.salesapi.order.dto.CreateOrderRequest;
+import com.marketplace.salesapi.order.dto.OrderDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GroupCommitCoordinatorTest {
+
+    @Mock
+    private OrderService orderService;
+
+    @InjectMocks
+    private GroupCommitCoordinator coordinator;
+
+    private ExecutorService callers;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(coordinator, "enabled", true);
+        ReflectionTestUtils.setField(coordinator, "window", Duration.ofMillis(200));
+        ReflectionTestUtils.setField(coordinator, "maxBatch", 4);
+        ReflectionTestUtils.setField(coordinator, "concurrency", 1);
+        coordinator.start();
+        callers = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        callers.shutdownNow();
+        coordinator.stop();
+    }
+
+    @Test
+    @DisplayName("Should create concurrent orders in one transaction and give each caller its own order")
+    void createOrder_ShouldCommitConcurrentOrdersTogether() throws Exception {
+        // Arrange
+        when(orderService.createOrders(anyList())).thenAnswer(invocation -> {
+            List<OrderService.NewOrder> orders = invocation.getArgument(0);
+            return orders.stream().map(order -> order(order.userId())).toList();
+        });
+
+        // Act
+        List<Future<OrderDto>> results = new ArrayList<>();
+        for (long userId = 1; userId <= 4; userId++) {
+            long user = userId;
+            results.add(callers.submit(() -> coordinator.createOrder(new CreateOrderRequest(), user)));
+        }
+
+        // Assert
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i + 1L, results.get(i).get().getId());
+        }
+        verify(orderService).createOrders(argThat(orders -> orders.size() == 4));
+        verify(orderService, never()).createOrder(any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Should retry a failed group one order at a time so only the bad order fails")
+    void createOrder_ShouldFallBackToSingleOrders_WhenGroupFails() throws Exception {
+        // Arrange: user 3's order cannot be placed
+        when(orderService.createOrders(anyList())).thenThrow(new InsufficientStockException("Estoque insuficiente"));
+        when(orderService.createOrder(any(), anyLong())).thenAnswer(invocation -> {
+            Long userId = invocation.getArgument(1);
+            if (userId == 3L) {
+                throw new InsufficientStockException("Estoque insuficiente");
+            }
+            return order(userId);
+        });
+
+        // Act
+        List<Future<OrderDto>> results = new ArrayList<>();
+        for (long userId = 1; userId <= 4; userId++) {
+            long user = userId;
+            results.add(callers.submit(() -> coordinator.createOrder(new CreateOrderRequest(), user)));
+        }
+
+        // Assert
+        assertEquals(1L, results.get(0).get().getId());
+        assertEquals(2L, results.get(1).get().getId());
+        Exception failure = assertThrows(Exception.class, () -> results.get(2).get());
+        assertInstanceOf(InsufficientStockException.class, failure.getCause());
+        assertEquals(4L, results.get(3).get().getId());
+        verify(orderService, times(4)).createOrder(any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Should call the service directly when group commit is disabled")
+    void createOrder_ShouldDelegate_WhenDisabled() throws InterruptedException {
+        // Arrange
+        coordinator.stop();
+        ReflectionTestUtils.setField(coordinator, "enabled", false);
+        when(orderService.createOrder(any(), eq(7L))).thenReturn(order(7L));
+
+        // Act
+        OrderDto created = coordinator.createOrder(new CreateOrderRequest(), 7L);
+
+        // Assert
+        assertEquals(7L, created.getId());
+        verify(orderService, never()).createOrders(anyList());
+    }
+
+    @Test
+    @DisplayName("Should create a checkout queued after the collector stopped instead of leaving its caller waiting")
+    void stop_ShouldCreateCheckoutsLeftInQueue() throws Exception {
+        // Arrange: the collector has exited, but the caller still saw the coordinator running
+        ReflectionTestUtils.setField(coordinator, "running", false);
+        ((Thread) ReflectionTestUtils.getField(coordinator, "collector")).join();
+        ReflectionTestUtils.setField(coordinator, "running", true);
+        when(orderService.createOrder(any(), eq(5L))).thenReturn(order(5L));
+        Future<OrderDto> result = callers.submit(() -> coordinator.createOrder(new CreateOrderRequest(), 5L));
+        Collection<?> pending = (Collection<?>) ReflectionTestUtils.getField(coordinator, "pending");
+        while (pending.isEmpty()) {
+            Thread.sleep(5);
+        }
+
+        // Act
+        coordinator.stop();
+
+        // Assert
+        assertEquals(5L, result.get(5, TimeUnit.SECONDS).getId());
+        verify(orderService, never()).createOrders(anyList());
+    }
+
+    private static OrderDto order(Long id) {
+        OrderDto order = new OrderDto();
+        order.setId(id);
+        return order;
+    }
+}
@@ -0,0 +1,229 @@
+package com.marketplace.salesapi.order.service;
+
+import com.marketplace.salesapi.common.model.Money;
+import com.marketplace.salesapi.common.sql.SqlStatementStats;
+import com.marketplace.salesapi.config.DataSourceProxyConfig;
+import com.marketplace.salesapi.config.TestRepositoryConfig;
+import com.marketplace.salesapi.order.dto.OrderDto;
+import com.marketplace.salesapi.order.journal.OrderJournal;
+import com.marketplace.salesapi.order.model.Order;
+import com.marketplace.salesapi.order.model.OrderItem;
+import com.marketplace.salesapi.order.model.OrderPayment;
+import com.marketplace.salesapi.order.model.OrderStatus;
+import com.marketplace.salesapi.order.model.PaymentMethod;
+import com.marketplace.salesapi.order.model.ShippingInfo;
+import com.marketplace.salesapi.product.inventory.InventoryLedger;
+import com.marketplace.salesapi.product.model.Product;
+import com.marketplace.salesapi.product.model.ProductStatus;
+import com.marketplace.salesapi.store.model.Store;
+import com.marketplace.salesapi.store.model.StoreStatus;
+import com.marketplace.salesapi.user.model.User;
+import com.marketplace.salesapi.util.SqlStatementBudget;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Import({TestRepositoryConfig.class, DataSourceProxyConfig.class, OrderService.class, InventoryLedger.class})
+class OrderServiceQueryCountTest {
+
+    // Page query, count query and one query for the items of the whole page
+    private static final long STATEMENTS_PER_PAGE = 3;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private OrderJournal orderJournal;
+
+    @MockBean
+    private OrderDocumentStore orderDocumentStore;
+
+    private User customer;
+    private Store firstStore;
+    private Long firstOrderId;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        customer = new User();
+        customer.setName("Customer");
+        customer.setEmail("customer@example.com");
+        customer.setPassword("password");
+        entityManager.persist(customer);
+
+        firstStore = store("First Store");
+        Store secondStore = store("Second Store");
+        Product[] products = {
+                product("P1", "10.00", firstStore),
+                product("P2", "25.50", secondStore),
+                product("P3", "3.33", firstStore)
+        };
+
+        firstOrderId = order(products[0], products[1]).getId();
+        for (int i = 1; i < 25; i++) {
+            order(products[i % 3], products[(i + 1) % 3]);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        // The first store's sub-orders, as StoreOrderSplitter writes them at checkout
+        jdbcTemplate.update("INSERT INTO store_orders (id, store_id, order_id, status, item_count, store_subtotal, " +
+                "created_at, updated_at, version) SELECT oi.order_id, p.store_id, oi.order_id, 'PENDING', COUNT(*), " +
+                "SUM(oi.subtotal), CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0 FROM order_items oi " +
+                "JOIN products p ON p.id = oi.product_id WHERE p.store_id = ? GROUP BY oi.order_id, p.store_id",
+                firstStore.getId());
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    @DisplayName("Should load a page of orders with a fixed number of statements whatever the page size")
+    void getAllOrders_ShouldRunFixedStatements() {
+        for (int size : new int[]{1, 5, 20}) {
+            // Act
+            statistics.clear();
+            Page<OrderDto> page = orderService.getAllOrders(PageRequest.of(0, size));
+            long statements = statistics.getPrepareStatementCount();
+
+            // Assert
+            assertEquals(size, page.getNumberOfElements());
+            assertEquals(2, page.getContent().get(0).getItems().size());
+            assertNotNull(page.getContent().get(0).getItems().get(0).getProductName());
+            assertEquals(STATEMENTS_PER_PAGE, statements, "page size " + size);
+            entityManager.clear();
+        }
+    }
+
+    @Test
+    @DisplayName("Should list each store order once with a fixed number of statements")
+    // Page and count over store_orders, then the page's orders and their items
+    @SqlStatementBudget(value = 4, maxRepeated = 1)
+    void getOrdersByStore_ShouldRunFixedStatements() {
+        // Act
+        Page<OrderDto> page = orderService.getOrdersByStore(firstStore.getId(), PageRequest.of(0, 10));
+
+        // Assert
+        assertEquals(25, page.getTotalElements());
+        assertEquals(10, page.getContent().stream().map(OrderDto::getId).distinct().count());
+    }
+
+    @Test
+    @DisplayName("Should load a single order with its items, products and stores in one statement")
+    @SqlStatementBudget(1)
+    void getOrderById_ShouldRunOneStatement() {
+        // Act
+        OrderDto order = orderService.getOrderById(firstOrderId);
+
+        // Assert
+        assertEquals(2, order.getItems().size());
+    }
+
+    @Test
+    @DisplayName("Should select only the requested order columns, with the page's related fields in one statement each")
+    // Each listing counts its rows, the rest runs once
+    @SqlStatementBudget(value = 7, maxRepeated = 2)
+    void getAllOrders_ShouldSelectRequestedFieldsOnly(SqlStatementStats stats) {
+        // Act
+        Page<Map<String, Object>> narrow = orderService.getAllOrders("orderNumber,total", PageRequest.of(0, 10));
+        int narrowStatements = stats.getStatements();
+        String narrowShape = stats.getShapes().keySet().stream()
+                .filter(shape -> !shape.contains("count("))
+                .findFirst().orElseThrow();
+        Page<Map<String, Object>> related = orderService.getAllOrders("items,payment,shippingInfo", PageRequest.of(0, 10));
+
+        // Assert
+        // Page and count queries
+        assertEquals(2, narrowStatements, () -> stats.getShapes().toString());
+        String selected = narrowShape.substring(0, narrowShape.indexOf(" from "));
+        assertTrue(selected.contains("order_number") && selected.contains(".total"), narrowShape);
+        assertFalse(selected.contains("notes") || selected.contains("subtotal") || narrowShape.contains(" join "), narrowShape);
+        Map<String, Object> order = narrow.getContent().get(0);
+        assertEquals(Set.of("id", "orderNumber", "total"), order.keySet());
+        assertInstanceOf(BigDecimal.class, order.get("total"));
+
+        // Page and count queries, then the items, payments and shipping infos of the whole page
+        assertEquals(5, stats.getStatements() - narrowStatements, () -> stats.getShapes().toString());
+        assertEquals(10, related.getNumberOfElements());
+        related.forEach(row -> {
+            assertEquals(2, ((List<?>) row.get("items")).size());
+            assertNotNull(row.get("payment"));
+            assertNotNull(row.get("shippingInfo"));
+        });
+    }
+
+    private Store store(String name) {
+        Store store = new Store();
+        store.setName(name);
+        store.setStatus(StoreStatus.ACTIVE);
+        store.setOwner(customer);
+        return entityManager.persist(store);
+    }
+
+    private Product product(String sku, String price, Store store) {
+        Product product = new Product();
+        product.setName("Product " + sku);
+        product.setSku(sku);
+        product.setPrice(Money.of(price));
+        product.setStockQuantity(100);
+        product.setStatus(ProductStatus.ACTIVE);
+        product.setStore(store);
+        return entityManager.persist(product);
+    }
+
+    private Order order(Product first, Product second) {
+        Order order = new Order();
+        order.setUser(customer);
+        order.setStatus(OrderStatus.PENDING);
+        entityManager.persist(order);
+
+        for (Product product : new Product[]{first, second}) {
+            OrderItem item = new OrderItem();
+            item.setProduct(product);
+            item.setProductName(product.getName());
+            item.setQuantity(1);
+            item.setUnitPrice(product.getPrice());
+            item.calculateSubtotal();
+            order.addItem(item);
+            entityManager.persist(item);
+        }
+
+        OrderPayment payment = new OrderPayment();
+        payment.setOrder(order);
+        payment.setPaymentMethod(PaymentMethod.values()[0]);
+        payment.setAmount(order.getTotal());
+        entityManager.persist(payment);
+
+        ShippingInfo shippingInfo = new ShippingInfo();
+        shippingInfo.setOrder(order);
+        shippingInfo.setRecipientName("Customer");
+        entityManager.persist(shippingInfo);
+        return order;
+    }
+}
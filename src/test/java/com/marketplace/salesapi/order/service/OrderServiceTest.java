@@ -1,17 +1,38 @@
 package com.marketplace.salesapi.order.service;
 
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.marketplace.salesapi.common.model.Money;
+import com.marketplace.salesapi.exception.OrderStatusConflictException;
 import com.marketplace.salesapi.exception.ResourceNotFoundException;
 import com.marketplace.salesapi.exception.UnauthorizedException;
+import com.marketplace.salesapi.order.dto.BulkOrderUpdateDto;
+import com.marketplace.salesapi.order.dto.BulkOrderUpdateItem;
+import com.marketplace.salesapi.order.dto.BulkOrderUpdateRequest;
 import com.marketplace.salesapi.order.dto.CreateOrderRequest;
 import com.marketplace.salesapi.order.dto.OrderDto;
+import com.marketplace.salesapi.order.dto.OrderTimelineEntryDto;
+import com.marketplace.salesapi.order.dto.StoreOrderDto;
 import com.marketplace.salesapi.order.dto.UpdateOrderStatusRequest;
+import com.marketplace.salesapi.order.dto.UpdateStoreOrderRequest;
+import com.marketplace.salesapi.order.event.OrderStatusChangedEvent;
+import com.marketplace.salesapi.order.journal.OrderEventType;
+import com.marketplace.salesapi.order.journal.OrderJournal;
+import com.marketplace.salesapi.order.journal.OrderJournalEntry;
 import com.marketplace.salesapi.order.model.Order;
 import com.marketplace.salesapi.order.model.OrderStatus;
+import com.marketplace.salesapi.order.model.PaymentStatus;
+import com.marketplace.salesapi.order.model.StoreOrder;
 import com.marketplace.salesapi.order.repository.OrderItemRepository;
 import com.marketplace.salesapi.order.repository.OrderPaymentRepository;
 import com.marketplace.salesapi.order.repository.OrderRepository;
 import com.marketplace.salesapi.order.repository.ShippingInfoRepository;
+import com.marketplace.salesapi.order.repository.StoreOrderRepository;
+import com.marketplace.salesapi.order.repository.projection.OrderStateView;
+import com.marketplace.salesapi.order.repository.projection.OrderStatusView;
+import com.marketplace.salesapi.product.inventory.InventoryLedger;
 import com.marketplace.salesapi.product.repository.ProductRepository;
+import com.marketplace.salesapi.store.model.Store;
+import com.marketplace.salesapi.store.repository.StoreRepository;
 import com.marketplace.salesapi.user.model.ERole;
 import com.marketplace.salesapi.user.model.User;
 import com.marketplace.salesapi.user.repository.UserRepository;
@@ -23,11 +44,21 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -55,6 +86,27 @@ class OrderServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private InventoryLedger inventoryLedger;
+
+    @Mock
+    private StoreRepository storeRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private OrderJournal orderJournal;
+
+    @Mock
+    private StoreOrderRepository storeOrderRepository;
+
+    @Mock
+    private OrderDocumentStore orderDocumentStore;
+
     @InjectMocks
     private OrderService orderService;
 
@@ -100,6 +152,89 @@ class OrderServiceTest {
         verify(orderRepository).findById(99L);
     }
 
+    @Test
+    @DisplayName("Should return the timeline of an order with the status before each change")
+    void getOrderTimeline_ShouldDerivePreviousStatus() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        when(orderJournal.timeline(1L)).thenReturn(List.of(
+                new OrderJournalEntry(1L, 1L, now, 0, OrderEventType.CREATED, OrderStatus.PENDING, PaymentStatus.PENDING, null),
+                new OrderJournalEntry(2L, 1L, now, 1, OrderEventType.STATUS_CHANGED, OrderStatus.PROCESSING, PaymentStatus.COMPLETED, null),
+                new OrderJournalEntry(3L, 1L, now, 1, OrderEventType.PAYMENT_CHANGED, OrderStatus.PROCESSING, PaymentStatus.COMPLETED, null)));
+
+        // Act
+        List<OrderTimelineEntryDto> timeline = orderService.getOrderTimeline(1L);
+
+        // Assert
+        assertEquals(3, timeline.size());
+        assertNull(timeline.get(0).getPreviousStatus());
+        assertEquals(OrderStatus.PENDING, timeline.get(1).getPreviousStatus());
+        assertNull(timeline.get(2).getPreviousStatus());
+        assertEquals(PaymentStatus.COMPLETED, timeline.get(2).getPaymentStatus());
+        verify(orderRepository, never()).findStateById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should throw exception when getting the timeline of a non-existent order")
+    void getOrderTimeline_ShouldThrowException_WhenOrderDoesNotExist() {
+        // Arrange
+        when(orderJournal.timeline(99L)).thenReturn(List.of());
+        when(orderRepository.findStateById(99L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> orderService.getOrderTimeline(99L));
+    }
+
+    @Test
+    @DisplayName("Should list a user's orders from their documents, converting only orders without one")
+    void getOrderDocumentsByUser_ShouldConvertOnlyMissingDocuments() {
+        // Arrange
+        Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt"));
+        when(orderRepository.findIdsByUserId(1L, pageable)).thenReturn(new PageImpl<>(List.of(1L, 2L), pageable, 2));
+        when(orderDocumentStore.findAllById(List.of(1L, 2L)))
+                .thenReturn(new HashMap<>(Map.of(2L, "{\"id\":2}".getBytes(StandardCharsets.UTF_8))));
+        when(orderRepository.findByIdIn(List.of(1L))).thenReturn(List.of(testOrder));
+        when(orderDocumentStore.serialize(any(OrderDto.class))).thenReturn("{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+
+        // Act
+        Page<RawValue> result = orderService.getOrderDocumentsByUser(1L, pageable);
+
+        // Assert
+        assertEquals(2, result.getTotalElements());
+        assertEquals("{\"id\":1}", result.getContent().get(0).rawValue());
+        assertEquals("{\"id\":2}", result.getContent().get(1).rawValue());
+        verify(orderRepository).fetchItems(List.of(testOrder));
+    }
+
+    @Test
+    @DisplayName("Should list a store's orders from store_orders with the store's part")
+    void getOrdersByStore_ShouldUseStoreProjection() {
+        // Arrange
+        StoreOrder row = mock(StoreOrder.class);
+        when(row.getOrderId()).thenReturn(1L);
+        when(row.getStoreSubtotal()).thenReturn(Money.of("12.50"));
+        Pageable expected = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "storeSubtotal", "id"));
+        when(storeOrderRepository.findByStoreId(5L, expected)).thenReturn(new PageImpl<>(List.of(row), expected, 1));
+        when(orderRepository.findByIdIn(List.of(1L))).thenReturn(List.of(testOrder));
+
+        // Act
+        Page<OrderDto> result = orderService.getOrdersByStore(5L, PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "total")));
+
+        // Assert
+        assertEquals(1, result.getTotalElements());
+        assertEquals(testOrder.getId(), result.getContent().get(0).getId());
+        assertEquals(new BigDecimal("12.50"), result.getContent().get(0).getStoreOrder().getSubtotal());
+        verify(orderRepository).fetchItems(List.of(testOrder));
+    }
+
+    @Test
+    @DisplayName("Should reject sorting a store's orders by a property store_orders does not have")
+    void getOrdersByStore_ShouldThrowException_WhenSortIsNotSupported() {
+        assertThrows(IllegalArgumentException.class,
+                () -> orderService.getOrdersByStore(5L, PageRequest.of(0, 10, Sort.by("notes"))));
+        verifyNoInteractions(storeOrderRepository);
+    }
+
     @Test
     @DisplayName("Should get all orders paginated")
     void getAllOrders_ShouldReturnPageOfOrders() {
@@ -120,14 +255,40 @@ class OrderServiceTest {
     @DisplayName("Should cancel order when user is authorized")
     void cancelOrder_ShouldCancelOrder_WhenUserIsAuthorized() {
         // Arrange
-        when(orderRepository.findById(anyLong())).thenReturn(Optional.of(testOrder));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(customer));
+        when(orderRepository.transitionStatus(eq(1L), eq(1L), eq(EnumSet.of(OrderStatus.PENDING, OrderStatus.PROCESSING)),
+                eq(OrderStatus.CANCELLED), isNull(), any(LocalDateTime.class))).thenReturn(1);
+        testOrder.setStatus(OrderStatus.CANCELLED);
+        testOrder.setPreviousStatus(OrderStatus.PENDING);
+        testOrder.setStockReserved(true);
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
         
         // Act
         orderService.cancelOrder(1L, 1L); // Customer cancelling their own order
         
         // Assert
-        assertEquals(OrderStatus.CANCELLED, testOrder.getStatus());
-        verify(orderRepository).save(testOrder);
+        verify(inventoryLedger).restock(anyMap());
+        verify(eventPublisher).publishEvent(any(OrderStatusChangedEvent.class));
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    @DisplayName("Should not restock an order placed before stock was reserved")
+    void cancelOrder_ShouldNotRestock_WhenStockWasNeverReserved() {
+        // Arrange
+        when(userRepository.findById(1L)).thenReturn(Optional.of(customer));
+        when(orderRepository.transitionStatus(eq(1L), eq(1L), anySet(), eq(OrderStatus.CANCELLED), isNull(),
+                any(LocalDateTime.class))).thenReturn(1);
+        testOrder.setStatus(OrderStatus.CANCELLED);
+        testOrder.setPreviousStatus(OrderStatus.PENDING);
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+        
+        // Act
+        orderService.cancelOrder(1L, 1L);
+        
+        // Assert
+        verifyNoInteractions(inventoryLedger);
+        verify(eventPublisher).publishEvent(any(OrderStatusChangedEvent.class));
     }
     
     @Test
@@ -137,19 +298,43 @@ class OrderServiceTest {
         User anotherUser = TestUtil.createTestUser("another@example.com", ERole.ROLE_CUSTOMER);
         anotherUser.setId(3L);
         
-        when(orderRepository.findById(anyLong())).thenReturn(Optional.of(testOrder));
+        when(userRepository.findById(3L)).thenReturn(Optional.of(anotherUser));
+        when(orderRepository.transitionStatus(eq(1L), eq(3L), anySet(), eq(OrderStatus.CANCELLED), isNull(),
+                any(LocalDateTime.class))).thenReturn(0);
+        OrderStateView state = state(1L, OrderStatus.PENDING);
+        when(orderRepository.findStateById(1L)).thenReturn(Optional.of(state));
         
         // Act & Assert
         assertThrows(UnauthorizedException.class, () -> orderService.cancelOrder(1L, 3L));
-        verify(orderRepository, never()).save(any(Order.class));
+        verify(orderRepository, never()).findById(anyLong());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Should reject cancelling an order that has already shipped")
+    void cancelOrder_ShouldThrowConflict_WhenStatusDoesNotAllowIt() {
+        // Arrange
+        when(userRepository.findById(1L)).thenReturn(Optional.of(customer));
+        when(orderRepository.transitionStatus(eq(1L), eq(1L), anySet(), eq(OrderStatus.CANCELLED), isNull(),
+                any(LocalDateTime.class))).thenReturn(0);
+        OrderStateView state = state(1L, OrderStatus.SHIPPED);
+        when(orderRepository.findStateById(1L)).thenReturn(Optional.of(state));
+        
+        // Act & Assert
+        assertThrows(OrderStatusConflictException.class, () -> orderService.cancelOrder(1L, 1L));
+        verifyNoInteractions(inventoryLedger, eventPublisher);
     }
 
     @Test
     @DisplayName("Should update order status when user is authorized")
     void updateOrderStatus_ShouldUpdateStatus_WhenUserIsAuthorized() {
         // Arrange
-        when(orderRepository.findById(anyLong())).thenReturn(Optional.of(testOrder));
-        when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(customer));
+        when(orderRepository.transitionStatus(eq(1L), eq(1L), eq(EnumSet.of(OrderStatus.PENDING, OrderStatus.PROCESSING)),
+                eq(OrderStatus.PROCESSING), isNull(), any(LocalDateTime.class))).thenReturn(1);
+        testOrder.setStatus(OrderStatus.PROCESSING);
+        testOrder.setPreviousStatus(OrderStatus.PENDING);
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
         
         UpdateOrderStatusRequest request = new UpdateOrderStatusRequest();
         request.setStatus(OrderStatus.PROCESSING);
@@ -159,7 +344,157 @@ class OrderServiceTest {
         
         // Assert
         assertNotNull(result);
-        assertEquals(OrderStatus.PROCESSING, testOrder.getStatus());
-        verify(orderRepository).save(testOrder);
+        assertEquals(OrderStatus.PROCESSING, result.getStatus());
+        verify(eventPublisher).publishEvent(any(OrderStatusChangedEvent.class));
+        verify(orderDocumentStore).stage(eq(testOrder), eq(false), any());
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    @DisplayName("Should report why each order of a bulk update was left unchanged")
+    void bulkUpdateStoreOrders_ShouldReportEachOrder() {
+        // Arrange
+        Store store = TestUtil.createTestStore(customer);
+        store.setId(5L);
+        when(storeRepository.findById(5L)).thenReturn(Optional.of(store));
+        OrderStatusView processing = statusView(10L, OrderStatus.PROCESSING);
+        OrderStatusView pending = statusView(11L, OrderStatus.PENDING);
+        when(orderRepository.findStatusesInStore(eq(5L), anyList())).thenReturn(List.of(processing, pending));
+        // Order 10 is moved by a concurrent request between the read and the update
+        when(jdbcTemplate.batchUpdate(startsWith("UPDATE orders SET previous_status"), anyList(), any(int[].class)))
+                .thenReturn(new int[]{0});
+        
+        BulkOrderUpdateRequest request = new BulkOrderUpdateRequest();
+        request.setOrders(List.of(bulkItem(10L, OrderStatus.SHIPPED), bulkItem(11L, OrderStatus.DELIVERED),
+                bulkItem(12L, OrderStatus.SHIPPED)));
+        
+        // Act
+        BulkOrderUpdateDto result = orderService.bulkUpdateStoreOrders(5L, request, 1L);
+        
+        // Assert
+        assertEquals(0, result.getUpdated());
+        assertEquals(3, result.getFailed());
+        assertEquals("O pedido foi alterado por outra requisição", result.getResults().get(0).getError());
+        assertEquals(OrderStatus.PENDING, result.getResults().get(1).getStatus());
+        assertNotNull(result.getResults().get(1).getError());
+        assertEquals("Pedido não encontrado na loja", result.getResults().get(2).getError());
+        verify(orderRepository, never()).findByIdIn(anyCollection());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Should leave orders shared with other stores out of a bulk update")
+    void bulkUpdateStoreOrders_ShouldSkipOrdersSharedWithOtherStores() {
+        // Arrange
+        Store store = TestUtil.createTestStore(customer);
+        store.setId(5L);
+        when(storeRepository.findById(5L)).thenReturn(Optional.of(store));
+        OrderStatusView shared = statusView(10L, OrderStatus.PENDING);
+        when(orderRepository.findStatusesInStore(eq(5L), anyList())).thenReturn(List.of(shared));
+        when(storeOrderRepository.findOrderIdsSharedWithOtherStores(eq(5L), anyList())).thenReturn(List.of(10L));
+        
+        BulkOrderUpdateRequest request = new BulkOrderUpdateRequest();
+        request.setOrders(List.of(bulkItem(10L, OrderStatus.CANCELLED)));
+        
+        // Act
+        BulkOrderUpdateDto result = orderService.bulkUpdateStoreOrders(5L, request, 1L);
+        
+        // Assert
+        assertEquals(0, result.getUpdated());
+        assertEquals(OrderStatus.PENDING, result.getResults().get(0).getStatus());
+        assertEquals("Pedido com itens de outras lojas: atualize a parte da loja individualmente",
+                result.getResults().get(0).getError());
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE orders SET previous_status"), eq(List.of()), any(int[].class));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Should reject a bulk update from a seller who does not own the store")
+    void bulkUpdateStoreOrders_ShouldThrowException_WhenUserDoesNotOwnStore() {
+        // Arrange
+        Store store = TestUtil.createTestStore(admin);
+        store.setId(5L);
+        when(storeRepository.findById(5L)).thenReturn(Optional.of(store));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(customer));
+        
+        BulkOrderUpdateRequest request = new BulkOrderUpdateRequest();
+        request.setOrders(List.of(bulkItem(10L, OrderStatus.SHIPPED)));
+        
+        // Act & Assert
+        assertThrows(UnauthorizedException.class, () -> orderService.bulkUpdateStoreOrders(5L, request, 1L));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Should ship the parent order once every store has shipped its part")
+    void updateStoreOrder_ShouldShipParent_WhenEveryStoreShipped() {
+        // Arrange
+        Store store = TestUtil.createTestStore(customer);
+        store.setId(5L);
+        when(storeRepository.findById(5L)).thenReturn(Optional.of(store));
+        when(storeOrderRepository.transitionStatus(eq(5L), eq(1L), eq(EnumSet.of(OrderStatus.PROCESSING, OrderStatus.SHIPPED)),
+                eq(OrderStatus.SHIPPED), eq("BR123"), any(LocalDateTime.class), isNull(), any(LocalDateTime.class))).thenReturn(1);
+        when(storeOrderRepository.findStatusesByOrderId(1L)).thenReturn(List.of(OrderStatus.SHIPPED, OrderStatus.DELIVERED));
+        when(orderRepository.transitionStatus(eq(1L), isNull(), eq(EnumSet.of(OrderStatus.PROCESSING)),
+                eq(OrderStatus.SHIPPED), isNull(), any(LocalDateTime.class))).thenReturn(1);
+        testOrder.setStatus(OrderStatus.SHIPPED);
+        testOrder.setPreviousStatus(OrderStatus.PROCESSING);
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+        StoreOrder row = mock(StoreOrder.class);
+        when(row.getStatus()).thenReturn(OrderStatus.SHIPPED);
+        when(storeOrderRepository.findByStoreIdAndOrderId(5L, 1L)).thenReturn(Optional.of(row));
+        
+        UpdateStoreOrderRequest request = new UpdateStoreOrderRequest();
+        request.setStatus(OrderStatus.SHIPPED);
+        request.setTrackingNumber("BR123");
+        
+        // Act
+        StoreOrderDto result = orderService.updateStoreOrder(5L, 1L, request, 1L);
+        
+        // Assert
+        assertEquals(OrderStatus.SHIPPED, result.getStatus());
+        verify(eventPublisher).publishEvent(any(OrderStatusChangedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Should refuse to ship a store's part of an order that is not paid yet")
+    void updateStoreOrder_ShouldThrowConflict_WhenSubOrderIsPending() {
+        // Arrange
+        Store store = TestUtil.createTestStore(customer);
+        store.setId(5L);
+        when(storeRepository.findById(5L)).thenReturn(Optional.of(store));
+        when(storeOrderRepository.transitionStatus(anyLong(), anyLong(), anySet(), any(), any(), any(), any(), any()))
+                .thenReturn(0);
+        StoreOrder row = mock(StoreOrder.class);
+        when(row.getStatus()).thenReturn(OrderStatus.PENDING);
+        when(storeOrderRepository.findByStoreIdAndOrderId(5L, 1L)).thenReturn(Optional.of(row));
+        
+        UpdateStoreOrderRequest request = new UpdateStoreOrderRequest();
+        request.setStatus(OrderStatus.SHIPPED);
+        
+        // Act & Assert
+        assertThrows(OrderStatusConflictException.class, () -> orderService.updateStoreOrder(5L, 1L, request, 1L));
+        verify(orderRepository, never()).transitionStatus(anyLong(), any(), anySet(), any(), any(), any());
+    }
+
+    private static BulkOrderUpdateItem bulkItem(Long orderId, OrderStatus status) {
+        BulkOrderUpdateItem item = new BulkOrderUpdateItem();
+        item.setOrderId(orderId);
+        item.setStatus(status);
+        return item;
+    }
+
+    private static OrderStatusView statusView(Long id, OrderStatus status) {
+        OrderStatusView view = mock(OrderStatusView.class);
+        when(view.getId()).thenReturn(id);
+        when(view.getStatus()).thenReturn(status);
+        return view;
+    }
+
+    private static OrderStateView state(Long userId, OrderStatus status) {
+        OrderStateView state = mock(OrderStateView.class);
+        when(state.getUserId()).thenReturn(userId);
+        lenient().when(state.getStatus()).thenReturn(status);
+        return state;
     }
 } 
\ No newline at end of file
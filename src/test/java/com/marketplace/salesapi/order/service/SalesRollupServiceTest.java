@@ -0,0 +1,238 @@
+package com.marketplace.salesapi.order.service;
+
+import com.marketplace.salesapi.common.model.Money;
+import com.marketplace.salesapi.config.TestRepositoryConfig;
+import com.marketplace.salesapi.order.event.OrderCreatedEvent;
+import com.marketplace.salesapi.order.event.OrderStatusChangedEvent;
+import com.marketplace.salesapi.order.model.Order;
+import com.marketplace.salesapi.order.model.OrderItem;
+import com.marketplace.salesapi.order.model.OrderStatus;
+import com.marketplace.salesapi.product.model.Product;
+import com.marketplace.salesapi.product.model.ProductStatus;
+import com.marketplace.salesapi.store.model.Store;
+import com.marketplace.salesapi.store.model.StoreStatus;
+import com.marketplace.salesapi.user.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Runs outside a test transaction, so each test decides which order changes commit.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({TestRepositoryConfig.class, SalesRollupService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SalesRollupServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 10);
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @MockBean
+    private SalesSketchService salesSketchService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private User customer;
+    private Store storeA;
+    private Store storeB;
+    private Product productA;
+    private Product productB;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            customer = new User();
+            customer.setName("Customer");
+            customer.setEmail("customer@example.com");
+            customer.setPassword("password");
+            entityManager.persist(customer);
+
+            storeA = store("Store A");
+            storeB = store("Store B");
+            productA = product("A", "10.00", storeA);
+            productB = product("B", "20.00", storeB);
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (String table : List.of("daily_status_sales", "daily_store_sales", "daily_product_sales",
+                "order_items", "orders", "products", "stores", "users")) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+    }
+
+    @Test
+    @DisplayName("Should add each order to the rows of its day as it is created")
+    void onOrderCreated_ShouldUpsertRows() {
+        // Act
+        salesRollupService.onOrderCreated(new OrderCreatedEvent(order(OrderStatus.PENDING, Map.of(productA, 2, productB, 1))));
+        salesRollupService.onOrderCreated(new OrderCreatedEvent(order(OrderStatus.PENDING, Map.of(productA, 1))));
+
+        // Assert
+        assertRow("daily_status_sales", "status = 'PENDING'", 2, "50.00");
+        assertRow("daily_store_sales", "store_id = " + storeA.getId() + " AND status = 'PENDING'", 2, "30.00");
+        assertEquals(3L, longValue("SELECT items_sold FROM daily_store_sales WHERE store_id = ?", storeA.getId()));
+        assertRow("daily_store_sales", "store_id = " + storeB.getId() + " AND status = 'PENDING'", 1, "20.00");
+        assertEquals(3L, longValue("SELECT quantity_sold FROM daily_product_sales WHERE product_id = ?", productA.getId()));
+
+        // A later order adds to the rows already there
+        salesRollupService.onOrderCreated(new OrderCreatedEvent(order(OrderStatus.PENDING, Map.of(productB, 2))));
+        assertRow("daily_status_sales", "status = 'PENDING'", 3, "90.00");
+        assertRow("daily_store_sales", "store_id = " + storeB.getId() + " AND status = 'PENDING'", 2, "60.00");
+        assertEquals(3L, longValue("SELECT quantity_sold FROM daily_product_sales WHERE product_id = ?", productB.getId()));
+    }
+
+    @Test
+    @DisplayName("Should move an order between the status rows without touching the product rows")
+    void onOrderStatusChanged_ShouldMoveStatusRows() {
+        // Arrange
+        Order order = order(OrderStatus.PENDING, Map.of(productA, 2));
+        salesRollupService.onOrderCreated(new OrderCreatedEvent(order));
+
+        // Act
+        order.setStatus(OrderStatus.CANCELLED);
+        salesRollupService.onOrderStatusChanged(new OrderStatusChangedEvent(order, OrderStatus.PENDING));
+
+        // Assert
+        assertRow("daily_status_sales", "status = 'PENDING'", 0, "0.00");
+        assertRow("daily_status_sales", "status = 'CANCELLED'", 1, "20.00");
+        assertRow("daily_store_sales", "status = 'PENDING'", 0, "0.00");
+        assertRow("daily_store_sales", "status = 'CANCELLED'", 1, "20.00");
+        assertEquals(2L, longValue("SELECT quantity_sold FROM daily_product_sales WHERE product_id = ?", productA.getId()));
+    }
+
+    @Test
+    @DisplayName("Should roll the rows back with the order's transaction")
+    void onOrderCreated_ShouldIgnoreRolledBackOrders() {
+        // Act
+        transactionTemplate.executeWithoutResult(status -> {
+            salesRollupService.onOrderCreated(new OrderCreatedEvent(order(OrderStatus.PENDING, Map.of(productA, 1))));
+            status.setRollbackOnly();
+        });
+
+        // Assert
+        assertEquals(0, count("daily_status_sales"));
+    }
+
+    @Test
+    @DisplayName("Should recompute a day from the orders, replacing what was there")
+    void rebuild_ShouldRecomputeFromOrders() {
+        // Arrange
+        saveOrder(OrderStatus.DELIVERED, Map.of(productA, 2, productB, 1));
+        saveOrder(OrderStatus.PENDING, Map.of(productB, 3));
+        jdbcTemplate.update("INSERT INTO daily_status_sales (sales_date, status, order_count, revenue) VALUES (?, 'SHIPPED', 7, 700)",
+                Date.valueOf(DAY));
+        // Left by the incremental updates, which the rebuild replaces
+        salesRollupService.onOrderCreated(new OrderCreatedEvent(order(OrderStatus.PENDING, Map.of(productB, 3))));
+
+        // Act
+        salesRollupService.rebuild(DAY, DAY);
+
+        // Assert
+        assertEquals(2, count("daily_status_sales"));
+        assertRow("daily_status_sales", "status = 'DELIVERED'", 1, "40.00");
+        assertRow("daily_status_sales", "status = 'PENDING'", 1, "60.00");
+        assertRow("daily_store_sales", "store_id = " + storeB.getId() + " AND status = 'PENDING'", 1, "60.00");
+        assertEquals(4L, longValue("SELECT quantity_sold FROM daily_product_sales WHERE product_id = ?", productB.getId()));
+        verify(salesSketchService).rebuildDay(DAY);
+    }
+
+    private void assertRow(String table, String where, long orderCount, String revenue) {
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT order_count, revenue FROM " + table + " WHERE sales_date = ? AND " + where, Date.valueOf(DAY));
+        assertEquals(orderCount, ((Number) row.get("ORDER_COUNT")).longValue());
+        BigDecimal actual = (BigDecimal) row.get("REVENUE");
+        assertEquals(0, new BigDecimal(revenue).compareTo(actual), () -> "expected " + revenue + " but was " + actual);
+    }
+
+    private long longValue(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Long.class, args);
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+
+    private Store store(String name) {
+        Store store = new Store();
+        store.setName(name);
+        store.setStatus(StoreStatus.ACTIVE);
+        store.setOwner(customer);
+        return entityManager.persist(store);
+    }
+
+    private Product product(String sku, String price, Store store) {
+        Product product = new Product();
+        product.setName("Product " + sku);
+        product.setSku(sku);
+        product.setPrice(Money.of(price));
+        product.setStockQuantity(100);
+        product.setStatus(ProductStatus.ACTIVE);
+        product.setStore(store);
+        return entityManager.persist(product);
+    }
+
+    private Order order(OrderStatus status, Map<Product, Integer> quantities) {
+        Order order = new Order();
+        order.setUser(customer);
+        order.setStatus(status);
+        quantities.forEach((product, quantity) -> {
+            OrderItem item = new OrderItem();
+            item.setProduct(product);
+            item.setProductName(product.getName());
+            item.setQuantity(quantity);
+            item.setUnitPrice(product.getPrice());
+            item.calculateSubtotal();
+            order.addItem(item);
+        });
+        order.setCreatedAt(DAY.atTime(12, 0));
+        return order;
+    }
+
+    private void saveOrder(OrderStatus status, Map<Product, Integer> quantities) {
+        transactionTemplate.executeWithoutResult(tx -> {
+            Order order = order(status, quantities);
+            entityManager.persist(order);
+            order.getItems().forEach(entityManager::persist);
+            entityManager.flush();
+            // created_at is set on persist
+            jdbcTemplate.update("UPDATE orders SET created_at = ? WHERE id = ?",
+                    Timestamp.valueOf(DAY.atTime(12, 0)), order.getId());
+        });
+    }
+}
@@ -0,0 +1,162 @@
+package com.marketplace.salesapi.order.service;
+
+import com.marketplace.salesapi.common.model.Money;
+import com.marketplace.salesapi.config.TestRepositoryConfig;
+import com.marketplace.salesapi.order.analytics.OrderSketch;
+import com.marketplace.salesapi.order.event.OrderCreatedEvent;
+import com.marketplace.salesapi.order.model.Order;
+import com.marketplace.salesapi.order.model.OrderItem;
+import com.marketplace.salesapi.order.model.OrderStatus;
+import com.marketplace.salesapi.product.model.Product;
+import com.marketplace.salesapi.product.model.ProductStatus;
+import com.marketplace.salesapi.store.model.Store;
+import com.marketplace.salesapi.store.model.StoreStatus;
+import com.marketplace.salesapi.user.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs outside a test transaction, so each test decides which order changes commit.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({TestRepositoryConfig.class, SalesSketchService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SalesSketchServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 10);
+
+    @Autowired
+    private SalesSketchService salesSketchService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private User firstCustomer;
+    private User secondCustomer;
+    private Store storeA;
+    private Product productA;
+    private Product productB;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            firstCustomer = customer("first@example.com");
+            secondCustomer = customer("second@example.com");
+            storeA = store("Store A");
+            productA = product("A", "10.00", storeA);
+            productB = product("B", "20.00", store("Store B"));
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (String table : List.of("daily_sales_sketches", "daily_store_sketches", "products", "stores", "users")) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+    }
+
+    @Test
+    @DisplayName("Should merge each order into the sketches of its day as it is created")
+    void onOrderCreated_ShouldMergeIntoDayRows() {
+        // Act
+        salesSketchService.onOrderCreated(new OrderCreatedEvent(order(firstCustomer, Map.of(productA, 1, productB, 1))));
+        salesSketchService.onOrderCreated(new OrderCreatedEvent(order(firstCustomer, Map.of(productA, 2))));
+        salesSketchService.onOrderCreated(new OrderCreatedEvent(order(secondCustomer, Map.of(productB, 1))));
+
+        // Assert
+        OrderSketch day = salesSketchService.getSalesSketch(DAY, DAY);
+        assertEquals(3, day.getOrderCount());
+        assertEquals(2, day.getDistinctCustomers());
+        OrderSketch store = salesSketchService.getStoreSketch(storeA.getId(), DAY, DAY);
+        assertEquals(2, store.getOrderCount());
+        assertEquals(1, store.getDistinctCustomers());
+    }
+
+    @Test
+    @DisplayName("Should roll the sketches back with the order's transaction")
+    void onOrderCreated_ShouldRollBackWithOrder() {
+        // Arrange
+        salesSketchService.onOrderCreated(new OrderCreatedEvent(order(firstCustomer, Map.of(productA, 1))));
+
+        // Act
+        transactionTemplate.executeWithoutResult(status -> {
+            salesSketchService.onOrderCreated(new OrderCreatedEvent(order(secondCustomer, Map.of(productA, 1))));
+            status.setRollbackOnly();
+        });
+
+        // Assert
+        assertEquals(1, salesSketchService.getSalesSketch(DAY, DAY).getOrderCount());
+        assertEquals(1, salesSketchService.getStoreSketch(storeA.getId(), DAY, DAY).getOrderCount());
+    }
+
+    private User customer(String email) {
+        User customer = new User();
+        customer.setName("Customer");
+        customer.setEmail(email);
+        customer.setPassword("password");
+        return entityManager.persist(customer);
+    }
+
+    private Store store(String name) {
+        Store store = new Store();
+        store.setName(name);
+        store.setStatus(StoreStatus.ACTIVE);
+        store.setOwner(firstCustomer);
+        return entityManager.persist(store);
+    }
+
+    private Product product(String sku, String price, Store store) {
+        Product product = new Product();
+        product.setName("Product " + sku);
+        product.setSku(sku);
+        product.setPrice(Money.of(price));
+        product.setStockQuantity(100);
+        product.setStatus(ProductStatus.ACTIVE);
+        product.setStore(store);
+        return entityManager.persist(product);
+    }
+
+    private Order order(User customer, Map<Product, Integer> quantities) {
+        Order order = new Order();
+        order.setUser(customer);
+        order.setStatus(OrderStatus.PENDING);
+        quantities.forEach((product, quantity) -> {
+            OrderItem item = new OrderItem();
+            item.setProduct(product);
+            item.setProductName(product.getName());
+            item.setQuantity(quantity);
+            item.setUnitPrice(product.getPrice());
+            item.calculateSubtotal();
+            order.addItem(item);
+        });
+        order.setCreatedAt(DAY.atTime(12, 0));
+        return order;
+    }
+}
@@ -0,0 +1,90 @@
+package com.marketplace.salesapi.product.controller;
+
+import com.marketplace.salesapi.config.TestSecurityConfig;
+import com.marketplace.salesapi.product.dto.ProductDto;
+import com.marketplace.salesapi.product.service.ProductService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = ProductController.class,
+            properties = {"spring.main.allow-bean-definition-overriding=true"})
+@Import(TestSecurityConfig.class)
+class ProductControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ProductService productService;
+
+    @Test
+    @DisplayName("GET /api/products/{id} should send the ETag of the loaded product without looking it up apart")
+    @WithMockUser
+    void getProductById_ShouldSendETag_WhenNotRevalidating() throws Exception {
+        // Arrange
+        ProductDto product = new ProductDto();
+        product.setId(1L);
+        product.setName("Camiseta");
+        product.setETag("\"1-abc-def-10\"");
+        when(productService.getProductById(1L)).thenReturn(product);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/products/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-abc-def-10\""))
+                .andExpect(jsonPath("$.eTag").doesNotExist())
+                .andExpect(jsonPath("$.etag").doesNotExist())
+                .andExpect(jsonPath("$.name", is("Camiseta")));
+
+        verify(productService, never()).getProductETag(anyLong());
+    }
+
+    @Test
+    @DisplayName("GET /api/products/{id} should answer 304 from the ETag without loading the product")
+    @WithMockUser
+    void getProductById_ShouldReturnNotModified_WhenETagMatches() throws Exception {
+        // Arrange
+        when(productService.getProductETag(1L)).thenReturn(Optional.of("\"1-abc-def-10\""));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/products/1")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"1-abc-def-10\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-abc-def-10\""));
+
+        verify(productService, never()).getProductById(anyLong());
+    }
+
+    @Test
+    @DisplayName("GET /api/products/{id} should send the product when the ETag no longer matches")
+    @WithMockUser
+    void getProductById_ShouldReturnProduct_WhenETagChanged() throws Exception {
+        // Arrange
+        ProductDto product = new ProductDto();
+        product.setId(1L);
+        when(productService.getProductETag(1L)).thenReturn(Optional.of("\"1-abc-xyz-10\""));
+        product.setETag("\"1-abc-xyz-10\"");
+        when(productService.getProductById(1L)).thenReturn(product);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/products/1")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"1-abc-def-10\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-abc-xyz-10\""));
+    }
+}
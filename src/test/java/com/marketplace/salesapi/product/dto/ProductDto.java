@@ -1,5 +1,6 @@
 package com.marketplace.salesapi.product.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.marketplace.salesapi.product.model.ProductStatus;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -29,4 +30,6 @@ public class ProductDto {
     private Set<ProductImageDto> images;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    @JsonIgnore
+    private String eTag;
 } 
\ No newline at end of file
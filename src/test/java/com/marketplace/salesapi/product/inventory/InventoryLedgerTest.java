@@ -0,0 +1,185 @@
+package com.marketplace.salesapi.product.inventory;
+
+import com.marketplace.salesapi.exception.InsufficientStockException;
+import com.marketplace.salesapi.product.model.Product;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+// Outside a transaction every reservation commits immediately
+@ExtendWith(MockitoExtension.class)
+class InventoryLedgerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private InventoryLedger inventoryLedger;
+
+    @Test
+    @DisplayName("Should reserve all the products of an order or none of them")
+    void reserve_ShouldBeAllOrNothing() {
+        // Arrange
+        Product phone = product(1L, 5);
+        Product charger = product(2L, 1);
+
+        // Act & Assert
+        assertThrows(InsufficientStockException.class, () -> inventoryLedger.reserve(Map.of(phone, 2, charger, 3)));
+        assertEquals(5, inventoryLedger.available(phone));
+        assertEquals(1, inventoryLedger.available(charger));
+
+        inventoryLedger.reserve(Map.of(phone, 2, charger, 1));
+        assertEquals(3, inventoryLedger.available(phone));
+        assertEquals(0, inventoryLedger.available(charger));
+    }
+
+    @Test
+    @DisplayName("Should never oversell when many checkouts race for the same product")
+    void reserve_ShouldNotOversell_UnderContention() throws Exception {
+        // Arrange
+        Product product = product(1L, 1_000);
+        int threads = 16;
+        int attemptsPerThread = 200;
+        AtomicInteger sold = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        // Act
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < attemptsPerThread; i++) {
+                    try {
+                        inventoryLedger.reserve(Map.of(product, 1));
+                        sold.incrementAndGet();
+                    } catch (InsufficientStockException e) {
+                        // sold out
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        // Assert
+        assertEquals(1_000, sold.get());
+        assertEquals(0, inventoryLedger.available(product));
+    }
+
+    @Test
+    @DisplayName("Should write the net change of each product in one batch")
+    @SuppressWarnings("unchecked")
+    void flush_ShouldBatchNetDeltas() {
+        // Arrange
+        Product phone = product(1L, 10);
+        Product charger = product(2L, 10);
+        inventoryLedger.reserve(Map.of(phone, 3));
+        inventoryLedger.reserve(Map.of(phone, 1, charger, 2));
+        inventoryLedger.restock(Map.of(charger, 2));
+
+        // Act
+        inventoryLedger.flush();
+        inventoryLedger.flush();
+
+        // Assert: the charger nets to zero and the second flush has nothing to write
+        ArgumentCaptor<List<Object[]>> deltas = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), deltas.capture());
+        List<String> written = new ArrayList<>();
+        deltas.getValue().forEach(delta -> written.add(delta[1] + ":" + delta[0]));
+        assertEquals(List.of("1:-4"), written);
+        assertEquals(6, inventoryLedger.available(phone));
+        assertEquals(10, inventoryLedger.available(charger));
+    }
+
+    @Test
+    @DisplayName("Should keep the deltas for the next flush when the write fails")
+    void flush_ShouldRetainDeltas_WhenWriteFails() {
+        // Arrange
+        Product phone = product(1L, 10);
+        inventoryLedger.reserve(Map.of(phone, 3));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new RuntimeException("connection reset"))
+                .thenReturn(new int[]{1});
+
+        // Act
+        inventoryLedger.flush();
+        inventoryLedger.flush();
+
+        // Assert
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    @DisplayName("Should write a stock edit as a delta alongside the sales")
+    @SuppressWarnings("unchecked")
+    void adjust_ShouldShiftAvailableAndWriteDelta() {
+        // Arrange
+        Product phone = product(1L, 10);
+        inventoryLedger.reserve(Map.of(phone, 3));
+
+        // Act: the seller raises the 7 units shown to 12
+        inventoryLedger.adjust(phone, 5);
+        inventoryLedger.flush();
+
+        // Assert
+        assertEquals(12, inventoryLedger.available(phone));
+        ArgumentCaptor<List<Object[]>> deltas = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), deltas.capture());
+        assertEquals(2, deltas.getValue().get(0)[0]);
+    }
+
+    @Test
+    @DisplayName("Should keep units held without writing them when the outcome is unknown")
+    void reserve_ShouldHoldUnits_WhenTransactionOutcomeIsUnknown() {
+        // Arrange
+        Product phone = product(1L, 10);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            inventoryLedger.reserve(Map.of(phone, 3));
+
+            // Act
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_UNKNOWN));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        inventoryLedger.flush();
+
+        // Assert
+        assertEquals(7, inventoryLedger.available(phone));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    private static Product product(Long id, int stock) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Produto " + id);
+        product.setStockQuantity(stock);
+        return product;
+    }
+}
@@ -1,9 +0,0 @@
-package com.marketplace.salesapi.product.repository;
-
-import com.marketplace.salesapi.product.model.Category;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.stereotype.Repository;
-
-@Repository
-public interface CategoryRepository extends JpaRepository<Category, Long> {
-} 
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.marketplace.salesapi.product.repository;
 
+import com.marketplace.salesapi.common.model.Money;
 import com.marketplace.salesapi.config.TestRepositoryConfig;
 import com.marketplace.salesapi.product.model.Category;
 import com.marketplace.salesapi.product.model.Product;
@@ -21,7 +22,6 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 
-import java.math.BigDecimal;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
@@ -90,7 +90,7 @@ class ProductRepositoryTest {
         product1.setName("Test Product 1");
         product1.setDescription("First test product");
         product1.setSku("TEST-SKU-001");
-        product1.setPrice(new BigDecimal("99.99"));
+        product1.setPrice(Money.of("99.99"));
         product1.setStockQuantity(100);
         product1.setStatus(ProductStatus.ACTIVE);
         product1.setStore(store);
@@ -100,7 +100,7 @@ class ProductRepositoryTest {
         product2.setName("Test Product 2");
         product2.setDescription("Second test product with different category");
         product2.setSku("TEST-SKU-002");
-        product2.setPrice(new BigDecimal("149.99"));
+        product2.setPrice(Money.of("149.99"));
         product2.setStockQuantity(50);
         product2.setStatus(ProductStatus.ACTIVE);
         product2.setStore(store);
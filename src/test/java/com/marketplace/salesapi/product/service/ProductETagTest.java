@@ -0,0 +1,169 @@
+package com.marketplace.salesapi.product.service;
+
+import com.marketplace.salesapi.common.model.Money;
+import com.marketplace.salesapi.common.web.ETags;
+import com.marketplace.salesapi.config.TestRepositoryConfig;
+import com.marketplace.salesapi.product.dto.CategoryDto;
+import com.marketplace.salesapi.product.model.Category;
+import com.marketplace.salesapi.product.model.Product;
+import com.marketplace.salesapi.product.model.ProductImage;
+import com.marketplace.salesapi.product.model.ProductStatus;
+import com.marketplace.salesapi.product.model.Tag;
+import com.marketplace.salesapi.product.repository.ProductRepository;
+import com.marketplace.salesapi.store.model.Store;
+import com.marketplace.salesapi.store.model.StoreStatus;
+import com.marketplace.salesapi.user.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The product ETag is built from the product's and its store's updated_at and the stock
+ * (ProductService.getProductETag); changes to what a product shows from other tables must
+ * touch the product.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({TestRepositoryConfig.class, CategoryService.class, ProductImageService.class, TagService.class})
+class ProductETagTest {
+
+    private static final LocalDateTime BEFORE = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private ProductImageService productImageService;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User seller;
+    private Category category;
+    private Tag tag;
+    private Product product;
+    private ProductImage image;
+
+    @BeforeEach
+    void setUp() {
+        seller = new User();
+        seller.setName("Seller");
+        seller.setEmail("seller@example.com");
+        seller.setPassword("password");
+        entityManager.persist(seller);
+
+        Store store = new Store();
+        store.setName("Store");
+        store.setStatus(StoreStatus.ACTIVE);
+        store.setOwner(seller);
+        entityManager.persist(store);
+
+        category = new Category();
+        category.setName("Roupas");
+        entityManager.persist(category);
+
+        tag = new Tag();
+        tag.setName("verao");
+        entityManager.persist(tag);
+
+        product = new Product();
+        product.setName("Camiseta");
+        product.setSku("CAM-1");
+        product.setPrice(Money.of("49.90"));
+        product.setStockQuantity(10);
+        product.setStatus(ProductStatus.ACTIVE);
+        product.setStore(store);
+        product.setCategory(category);
+        product.setTags(Set.of(tag));
+        entityManager.persist(product);
+
+        image = new ProductImage();
+        image.setProduct(product);
+        image.setImageUrl("https://example.com/camiseta.png");
+        image.setIsPrimary(true);
+        image.setDisplayOrder(0);
+        entityManager.persist(image);
+        entityManager.flush();
+        // A known past updated_at, so any touch shows
+        jdbcTemplate.update("UPDATE products SET updated_at = ? WHERE id = ?", Timestamp.valueOf(BEFORE), product.getId());
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Should change the product ETag when its category is renamed")
+    void updateCategory_ShouldChangeProductETag() {
+        // Arrange
+        String before = eTag();
+        CategoryDto update = new CategoryDto();
+        update.setName("Vestuário");
+
+        // Act
+        categoryService.updateCategory(category.getId(), update);
+
+        // Assert
+        assertNotEquals(before, eTag());
+    }
+
+    @Test
+    @DisplayName("Should change the product ETag when one of its images is deleted")
+    void deleteProductImage_ShouldChangeProductETag() {
+        // Arrange
+        String before = eTag();
+
+        // Act
+        productImageService.deleteProductImage(image.getId(), seller.getId());
+        entityManager.flush();
+
+        // Assert
+        assertNotEquals(before, eTag());
+    }
+
+    @Test
+    @DisplayName("Should change the product ETag when one of its tags is deleted")
+    void deleteTag_ShouldChangeProductETag() {
+        // Arrange
+        String before = eTag();
+
+        // Act
+        tagService.deleteTag(tag.getId());
+        entityManager.flush();
+
+        // Assert
+        assertNotEquals(before, eTag());
+    }
+
+    @Test
+    @DisplayName("Should keep the product ETag while nothing it shows changes")
+    void eTag_ShouldStayTheSame_WhenNothingChanged() {
+        assertEquals(eTag(), eTag());
+    }
+
+    // As ProductService.getProductETag builds it, with no units moved by the inventory ledger
+    private String eTag() {
+        return productRepository.findVersionById(product.getId())
+                .map(version -> ETags.of(product.getId(), version.getUpdatedAt(), version.getStoreUpdatedAt(),
+                        version.getStockQuantity()))
+                .orElseThrow();
+    }
+}
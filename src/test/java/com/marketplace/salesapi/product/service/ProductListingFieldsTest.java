@@ -0,0 +1,234 @@
+package com.marketplace.salesapi.product.service;
+
+import com.marketplace.salesapi.common.fields.FieldProjection;
+import com.marketplace.salesapi.common.model.Money;
+import com.marketplace.salesapi.common.sql.SqlStatementStats;
+import com.marketplace.salesapi.config.DataSourceProxyConfig;
+import com.marketplace.salesapi.config.TestRepositoryConfig;
+import com.marketplace.salesapi.product.dto.CategoryDto;
+import com.marketplace.salesapi.product.inventory.InventoryLedger;
+import com.marketplace.salesapi.product.model.Category;
+import com.marketplace.salesapi.product.model.Product;
+import com.marketplace.salesapi.product.model.ProductImage;
+import com.marketplace.salesapi.product.model.ProductStatus;
+import com.marketplace.salesapi.product.model.Tag;
+import com.marketplace.salesapi.product.repository.ProductImageRepository;
+import com.marketplace.salesapi.product.repository.ProductRepository;
+import com.marketplace.salesapi.product.repository.ProductSpecifications;
+import com.marketplace.salesapi.product.repository.projection.ProductTagView;
+import com.marketplace.salesapi.store.model.Store;
+import com.marketplace.salesapi.store.model.StoreStatus;
+import com.marketplace.salesapi.user.model.User;
+import com.marketplace.salesapi.util.SqlStatementBudget;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The product listing's ?fields= projection against the database: which columns its
+ * statement selects, and how many statements a page and its related fields take.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({TestRepositoryConfig.class, DataSourceProxyConfig.class, InventoryLedger.class})
+class ProductListingFieldsTest {
+
+    private static final PageRequest FIRST_PAGE = PageRequest.of(0, 10, Sort.by("id"));
+
+    @Autowired
+    private InventoryLedger inventoryLedger;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductImageRepository productImageRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private FieldProjection<Product> listingFields;
+    private Product tshirt;
+    private Product mug;
+
+    @BeforeEach
+    void setUp() {
+        listingFields = ProductListingFields.of(inventoryLedger::available);
+
+        User seller = new User();
+        seller.setName("Seller");
+        seller.setEmail("seller@example.com");
+        seller.setPassword("password");
+        entityManager.persist(seller);
+
+        Store store = new Store();
+        store.setName("Store");
+        store.setStatus(StoreStatus.ACTIVE);
+        store.setOwner(seller);
+        entityManager.persist(store);
+
+        Category fashion = new Category();
+        fashion.setName("Moda");
+        entityManager.persist(fashion);
+        Category clothes = new Category();
+        clothes.setName("Roupas");
+        clothes.setParent(fashion);
+        entityManager.persist(clothes);
+
+        Tag summer = tag("verao");
+        Tag cotton = tag("algodao");
+
+        tshirt = product("CAM-1", "49.90", store);
+        tshirt.setDiscountPrice(Money.of("39.90"));
+        tshirt.setCategory(clothes);
+        tshirt.setTags(Set.of(summer, cotton));
+        // No category, no discount and no images
+        mug = product("CANECA-1", "25.00", store);
+        mug.setTags(Set.of(summer));
+        entityManager.persist(tshirt);
+        entityManager.persist(mug);
+        image(tshirt, "https://example.com/camiseta-frente.png");
+        image(tshirt, "https://example.com/camiseta-costas.png");
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Should select only the requested columns, in one statement for a page that tells its total")
+    @SqlStatementBudget(1)
+    void find_ShouldSelectRequestedColumnsOnly(SqlStatementStats stats) {
+        // Act
+        Page<Map<String, Object>> page = find("name,price");
+
+        // Assert
+        assertEquals(1, stats.getStatements());
+        assertEquals(List.of("id", "name", "price"), selectedColumns(onlyShape(stats)));
+        assertFalse(onlyShape(stats).contains(" join "), onlyShape(stats));
+        assertEquals(2, page.getTotalElements());
+        Map<String, Object> row = page.getContent().get(0);
+        assertEquals(Set.of("id", "name", "price"), row.keySet());
+        assertEquals(tshirt.getId(), row.get("id"));
+        // Money columns come back as the DTO's BigDecimal
+        assertEquals(new BigDecimal("49.90"), row.get("price"));
+    }
+
+    @Test
+    @DisplayName("Should left join the category and its parent, keeping products without one")
+    @SqlStatementBudget(1)
+    void find_ShouldLeftJoinCategory(SqlStatementStats stats) {
+        // Act
+        Page<Map<String, Object>> page = find("category,discountPrice");
+
+        // Assert
+        String shape = onlyShape(stats);
+        assertEquals(2, shape.split(" left join categories ").length - 1, shape);
+        assertEquals(List.of("id", "id", "name", "description", "image_url", "id", "name", "discount_price"),
+                selectedColumns(shape));
+        assertEquals(2, page.getNumberOfElements());
+
+        CategoryDto category = (CategoryDto) page.getContent().get(0).get("category");
+        assertEquals("Roupas", category.getName());
+        assertEquals("Moda", category.getParentName());
+        assertEquals(new BigDecimal("39.90"), page.getContent().get(0).get("discountPrice"));
+
+        Map<String, Object> withoutCategory = page.getContent().get(1);
+        assertEquals(mug.getId(), withoutCategory.get("id"));
+        assertTrue(withoutCategory.containsKey("category"));
+        assertNull(withoutCategory.get("category"));
+        assertNull(withoutCategory.get("discountPrice"));
+    }
+
+    @Test
+    @DisplayName("Should leave related fields to the caller and load them for the whole page in one statement each")
+    @SqlStatementBudget(value = 3, maxRepeated = 1)
+    void find_ShouldBatchRelatedFields(SqlStatementStats stats) {
+        // Act
+        Page<Map<String, Object>> page = find("tags,images");
+        List<Long> ids = page.stream().map(product -> (Long) product.get("id")).toList();
+        // As ProductService loads them
+        Map<Long, Set<String>> tags = productRepository.findTagNamesByProductIdIn(ids).stream()
+                .collect(Collectors.groupingBy(ProductTagView::getProductId,
+                        Collectors.mapping(ProductTagView::getName, Collectors.toSet())));
+        Map<Long, List<ProductImage>> images = productImageRepository.findByProductIdIn(ids).stream()
+                .collect(Collectors.groupingBy(image -> image.getProduct().getId()));
+
+        // Assert
+        assertEquals(3, stats.getStatements(), () -> stats.getShapes().toString());
+        assertEquals(List.of("id"), selectedColumns(pageShape(stats)));
+        page.forEach(product -> {
+            assertNull(product.get("tags"));
+            assertNull(product.get("images"));
+        });
+        assertEquals(Map.of(tshirt.getId(), Set.of("verao", "algodao"), mug.getId(), Set.of("verao")), tags);
+        assertEquals(Set.of(tshirt.getId()), images.keySet());
+        assertEquals(2, images.get(tshirt.getId()).size());
+    }
+
+    private Page<Map<String, Object>> find(String fields) {
+        return listingFields.find(entityManager.getEntityManager(), ProductSpecifications.any(),
+                listingFields.parse(fields), FIRST_PAGE);
+    }
+
+    private static String onlyShape(SqlStatementStats stats) {
+        assertEquals(1, stats.getShapes().size(), () -> stats.getShapes().toString());
+        return stats.getShapes().keySet().iterator().next();
+    }
+
+    private static String pageShape(SqlStatementStats stats) {
+        return stats.getShapes().keySet().stream()
+                .filter(shape -> shape.contains(" from products "))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError(stats.getShapes().toString()));
+    }
+
+    // The columns of the select list, without their table aliases
+    private static List<String> selectedColumns(String shape) {
+        String list = shape.substring("select ".length(), shape.indexOf(" from "));
+        return Arrays.stream(list.split(","))
+                .map(column -> column.trim().substring(column.trim().indexOf('.') + 1))
+                .toList();
+    }
+
+    private Tag tag(String name) {
+        Tag tag = new Tag();
+        tag.setName(name);
+        return entityManager.persist(tag);
+    }
+
+    private Product product(String sku, String price, Store store) {
+        Product product = new Product();
+        product.setName("Product " + sku);
+        product.setSku(sku);
+        product.setPrice(Money.of(price));
+        product.setStockQuantity(10);
+        product.setStatus(ProductStatus.ACTIVE);
+        product.setStore(store);
+        return product;
+    }
+
+    private void image(Product product, String url) {
+        ProductImage image = new ProductImage();
+        image.setProduct(product);
+        image.setImageUrl(url);
+        image.setDisplayOrder(0);
+        entityManager.persist(image);
+    }
+}
@@ -1,5 +1,7 @@
 package com.marketplace.salesapi.product.service;
 
+import com.marketplace.salesapi.common.model.Money;
+import com.marketplace.salesapi.common.web.ETags;
 import com.marketplace.salesapi.exception.ResourceNotFoundException;
 import com.marketplace.salesapi.product.dto.ProductDto;
 import com.marketplace.salesapi.product.model.Product;
@@ -11,6 +13,8 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Optional;
+
 /**
  * This is a mock service class for testing purposes only.
  * The actual implementation should be in the main source code.
@@ -28,7 +32,15 @@ public class ProductService {
     public ProductDto getProductById(Long id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with ID: " + id));
-        return convertToDto(product);
+        ProductDto dto = convertToDto(product);
+        dto.setETag(ETags.of(id, product.getUpdatedAt(), product.getStore().getUpdatedAt(), product.getStockQuantity()));
+        return dto;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<String> getProductETag(Long id) {
+        return productRepository.findVersionById(id).map(version -> ETags.of(id, version.getUpdatedAt(),
+                version.getStoreUpdatedAt(), version.getStockQuantity()));
     }
 
     @Transactional(readOnly = true)
@@ -54,8 +66,8 @@ public class ProductService {
         dto.setId(product.getId());
         dto.setName(product.getName());
         dto.setDescription(product.getDescription());
-        dto.setPrice(product.getPrice());
-        dto.setDiscountPrice(product.getDiscountPrice());
+        dto.setPrice(Money.bigDecimalOf(product.getPrice()));
+        dto.setDiscountPrice(Money.bigDecimalOf(product.getDiscountPrice()));
         dto.setStockQuantity(product.getStockQuantity());
         dto.setSku(product.getSku());
         dto.setStatus(product.getStatus());
@@ -1,8 +1,11 @@
 package com.marketplace.salesapi.security;
 
+import com.marketplace.salesapi.common.idempotency.IdempotencyStore;
 import com.marketplace.salesapi.order.controller.OrderController;
 import com.marketplace.salesapi.order.dto.OrderDto;
+import com.marketplace.salesapi.order.intake.OrderIntake;
 import com.marketplace.salesapi.order.model.OrderStatus;
+import com.marketplace.salesapi.order.service.GroupCommitCoordinator;
 import com.marketplace.salesapi.order.service.OrderService;
 import com.marketplace.salesapi.user.model.ERole;
 import org.junit.jupiter.api.DisplayName;
@@ -26,7 +29,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 @WebMvcTest(controllers = OrderController.class, 
             properties = {"spring.main.allow-bean-definition-overriding=true"})
-@Import(TestSecurityConfig.class)
+@Import({TestSecurityConfig.class, IdempotencyStore.class, OrderIntake.class,
+        GroupCommitCoordinator.class})
 class SecurityTest {
 
     @Autowired
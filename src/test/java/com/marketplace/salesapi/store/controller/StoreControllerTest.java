@@ -0,0 +1,72 @@
+package com.marketplace.salesapi.store.controller;
+
+import com.marketplace.salesapi.config.TestSecurityConfig;
+import com.marketplace.salesapi.store.dto.StoreDto;
+import com.marketplace.salesapi.store.service.StoreService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = StoreController.class,
+            properties = {"spring.main.allow-bean-definition-overriding=true"})
+@Import(TestSecurityConfig.class)
+class StoreControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private StoreService storeService;
+
+    @Test
+    @DisplayName("GET /api/stores/{id} should send the ETag of the loaded store without looking it up apart")
+    @WithMockUser
+    void getStoreById_ShouldSendETag_WhenNotRevalidating() throws Exception {
+        // Arrange
+        StoreDto store = new StoreDto();
+        store.setId(1L);
+        store.setName("Loja Centro");
+        store.setETag("\"1-abc-def\"");
+        when(storeService.getStoreById(1L)).thenReturn(store);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/stores/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-abc-def\""))
+                .andExpect(jsonPath("$.eTag").doesNotExist())
+                .andExpect(jsonPath("$.etag").doesNotExist())
+                .andExpect(jsonPath("$.name", is("Loja Centro")));
+
+        verify(storeService, never()).getStoreETag(anyLong());
+    }
+
+    @Test
+    @DisplayName("GET /api/stores/{id} should answer 304 from the ETag without loading the store")
+    @WithMockUser
+    void getStoreById_ShouldReturnNotModified_WhenETagMatches() throws Exception {
+        // Arrange
+        when(storeService.getStoreETag(1L)).thenReturn(Optional.of("\"1-abc-def\""));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/stores/1")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"1-abc-def\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-abc-def\""));
+
+        verify(storeService, never()).getStoreById(anyLong());
+    }
+}
@@ -0,0 +1,22 @@
+package com.marketplace.salesapi.util;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Fails the test when it runs more SQL statements than allowed, or repeats one statement
+ * shape more often than allowed. On a method it overrides the class budget.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(SqlStatementCounterExtension.class)
+public @interface SqlStatementBudget {
+
+    int value();
+
+    int maxRepeated() default Integer.MAX_VALUE;
+}
@@ -0,0 +1,64 @@
+package com.marketplace.salesapi.util;
+
+import com.marketplace.salesapi.common.sql.SqlStatementCounter;
+import com.marketplace.salesapi.common.sql.SqlStatementStats;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Counts the SQL statements each test method runs on its thread (MockMvc requests included,
+ * {@code @BeforeEach} setup not) and checks them against {@link SqlStatementBudget}. Only
+ * statements through the proxied DataSource (DataSourceProxyConfig) are seen. Tests can
+ * also take a {@link SqlStatementStats} parameter to assert on the numbers directly.
+ */
+public class SqlStatementCounterExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback,
+        ParameterResolver {
+
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(SqlStatementCounterExtension.class);
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        context.getStore(NAMESPACE).put(context.getUniqueId(), SqlStatementCounter.open());
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        SqlStatementStats stats = context.getStore(NAMESPACE).remove(context.getUniqueId(), SqlStatementStats.class);
+        if (stats == null) {
+            return;
+        }
+        SqlStatementCounter.close(stats);
+
+        Optional<SqlStatementBudget> budget = AnnotationSupport.findAnnotation(context.getElement(), SqlStatementBudget.class)
+                .or(() -> AnnotationSupport.findAnnotation(context.getRequiredTestClass(), SqlStatementBudget.class));
+        if (budget.isEmpty() || context.getExecutionException().isPresent()) {
+            return;
+        }
+
+        assertTrue(stats.getStatements() <= budget.get().value(),
+                () -> "Expected at most " + budget.get().value() + " SQL statements but ran "
+                        + stats.getStatements() + ": " + stats.getShapes());
+        assertTrue(stats.getMaxRepeated() <= budget.get().maxRepeated(),
+                () -> "Expected no statement to repeat more than " + budget.get().maxRepeated()
+                        + " times but ran " + stats.getMaxRepeated() + " times: " + stats.getMostRepeatedShape());
+    }
+
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return parameterContext.getParameter().getType() == SqlStatementStats.class;
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return extensionContext.getStore(NAMESPACE).get(extensionContext.getUniqueId(), SqlStatementStats.class);
+    }
+}
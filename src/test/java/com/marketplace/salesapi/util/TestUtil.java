@@ -1,6 +1,7 @@
 package com.marketplace.salesapi.util;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marketplace.salesapi.common.model.Money;
 import com.marketplace.salesapi.order.model.Order;
 import com.marketplace.salesapi.order.model.OrderStatus;
 import com.marketplace.salesapi.product.model.Product;
@@ -11,7 +12,6 @@ import com.marketplace.salesapi.user.model.ERole;
 import com.marketplace.salesapi.user.model.Role;
 import com.marketplace.salesapi.user.model.User;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
@@ -57,7 +57,7 @@ public class TestUtil {
         product.setName("Test Product");
         product.setDescription("Product for testing");
         product.setSku("TEST-SKU-123");
-        product.setPrice(new BigDecimal("99.99"));
+        product.setPrice(Money.of("99.99"));
         product.setStockQuantity(100);
         product.setStatus(ProductStatus.ACTIVE);
         product.setStore(store);
@@ -71,9 +71,9 @@ public class TestUtil {
         order.setStatus(OrderStatus.PENDING);
         order.setCreatedAt(LocalDateTime.now());
         order.setUpdatedAt(LocalDateTime.now());
-        order.setSubtotal(new BigDecimal("199.98"));
-        order.setTotal(new BigDecimal("214.98"));
-        order.setShippingCost(new BigDecimal("15.00"));
+        order.setSubtotal(Money.of("199.98"));
+        order.setTotal(Money.of("214.98"));
+        order.setShippingCost(Money.of("15.00"));
         return order;
     }
 } 
\ No newline at end of file